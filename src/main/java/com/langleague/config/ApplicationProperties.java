@@ -13,6 +13,14 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
     private final OAuth2 oauth2 = new OAuth2();
+    private final Stats stats = new Stats();
+    private final Events events = new Events();
+    private final Progress progress = new Progress();
+    private final Sessions sessions = new Sessions();
+
+    private final Sync sync = new Sync();
+
+    private final Bundles bundles = new Bundles();
 
     // jhipster-needle-application-properties-property
 
@@ -24,6 +32,30 @@ public class ApplicationProperties {
         return oauth2;
     }
 
+    public Stats getStats() {
+        return stats;
+    }
+
+    public Events getEvents() {
+        return events;
+    }
+
+    public Progress getProgress() {
+        return progress;
+    }
+
+    public Sessions getSessions() {
+        return sessions;
+    }
+
+    public Sync getSync() {
+        return sync;
+    }
+
+    public Bundles getBundles() {
+        return bundles;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -51,5 +83,163 @@ public class ApplicationProperties {
             this.frontendUrl = frontendUrl;
         }
     }
+
+    public static class Stats {
+
+        private long platformCacheTtlSeconds = 60;
+
+        public long getPlatformCacheTtlSeconds() {
+            return platformCacheTtlSeconds;
+        }
+
+        public void setPlatformCacheTtlSeconds(long platformCacheTtlSeconds) {
+            this.platformCacheTtlSeconds = platformCacheTtlSeconds;
+        }
+    }
+
+    public static class Events {
+
+        private int bufferCapacity = 16384;
+
+        private int batchSize = 500;
+
+        public int getBufferCapacity() {
+            return bufferCapacity;
+        }
+
+        public void setBufferCapacity(int bufferCapacity) {
+            this.bufferCapacity = bufferCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Progress {
+
+        private long flushIntervalMs = 1000;
+
+        private int flushThreshold = 1000;
+
+        private int batchSize = 500;
+
+        private int snapshotCacheSize = 1000;
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public int getFlushThreshold() {
+            return flushThreshold;
+        }
+
+        public void setFlushThreshold(int flushThreshold) {
+            this.flushThreshold = flushThreshold;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getSnapshotCacheSize() {
+            return snapshotCacheSize;
+        }
+
+        public void setSnapshotCacheSize(int snapshotCacheSize) {
+            this.snapshotCacheSize = snapshotCacheSize;
+        }
+    }
+
+    public static class Sessions {
+
+        private long idleTimeoutSeconds = 300;
+
+        private long maxDurationMinutes = 240;
+
+        private long sweepIntervalMs = 60_000;
+
+        public long getIdleTimeoutSeconds() {
+            return idleTimeoutSeconds;
+        }
+
+        public void setIdleTimeoutSeconds(long idleTimeoutSeconds) {
+            this.idleTimeoutSeconds = idleTimeoutSeconds;
+        }
+
+        public long getMaxDurationMinutes() {
+            return maxDurationMinutes;
+        }
+
+        public void setMaxDurationMinutes(long maxDurationMinutes) {
+            this.maxDurationMinutes = maxDurationMinutes;
+        }
+
+        public long getSweepIntervalMs() {
+            return sweepIntervalMs;
+        }
+
+        public void setSweepIntervalMs(long sweepIntervalMs) {
+            this.sweepIntervalMs = sweepIntervalMs;
+        }
+    }
+
+    public static class Sync {
+
+        private int pageSize = 1000;
+
+        private long settleMs = 5000;
+
+        private long compactionIntervalMs = 600000;
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        public long getSettleMs() {
+            return settleMs;
+        }
+
+        public void setSettleMs(long settleMs) {
+            this.settleMs = settleMs;
+        }
+
+        public long getCompactionIntervalMs() {
+            return compactionIntervalMs;
+        }
+
+        public void setCompactionIntervalMs(long compactionIntervalMs) {
+            this.compactionIntervalMs = compactionIntervalMs;
+        }
+    }
+
+    public static class Bundles {
+
+        private String directory = "data/lesson-bundles";
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
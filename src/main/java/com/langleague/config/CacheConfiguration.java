@@ -22,8 +22,9 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final javax.cache.configuration.Configuration<Object, Object> platformStatsConfiguration;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
 
         jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
@@ -35,6 +36,16 @@ public class CacheConfiguration {
                 .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
                 .build()
         );
+        // Platform-wide statistics are served stale for at most this long
+        platformStatsConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(100))
+                .withExpiry(
+                    ExpiryPolicyBuilder.timeToLiveExpiration(
+                        Duration.ofSeconds(applicationProperties.getStats().getPlatformCacheTtlSeconds())
+                    )
+                )
+                .build()
+        );
     }
 
     @Bean
@@ -51,6 +62,9 @@ public class CacheConfiguration {
             createCache(cm, com.langleague.domain.Authority.class.getName());
             createCache(cm, com.langleague.domain.User.class.getName() + ".authorities");
             createCache(cm, com.langleague.domain.AppUser.class.getName());
+            createCache(cm, com.langleague.repository.AppUserRepository.APP_USER_IDS_BY_LOGIN_CACHE);
+            createCache(cm, com.langleague.repository.AppUserRepository.USER_LOGINS_BY_APP_USER_ID_CACHE);
+            createCache(cm, com.langleague.repository.AppUserRepository.APP_USER_COUNT_CACHE, platformStatsConfiguration);
             createCache(cm, com.langleague.domain.AppUser.class.getName() + ".comments");
             createCache(cm, com.langleague.domain.AppUser.class.getName() + ".exerciseResults");
             createCache(cm, com.langleague.domain.AppUser.class.getName() + ".userProgresses");
@@ -101,16 +115,26 @@ public class CacheConfiguration {
             createCache(cm, com.langleague.domain.StudySession.class.getName() + ".streakMilestones");
             createCache(cm, com.langleague.domain.StreakIcon.class.getName());
             createCache(cm, com.langleague.domain.StreakMilestone.class.getName());
+            createCache(cm, com.langleague.service.StudySessionService.PLATFORM_STATS_CACHE, platformStatsConfiguration);
+            createCache(cm, com.langleague.service.LessonDetailService.LESSON_DETAILS_CACHE);
             // jhipster-needle-ehcache-add-entry
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, jcacheConfiguration);
+    }
+
+    private void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, configuration);
         }
     }
 
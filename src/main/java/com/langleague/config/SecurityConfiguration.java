@@ -4,6 +4,8 @@ import static org.springframework.security.config.Customizer.withDefaults;
 
 import com.langleague.security.*;
 import com.langleague.security.OAuth2AuthenticationSuccessHandler;
+import com.langleague.service.VisitAnalyticsService;
+import com.langleague.web.filter.VisitTrackingFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,6 +16,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
 import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
@@ -27,15 +30,18 @@ public class SecurityConfiguration {
     private final JHipsterProperties jHipsterProperties;
     private final CustomOAuth2UserService customOAuth2UserService;
     private final OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
+    private final VisitAnalyticsService visitAnalyticsService;
 
     public SecurityConfiguration(
         JHipsterProperties jHipsterProperties,
         CustomOAuth2UserService customOAuth2UserService,
-        OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler
+        OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler,
+        VisitAnalyticsService visitAnalyticsService
     ) {
         this.jHipsterProperties = jHipsterProperties;
         this.customOAuth2UserService = customOAuth2UserService;
         this.oAuth2AuthenticationSuccessHandler = oAuth2AuthenticationSuccessHandler;
+        this.visitAnalyticsService = visitAnalyticsService;
     }
 
     @Bean
@@ -47,6 +53,8 @@ public class SecurityConfiguration {
             .csrf(csrf -> csrf.disable())
             // JWT filter (optional, validation is done by oauth2ResourceServer)
             .addFilterBefore(new JWTFilter(), BasicAuthenticationFilter.class)
+            // Visit analytics, once the principal is known
+            .addFilterAfter(new VisitTrackingFilter(visitAnalyticsService), AuthorizationFilter.class)
             // Security headers
             .headers(headers ->
                 headers
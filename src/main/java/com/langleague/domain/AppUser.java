@@ -37,6 +37,10 @@ public class AppUser implements Serializable {
     @Column(name = "bio")
     private String bio;
 
+    @Size(max = 64)
+    @Column(name = "time_zone", length = 64)
+    private String timeZone;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", unique = true)
     @JsonIgnoreProperties(
@@ -112,6 +116,19 @@ public class AppUser implements Serializable {
         this.bio = bio;
     }
 
+    public String getTimeZone() {
+        return this.timeZone;
+    }
+
+    public AppUser timeZone(String timeZone) {
+        this.setTimeZone(timeZone);
+        return this;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -139,6 +156,7 @@ public class AppUser implements Serializable {
             ", displayName='" + getDisplayName() + "'" +
             ", avatarUrl='" + getAvatarUrl() + "'" +
             ", bio='" + getBio() + "'" +
+            ", timeZone='" + getTimeZone() + "'" +
             "}";
     }
 }
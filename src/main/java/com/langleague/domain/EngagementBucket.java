@@ -0,0 +1,197 @@
+package com.langleague.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Engagement counters of one hour, starting at {@code bucketStart} (UTC).
+ * <p>
+ * The users active during the hour are kept as a serialized {@link com.langleague.service.analytics.HyperLogLog}
+ * sketch, so that the active users of a day or a month are obtained by merging hourly sketches.
+ */
+@Entity
+@Table(name = "engagement_bucket")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class EngagementBucket implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "bucket_start")
+    private Instant bucketStart;
+
+    @Column(name = "video_views", nullable = false)
+    private Long videoViews = 0L;
+
+    @Column(name = "quizzes_attempted", nullable = false)
+    private Long quizzesAttempted = 0L;
+
+    @Column(name = "quiz_score_sum", nullable = false)
+    private Double quizScoreSum = 0.0;
+
+    @Column(name = "comments_posted", nullable = false)
+    private Long commentsPosted = 0L;
+
+    @Column(name = "sessions_started", nullable = false)
+    private Long sessionsStarted = 0L;
+
+    @Column(name = "sessions_completed", nullable = false)
+    private Long sessionsCompleted = 0L;
+
+    @Lob
+    @Column(name = "active_user_sketch")
+    private byte[] activeUserSketch;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public Instant getBucketStart() {
+        return this.bucketStart;
+    }
+
+    public EngagementBucket bucketStart(Instant bucketStart) {
+        this.setBucketStart(bucketStart);
+        return this;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getVideoViews() {
+        return this.videoViews;
+    }
+
+    public EngagementBucket videoViews(Long videoViews) {
+        this.setVideoViews(videoViews);
+        return this;
+    }
+
+    public void setVideoViews(Long videoViews) {
+        this.videoViews = videoViews;
+    }
+
+    public Long getQuizzesAttempted() {
+        return this.quizzesAttempted;
+    }
+
+    public EngagementBucket quizzesAttempted(Long quizzesAttempted) {
+        this.setQuizzesAttempted(quizzesAttempted);
+        return this;
+    }
+
+    public void setQuizzesAttempted(Long quizzesAttempted) {
+        this.quizzesAttempted = quizzesAttempted;
+    }
+
+    public Double getQuizScoreSum() {
+        return this.quizScoreSum;
+    }
+
+    public EngagementBucket quizScoreSum(Double quizScoreSum) {
+        this.setQuizScoreSum(quizScoreSum);
+        return this;
+    }
+
+    public void setQuizScoreSum(Double quizScoreSum) {
+        this.quizScoreSum = quizScoreSum;
+    }
+
+    public Long getCommentsPosted() {
+        return this.commentsPosted;
+    }
+
+    public EngagementBucket commentsPosted(Long commentsPosted) {
+        this.setCommentsPosted(commentsPosted);
+        return this;
+    }
+
+    public void setCommentsPosted(Long commentsPosted) {
+        this.commentsPosted = commentsPosted;
+    }
+
+    public Long getSessionsStarted() {
+        return this.sessionsStarted;
+    }
+
+    public EngagementBucket sessionsStarted(Long sessionsStarted) {
+        this.setSessionsStarted(sessionsStarted);
+        return this;
+    }
+
+    public void setSessionsStarted(Long sessionsStarted) {
+        this.sessionsStarted = sessionsStarted;
+    }
+
+    public Long getSessionsCompleted() {
+        return this.sessionsCompleted;
+    }
+
+    public EngagementBucket sessionsCompleted(Long sessionsCompleted) {
+        this.setSessionsCompleted(sessionsCompleted);
+        return this;
+    }
+
+    public void setSessionsCompleted(Long sessionsCompleted) {
+        this.sessionsCompleted = sessionsCompleted;
+    }
+
+    public byte[] getActiveUserSketch() {
+        return this.activeUserSketch;
+    }
+
+    public EngagementBucket activeUserSketch(byte[] activeUserSketch) {
+        this.setActiveUserSketch(activeUserSketch);
+        return this;
+    }
+
+    public void setActiveUserSketch(byte[] activeUserSketch) {
+        this.activeUserSketch = activeUserSketch;
+    }
+
+    public Instant getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    public EngagementBucket updatedAt(Instant updatedAt) {
+        this.setUpdatedAt(updatedAt);
+        return this;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EngagementBucket)) {
+            return false;
+        }
+        return getBucketStart() != null && getBucketStart().equals(((EngagementBucket) o).getBucketStart());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EngagementBucket{" +
+            "bucketStart='" + getBucketStart() + "'" +
+            ", videoViews=" + getVideoViews() +
+            ", quizzesAttempted=" + getQuizzesAttempted() +
+            ", quizScoreSum=" + getQuizScoreSum() +
+            ", commentsPosted=" + getCommentsPosted() +
+            ", sessionsStarted=" + getSessionsStarted() +
+            ", sessionsCompleted=" + getSessionsCompleted() +
+            ", updatedAt='" + getUpdatedAt() + "'" +
+            "}";
+    }
+}
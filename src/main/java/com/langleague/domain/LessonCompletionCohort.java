@@ -0,0 +1,215 @@
+package com.langleague.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Completion cohort of one {@link Lesson}: how many learners have started and completed it.
+ * <p>
+ * Rows are denormalized with the chapter, book and level of the lesson so that completion statistics can be
+ * drilled down by grouping this small table, without joining every {@link UserProgress} row. They are
+ * recomputed every night and patched whenever a progress row changes.
+ */
+@Entity
+@Table(name = "lesson_completion_cohort")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class LessonCompletionCohort implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "lesson_id")
+    private Long lessonId;
+
+    @Column(name = "chapter_id")
+    private Long chapterId;
+
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "level", length = 50)
+    private String level;
+
+    @Column(name = "learners", nullable = false)
+    private Long learners = 0L;
+
+    @Column(name = "in_progress", nullable = false)
+    private Long inProgress = 0L;
+
+    @Column(name = "completed", nullable = false)
+    private Long completed = 0L;
+
+    @Column(name = "percent_sum", nullable = false)
+    private Long percentSum = 0L;
+
+    @Column(name = "refreshed_at")
+    private Instant refreshedAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public Long getLessonId() {
+        return this.lessonId;
+    }
+
+    public LessonCompletionCohort lessonId(Long lessonId) {
+        this.setLessonId(lessonId);
+        return this;
+    }
+
+    public void setLessonId(Long lessonId) {
+        this.lessonId = lessonId;
+    }
+
+    public Long getChapterId() {
+        return this.chapterId;
+    }
+
+    public LessonCompletionCohort chapterId(Long chapterId) {
+        this.setChapterId(chapterId);
+        return this;
+    }
+
+    public void setChapterId(Long chapterId) {
+        this.chapterId = chapterId;
+    }
+
+    public Long getBookId() {
+        return this.bookId;
+    }
+
+    public LessonCompletionCohort bookId(Long bookId) {
+        this.setBookId(bookId);
+        return this;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getLevel() {
+        return this.level;
+    }
+
+    public LessonCompletionCohort level(String level) {
+        this.setLevel(level);
+        return this;
+    }
+
+    public void setLevel(String level) {
+        this.level = level;
+    }
+
+    public Long getLearners() {
+        return this.learners;
+    }
+
+    public LessonCompletionCohort learners(Long learners) {
+        this.setLearners(learners);
+        return this;
+    }
+
+    public void setLearners(Long learners) {
+        this.learners = learners;
+    }
+
+    public Long getInProgress() {
+        return this.inProgress;
+    }
+
+    public LessonCompletionCohort inProgress(Long inProgress) {
+        this.setInProgress(inProgress);
+        return this;
+    }
+
+    public void setInProgress(Long inProgress) {
+        this.inProgress = inProgress;
+    }
+
+    public Long getCompleted() {
+        return this.completed;
+    }
+
+    public LessonCompletionCohort completed(Long completed) {
+        this.setCompleted(completed);
+        return this;
+    }
+
+    public void setCompleted(Long completed) {
+        this.completed = completed;
+    }
+
+    public Long getPercentSum() {
+        return this.percentSum;
+    }
+
+    public LessonCompletionCohort percentSum(Long percentSum) {
+        this.setPercentSum(percentSum);
+        return this;
+    }
+
+    public void setPercentSum(Long percentSum) {
+        this.percentSum = percentSum;
+    }
+
+    public Instant getRefreshedAt() {
+        return this.refreshedAt;
+    }
+
+    public LessonCompletionCohort refreshedAt(Instant refreshedAt) {
+        this.setRefreshedAt(refreshedAt);
+        return this;
+    }
+
+    public void setRefreshedAt(Instant refreshedAt) {
+        this.refreshedAt = refreshedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    public LessonCompletionCohort updatedAt(Instant updatedAt) {
+        this.setUpdatedAt(updatedAt);
+        return this;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LessonCompletionCohort)) {
+            return false;
+        }
+        return getLessonId() != null && getLessonId().equals(((LessonCompletionCohort) o).getLessonId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LessonCompletionCohort{" +
+            "lessonId=" + getLessonId() +
+            ", chapterId=" + getChapterId() +
+            ", bookId=" + getBookId() +
+            ", level='" + getLevel() + "'" +
+            ", learners=" + getLearners() +
+            ", inProgress=" + getInProgress() +
+            ", completed=" + getCompleted() +
+            ", percentSum=" + getPercentSum() +
+            ", refreshedAt='" + getRefreshedAt() + "'" +
+            ", updatedAt='" + getUpdatedAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,161 @@
+package com.langleague.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Daily study-time bucket of a {@link User}.
+ * <p>
+ * One row per (user, day), where the day is taken in the user's own time zone. Completed
+ * {@link StudySession}s are added to their bucket(s) when they complete, so that weekly, monthly
+ * and yearly charts read at most 366 small rows.
+ */
+@Entity
+@Table(name = "study_day_rollup")
+@IdClass(StudyDayRollup.StudyDayRollupId.class)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class StudyDayRollup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "study_day")
+    private LocalDate studyDay;
+
+    @Column(name = "study_seconds", nullable = false)
+    private Long studySeconds = 0L;
+
+    @Column(name = "session_count", nullable = false)
+    private Integer sessionCount = 0;
+
+    public Long getUserId() {
+        return this.userId;
+    }
+
+    public StudyDayRollup userId(Long userId) {
+        this.setUserId(userId);
+        return this;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getStudyDay() {
+        return this.studyDay;
+    }
+
+    public StudyDayRollup studyDay(LocalDate studyDay) {
+        this.setStudyDay(studyDay);
+        return this;
+    }
+
+    public void setStudyDay(LocalDate studyDay) {
+        this.studyDay = studyDay;
+    }
+
+    public Long getStudySeconds() {
+        return this.studySeconds;
+    }
+
+    public StudyDayRollup studySeconds(Long studySeconds) {
+        this.setStudySeconds(studySeconds);
+        return this;
+    }
+
+    public void setStudySeconds(Long studySeconds) {
+        this.studySeconds = studySeconds;
+    }
+
+    public Integer getSessionCount() {
+        return this.sessionCount;
+    }
+
+    public StudyDayRollup sessionCount(Integer sessionCount) {
+        this.setSessionCount(sessionCount);
+        return this;
+    }
+
+    public void setSessionCount(Integer sessionCount) {
+        this.sessionCount = sessionCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StudyDayRollup)) {
+            return false;
+        }
+        StudyDayRollup other = (StudyDayRollup) o;
+        return getUserId() != null && getUserId().equals(other.getUserId()) && Objects.equals(getStudyDay(), other.getStudyDay());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "StudyDayRollup{" +
+            "userId=" + getUserId() +
+            ", studyDay='" + getStudyDay() + "'" +
+            ", studySeconds=" + getStudySeconds() +
+            ", sessionCount=" + getSessionCount() +
+            "}";
+    }
+
+    /**
+     * Composite primary key of {@link StudyDayRollup}.
+     */
+    public static class StudyDayRollupId implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long userId;
+
+        private LocalDate studyDay;
+
+        public StudyDayRollupId() {}
+
+        public StudyDayRollupId(Long userId, LocalDate studyDay) {
+            this.userId = userId;
+            this.studyDay = studyDay;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public LocalDate getStudyDay() {
+            return studyDay;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StudyDayRollupId)) {
+                return false;
+            }
+            StudyDayRollupId other = (StudyDayRollupId) o;
+            return Objects.equals(userId, other.userId) && Objects.equals(studyDay, other.studyDay);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, studyDay);
+        }
+    }
+}
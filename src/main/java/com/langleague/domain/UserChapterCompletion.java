@@ -0,0 +1,174 @@
+package com.langleague.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Per-user completion rollup of one {@link Chapter}: how many of its lessons the user has completed.
+ * <p>
+ * Rows are denormalized with the book of the chapter, so that the completion of a user by chapter and by book is
+ * read with one lookup on the user. They are patched whenever a progress row crosses 100%, with native upserts,
+ * hence no second-level cache on this entity, and recomputed every night.
+ */
+@Entity
+@Table(name = "user_chapter_completion")
+@IdClass(UserChapterCompletion.UserChapterCompletionId.class)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class UserChapterCompletion implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "app_user_id")
+    private Long appUserId;
+
+    @Id
+    @Column(name = "chapter_id")
+    private Long chapterId;
+
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "completed_lessons", nullable = false)
+    private Integer completedLessons = 0;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public Long getAppUserId() {
+        return this.appUserId;
+    }
+
+    public UserChapterCompletion appUserId(Long appUserId) {
+        this.setAppUserId(appUserId);
+        return this;
+    }
+
+    public void setAppUserId(Long appUserId) {
+        this.appUserId = appUserId;
+    }
+
+    public Long getChapterId() {
+        return this.chapterId;
+    }
+
+    public UserChapterCompletion chapterId(Long chapterId) {
+        this.setChapterId(chapterId);
+        return this;
+    }
+
+    public void setChapterId(Long chapterId) {
+        this.chapterId = chapterId;
+    }
+
+    public Long getBookId() {
+        return this.bookId;
+    }
+
+    public UserChapterCompletion bookId(Long bookId) {
+        this.setBookId(bookId);
+        return this;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public Integer getCompletedLessons() {
+        return this.completedLessons;
+    }
+
+    public UserChapterCompletion completedLessons(Integer completedLessons) {
+        this.setCompletedLessons(completedLessons);
+        return this;
+    }
+
+    public void setCompletedLessons(Integer completedLessons) {
+        this.completedLessons = completedLessons;
+    }
+
+    public Instant getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    public UserChapterCompletion updatedAt(Instant updatedAt) {
+        this.setUpdatedAt(updatedAt);
+        return this;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UserChapterCompletion)) {
+            return false;
+        }
+        UserChapterCompletion other = (UserChapterCompletion) o;
+        return (
+            getAppUserId() != null &&
+            getAppUserId().equals(other.getAppUserId()) &&
+            Objects.equals(getChapterId(), other.getChapterId())
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserChapterCompletion{" +
+            "appUserId=" + getAppUserId() +
+            ", chapterId=" + getChapterId() +
+            ", bookId=" + getBookId() +
+            ", completedLessons=" + getCompletedLessons() +
+            ", updatedAt='" + getUpdatedAt() + "'" +
+            "}";
+    }
+
+    /**
+     * Primary key of a {@link UserChapterCompletion}.
+     */
+    public static class UserChapterCompletionId implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long appUserId;
+
+        private Long chapterId;
+
+        public UserChapterCompletionId() {}
+
+        public UserChapterCompletionId(Long appUserId, Long chapterId) {
+            this.appUserId = appUserId;
+            this.chapterId = chapterId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof UserChapterCompletionId)) {
+                return false;
+            }
+            UserChapterCompletionId other = (UserChapterCompletionId) o;
+            return Objects.equals(appUserId, other.appUserId) && Objects.equals(chapterId, other.chapterId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(appUserId, chapterId);
+        }
+    }
+}
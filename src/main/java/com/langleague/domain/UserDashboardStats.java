@@ -0,0 +1,165 @@
+package com.langleague.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Per-user dashboard statistics read model.
+ * <p>
+ * One row per {@link AppUser}, maintained incrementally by the services that write
+ * {@link UserProgress}, {@link UserVocabulary}, {@link ExerciseResult} and {@link LearningStreak},
+ * so that the dashboard is served by a single primary-key lookup.
+ * Rows are written with native upserts, hence no second-level cache on this entity.
+ */
+@Entity
+@Table(name = "user_dashboard_stats")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class UserDashboardStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "app_user_id")
+    private Long appUserId;
+
+    @Column(name = "words_learned", nullable = false)
+    private Integer wordsLearned = 0;
+
+    @Column(name = "quizzes_completed", nullable = false)
+    private Integer quizzesCompleted = 0;
+
+    @Column(name = "lessons_completed", nullable = false)
+    private Integer lessonsCompleted = 0;
+
+    @Column(name = "current_streak", nullable = false)
+    private Integer currentStreak = 0;
+
+    @Column(name = "longest_streak", nullable = false)
+    private Integer longestStreak = 0;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public Long getAppUserId() {
+        return this.appUserId;
+    }
+
+    public UserDashboardStats appUserId(Long appUserId) {
+        this.setAppUserId(appUserId);
+        return this;
+    }
+
+    public void setAppUserId(Long appUserId) {
+        this.appUserId = appUserId;
+    }
+
+    public Integer getWordsLearned() {
+        return this.wordsLearned;
+    }
+
+    public UserDashboardStats wordsLearned(Integer wordsLearned) {
+        this.setWordsLearned(wordsLearned);
+        return this;
+    }
+
+    public void setWordsLearned(Integer wordsLearned) {
+        this.wordsLearned = wordsLearned;
+    }
+
+    public Integer getQuizzesCompleted() {
+        return this.quizzesCompleted;
+    }
+
+    public UserDashboardStats quizzesCompleted(Integer quizzesCompleted) {
+        this.setQuizzesCompleted(quizzesCompleted);
+        return this;
+    }
+
+    public void setQuizzesCompleted(Integer quizzesCompleted) {
+        this.quizzesCompleted = quizzesCompleted;
+    }
+
+    public Integer getLessonsCompleted() {
+        return this.lessonsCompleted;
+    }
+
+    public UserDashboardStats lessonsCompleted(Integer lessonsCompleted) {
+        this.setLessonsCompleted(lessonsCompleted);
+        return this;
+    }
+
+    public void setLessonsCompleted(Integer lessonsCompleted) {
+        this.lessonsCompleted = lessonsCompleted;
+    }
+
+    public Integer getCurrentStreak() {
+        return this.currentStreak;
+    }
+
+    public UserDashboardStats currentStreak(Integer currentStreak) {
+        this.setCurrentStreak(currentStreak);
+        return this;
+    }
+
+    public void setCurrentStreak(Integer currentStreak) {
+        this.currentStreak = currentStreak;
+    }
+
+    public Integer getLongestStreak() {
+        return this.longestStreak;
+    }
+
+    public UserDashboardStats longestStreak(Integer longestStreak) {
+        this.setLongestStreak(longestStreak);
+        return this;
+    }
+
+    public void setLongestStreak(Integer longestStreak) {
+        this.longestStreak = longestStreak;
+    }
+
+    public Instant getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    public UserDashboardStats updatedAt(Instant updatedAt) {
+        this.setUpdatedAt(updatedAt);
+        return this;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UserDashboardStats)) {
+            return false;
+        }
+        return getAppUserId() != null && getAppUserId().equals(((UserDashboardStats) o).getAppUserId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserDashboardStats{" +
+            "appUserId=" + getAppUserId() +
+            ", wordsLearned=" + getWordsLearned() +
+            ", quizzesCompleted=" + getQuizzesCompleted() +
+            ", lessonsCompleted=" + getLessonsCompleted() +
+            ", currentStreak=" + getCurrentStreak() +
+            ", longestStreak=" + getLongestStreak() +
+            ", updatedAt='" + getUpdatedAt() + "'" +
+            "}";
+    }
+}
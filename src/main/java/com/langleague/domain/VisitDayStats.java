@@ -0,0 +1,148 @@
+package com.langleague.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Visit counters of one UTC day.
+ * <p>
+ * Unique visitors and unique authenticated users are kept as serialized
+ * {@link com.langleague.service.analytics.HyperLogLog} sketches, so that the uniques of any range of days
+ * are obtained by merging the daily sketches.
+ */
+@Entity
+@Table(name = "visit_day_stats")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class VisitDayStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "visit_day")
+    private LocalDate visitDay;
+
+    @Column(name = "hits", nullable = false)
+    private Long hits = 0L;
+
+    @Column(name = "authenticated_hits", nullable = false)
+    private Long authenticatedHits = 0L;
+
+    @Lob
+    @Column(name = "visitor_sketch")
+    private byte[] visitorSketch;
+
+    @Lob
+    @Column(name = "user_sketch")
+    private byte[] userSketch;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public LocalDate getVisitDay() {
+        return this.visitDay;
+    }
+
+    public VisitDayStats visitDay(LocalDate visitDay) {
+        this.setVisitDay(visitDay);
+        return this;
+    }
+
+    public void setVisitDay(LocalDate visitDay) {
+        this.visitDay = visitDay;
+    }
+
+    public Long getHits() {
+        return this.hits;
+    }
+
+    public VisitDayStats hits(Long hits) {
+        this.setHits(hits);
+        return this;
+    }
+
+    public void setHits(Long hits) {
+        this.hits = hits;
+    }
+
+    public Long getAuthenticatedHits() {
+        return this.authenticatedHits;
+    }
+
+    public VisitDayStats authenticatedHits(Long authenticatedHits) {
+        this.setAuthenticatedHits(authenticatedHits);
+        return this;
+    }
+
+    public void setAuthenticatedHits(Long authenticatedHits) {
+        this.authenticatedHits = authenticatedHits;
+    }
+
+    public byte[] getVisitorSketch() {
+        return this.visitorSketch;
+    }
+
+    public VisitDayStats visitorSketch(byte[] visitorSketch) {
+        this.setVisitorSketch(visitorSketch);
+        return this;
+    }
+
+    public void setVisitorSketch(byte[] visitorSketch) {
+        this.visitorSketch = visitorSketch;
+    }
+
+    public byte[] getUserSketch() {
+        return this.userSketch;
+    }
+
+    public VisitDayStats userSketch(byte[] userSketch) {
+        this.setUserSketch(userSketch);
+        return this;
+    }
+
+    public void setUserSketch(byte[] userSketch) {
+        this.userSketch = userSketch;
+    }
+
+    public Instant getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    public VisitDayStats updatedAt(Instant updatedAt) {
+        this.setUpdatedAt(updatedAt);
+        return this;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VisitDayStats)) {
+            return false;
+        }
+        return getVisitDay() != null && getVisitDay().equals(((VisitDayStats) o).getVisitDay());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "VisitDayStats{" +
+            "visitDay='" + getVisitDay() + "'" +
+            ", hits=" + getHits() +
+            ", authenticatedHits=" + getAuthenticatedHits() +
+            ", updatedAt='" + getUpdatedAt() + "'" +
+            "}";
+    }
+}
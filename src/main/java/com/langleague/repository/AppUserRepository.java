@@ -1,8 +1,13 @@
 package com.langleague.repository;
 
 import com.langleague.domain.AppUser;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,7 +16,64 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+    String APP_USER_IDS_BY_LOGIN_CACHE = "appUserIdsByLogin";
+
+    String USER_LOGINS_BY_APP_USER_ID_CACHE = "userLoginsByAppUserId";
+
+    String APP_USER_COUNT_CACHE = "appUserCount";
+
     Optional<AppUser> findByUser_Login(String login);
 
     Optional<AppUser> findByUserId(Long userId);
+
+    @Query("SELECT a.id FROM AppUser a WHERE a.user.login = :login")
+    @Cacheable(cacheNames = APP_USER_IDS_BY_LOGIN_CACHE, unless = "#result == null")
+    Optional<Long> findIdByUserLogin(@Param("login") String login);
+
+    @Query("SELECT a.user.login FROM AppUser a WHERE a.id = :id")
+    @Cacheable(cacheNames = USER_LOGINS_BY_APP_USER_ID_CACHE, unless = "#result == null")
+    Optional<String> findUserLoginById(@Param("id") Long id);
+
+    /**
+     * The number of app users, cached like the platform-wide statistics for
+     * {@code application.stats.platform-cache-ttl-seconds}.
+     */
+    @Query("SELECT COUNT(a) FROM AppUser a")
+    @Cacheable(cacheNames = APP_USER_COUNT_CACHE)
+    long countAppUsers();
+
+    /**
+     * Walk the app_user ids in ascending order, one chunk at a time, for batch jobs.
+     */
+    @Query("SELECT a.id FROM AppUser a WHERE a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT a.timeZone FROM AppUser a WHERE a.user.id = :userId")
+    Optional<String> findTimeZoneByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT a.user.id AS userId, a.timeZone AS timeZone FROM AppUser a WHERE a.user.id IN :userIds")
+    List<UserTimeZone> findTimeZonesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT a.id AS id, a.displayName AS displayName, u.login AS login FROM AppUser a LEFT JOIN a.user u WHERE a.id IN :ids")
+    List<AppUserName> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Projection of the time zone preference of a user.
+     */
+    interface UserTimeZone {
+        Long getUserId();
+
+        String getTimeZone();
+    }
+
+    /**
+     * Projection of the names a user is displayed with.
+     */
+    interface AppUserName {
+        Long getId();
+
+        String getDisplayName();
+
+        String getLogin();
+    }
 }
@@ -0,0 +1,25 @@
+package com.langleague.repository;
+
+import com.langleague.domain.EngagementBucket;
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the EngagementBucket entity.
+ */
+@Repository
+public interface EngagementBucketRepository extends JpaRepository<EngagementBucket, Instant> {
+    /**
+     * Lock the row of an hour, so that instances flushing concurrently merge their sketches instead of overwriting them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EngagementBucket e WHERE e.bucketStart = :bucketStart")
+    Optional<EngagementBucket> findByIdForUpdate(@Param("bucketStart") Instant bucketStart);
+
+    List<EngagementBucket> findByBucketStartGreaterThanEqual(Instant from);
+}
@@ -1,7 +1,11 @@
 package com.langleague.repository;
 
 import com.langleague.domain.ExerciseResult;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +13,32 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ExerciseResultRepository extends JpaRepository<ExerciseResult, Long> {}
+public interface ExerciseResultRepository extends JpaRepository<ExerciseResult, Long> {
+    List<ExerciseResult> findByAppUserId(Long appUserId);
+
+    List<ExerciseResult> findByAppUserIdAndIdIn(Long appUserId, Collection<Long> ids);
+
+    /**
+     * Sum the scores of each user over the results submitted since {@code from}.
+     */
+    @Query(
+        "SELECT r.appUser.id AS appUserId, SUM(r.score) AS xp FROM ExerciseResult r " +
+        "WHERE r.score IS NOT NULL AND r.submittedAt >= :from GROUP BY r.appUser.id"
+    )
+    List<UserXp> sumScoresByAppUserSince(@Param("from") Instant from);
+
+    /**
+     * Sum the scores of each user over all results.
+     */
+    @Query("SELECT r.appUser.id AS appUserId, SUM(r.score) AS xp FROM ExerciseResult r WHERE r.score IS NOT NULL GROUP BY r.appUser.id")
+    List<UserXp> sumScoresByAppUser();
+
+    /**
+     * Projection of the XP of a user.
+     */
+    interface UserXp {
+        Long getAppUserId();
+
+        Long getXp();
+    }
+}
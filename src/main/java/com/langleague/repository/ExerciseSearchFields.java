@@ -0,0 +1,21 @@
+package com.langleague.repository;
+
+/**
+ * Projection of the fields of an exercise in the exercise search index, shared by the repositories of the exercises of
+ * every skill.
+ */
+public interface ExerciseSearchFields {
+    Long getId();
+
+    Long getLessonId();
+
+    /**
+     * @return the passage, transcript or prompt.
+     */
+    String getContent();
+
+    /**
+     * @return the question, target phrase or sample answer.
+     */
+    String getDetail();
+}
@@ -0,0 +1,187 @@
+package com.langleague.repository;
+
+import com.langleague.domain.LessonCompletionCohort;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the LessonCompletionCohort read model.
+ */
+@Repository
+public interface LessonCompletionCohortRepository extends JpaRepository<LessonCompletionCohort, Long> {
+    String FILTER = "WHERE (:bookId IS NULL OR c.book_id = :bookId) AND (:level IS NULL OR c.level = :level) ";
+
+    String FIGURES =
+        "COUNT(*) AS lessons, COALESCE(SUM(c.learners), 0) AS learners, COALESCE(SUM(c.in_progress), 0) AS inProgress, " +
+        "COALESCE(SUM(c.completed), 0) AS completed, COALESCE(SUM(c.percent_sum), 0) AS percentSum ";
+
+    /**
+     * Add the change of one progress row to the cohort of its lesson, creating the row from the catalog if needed.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO lesson_completion_cohort " +
+        "(lesson_id, chapter_id, book_id, level, learners, in_progress, completed, percent_sum, updated_at) " +
+        "SELECT l.id, l.chapter_id, ch.book_id, COALESCE(l.level, b.level), GREATEST(:learners, 0), GREATEST(:inProgress, 0), " +
+        "GREATEST(:completed, 0), GREATEST(:percentSum, 0), :now " +
+        "FROM lesson l LEFT JOIN chapter ch ON ch.id = l.chapter_id LEFT JOIN book b ON b.id = ch.book_id WHERE l.id = :lessonId " +
+        "ON DUPLICATE KEY UPDATE learners = GREATEST(learners + :learners, 0), " +
+        "in_progress = GREATEST(in_progress + :inProgress, 0), " +
+        "completed = GREATEST(completed + :completed, 0), percent_sum = GREATEST(percent_sum + :percentSum, 0), updated_at = :now",
+        nativeQuery = true
+    )
+    int addToCohort(
+        @Param("lessonId") Long lessonId,
+        @Param("learners") int learners,
+        @Param("inProgress") int inProgress,
+        @Param("completed") int completed,
+        @Param("percentSum") int percentSum,
+        @Param("now") Instant now
+    );
+
+    /**
+     * Create the cohort of a lesson if it is missing, and lock it until the end of the transaction: the writers adding
+     * to it wait for the refresh.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO lesson_completion_cohort (lesson_id, learners, in_progress, completed, percent_sum, updated_at) " +
+        "VALUES (:lessonId, 0, 0, 0, 0, :now) ON DUPLICATE KEY UPDATE lesson_id = lesson_id",
+        nativeQuery = true
+    )
+    int lockCohort(@Param("lessonId") Long lessonId, @Param("now") Instant now);
+
+    /**
+     * Count the progress of some lessons, with a plain read that takes no lock on {@code user_progress}.
+     */
+    @Query(
+        value = "SELECT l.id AS lessonId, l.chapter_id AS chapterId, ch.book_id AS bookId, COALESCE(l.level, b.level) AS level, " +
+        "COUNT(p.id) AS learners, COALESCE(SUM(CASE WHEN COALESCE(p.percent, 0) < 100 THEN 1 ELSE 0 END), 0) AS inProgress, " +
+        "COALESCE(SUM(CASE WHEN p.percent >= 100 THEN 1 ELSE 0 END), 0) AS completed, " +
+        "COALESCE(SUM(LEAST(GREATEST(COALESCE(p.percent, 0), 0), 100)), 0) AS percentSum " +
+        "FROM lesson l LEFT JOIN chapter ch ON ch.id = l.chapter_id LEFT JOIN book b ON b.id = ch.book_id " +
+        "LEFT JOIN user_progress p ON p.lesson_id = l.id WHERE l.id IN (:lessonIds) " +
+        "GROUP BY l.id, l.chapter_id, ch.book_id, l.level, b.level",
+        nativeQuery = true
+    )
+    List<CohortCounts> countProgress(@Param("lessonIds") Collection<Long> lessonIds);
+
+    /**
+     * Overwrite the cohort of a lesson with the counts of {@link #countProgress}.
+     */
+    @Modifying
+    @Query(
+        value = "UPDATE lesson_completion_cohort SET chapter_id = :chapterId, book_id = :bookId, level = :level, " +
+        "learners = :learners, in_progress = :inProgress, completed = :completed, percent_sum = :percentSum, " +
+        "refreshed_at = :now, updated_at = :now WHERE lesson_id = :lessonId",
+        nativeQuery = true
+    )
+    int refreshCohort(
+        @Param("lessonId") Long lessonId,
+        @Param("chapterId") Long chapterId,
+        @Param("bookId") Long bookId,
+        @Param("level") String level,
+        @Param("learners") long learners,
+        @Param("inProgress") long inProgress,
+        @Param("completed") long completed,
+        @Param("percentSum") long percentSum,
+        @Param("now") Instant now
+    );
+
+    @Query(
+        value = "SELECT " +
+        FIGURES +
+        ", MIN(c.refreshed_at) AS refreshedAt, MAX(c.updated_at) AS updatedAt FROM lesson_completion_cohort c " +
+        FILTER,
+        nativeQuery = true
+    )
+    CohortTotals sumCohorts(@Param("bookId") Long bookId, @Param("level") String level);
+
+    @Query(
+        value = "SELECT CAST(c.book_id AS CHAR) AS groupKey, b.title AS label, " +
+        FIGURES +
+        "FROM lesson_completion_cohort c LEFT JOIN book b ON b.id = c.book_id " +
+        FILTER +
+        "GROUP BY c.book_id, b.title ORDER BY b.title",
+        nativeQuery = true
+    )
+    List<CohortGroup> sumCohortsByBook(@Param("bookId") Long bookId, @Param("level") String level);
+
+    @Query(
+        value = "SELECT CAST(c.chapter_id AS CHAR) AS groupKey, ch.title AS label, " +
+        FIGURES +
+        "FROM lesson_completion_cohort c LEFT JOIN chapter ch ON ch.id = c.chapter_id " +
+        FILTER +
+        "GROUP BY c.chapter_id, ch.title, ch.order_index ORDER BY ch.order_index",
+        nativeQuery = true
+    )
+    List<CohortGroup> sumCohortsByChapter(@Param("bookId") Long bookId, @Param("level") String level);
+
+    @Query(
+        value = "SELECT c.level AS groupKey, c.level AS label, " +
+        FIGURES +
+        "FROM lesson_completion_cohort c " +
+        FILTER +
+        "GROUP BY c.level ORDER BY c.level",
+        nativeQuery = true
+    )
+    List<CohortGroup> sumCohortsByLevel(@Param("bookId") Long bookId, @Param("level") String level);
+
+    /**
+     * Projection of the progress counts of one lesson, with its place in the catalog.
+     */
+    interface CohortCounts {
+        Long getLessonId();
+
+        Long getChapterId();
+
+        Long getBookId();
+
+        String getLevel();
+
+        Long getLearners();
+
+        Long getInProgress();
+
+        Long getCompleted();
+
+        Long getPercentSum();
+    }
+
+    /**
+     * Projection of the sums of a set of lesson cohorts.
+     */
+    interface CohortFigures {
+        Long getLessons();
+
+        Long getLearners();
+
+        Long getInProgress();
+
+        Long getCompleted();
+
+        Long getPercentSum();
+    }
+
+    /**
+     * Projection of the sums of every selected lesson cohort, with their freshness.
+     */
+    interface CohortTotals extends CohortFigures {
+        Instant getRefreshedAt();
+
+        Instant getUpdatedAt();
+    }
+
+    /**
+     * Projection of the sums of the lesson cohorts of one book, chapter or level.
+     */
+    interface CohortGroup extends CohortFigures {
+        String getGroupKey();
+
+        String getLabel();
+    }
+}
@@ -1,6 +1,7 @@
 package com.langleague.repository;
 
 import com.langleague.domain.Lesson;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -21,11 +22,6 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
     @Query("SELECT l FROM Lesson l WHERE l.isPublished = true ORDER BY l.chapterEntity.orderIndex, l.orderIndex")
     Page<Lesson> findAllPublishedLessons(Pageable pageable);
 
-    @Query(
-        "SELECT l FROM Lesson l LEFT JOIN FETCH l.words w LEFT JOIN FETCH l.skills s LEFT JOIN FETCH l.listeningExercises le LEFT JOIN FETCH l.speakingExercises se WHERE l.id = :id"
-    )
-    Optional<Lesson> findByIdWithDetails(@Param("id") Long id);
-
     @Query(
         "SELECT l FROM Lesson l WHERE l.chapterEntity.id = :chapterId AND l.orderIndex > :currentOrderIndex AND l.isPublished = true ORDER BY l.orderIndex ASC"
     )
@@ -53,4 +49,42 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
 
     @Query("SELECT COUNT(l) FROM Lesson l WHERE l.chapterEntity.id = :chapterId AND l.isPublished = true")
     long countPublishedLessonsByChapter(@Param("chapterId") Long chapterId);
+
+    boolean existsByIdAndIsPublishedTrue(Long id);
+
+    /**
+     * Walk the lesson ids in ascending order, one chunk at a time, for batch jobs.
+     */
+    @Query("SELECT l.id FROM Lesson l WHERE l.id > :afterId ORDER BY l.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Search index: the indexed fields of every lesson, or of some
+    @Query(
+        "SELECT l.id AS id, l.title AS title, l.titleKorean AS titleKorean, l.description AS description, l.level AS level, " +
+        "l.isPublished AS isPublished FROM Lesson l"
+    )
+    List<LessonSearchFields> findAllSearchFields();
+
+    @Query(
+        "SELECT l.id AS id, l.title AS title, l.titleKorean AS titleKorean, l.description AS description, l.level AS level, " +
+        "l.isPublished AS isPublished FROM Lesson l WHERE l.id IN :ids"
+    )
+    List<LessonSearchFields> findSearchFieldsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Projection of the fields of a lesson in the search index.
+     */
+    interface LessonSearchFields {
+        Long getId();
+
+        String getTitle();
+
+        String getTitleKorean();
+
+        String getDescription();
+
+        String getLevel();
+
+        Boolean getIsPublished();
+    }
 }
@@ -1,7 +1,11 @@
 package com.langleague.repository;
 
+import com.langleague.domain.Lesson;
 import com.langleague.domain.LessonSkill;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +13,9 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface LessonSkillRepository extends JpaRepository<LessonSkill, Long> {}
+public interface LessonSkillRepository extends JpaRepository<LessonSkill, Long> {
+    List<LessonSkill> findByLessonIdOrderById(Long lessonId);
+
+    @Query("SELECT ls.lesson FROM LessonSkill ls WHERE ls.id = :id")
+    Optional<Lesson> findLessonById(@Param("id") Long id);
+}
@@ -1,8 +1,11 @@
 package com.langleague.repository;
 
 import com.langleague.domain.LessonWord;
+import com.langleague.domain.Word;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -12,4 +15,32 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface LessonWordRepository extends JpaRepository<LessonWord, Long> {
     List<LessonWord> findByLessonId(Long lessonId);
+
+    // Lesson detail: the words of a lesson, without their lesson words
+    @Query("SELECT w FROM LessonWord lw JOIN lw.word w WHERE lw.lesson.id = :lessonId ORDER BY lw.id")
+    List<Word> findWordsByLessonId(@Param("lessonId") Long lessonId);
+
+    @Query("SELECT DISTINCT lw.lesson.id FROM LessonWord lw WHERE lw.word.id = :wordId")
+    List<Long> findLessonIdsByWordId(@Param("wordId") Long wordId);
+
+    // Search index: the text and meaning of the words of every lesson, or of some
+    @Query("SELECT lw.lesson.id AS lessonId, w.text AS text, w.meaning AS meaning FROM LessonWord lw JOIN lw.word w")
+    List<LessonWordText> findAllWordTexts();
+
+    @Query(
+        "SELECT lw.lesson.id AS lessonId, w.text AS text, w.meaning AS meaning FROM LessonWord lw JOIN lw.word w " +
+        "WHERE lw.lesson.id IN :lessonIds"
+    )
+    List<LessonWordText> findWordTextsByLessonIdIn(@Param("lessonIds") Collection<Long> lessonIds);
+
+    /**
+     * Projection of a word of a lesson.
+     */
+    interface LessonWordText {
+        Long getLessonId();
+
+        String getText();
+
+        String getMeaning();
+    }
 }
@@ -1,6 +1,7 @@
 package com.langleague.repository;
 
 import com.langleague.domain.MediaFile;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +10,6 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface MediaFileRepository extends JpaRepository<MediaFile, Long> {}
+public interface MediaFileRepository extends JpaRepository<MediaFile, Long> {
+    List<MediaFile> findByLessonIdOrderById(Long lessonId);
+}
@@ -1,7 +1,10 @@
 package com.langleague.repository;
 
 import com.langleague.domain.ReadingExercise;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,18 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ReadingExerciseRepository extends JpaRepository<ReadingExercise, Long> {}
+public interface ReadingExerciseRepository extends JpaRepository<ReadingExercise, Long> {
+    List<ReadingExercise> findByLessonIdOrderById(Long lessonId);
+
+    @Query(
+        "SELECT e.id AS id, l.id AS lessonId, e.passage AS content, e.question AS detail " +
+        "FROM ReadingExercise e LEFT JOIN e.lesson l"
+    )
+    List<ExerciseSearchFields> findAllSearchFields();
+
+    @Query(
+        "SELECT e.id AS id, l.id AS lessonId, e.passage AS content, e.question AS detail " +
+        "FROM ReadingExercise e LEFT JOIN e.lesson l WHERE e.id IN :ids"
+    )
+    List<ExerciseSearchFields> findSearchFieldsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,7 +1,10 @@
 package com.langleague.repository;
 
 import com.langleague.domain.SpeakingExercise;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,18 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface SpeakingExerciseRepository extends JpaRepository<SpeakingExercise, Long> {}
+public interface SpeakingExerciseRepository extends JpaRepository<SpeakingExercise, Long> {
+    List<SpeakingExercise> findByLessonIdOrderById(Long lessonId);
+
+    @Query(
+        "SELECT e.id AS id, l.id AS lessonId, e.prompt AS content, e.targetPhrase AS detail " +
+        "FROM SpeakingExercise e LEFT JOIN e.lesson l"
+    )
+    List<ExerciseSearchFields> findAllSearchFields();
+
+    @Query(
+        "SELECT e.id AS id, l.id AS lessonId, e.prompt AS content, e.targetPhrase AS detail " +
+        "FROM SpeakingExercise e LEFT JOIN e.lesson l WHERE e.id IN :ids"
+    )
+    List<ExerciseSearchFields> findSearchFieldsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,59 @@
+package com.langleague.repository;
+
+import com.langleague.domain.StudyDayRollup;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the StudyDayRollup entity.
+ */
+@Repository
+public interface StudyDayRollupRepository extends JpaRepository<StudyDayRollup, StudyDayRollup.StudyDayRollupId> {
+    String UPSERT_SQL =
+        "INSERT INTO study_day_rollup (user_id, study_day, study_seconds, session_count) VALUES (?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE study_seconds = GREATEST(study_seconds + VALUES(study_seconds), 0), " +
+        "session_count = GREATEST(session_count + VALUES(session_count), 0)";
+
+    /**
+     * Read the next users in id order, without locking them.
+     */
+    @Query(value = "SELECT id FROM jhi_user WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findUserIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * Lock the buckets of a user, so that rebuilding them and completing the user's sessions run one after the other.
+     * Takes the row of the user in {@code study_day_rollup_lock}, created on first use, rather than the user row that
+     * authentication reads and updates.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO study_day_rollup_lock (user_id) VALUES (:userId) ON DUPLICATE KEY UPDATE user_id = user_id",
+        nativeQuery = true
+    )
+    int lockUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM StudyDayRollup r WHERE r.userId IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    List<StudyDayRollup> findByUserIdAndStudyDayBetweenOrderByStudyDay(Long userId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(
+        value = "INSERT INTO study_day_rollup (user_id, study_day, study_seconds, session_count) " +
+        "VALUES (:userId, :studyDay, GREATEST(:seconds, 0), GREATEST(:sessions, 0)) " +
+        "ON DUPLICATE KEY UPDATE study_seconds = GREATEST(study_seconds + :seconds, 0), " +
+        "session_count = GREATEST(session_count + :sessions, 0)",
+        nativeQuery = true
+    )
+    int addStudyTime(
+        @Param("userId") Long userId,
+        @Param("studyDay") LocalDate studyDay,
+        @Param("seconds") long seconds,
+        @Param("sessions") int sessions
+    );
+}
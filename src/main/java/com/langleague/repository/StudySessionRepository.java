@@ -1,11 +1,16 @@
 package com.langleague.repository;
 
 import com.langleague.domain.StudySession;
+import jakarta.persistence.LockModeType;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -14,11 +19,41 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface StudySessionRepository extends JpaRepository<StudySession, Long> {
+    /**
+     * Lock the row of a session, so that its completion and the sweep of the idle sessions never overwrite each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from StudySession s where s.id = :id")
+    Optional<StudySession> findByIdForUpdate(@Param("id") Long id);
+
     @Query("select s from StudySession s where s.user.login = ?#{principal.username}")
     Page<StudySession> findByUserIsCurrentUser(Pageable pageable);
 
     Page<StudySession> findByUserId(Long userId, Pageable pageable);
 
+    // Keyset pagination, newest first, see SeekCursor
+    @Query("select s from StudySession s where s.user.login = ?#{principal.username} order by s.startTime desc, s.id desc")
+    Slice<StudySession> findFirstPageByUserIsCurrentUser(Pageable pageable);
+
+    @Query(
+        "select s from StudySession s where s.user.login = ?#{principal.username} and " +
+        "(s.startTime < :startTime or (s.startTime = :startTime and s.id < :id)) order by s.startTime desc, s.id desc"
+    )
+    Slice<StudySession> findPageAfterByUserIsCurrentUser(@Param("startTime") Instant startTime, @Param("id") Long id, Pageable pageable);
+
+    Slice<StudySession> findByUserIdOrderByStartTimeDescIdDesc(Long userId, Pageable pageable);
+
+    @Query(
+        "select s from StudySession s where s.user.id = :userId and " +
+        "(s.startTime < :startTime or (s.startTime = :startTime and s.id < :id)) order by s.startTime desc, s.id desc"
+    )
+    Slice<StudySession> findPageAfterByUserId(
+        @Param("userId") Long userId,
+        @Param("startTime") Instant startTime,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
     List<StudySession> findByStartTimeBetween(Instant startDate, Instant endDate);
 
     List<StudySession> findByUserIdAndStartTimeBetween(Long userId, Instant startDate, Instant endDate);
@@ -31,4 +66,68 @@ public interface StudySessionRepository extends JpaRepository<StudySession, Long
 
     @Query("SELECT AVG(CASE WHEN s.status = 'COMPLETED' THEN 1.0 ELSE 0.0 END) FROM StudySession s WHERE s.startTime BETWEEN ?1 AND ?2")
     Double calculateCompletionRate(Instant startDate, Instant endDate);
+
+    /**
+     * Aggregate every session started in {@code [startDate, endDate]} in a single statement.
+     */
+    @Query(
+        "SELECT COUNT(s) AS totalSessions, " +
+        "COALESCE(SUM(CASE WHEN s.status = 'COMPLETED' THEN 1 ELSE 0 END), 0) AS completedSessions, " +
+        "COUNT(DISTINCT s.user.id) AS totalUsers, COALESCE(SUM(s.duration), 0) AS totalDuration, " +
+        "AVG(s.score) AS averageScore FROM StudySession s WHERE s.startTime BETWEEN :startDate AND :endDate"
+    )
+    SessionAggregate aggregateInPeriod(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
+
+    /**
+     * Aggregate the sessions of one user started in {@code [startDate, endDate]} in a single statement.
+     */
+    @Query(
+        "SELECT COUNT(s) AS totalSessions, " +
+        "COALESCE(SUM(CASE WHEN s.status = 'COMPLETED' THEN 1 ELSE 0 END), 0) AS completedSessions, " +
+        "COUNT(DISTINCT s.user.id) AS totalUsers, COALESCE(SUM(s.duration), 0) AS totalDuration, " +
+        "AVG(s.score) AS averageScore FROM StudySession s " +
+        "WHERE s.user.id = :userId AND s.startTime BETWEEN :startDate AND :endDate"
+    )
+    SessionAggregate aggregateForUserInPeriod(
+        @Param("userId") Long userId,
+        @Param("startDate") Instant startDate,
+        @Param("endDate") Instant endDate
+    );
+
+    /**
+     * Read the completed sessions of some users, without loading the entities.
+     */
+    @Query(
+        "SELECT s.id AS id, s.user.id AS userId, s.startTime AS startTime, s.endTime AS endTime FROM StudySession s " +
+        "WHERE s.user.id IN :userIds AND s.status = 'COMPLETED' AND s.endTime IS NOT NULL"
+    )
+    List<SessionSpan> findCompletedSpansByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Projection of the aggregates of a set of study sessions.
+     */
+    interface SessionAggregate {
+        Long getTotalSessions();
+
+        Long getCompletedSessions();
+
+        Long getTotalUsers();
+
+        Long getTotalDuration();
+
+        Double getAverageScore();
+    }
+
+    /**
+     * Projection of the time span of a study session.
+     */
+    interface SessionSpan {
+        Long getId();
+
+        Long getUserId();
+
+        Instant getStartTime();
+
+        Instant getEndTime();
+    }
 }
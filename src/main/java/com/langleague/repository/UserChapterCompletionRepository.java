@@ -0,0 +1,60 @@
+package com.langleague.repository;
+
+import com.langleague.domain.UserChapterCompletion;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the UserChapterCompletion read model.
+ * <p>
+ * Counters are maintained with single-statement upserts so that concurrent writers never
+ * lose an increment and never need to read the row first.
+ */
+@Repository
+public interface UserChapterCompletionRepository
+    extends JpaRepository<UserChapterCompletion, UserChapterCompletion.UserChapterCompletionId> {
+    List<UserChapterCompletion> findByAppUserId(Long appUserId);
+
+    /**
+     * Add {@code delta} completed lessons to the chapter of a lesson, creating the row from the catalog if needed.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO user_chapter_completion (app_user_id, chapter_id, book_id, completed_lessons, updated_at) " +
+        "SELECT :appUserId, l.chapter_id, ch.book_id, GREATEST(:delta, 0), :now " +
+        "FROM lesson l JOIN chapter ch ON ch.id = l.chapter_id WHERE l.id = :lessonId " +
+        "ON DUPLICATE KEY UPDATE completed_lessons = GREATEST(completed_lessons + :delta, 0), updated_at = :now",
+        nativeQuery = true
+    )
+    int addCompletedLessons(
+        @Param("appUserId") Long appUserId,
+        @Param("lessonId") Long lessonId,
+        @Param("delta") int delta,
+        @Param("now") Instant now
+    );
+
+    /**
+     * Delete the rows of every {@code app_user} whose id lies in {@code [fromId, toId]}, before {@link #rebuildRange}.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM user_chapter_completion WHERE app_user_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int deleteRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Recompute the rows of every {@code app_user} whose id lies in {@code [fromId, toId]} from the progress table.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO user_chapter_completion (app_user_id, chapter_id, book_id, completed_lessons, updated_at) " +
+        "SELECT p.app_user_id, l.chapter_id, ch.book_id, COUNT(DISTINCT p.lesson_id), :now " +
+        "FROM user_progress p JOIN lesson l ON l.id = p.lesson_id JOIN chapter ch ON ch.id = l.chapter_id " +
+        "WHERE p.percent >= 100 AND p.app_user_id BETWEEN :fromId AND :toId " +
+        "GROUP BY p.app_user_id, l.chapter_id, ch.book_id",
+        nativeQuery = true
+    )
+    int rebuildRange(@Param("fromId") Long fromId, @Param("toId") Long toId, @Param("now") Instant now);
+}
@@ -0,0 +1,81 @@
+package com.langleague.repository;
+
+import com.langleague.domain.UserDashboardStats;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the UserDashboardStats read model.
+ * <p>
+ * Counters are maintained with single-statement upserts so that concurrent writers never
+ * lose an increment and never need to read the row first.
+ */
+@Repository
+public interface UserDashboardStatsRepository extends JpaRepository<UserDashboardStats, Long> {
+    @Modifying
+    @Query(
+        value = "INSERT INTO user_dashboard_stats (app_user_id, words_learned, quizzes_completed, lessons_completed, current_streak, longest_streak, updated_at) " +
+        "VALUES (:appUserId, GREATEST(:delta, 0), 0, 0, 0, 0, :now) " +
+        "ON DUPLICATE KEY UPDATE words_learned = GREATEST(words_learned + :delta, 0), updated_at = :now",
+        nativeQuery = true
+    )
+    int addWordsLearned(@Param("appUserId") Long appUserId, @Param("delta") int delta, @Param("now") Instant now);
+
+    @Modifying
+    @Query(
+        value = "INSERT INTO user_dashboard_stats (app_user_id, words_learned, quizzes_completed, lessons_completed, current_streak, longest_streak, updated_at) " +
+        "VALUES (:appUserId, 0, GREATEST(:delta, 0), 0, 0, 0, :now) " +
+        "ON DUPLICATE KEY UPDATE quizzes_completed = GREATEST(quizzes_completed + :delta, 0), updated_at = :now",
+        nativeQuery = true
+    )
+    int addQuizzesCompleted(@Param("appUserId") Long appUserId, @Param("delta") int delta, @Param("now") Instant now);
+
+    @Modifying
+    @Query(
+        value = "INSERT INTO user_dashboard_stats (app_user_id, words_learned, quizzes_completed, lessons_completed, current_streak, longest_streak, updated_at) " +
+        "VALUES (:appUserId, 0, 0, GREATEST(:delta, 0), 0, 0, :now) " +
+        "ON DUPLICATE KEY UPDATE lessons_completed = GREATEST(lessons_completed + :delta, 0), updated_at = :now",
+        nativeQuery = true
+    )
+    int addLessonsCompleted(@Param("appUserId") Long appUserId, @Param("delta") int delta, @Param("now") Instant now);
+
+    @Modifying
+    @Query(
+        value = "INSERT INTO user_dashboard_stats (app_user_id, words_learned, quizzes_completed, lessons_completed, current_streak, longest_streak, updated_at) " +
+        "VALUES (:appUserId, 0, 0, 0, :currentStreak, GREATEST(:longestStreak, :currentStreak), :now) " +
+        "ON DUPLICATE KEY UPDATE current_streak = :currentStreak, " +
+        "longest_streak = GREATEST(longest_streak, :longestStreak, :currentStreak), updated_at = :now",
+        nativeQuery = true
+    )
+    int updateStreak(
+        @Param("appUserId") Long appUserId,
+        @Param("currentStreak") int currentStreak,
+        @Param("longestStreak") int longestStreak,
+        @Param("now") Instant now
+    );
+
+    /**
+     * Recompute the rows of every {@code app_user} whose id lies in {@code [fromId, toId]} from the source tables.
+     * Used by the rebuild job to repair drift; each call runs in its own short transaction.
+     */
+    @Transactional
+    @Modifying
+    @Query(
+        value = "INSERT INTO user_dashboard_stats (app_user_id, words_learned, quizzes_completed, lessons_completed, current_streak, longest_streak, updated_at) " +
+        "SELECT u.id, " +
+        "(SELECT COUNT(*) FROM user_vocabulary v WHERE v.app_user_id = u.id AND v.is_memorized = TRUE), " +
+        "(SELECT COUNT(*) FROM exercise_result e WHERE e.app_user_id = u.id), " +
+        "(SELECT COUNT(*) FROM user_progress p WHERE p.app_user_id = u.id AND p.percent >= 100), " +
+        "COALESCE((SELECT MAX(s.current_streak) FROM learning_streak s WHERE s.app_user_id = u.id), 0), " +
+        "COALESCE((SELECT MAX(s.longest_streak) FROM learning_streak s WHERE s.app_user_id = u.id), 0), " +
+        ":now FROM app_user u WHERE u.id BETWEEN :fromId AND :toId " +
+        "ON DUPLICATE KEY UPDATE words_learned = VALUES(words_learned), quizzes_completed = VALUES(quizzes_completed), " +
+        "lessons_completed = VALUES(lessons_completed), current_streak = VALUES(current_streak), " +
+        "longest_streak = VALUES(longest_streak), updated_at = VALUES(updated_at)",
+        nativeQuery = true
+    )
+    int rebuildRange(@Param("fromId") Long fromId, @Param("toId") Long toId, @Param("now") Instant now);
+}
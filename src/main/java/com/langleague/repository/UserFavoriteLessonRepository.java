@@ -1,8 +1,10 @@
 package com.langleague.repository;
 
 import com.langleague.domain.UserFavoriteLesson;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -17,4 +19,10 @@ public interface UserFavoriteLessonRepository extends JpaRepository<UserFavorite
     boolean existsByAppUserIdAndLessonId(Long appUserId, Long lessonId);
 
     void deleteByAppUserIdAndLessonId(Long appUserId, Long lessonId);
+
+    @Query("SELECT f.lesson.id FROM UserFavoriteLesson f WHERE f.appUser.id = :appUserId")
+    List<Long> findLessonIdsByAppUserId(@Param("appUserId") Long appUserId);
+
+    @Query("SELECT f.lesson.id FROM UserFavoriteLesson f WHERE f.appUser.id = :appUserId AND f.lesson.id IN :lessonIds")
+    List<Long> findLessonIdsByAppUserIdAndLessonIdIn(@Param("appUserId") Long appUserId, @Param("lessonIds") Collection<Long> lessonIds);
 }
@@ -1,10 +1,18 @@
 package com.langleague.repository;
 
 import com.langleague.domain.UserProgress;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -12,7 +20,7 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface UserProgressRepository extends JpaRepository<UserProgress, Long> {
+public interface UserProgressRepository extends UserProgressRepositoryWithUpsert, JpaRepository<UserProgress, Long> {
     // Use case 24, 25, 26: Track user progress
     Optional<UserProgress> findByAppUserIdAndLessonId(Long appUserId, Long lessonId);
 
@@ -20,4 +28,47 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
 
     // Use case 41: Learning history view - ordered by last accessed
     Page<UserProgress> findByAppUserIdOrderByLastAccessedDesc(Long appUserId, Pageable pageable);
+
+    // Keyset pagination of the learning history, see SeekCursor
+    Slice<UserProgress> findByAppUserIdAndLastAccessedNotNullOrderByLastAccessedDescIdDesc(Long appUserId, Pageable pageable);
+
+    @Query(
+        "select p from UserProgress p where p.appUser.id = :appUserId and " +
+        "(p.lastAccessed < :lastAccessed or (p.lastAccessed = :lastAccessed and p.id < :id)) " +
+        "order by p.lastAccessed desc, p.id desc"
+    )
+    Slice<UserProgress> findHistoryAfter(
+        @Param("appUserId") Long appUserId,
+        @Param("lastAccessed") Instant lastAccessed,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    // Served by idx_user_progress__app_user_last_accessed, which also holds the id
+    List<UserProgress> findAllByAppUserIdOrderByLastAccessedDescIdDesc(Long appUserId);
+
+    // Continue learning: walks the same index backwards from the most recent row
+    Optional<UserProgress> findFirstByAppUserIdAndPercentLessThanOrderByLastAccessedDescIdDesc(Long appUserId, Integer percent);
+
+    List<UserProgress> findByAppUserIdAndLessonIdIn(Long appUserId, Collection<Long> lessonIds);
+
+    // Recommendations: the lessons of every learner, in the order they were last accessed.
+    // Integer.MIN_VALUE makes MySQL Connector/J stream the rows rather than read them all into memory first.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(
+        "select u.login as login, p.lesson.id as lessonId, p.percent as percent from UserProgress p " +
+        "join p.appUser a join a.user u where p.lastAccessed is not null order by a.id, p.lastAccessed, p.id"
+    )
+    Stream<LessonAccess> streamAllLessonAccesses();
+
+    /**
+     * Projection of a lesson accessed by a learner.
+     */
+    interface LessonAccess {
+        String getLogin();
+
+        Long getLessonId();
+
+        Integer getPercent();
+    }
 }
@@ -0,0 +1,65 @@
+package com.langleague.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository fragment writing the progress of users in lessons with atomic upserts.
+ */
+public interface UserProgressRepositoryWithUpsert {
+    /**
+     * The progress of a user in a lesson, to write.
+     *
+     * @param appUserId the user.
+     * @param lessonId the lesson.
+     * @param percent the percent to store.
+     * @param lastAccessed the access time to store.
+     */
+    record ProgressWrite(Long appUserId, Long lessonId, Integer percent, Instant lastAccessed) {}
+
+    /**
+     * The outcome of a {@link ProgressWrite}.
+     *
+     * @param write the progress to write.
+     * @param id the id of the row.
+     * @param existed whether the row existed before.
+     * @param applied whether the progress was stored, {@code false} if the row was accessed at or after it.
+     * @param previousPercent the percent the row had, {@code null} if it did not exist.
+     * @param previousLastAccessed the access time the row had, {@code null} if it did not exist.
+     */
+    record ProgressWriteResult(
+        ProgressWrite write,
+        Long id,
+        boolean existed,
+        boolean applied,
+        Integer previousPercent,
+        Instant previousLastAccessed
+    ) {}
+
+    /**
+     * Write the progress of a user in a lesson, see {@link #upsertProgress(List)}.
+     *
+     * @param appUserId the user.
+     * @param lessonId the lesson.
+     * @param percent the percent to store.
+     * @param lastAccessed the access time to store.
+     * @return the outcome.
+     */
+    default ProgressWriteResult upsertProgress(Long appUserId, Long lessonId, Integer percent, Instant lastAccessed) {
+        return upsertProgress(List.of(new ProgressWrite(appUserId, lessonId, percent, lastAccessed))).get(0);
+    }
+
+    /**
+     * Write the progress of users in lessons, unless their rows were accessed at or after it.
+     * <p>
+     * Missing rows are inserted with {@code INSERT ... ON DUPLICATE KEY UPDATE}, relying on the unique constraint on
+     * (app_user_id, lesson_id): concurrent calls for the same pair never create a second row. The existing rows are then
+     * read locked until the transaction ends, so the previous values returned are those actually overwritten, and
+     * overwritten only if they were accessed before the progress written. Runs with one JDBC batch of inserts, one
+     * select and one batch of updates, in the current transaction.
+     *
+     * @param writes the progress to write, at most one per pair.
+     * @return the outcomes, in the order of {@code writes}.
+     */
+    List<ProgressWriteResult> upsertProgress(List<ProgressWrite> writes);
+}
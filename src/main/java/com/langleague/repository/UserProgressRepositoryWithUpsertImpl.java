@@ -0,0 +1,107 @@
+package com.langleague.repository;
+
+import com.langleague.domain.UserProgress;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+public class UserProgressRepositoryWithUpsertImpl implements UserProgressRepositoryWithUpsert {
+
+    // Leaves an existing row unchanged, so that the driver only reports the keys of the rows inserted
+    private static final String INSERT_SQL =
+        "INSERT INTO user_progress (percent, last_accessed, app_user_id, lesson_id) " +
+        "VALUES (:percent, :lastAccessed, :appUserId, :lessonId) " +
+        "ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String SELECT_SQL =
+        "SELECT id, app_user_id, lesson_id, percent, last_accessed FROM user_progress " +
+        "WHERE (app_user_id, lesson_id) IN (:pairs) FOR UPDATE";
+
+    private static final String UPDATE_SQL = "UPDATE user_progress SET percent = :percent, last_accessed = :lastAccessed WHERE id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public UserProgressRepositoryWithUpsertImpl(NamedParameterJdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    private record Pair(long appUserId, long lessonId) {}
+
+    private record StoredRow(Long id, Integer percent, Instant lastAccessed) {}
+
+    @Override
+    public List<ProgressWriteResult> upsertProgress(List<ProgressWrite> writes) {
+        if (writes.isEmpty()) {
+            return List.of();
+        }
+        SqlParameterSource[] inserts = new SqlParameterSource[writes.size()];
+        List<Object[]> pairs = new ArrayList<>(writes.size());
+        for (int i = 0; i < writes.size(); i++) {
+            ProgressWrite write = writes.get(i);
+            inserts[i] = new MapSqlParameterSource()
+                .addValue("percent", write.percent())
+                .addValue("lastAccessed", Timestamp.from(write.lastAccessed()))
+                .addValue("appUserId", write.appUserId())
+                .addValue("lessonId", write.lessonId());
+            pairs.add(new Object[] { write.appUserId(), write.lessonId() });
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, keyHolder);
+        Set<Long> inserted = new HashSet<>();
+        keyHolder.getKeyList().forEach(keys -> inserted.add(((Number) keys.values().iterator().next()).longValue()));
+
+        // Every row exists now, and is locked by the insert: the values read are those the updates overwrite
+        Map<Pair, StoredRow> stored = new HashMap<>();
+        jdbcTemplate.query(SELECT_SQL, Map.of("pairs", pairs), resultSet -> {
+            Timestamp lastAccessed = resultSet.getTimestamp("last_accessed");
+            stored.put(
+                new Pair(resultSet.getLong("app_user_id"), resultSet.getLong("lesson_id")),
+                new StoredRow(
+                    resultSet.getLong("id"),
+                    resultSet.getObject("percent", Integer.class),
+                    lastAccessed != null ? lastAccessed.toInstant() : null
+                )
+            );
+        });
+
+        List<ProgressWriteResult> results = new ArrayList<>(writes.size());
+        List<SqlParameterSource> updates = new ArrayList<>();
+        for (ProgressWrite write : writes) {
+            StoredRow row = stored.get(new Pair(write.appUserId(), write.lessonId()));
+            if (inserted.contains(row.id())) {
+                results.add(new ProgressWriteResult(write, row.id(), false, true, null, null));
+                continue;
+            }
+            boolean applied = row.lastAccessed() == null || row.lastAccessed().isBefore(write.lastAccessed());
+            if (applied) {
+                updates.add(
+                    new MapSqlParameterSource()
+                        .addValue("percent", write.percent())
+                        .addValue("lastAccessed", Timestamp.from(write.lastAccessed()))
+                        .addValue("id", row.id())
+                );
+            }
+            results.add(new ProgressWriteResult(write, row.id(), true, applied, row.percent(), row.lastAccessed()));
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates.toArray(new SqlParameterSource[0]));
+        }
+        // The rows were written behind Hibernate's back: drop their second-level cache entries
+        results.forEach(result -> entityManagerFactory.getCache().evict(UserProgress.class, result.id()));
+        return results;
+    }
+}
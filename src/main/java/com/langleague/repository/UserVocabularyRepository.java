@@ -1,6 +1,8 @@
 package com.langleague.repository;
 
 import com.langleague.domain.UserVocabulary;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +11,8 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface UserVocabularyRepository extends JpaRepository<UserVocabulary, Long> {}
+public interface UserVocabularyRepository extends JpaRepository<UserVocabulary, Long> {
+    List<UserVocabulary> findByAppUserId(Long appUserId);
+
+    List<UserVocabulary> findByAppUserIdAndIdIn(Long appUserId, Collection<Long> ids);
+}
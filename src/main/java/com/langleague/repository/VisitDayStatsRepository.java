@@ -0,0 +1,25 @@
+package com.langleague.repository;
+
+import com.langleague.domain.VisitDayStats;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the VisitDayStats entity.
+ */
+@Repository
+public interface VisitDayStatsRepository extends JpaRepository<VisitDayStats, LocalDate> {
+    /**
+     * Lock the row of a day, so that instances flushing concurrently merge their sketches instead of overwriting them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM VisitDayStats v WHERE v.visitDay = :visitDay")
+    Optional<VisitDayStats> findByIdForUpdate(@Param("visitDay") LocalDate visitDay);
+
+    List<VisitDayStats> findByVisitDayBetween(LocalDate from, LocalDate to);
+}
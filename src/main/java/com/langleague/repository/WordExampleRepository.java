@@ -1,6 +1,8 @@
 package com.langleague.repository;
 
 import com.langleague.domain.WordExample;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +11,6 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface WordExampleRepository extends JpaRepository<WordExample, Long> {}
+public interface WordExampleRepository extends JpaRepository<WordExample, Long> {
+    List<WordExample> findByWordIdInOrderById(Collection<Long> wordIds);
+}
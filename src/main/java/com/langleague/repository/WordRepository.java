@@ -1,7 +1,10 @@
 package com.langleague.repository;
 
 import com.langleague.domain.Word;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,31 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface WordRepository extends JpaRepository<Word, Long> {}
+public interface WordRepository extends JpaRepository<Word, Long> {
+    // Suggestions: every word, or some, with the number of lessons it is in
+    @Query(
+        "SELECT w.id AS id, w.text AS text, w.pronunciation AS pronunciation, " +
+        "(SELECT COUNT(DISTINCT lw.lesson.id) FROM LessonWord lw WHERE lw.word = w) AS lessonCount FROM Word w"
+    )
+    List<WordSuggestFields> findAllSuggestFields();
+
+    @Query(
+        "SELECT w.id AS id, w.text AS text, w.pronunciation AS pronunciation, " +
+        "(SELECT COUNT(DISTINCT lw.lesson.id) FROM LessonWord lw WHERE lw.word = w) AS lessonCount FROM Word w " +
+        "WHERE w.id IN :ids"
+    )
+    List<WordSuggestFields> findSuggestFieldsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Projection of a word, as suggested.
+     */
+    interface WordSuggestFields {
+        Long getId();
+
+        String getText();
+
+        String getPronunciation();
+
+        Long getLessonCount();
+    }
+}
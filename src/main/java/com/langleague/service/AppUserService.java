@@ -8,6 +8,7 @@ import com.langleague.service.mapper.AppUserMapper;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -67,6 +68,10 @@ public class AppUserService {
      * @param appUserDTO the entity to save.
      * @return the persisted entity.
      */
+    @CacheEvict(
+        cacheNames = { AppUserRepository.APP_USER_IDS_BY_LOGIN_CACHE, AppUserRepository.USER_LOGINS_BY_APP_USER_ID_CACHE },
+        allEntries = true
+    )
     public AppUserDTO update(AppUserDTO appUserDTO) {
         LOG.debug("Request to update AppUser : {}", appUserDTO);
         AppUser appUser = appUserMapper.toEntity(appUserDTO);
@@ -80,6 +85,10 @@ public class AppUserService {
      * @param appUserDTO the entity to update partially.
      * @return the persisted entity.
      */
+    @CacheEvict(
+        cacheNames = { AppUserRepository.APP_USER_IDS_BY_LOGIN_CACHE, AppUserRepository.USER_LOGINS_BY_APP_USER_ID_CACHE },
+        allEntries = true
+    )
     public Optional<AppUserDTO> partialUpdate(AppUserDTO appUserDTO) {
         LOG.debug("Request to partially update AppUser : {}", appUserDTO);
 
@@ -135,6 +144,10 @@ public class AppUserService {
      *
      * @param id the id of the entity.
      */
+    @CacheEvict(
+        cacheNames = { AppUserRepository.APP_USER_IDS_BY_LOGIN_CACHE, AppUserRepository.USER_LOGINS_BY_APP_USER_ID_CACHE },
+        allEntries = true
+    )
     public void delete(Long id) {
         LOG.debug("Request to delete AppUser : {}", id);
         appUserRepository.deleteById(id);
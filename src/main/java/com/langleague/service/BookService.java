@@ -25,9 +25,12 @@ public class BookService {
 
     private final BookMapper bookMapper;
 
-    public BookService(BookRepository bookRepository, BookMapper bookMapper) {
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    public BookService(BookRepository bookRepository, BookMapper bookMapper, CatalogSnapshotService catalogSnapshotService) {
         this.bookRepository = bookRepository;
         this.bookMapper = bookMapper;
+        this.catalogSnapshotService = catalogSnapshotService;
     }
 
     /**
@@ -40,6 +43,7 @@ public class BookService {
         LOG.debug("Request to save Book : {}", bookDTO);
         Book book = bookMapper.toEntity(bookDTO);
         book = bookRepository.save(book);
+        catalogSnapshotService.changed();
         return bookMapper.toDto(book);
     }
 
@@ -53,6 +57,7 @@ public class BookService {
         LOG.debug("Request to update Book : {}", bookDTO);
         Book book = bookMapper.toEntity(bookDTO);
         book = bookRepository.save(book);
+        catalogSnapshotService.changed();
         return bookMapper.toDto(book);
     }
 
@@ -69,6 +74,7 @@ public class BookService {
             .findById(bookDTO.getId())
             .map(existingBook -> {
                 bookMapper.partialUpdate(existingBook, bookDTO);
+                catalogSnapshotService.changed();
 
                 return existingBook;
             })
@@ -108,5 +114,6 @@ public class BookService {
     public void delete(Long id) {
         LOG.debug("Request to delete Book : {}", id);
         bookRepository.deleteById(id);
+        catalogSnapshotService.changed();
     }
 }
@@ -0,0 +1,211 @@
+package com.langleague.service;
+
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.repository.BookRepository;
+import com.langleague.repository.ChapterRepository;
+import com.langleague.repository.LessonRepository;
+import com.langleague.service.catalog.CatalogSnapshot;
+import com.langleague.service.catalog.CatalogSnapshot.BookNode;
+import com.langleague.service.catalog.CatalogSnapshot.ChapterNode;
+import com.langleague.service.catalog.CatalogSnapshot.LessonNode;
+import com.langleague.service.dto.ChapterDTO;
+import com.langleague.service.dto.LessonDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Holder of the current {@link CatalogSnapshot}, from which the catalog reads are served without database access.
+ * <p>
+ * The snapshot is read on first use, then replaced by a new one, read with three queries, each time a write to a
+ * book, a chapter or a lesson commits: writers call {@link #changed()} inside their transaction. Rebuilds run one at a
+ * time, so that the last snapshot swapped in always reads the last commit. The version and the build time of the
+ * current snapshot are published to Micrometer as {@value #VERSION_METER_NAME} and {@value #BUILT_AT_METER_NAME}.
+ * <p>
+ * Each instance holds its own snapshot: with several instances, a write is only seen by the others at their next
+ * rebuild.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    public static final String VERSION_METER_NAME = "langleague.catalog.version";
+
+    public static final String BUILT_AT_METER_NAME = "langleague.catalog.built-at";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+
+    private final AtomicLong versions = new AtomicLong();
+
+    private final BookRepository bookRepository;
+
+    private final ChapterRepository chapterRepository;
+
+    private final LessonRepository lessonRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public CatalogSnapshotService(
+        BookRepository bookRepository,
+        ChapterRepository chapterRepository,
+        LessonRepository lessonRepository,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.bookRepository = bookRepository;
+        this.chapterRepository = chapterRepository;
+        this.lessonRepository = lessonRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Also called after the commit of a writer, whose transaction must not be joined
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        Gauge.builder(VERSION_METER_NAME, snapshot, current -> current.get() != null ? current.get().version() : 0)
+            .description("Version of the catalog snapshot")
+            .register(meterRegistry);
+        Gauge.builder(BUILT_AT_METER_NAME, snapshot, current -> current.get() != null ? current.get().builtAt().getEpochSecond() : 0)
+            .description("Time the catalog snapshot was built, in seconds since the epoch")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return the current snapshot, read now if there is none yet.
+     */
+    public CatalogSnapshot get() {
+        CatalogSnapshot current = snapshot.get();
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot.get();
+                if (current == null) {
+                    current = rebuild();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * A book, a chapter or a lesson was written: the snapshot is rebuilt once the current transaction commits, or now
+     * if there is none.
+     */
+    public void changed() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        rebuildQuietly();
+                    }
+                }
+            );
+        } else {
+            rebuildQuietly();
+        }
+    }
+
+    /**
+     * Read the catalog and swap the new snapshot in.
+     *
+     * @return the new snapshot.
+     */
+    public synchronized CatalogSnapshot rebuild() {
+        CatalogSnapshot built = transactionTemplate.execute(status -> read(versions.incrementAndGet()));
+        snapshot.set(built);
+        LOG.debug("Built catalog snapshot {} with {} lessons", built.version(), built.lessons().size());
+        return built;
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Drop the stale snapshot: the next read builds a new one
+            snapshot.set(null);
+            LOG.warn("Could not rebuild the catalog snapshot: {}", e.getMessage());
+        }
+    }
+
+    private CatalogSnapshot read(long version) {
+        Instant builtAt = Instant.now();
+        Map<Long, String> bookTitles = new HashMap<>();
+        List<BookNode> books = bookRepository
+            .findAll()
+            .stream()
+            .map(book -> {
+                bookTitles.put(book.getId(), book.getTitle());
+                return new BookNode(book.getId(), book.getTitle(), book.getLevel(), book.getThumbnail());
+            })
+            .toList();
+        // Only the ids of the associations are read, which does not initialize them
+        List<ChapterNode> chapters = chapterRepository
+            .findAll()
+            .stream()
+            .map(chapter -> {
+                Long bookId = chapter.getBook() != null ? chapter.getBook().getId() : null;
+                return new ChapterNode(chapter.getId(), chapter.getTitle(), chapter.getOrderIndex(), bookId, bookTitles.get(bookId));
+            })
+            .toList();
+        List<LessonNode> lessons = lessonRepository.findAll().stream().map(CatalogSnapshotService::toNode).toList();
+        return new CatalogSnapshot(version, builtAt, books, chapters, lessons);
+    }
+
+    private static LessonNode toNode(Lesson lesson) {
+        Chapter chapter = lesson.getChapterEntity();
+        return new LessonNode(
+            lesson.getId(),
+            lesson.getTitle(),
+            lesson.getDescription(),
+            lesson.getLevel(),
+            lesson.getEstimatedMinutes(),
+            lesson.getThumbnail(),
+            lesson.getOrderIndex(),
+            Boolean.TRUE.equals(lesson.getIsPublished()),
+            chapter != null ? chapter.getId() : null
+        );
+    }
+
+    /**
+     * @param lesson a lesson of the snapshot.
+     * @return a new DTO of the lesson, as {@link com.langleague.service.mapper.LessonMapper} maps it.
+     */
+    public static LessonDTO toDto(LessonNode lesson) {
+        LessonDTO dto = new LessonDTO();
+        dto.setId(lesson.id());
+        dto.setTitle(lesson.title());
+        dto.setDescription(lesson.description());
+        dto.setLevel(lesson.level());
+        dto.setEstimatedMinutes(lesson.estimatedMinutes());
+        dto.setThumbnail(lesson.thumbnail());
+        dto.setChapterId(lesson.chapterId());
+        return dto;
+    }
+
+    /**
+     * @param chapter a chapter of the snapshot.
+     * @return a new DTO of the chapter, as {@link com.langleague.service.mapper.ChapterMapper} maps it.
+     */
+    public static ChapterDTO toDto(ChapterNode chapter) {
+        ChapterDTO dto = new ChapterDTO();
+        dto.setId(chapter.id());
+        dto.setTitle(chapter.title());
+        dto.setOrderIndex(chapter.orderIndex());
+        dto.setBookId(chapter.bookId());
+        dto.setBookTitle(chapter.bookTitle());
+        return dto;
+    }
+}
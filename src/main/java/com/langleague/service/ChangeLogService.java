@@ -0,0 +1,265 @@
+package com.langleague.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Append-only log of the changes to the data of each user, read by {@link SyncService}.
+ * <p>
+ * The writers of user progress, vocabulary, exercise results and favorite lessons record a change in their own
+ * transaction, so that the log never misses a committed write. Each change gets the next value of a global sequence;
+ * a client that synced up to some value only reads the changes after it. The progress and the favorites are keyed
+ * by lesson, since there is one of each per user and lesson, the other entities by id.
+ * <p>
+ * Every {@code application.sync.compaction-interval-ms}, the changes superseded by a later change of the same entity
+ * are deleted, so that the log grows with the number of entities rather than the number of writes.
+ */
+@Service
+@Transactional
+public class ChangeLogService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeLogService.class);
+
+    private static final int COMPACTION_BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO change_log (app_user_id, entity_type, entity_id, operation, changed_at) " +
+        "VALUES (:appUserId, :entityType, :entityId, :operation, :changedAt)";
+
+    private static final String SELECT_SQL =
+        "SELECT seq, entity_type, entity_id, operation, changed_at FROM change_log " +
+        "WHERE app_user_id = :appUserId AND seq > :since ORDER BY seq LIMIT :limit";
+
+    private static final String SETTLED_SQL =
+        "SELECT MAX(seq) FROM change_log WHERE app_user_id = :appUserId AND changed_at <= :settledAt";
+
+    private static final String VERSION_SQL =
+        "SELECT MAX(seq) AS latest, COUNT(*) AS changes FROM change_log WHERE app_user_id = :appUserId";
+
+    private static final String SUPERSEDED_SQL =
+        "SELECT c.seq FROM change_log c WHERE c.seq > :after AND EXISTS (" +
+        "SELECT 1 FROM change_log n WHERE n.app_user_id = c.app_user_id AND n.entity_type = c.entity_type " +
+        "AND n.entity_id = c.entity_id AND n.seq > c.seq) ORDER BY c.seq LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ChangeLogService(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The kinds of entities synced.
+     */
+    public enum EntityType {
+        /** Keyed by lesson id. */
+        USER_PROGRESS,
+        USER_VOCABULARY,
+        EXERCISE_RESULT,
+        /** Keyed by lesson id. */
+        FAVORITE_LESSON,
+    }
+
+    /**
+     * What happened to an entity.
+     */
+    public enum Operation {
+        UPSERT,
+        DELETE,
+    }
+
+    /**
+     * A change to record.
+     *
+     * @param appUserId the owner of the entity.
+     * @param entityType the kind of entity.
+     * @param entityId the key of the entity.
+     * @param operation what happened.
+     */
+    public record Change(Long appUserId, EntityType entityType, Long entityId, Operation operation) {}
+
+    /**
+     * A recorded change.
+     *
+     * @param seq the position of the change in the log.
+     * @param entityType the kind of entity.
+     * @param entityId the key of the entity.
+     * @param operation what happened.
+     * @param changedAt when the change was recorded.
+     */
+    public record LoggedChange(long seq, EntityType entityType, Long entityId, Operation operation, Instant changedAt) {}
+
+    /**
+     * An entity was created or updated.
+     *
+     * @param appUserId the owner, ignored if {@code null}.
+     * @param entityType the kind of entity.
+     * @param entityId the key, ignored if {@code null}.
+     */
+    public void upserted(Long appUserId, EntityType entityType, Long entityId) {
+        record(List.of(new Change(appUserId, entityType, entityId, Operation.UPSERT)));
+    }
+
+    /**
+     * An entity was deleted.
+     *
+     * @param appUserId the owner, ignored if {@code null}.
+     * @param entityType the kind of entity.
+     * @param entityId the key, ignored if {@code null}.
+     */
+    public void deleted(Long appUserId, EntityType entityType, Long entityId) {
+        record(List.of(new Change(appUserId, entityType, entityId, Operation.DELETE)));
+    }
+
+    /**
+     * An entity was updated, possibly changing its owner or its key: it is deleted for the previous owner or key.
+     *
+     * @param entityType the kind of entity.
+     * @param previousAppUserId the owner before the update, or {@code null}.
+     * @param previousEntityId the key before the update, or {@code null}.
+     * @param appUserId the owner after the update, or {@code null}.
+     * @param entityId the key after the update, or {@code null}.
+     */
+    public void moved(EntityType entityType, Long previousAppUserId, Long previousEntityId, Long appUserId, Long entityId) {
+        List<Change> changes = new ArrayList<>(2);
+        if (!Objects.equals(previousAppUserId, appUserId) || !Objects.equals(previousEntityId, entityId)) {
+            changes.add(new Change(previousAppUserId, entityType, previousEntityId, Operation.DELETE));
+        }
+        changes.add(new Change(appUserId, entityType, entityId, Operation.UPSERT));
+        record(changes);
+    }
+
+    /**
+     * Record changes in one JDBC batch, in the current transaction.
+     *
+     * @param changes the changes, those without owner or key are ignored.
+     */
+    public void record(Collection<Change> changes) {
+        Timestamp now = Timestamp.from(Instant.now());
+        MapSqlParameterSource[] rows = changes
+            .stream()
+            .filter(change -> change.appUserId() != null && change.entityId() != null)
+            .map(change ->
+                new MapSqlParameterSource()
+                    .addValue("appUserId", change.appUserId())
+                    .addValue("entityType", change.entityType().name())
+                    .addValue("entityId", change.entityId())
+                    .addValue("operation", change.operation().name())
+                    .addValue("changedAt", now)
+            )
+            .toArray(MapSqlParameterSource[]::new);
+        if (rows.length == 1) {
+            jdbcTemplate.update(INSERT_SQL, rows[0]);
+        } else if (rows.length > 1) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    /**
+     * Read the changes of a user in the order they were recorded.
+     *
+     * @param appUserId the user.
+     * @param since the position of the last change already read, or 0.
+     * @param limit the maximum number of changes.
+     * @return the changes after {@code since}.
+     */
+    @Transactional(readOnly = true)
+    public List<LoggedChange> findChanges(Long appUserId, long since, int limit) {
+        return jdbcTemplate.query(
+            SELECT_SQL,
+            Map.of("appUserId", appUserId, "since", since, "limit", limit),
+            (resultSet, rowNum) ->
+                new LoggedChange(
+                    resultSet.getLong("seq"),
+                    EntityType.valueOf(resultSet.getString("entity_type")),
+                    resultSet.getLong("entity_id"),
+                    Operation.valueOf(resultSet.getString("operation")),
+                    resultSet.getTimestamp("changed_at").toInstant()
+                )
+        );
+    }
+
+    /**
+     * @param appUserId the user.
+     * @param settledAt the time before which every change is assumed committed.
+     * @return the position of the last change of the user recorded before {@code settledAt}, or 0.
+     */
+    @Transactional(readOnly = true)
+    public long findSettledSeq(Long appUserId, Instant settledAt) {
+        Long seq = jdbcTemplate.queryForObject(
+            SETTLED_SQL,
+            Map.of("appUserId", appUserId, "settledAt", Timestamp.from(settledAt)),
+            Long.class
+        );
+        return seq != null ? seq : 0;
+    }
+
+    /**
+     * The version of the data of a user, the same on every instance. The count tells apart a change that commits after
+     * a later one, which leaves the latest position unchanged.
+     *
+     * @param appUserId the user.
+     * @return the position of the last change of the user and the number of its changes, e.g. {@code 42.7}.
+     */
+    @Transactional(readOnly = true)
+    public String findVersion(Long appUserId) {
+        return jdbcTemplate.queryForObject(
+            VERSION_SQL,
+            Map.of("appUserId", appUserId),
+            (resultSet, rowNum) -> resultSet.getLong("latest") + "." + resultSet.getLong("changes")
+        );
+    }
+
+    /**
+     * Delete the changes superseded by a later change of the same entity, one batch per transaction: the connections
+     * do not auto-commit, so a statement run outside of a transaction would be rolled back.
+     *
+     * @return the number of changes deleted.
+     */
+    @Scheduled(fixedDelayString = "${application.sync.compaction-interval-ms:600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int compact() {
+        int deleted = 0;
+        long after = 0;
+        List<Long> superseded;
+        do {
+            long batchAfter = after;
+            superseded = transactionTemplate.execute(status -> {
+                List<Long> seqs = jdbcTemplate.queryForList(
+                    SUPERSEDED_SQL,
+                    Map.of("after", batchAfter, "limit", COMPACTION_BATCH_SIZE),
+                    Long.class
+                );
+                if (!seqs.isEmpty()) {
+                    jdbcTemplate.update("DELETE FROM change_log WHERE seq IN (:seqs)", Map.of("seqs", seqs));
+                }
+                return seqs;
+            });
+            if (!superseded.isEmpty()) {
+                deleted += superseded.size();
+                after = superseded.get(superseded.size() - 1);
+            }
+        } while (superseded.size() == COMPACTION_BATCH_SIZE);
+        if (deleted > 0) {
+            LOG.info("Compacted {} superseded changes", deleted);
+        }
+        return deleted;
+    }
+}
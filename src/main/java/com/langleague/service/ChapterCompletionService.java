@@ -0,0 +1,139 @@
+package com.langleague.service;
+
+import com.langleague.domain.UserChapterCompletion;
+import com.langleague.repository.AppUserRepository;
+import com.langleague.repository.UserChapterCompletionRepository;
+import com.langleague.security.SecurityUtils;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the per-user chapter completion rollup ({@link UserChapterCompletion}).
+ * <p>
+ * Progress writers call {@link #progressChanged} inside their own transaction with the owner, lesson and percent of
+ * the row before and after the write; only a write that crosses 100% moves a counter, with one upsert.
+ * {@link #rebuildAll()} recomputes every row from {@code user_progress} every night to repair drift and to pick up
+ * lessons that were moved to another chapter.
+ */
+@Service
+@Transactional
+public class ChapterCompletionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChapterCompletionService.class);
+
+    private static final int COMPLETED_PERCENT = 100;
+
+    private static final int REBUILD_CHUNK_SIZE = 500;
+
+    private final UserChapterCompletionRepository userChapterCompletionRepository;
+
+    private final AppUserRepository appUserRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ChapterCompletionService(
+        UserChapterCompletionRepository userChapterCompletionRepository,
+        AppUserRepository appUserRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.userChapterCompletionRepository = userChapterCompletionRepository;
+        this.appUserRepository = appUserRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A lesson progress row changed.
+     *
+     * @param previousAppUserId owner before the write, or {@code null} for an insert.
+     * @param previousLessonId lesson before the write, or {@code null} for an insert.
+     * @param previousPercent percent before the write.
+     * @param appUserId owner after the write, or {@code null} for a delete.
+     * @param lessonId lesson after the write, or {@code null} for a delete.
+     * @param percent percent after the write.
+     */
+    public void progressChanged(
+        Long previousAppUserId,
+        Long previousLessonId,
+        Integer previousPercent,
+        Long appUserId,
+        Long lessonId,
+        Integer percent
+    ) {
+        boolean wasCompleted = previousAppUserId != null && previousLessonId != null && isCompleted(previousPercent);
+        boolean completed = appUserId != null && lessonId != null && isCompleted(percent);
+        if (Objects.equals(previousAppUserId, appUserId) && Objects.equals(previousLessonId, lessonId) && wasCompleted == completed) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (wasCompleted) {
+            userChapterCompletionRepository.addCompletedLessons(previousAppUserId, previousLessonId, -1, now);
+        }
+        if (completed) {
+            userChapterCompletionRepository.addCompletedLessons(appUserId, lessonId, 1, now);
+        }
+    }
+
+    /**
+     * Get the number of lessons the current user has completed in each chapter.
+     *
+     * @return the completed lessons by chapter id, without the chapters the user has not completed any lesson of.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getCurrentUserCompletedLessons() {
+        Map<Long, Integer> completed = new HashMap<>();
+        SecurityUtils.getCurrentUserLogin()
+            .flatMap(appUserRepository::findIdByUserLogin)
+            .map(userChapterCompletionRepository::findByAppUserId)
+            .orElseGet(List::of)
+            .forEach(row -> completed.put(row.getChapterId(), row.getCompletedLessons()));
+        return completed;
+    }
+
+    /**
+     * Recompute every user's rows from the progress table, one chunk of users per transaction.
+     * <p>
+     * This is scheduled to run every night at 03:15.
+     *
+     * @return the number of users processed.
+     */
+    @Scheduled(cron = "0 15 3 * * ?")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildAll() {
+        LOG.info("Rebuilding chapter completion rollup");
+        Instant now = Instant.now();
+        int processed = 0;
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = appUserRepository.findIdsAfter(afterId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+            if (!ids.isEmpty()) {
+                Long fromId = ids.get(0);
+                Long toId = ids.get(ids.size() - 1);
+                transactionTemplate.executeWithoutResult(status -> {
+                    userChapterCompletionRepository.deleteRange(fromId, toId);
+                    userChapterCompletionRepository.rebuildRange(fromId, toId, now);
+                });
+                processed += ids.size();
+                afterId = toId;
+            }
+        } while (ids.size() == REBUILD_CHUNK_SIZE);
+        LOG.info("Rebuilt chapter completion for {} users", processed);
+        return processed;
+    }
+
+    private static boolean isCompleted(Integer percent) {
+        return percent != null && percent >= COMPLETED_PERCENT;
+    }
+}
@@ -25,9 +25,12 @@ public class CommentService {
 
     private final CommentMapper commentMapper;
 
-    public CommentService(CommentRepository commentRepository, CommentMapper commentMapper) {
+    private final EngagementMetrics engagementMetrics;
+
+    public CommentService(CommentRepository commentRepository, CommentMapper commentMapper, EngagementMetrics engagementMetrics) {
         this.commentRepository = commentRepository;
         this.commentMapper = commentMapper;
+        this.engagementMetrics = engagementMetrics;
     }
 
     /**
@@ -40,6 +43,7 @@ public class CommentService {
         LOG.debug("Request to save Comment : {}", commentDTO);
         Comment comment = commentMapper.toEntity(commentDTO);
         comment = commentRepository.save(comment);
+        engagementMetrics.commentPosted();
         return commentMapper.toDto(comment);
     }
 
@@ -129,6 +133,7 @@ public class CommentService {
 
         Comment comment = commentMapper.toEntity(commentDTO);
         comment = commentRepository.save(comment);
+        engagementMetrics.commentPosted();
         return commentMapper.toDto(comment);
     }
 
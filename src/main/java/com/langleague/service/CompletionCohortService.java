@@ -0,0 +1,218 @@
+package com.langleague.service;
+
+import com.langleague.domain.LessonCompletionCohort;
+import com.langleague.repository.AppUserRepository;
+import com.langleague.repository.LessonCompletionCohortRepository;
+import com.langleague.repository.LessonCompletionCohortRepository.CohortCounts;
+import com.langleague.repository.LessonCompletionCohortRepository.CohortFigures;
+import com.langleague.repository.LessonCompletionCohortRepository.CohortGroup;
+import com.langleague.repository.LessonCompletionCohortRepository.CohortTotals;
+import com.langleague.repository.LessonRepository;
+import com.langleague.service.dto.CompletionStatsDTO;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the per-lesson completion cohorts ({@link LessonCompletionCohort}) behind the
+ * completion statistics.
+ * <p>
+ * Progress writers call {@link #progressChanged} inside their own transaction with the lesson and percent of
+ * the row before and after the write, which moves its contribution between cohorts with one upsert each.
+ * {@link #refresh()} recomputes every cohort from {@code user_progress} every night to repair drift and to
+ * pick up lessons that were moved to another chapter. The number of students is read from a short-lived cache.
+ */
+@Service
+@Transactional
+public class CompletionCohortService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompletionCohortService.class);
+
+    private static final int COMPLETED_PERCENT = 100;
+
+    private static final int REFRESH_CHUNK_SIZE = 200;
+
+    private final LessonCompletionCohortRepository lessonCompletionCohortRepository;
+
+    private final AppUserRepository appUserRepository;
+
+    private final LessonRepository lessonRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public CompletionCohortService(
+        LessonCompletionCohortRepository lessonCompletionCohortRepository,
+        AppUserRepository appUserRepository,
+        LessonRepository lessonRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.lessonCompletionCohortRepository = lessonCompletionCohortRepository;
+        this.appUserRepository = appUserRepository;
+        this.lessonRepository = lessonRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The dimensions completion statistics can be broken down by.
+     */
+    public enum GroupBy {
+        BOOK,
+        CHAPTER,
+        LEVEL;
+
+        public static Optional<GroupBy> fromName(String name) {
+            try {
+                return Optional.of(valueOf(name.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * A lesson progress row changed.
+     *
+     * @param previousLessonId lesson before the write, or {@code null} for an insert.
+     * @param previousPercent percent before the write.
+     * @param lessonId lesson after the write, or {@code null} for a delete.
+     * @param percent percent after the write.
+     */
+    public void progressChanged(Long previousLessonId, Integer previousPercent, Long lessonId, Integer percent) {
+        if (Objects.equals(previousLessonId, lessonId) && Objects.equals(previousPercent, percent)) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (previousLessonId != null) {
+            addContribution(previousLessonId, previousPercent, -1, now);
+        }
+        if (lessonId != null) {
+            addContribution(lessonId, percent, 1, now);
+        }
+    }
+
+    /**
+     * Recompute every cohort from the progress table, one chunk of lessons per transaction.
+     * <p>
+     * The cohorts of a chunk are locked before the progress is counted, so that a concurrent write either adds its
+     * change before the count, which then includes it, or waits and adds it on top of the count. The progress itself
+     * is read without locks, which a writer waiting for a cohort may hold.
+     * <p>
+     * This is scheduled to run every night at 03:00.
+     *
+     * @return the number of rows written.
+     */
+    @Scheduled(cron = "0 0 3 * * ?")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int refresh() {
+        LOG.debug("Request to refresh lesson completion cohorts");
+        int rows = 0;
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = lessonRepository.findIdsAfter(afterId, PageRequest.of(0, REFRESH_CHUNK_SIZE));
+            if (!ids.isEmpty()) {
+                List<Long> chunk = ids;
+                rows += transactionTemplate.execute(status -> refreshChunk(chunk, Instant.now()));
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == REFRESH_CHUNK_SIZE);
+        LOG.info("Refreshed lesson completion cohorts: {} rows written", rows);
+        return rows;
+    }
+
+    /**
+     * Get the completion statistics of the selected lessons, broken down by {@code groupBy}.
+     *
+     * @param groupBy the breakdown dimension.
+     * @param bookId restrict to the lessons of this book, or {@code null}.
+     * @param level restrict to the lessons of this level, or {@code null}.
+     * @return the statistics.
+     */
+    @Transactional(readOnly = true)
+    public CompletionStatsDTO getStats(GroupBy groupBy, Long bookId, String level) {
+        LOG.debug("Request to get completion statistics by {} for book {} and level {}", groupBy, bookId, level);
+        long students = appUserRepository.countAppUsers();
+        CohortTotals totals = lessonCompletionCohortRepository.sumCohorts(bookId, level);
+        List<CohortGroup> groups =
+            switch (groupBy) {
+                case BOOK -> lessonCompletionCohortRepository.sumCohortsByBook(bookId, level);
+                case CHAPTER -> lessonCompletionCohortRepository.sumCohortsByChapter(bookId, level);
+                case LEVEL -> lessonCompletionCohortRepository.sumCohortsByLevel(bookId, level);
+            };
+
+        CompletionStatsDTO dto = new CompletionStatsDTO();
+        dto.setGroupBy(groupBy.name().toLowerCase(Locale.ROOT));
+        dto.setBookId(bookId);
+        dto.setLevel(level);
+        dto.setTotalStudents(students);
+        dto.setTotals(toFigures(totals, students));
+        dto.setBreakdown(groups.stream().map(group -> toGroupFigures(group, students)).toList());
+        dto.setRefreshedAt(totals.getRefreshedAt());
+        dto.setUpdatedAt(totals.getUpdatedAt());
+        return dto;
+    }
+
+    private int refreshChunk(List<Long> lessonIds, Instant now) {
+        lessonIds.forEach(lessonId -> lessonCompletionCohortRepository.lockCohort(lessonId, now));
+        int rows = 0;
+        for (CohortCounts counts : lessonCompletionCohortRepository.countProgress(lessonIds)) {
+            rows += lessonCompletionCohortRepository.refreshCohort(
+                counts.getLessonId(),
+                counts.getChapterId(),
+                counts.getBookId(),
+                counts.getLevel(),
+                counts.getLearners(),
+                counts.getInProgress(),
+                counts.getCompleted(),
+                counts.getPercentSum(),
+                now
+            );
+        }
+        return rows;
+    }
+
+    private void addContribution(Long lessonId, Integer percent, int sign, Instant now) {
+        int value = percent != null ? Math.max(0, Math.min(percent, COMPLETED_PERCENT)) : 0;
+        boolean completed = value >= COMPLETED_PERCENT;
+        lessonCompletionCohortRepository.addToCohort(lessonId, sign, completed ? 0 : sign, completed ? sign : 0, sign * value, now);
+    }
+
+    private static CompletionStatsDTO.Figures toGroupFigures(CohortGroup group, long students) {
+        CompletionStatsDTO.Figures figures = toFigures(group, students);
+        figures.setKey(group.getGroupKey());
+        figures.setLabel(group.getLabel());
+        return figures;
+    }
+
+    private static CompletionStatsDTO.Figures toFigures(CohortFigures cohorts, long students) {
+        long lessons = valueOf(cohorts.getLessons());
+        long pairs = students * lessons;
+        CompletionStatsDTO.Figures figures = new CompletionStatsDTO.Figures();
+        figures.setLessons(lessons);
+        figures.setCompleted(valueOf(cohorts.getCompleted()));
+        figures.setInProgress(valueOf(cohorts.getInProgress()));
+        figures.setNotStarted(Math.max(0, pairs - valueOf(cohorts.getLearners())));
+        figures.setAverageCompletion(percentage(valueOf(cohorts.getPercentSum()), pairs * COMPLETED_PERCENT));
+        figures.setCompletionRate(percentage(figures.getCompleted(), pairs));
+        return figures;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static double percentage(long part, long whole) {
+        return whole > 0 ? Math.round(part * 1000.0 / whole) / 10.0 : 0.0;
+    }
+}
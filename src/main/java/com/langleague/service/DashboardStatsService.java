@@ -0,0 +1,203 @@
+package com.langleague.service;
+
+import com.langleague.domain.UserDashboardStats;
+import com.langleague.repository.AppUserRepository;
+import com.langleague.repository.UserDashboardStatsRepository;
+import com.langleague.service.dto.DashboardStatsDTO;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the per-user dashboard statistics read model ({@link UserDashboardStats}).
+ * <p>
+ * Writers call the {@code *Changed} methods inside their own transaction with the state of the
+ * source row before and after the write; the counters are then adjusted by a single upsert.
+ * {@link #rebuildAll()} recomputes every row from the source tables to repair drift. The number of
+ * published lessons is read from the {@link CatalogSnapshotService catalog snapshot}.
+ */
+@Service
+@Transactional
+public class DashboardStatsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    private static final int REBUILD_CHUNK_SIZE = 500;
+
+    private final UserDashboardStatsRepository userDashboardStatsRepository;
+
+    private final AppUserRepository appUserRepository;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public DashboardStatsService(
+        UserDashboardStatsRepository userDashboardStatsRepository,
+        AppUserRepository appUserRepository,
+        CatalogSnapshotService catalogSnapshotService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.userDashboardStatsRepository = userDashboardStatsRepository;
+        this.appUserRepository = appUserRepository;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A vocabulary row changed: a word counts as learned when it is memorized.
+     *
+     * @param previousAppUserId owner before the write, or {@code null} for an insert.
+     * @param wasLearned whether the row counted as learned before the write.
+     * @param appUserId owner after the write, or {@code null} for a delete.
+     * @param learned whether the row counts as learned after the write.
+     */
+    public void wordLearnedChanged(Long previousAppUserId, boolean wasLearned, Long appUserId, boolean learned) {
+        applyTransition(previousAppUserId, wasLearned, appUserId, learned, userDashboardStatsRepository::addWordsLearned);
+    }
+
+    /**
+     * An exercise result changed: every submitted result counts as a completed quiz.
+     *
+     * @param previousAppUserId owner before the write, or {@code null} for an insert.
+     * @param appUserId owner after the write, or {@code null} for a delete.
+     */
+    public void quizCompletedChanged(Long previousAppUserId, Long appUserId) {
+        applyTransition(
+            previousAppUserId,
+            previousAppUserId != null,
+            appUserId,
+            appUserId != null,
+            userDashboardStatsRepository::addQuizzesCompleted
+        );
+    }
+
+    /**
+     * A lesson progress row changed: a lesson counts as completed once it reaches 100%.
+     *
+     * @param previousAppUserId owner before the write, or {@code null} for an insert.
+     * @param previousPercent percent before the write.
+     * @param appUserId owner after the write, or {@code null} for a delete.
+     * @param percent percent after the write.
+     */
+    public void lessonProgressChanged(Long previousAppUserId, Integer previousPercent, Long appUserId, Integer percent) {
+        applyTransition(
+            previousAppUserId,
+            isCompleted(previousPercent),
+            appUserId,
+            isCompleted(percent),
+            userDashboardStatsRepository::addLessonsCompleted
+        );
+    }
+
+    /**
+     * A learning streak was written.
+     *
+     * @param appUserId the owner of the streak.
+     * @param currentStreak the current streak.
+     * @param longestStreak the longest streak.
+     */
+    public void streakChanged(Long appUserId, Integer currentStreak, Integer longestStreak) {
+        if (appUserId == null) {
+            return;
+        }
+        int current = currentStreak != null ? currentStreak : 0;
+        int longest = longestStreak != null ? longestStreak : 0;
+        userDashboardStatsRepository.updateStreak(appUserId, current, longest, Instant.now());
+    }
+
+    /**
+     * Get the dashboard statistics of the current user.
+     *
+     * @param login the login of the current user.
+     * @return the statistics, all zero if the user has no activity yet.
+     */
+    @Transactional(readOnly = true)
+    public DashboardStatsDTO getStats(String login) {
+        LOG.debug("Request to get dashboard stats for user : {}", login);
+        DashboardStatsDTO dto = appUserRepository
+            .findIdByUserLogin(login)
+            .flatMap(userDashboardStatsRepository::findById)
+            .map(this::toDto)
+            .orElseGet(DashboardStatsDTO::new);
+
+        long totalLessons = catalogSnapshotService.get().publishedLessons().size();
+        dto.setTotalLessons(totalLessons);
+        dto.setCourseProgress(totalLessons > 0 ? (int) Math.min(100, dto.getCompletedLessons() * 100L / totalLessons) : 0);
+        return dto;
+    }
+
+    /**
+     * Recompute every user's row from the source tables, one chunk of users per transaction.
+     * <p>
+     * This is scheduled to run every night at 02:30, to repair any drift of the incremental counters.
+     *
+     * @return the number of users processed.
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildAll() {
+        LOG.info("Rebuilding dashboard stats read model");
+        Instant now = Instant.now();
+        int processed = 0;
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = appUserRepository.findIdsAfter(afterId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+            if (!ids.isEmpty()) {
+                Long fromId = ids.get(0);
+                Long toId = ids.get(ids.size() - 1);
+                transactionTemplate.executeWithoutResult(status -> userDashboardStatsRepository.rebuildRange(fromId, toId, now));
+                processed += ids.size();
+                afterId = toId;
+            }
+        } while (ids.size() == REBUILD_CHUNK_SIZE);
+        LOG.info("Rebuilt dashboard stats for {} users", processed);
+        return processed;
+    }
+
+    private DashboardStatsDTO toDto(UserDashboardStats stats) {
+        DashboardStatsDTO dto = new DashboardStatsDTO();
+        dto.setWordsLearned(stats.getWordsLearned());
+        dto.setQuizzesCompleted(stats.getQuizzesCompleted());
+        dto.setCompletedLessons(stats.getLessonsCompleted());
+        dto.setCurrentStreak(stats.getCurrentStreak());
+        dto.setLongestStreak(stats.getLongestStreak());
+        dto.setUpdatedAt(stats.getUpdatedAt());
+        // The platform teaches a single language: any recorded activity means it is being studied
+        boolean active = stats.getWordsLearned() > 0 || stats.getQuizzesCompleted() > 0 || stats.getLessonsCompleted() > 0;
+        dto.setLanguagesStudying(active ? 1 : 0);
+        return dto;
+    }
+
+    private static boolean isCompleted(Integer percent) {
+        return percent != null && percent >= 100;
+    }
+
+    private void applyTransition(Long previousAppUserId, boolean wasCounted, Long appUserId, boolean counted, CounterUpdate update) {
+        if (Objects.equals(previousAppUserId, appUserId) && wasCounted == counted) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (previousAppUserId != null && wasCounted) {
+            update.add(previousAppUserId, -1, now);
+        }
+        if (appUserId != null && counted) {
+            update.add(appUserId, 1, now);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CounterUpdate {
+        int add(Long appUserId, int delta, Instant now);
+    }
+}
@@ -0,0 +1,313 @@
+package com.langleague.service;
+
+import com.langleague.domain.EngagementBucket;
+import com.langleague.repository.EngagementBucketRepository;
+import com.langleague.security.AuthoritiesConstants;
+import com.langleague.security.SecurityUtils;
+import com.langleague.service.analytics.HyperLogLog;
+import com.langleague.service.dto.EngagementStatsDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Engagement counters: video views, quiz attempts and scores, comments and study sessions, and the users behind them.
+ * <p>
+ * Events are recorded from the hot paths of the services into striped {@link LongAdder}/{@link DoubleAdder} counters
+ * and a {@link HyperLogLog} sketch of the active users of the current hour; recording never blocks and never touches
+ * the database. Every minute the counters are flushed into one {@link EngagementBucket} row per hour. Totals since
+ * startup are also published to Micrometer as {@value #EVENTS_METER_NAME} (tagged by {@code event}) and
+ * {@value #QUIZ_SCORE_METER_NAME}.
+ * <p>
+ * Events are counted when they happen, whether or not the surrounding transaction later commits.
+ */
+@Service
+public class EngagementMetrics {
+
+    public static final String EVENTS_METER_NAME = "langleague.engagement.events";
+
+    public static final String QUIZ_SCORE_METER_NAME = "langleague.engagement.quiz-score";
+
+    private static final Logger LOG = LoggerFactory.getLogger(EngagementMetrics.class);
+
+    private static final int REPORT_DAYS = 30;
+
+    // How long a detached counter waits before its last flush, for the events that took it just before
+    private static final Duration DETACH_GRACE = Duration.ofSeconds(30);
+
+    /**
+     * The counted events.
+     */
+    public enum Event {
+        VIDEO_VIEW,
+        QUIZ_ATTEMPT,
+        COMMENT_POSTED,
+        SESSION_STARTED,
+        SESSION_COMPLETED;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private final ConcurrentMap<Instant, HourCounter> counters = new ConcurrentHashMap<>();
+
+    private final Queue<DetachedCounter> detached = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder[] totals = new LongAdder[Event.values().length];
+
+    private final DoubleAdder quizScoreTotal = new DoubleAdder();
+
+    private final EngagementBucketRepository engagementBucketRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public EngagementMetrics(
+        EngagementBucketRepository engagementBucketRepository,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.engagementBucketRepository = engagementBucketRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (Event event : Event.values()) {
+            LongAdder total = new LongAdder();
+            totals[event.ordinal()] = total;
+            FunctionCounter.builder(EVENTS_METER_NAME, total, LongAdder::sum)
+                .description("Number of engagement events since startup")
+                .baseUnit("events")
+                .tag("event", event.tag())
+                .register(meterRegistry);
+        }
+        FunctionCounter.builder(QUIZ_SCORE_METER_NAME, quizScoreTotal, DoubleAdder::sum)
+            .description("Sum of the scores of the quiz attempts since startup")
+            .register(meterRegistry);
+    }
+
+    /**
+     * A media file was played.
+     */
+    public void videoViewed() {
+        record(Event.VIDEO_VIEW);
+    }
+
+    /**
+     * An exercise result was submitted.
+     *
+     * @param score the score, or {@code null} if not graded yet, which counts as 0 in the average.
+     */
+    public void quizAttempted(Integer score) {
+        HourCounter counter = record(Event.QUIZ_ATTEMPT);
+        if (score != null) {
+            counter.quizScoreSum.add(score);
+            quizScoreTotal.add(score);
+        }
+    }
+
+    /**
+     * A comment was posted.
+     */
+    public void commentPosted() {
+        record(Event.COMMENT_POSTED);
+    }
+
+    /**
+     * A study session was started.
+     */
+    public void sessionStarted() {
+        record(Event.SESSION_STARTED);
+    }
+
+    /**
+     * A study session was completed.
+     */
+    public void sessionCompleted() {
+        record(Event.SESSION_COMPLETED);
+    }
+
+    /**
+     * Flush the in-memory counters to the database, one transaction per hour.
+     * <p>
+     * This is scheduled to run every minute. The counter of the current hour is flushed in place. Counters of past
+     * hours are first detached, so that no new event reaches them, and flushed for the last time once
+     * {@link #DETACH_GRACE} has passed, so that the events that took them just before are flushed too.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void flush() {
+        Instant now = Instant.now();
+        Instant currentHour = now.truncatedTo(ChronoUnit.HOURS);
+        for (Map.Entry<Instant, HourCounter> entry : counters.entrySet()) {
+            Instant hour = entry.getKey();
+            HourCounter counter = entry.getValue();
+            if (!hour.isBefore(currentHour)) {
+                flushHour(hour, counter);
+            } else if (counters.remove(hour, counter)) {
+                detached.add(new DetachedCounter(hour, counter, now));
+            }
+        }
+        for (Iterator<DetachedCounter> iterator = detached.iterator(); iterator.hasNext();) {
+            DetachedCounter counter = iterator.next();
+            if (!now.isBefore(counter.detachedAt().plus(DETACH_GRACE)) && flushHour(counter.hour(), counter.counter())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the engagement of the last 30 days, including today, and the active users of today (UTC).
+     *
+     * @return the engagement statistics.
+     */
+    @Transactional(readOnly = true)
+    public EngagementStatsDTO getStats() {
+        LocalDate to = LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = to.minusDays(REPORT_DAYS - 1L);
+        Instant fromInstant = from.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant todayInstant = to.atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        long[] events = new long[Event.values().length];
+        double quizScoreSum = 0;
+        Instant lastFlushedAt = null;
+        HyperLogLog activeUsers = new HyperLogLog();
+        HyperLogLog dailyActiveUsers = new HyperLogLog();
+        List<EngagementBucket> buckets = engagementBucketRepository.findByBucketStartGreaterThanEqual(fromInstant);
+        for (EngagementBucket bucket : buckets) {
+            events[Event.VIDEO_VIEW.ordinal()] += bucket.getVideoViews();
+            events[Event.QUIZ_ATTEMPT.ordinal()] += bucket.getQuizzesAttempted();
+            events[Event.COMMENT_POSTED.ordinal()] += bucket.getCommentsPosted();
+            events[Event.SESSION_STARTED.ordinal()] += bucket.getSessionsStarted();
+            events[Event.SESSION_COMPLETED.ordinal()] += bucket.getSessionsCompleted();
+            quizScoreSum += bucket.getQuizScoreSum();
+            if (bucket.getActiveUserSketch() != null) {
+                HyperLogLog sketch = HyperLogLog.fromBytes(bucket.getActiveUserSketch());
+                activeUsers.merge(sketch);
+                if (!bucket.getBucketStart().isBefore(todayInstant)) {
+                    dailyActiveUsers.merge(sketch);
+                }
+            }
+            if (bucket.getUpdatedAt() != null && (lastFlushedAt == null || bucket.getUpdatedAt().isAfter(lastFlushedAt))) {
+                lastFlushedAt = bucket.getUpdatedAt();
+            }
+        }
+        // Add what has not been flushed yet
+        List<Map.Entry<Instant, HourCounter>> unflushed = new ArrayList<>(counters.entrySet());
+        detached.forEach(counter -> unflushed.add(Map.entry(counter.hour(), counter.counter())));
+        for (Map.Entry<Instant, HourCounter> entry : unflushed) {
+            if (entry.getKey().isBefore(fromInstant)) {
+                continue;
+            }
+            HourCounter counter = entry.getValue();
+            for (Event event : Event.values()) {
+                events[event.ordinal()] += counter.events[event.ordinal()].sum();
+            }
+            quizScoreSum += counter.quizScoreSum.sum();
+            activeUsers.merge(counter.activeUsers);
+            if (!entry.getKey().isBefore(todayInstant)) {
+                dailyActiveUsers.merge(counter.activeUsers);
+            }
+        }
+
+        EngagementStatsDTO stats = new EngagementStatsDTO();
+        stats.setFrom(from);
+        stats.setTo(to);
+        stats.setVideoViews(events[Event.VIDEO_VIEW.ordinal()]);
+        stats.setQuizzesAttempted(events[Event.QUIZ_ATTEMPT.ordinal()]);
+        stats.setCommentsPosted(events[Event.COMMENT_POSTED.ordinal()]);
+        stats.setSessionsStarted(events[Event.SESSION_STARTED.ordinal()]);
+        stats.setSessionsCompleted(events[Event.SESSION_COMPLETED.ordinal()]);
+        long quizzes = events[Event.QUIZ_ATTEMPT.ordinal()];
+        stats.setAverageQuizScore(quizzes > 0 ? Math.round(quizScoreSum * 10.0 / quizzes) / 10.0 : 0.0);
+        stats.setActiveUsers(activeUsers.estimate());
+        stats.setDailyActiveUsers(dailyActiveUsers.estimate());
+        stats.setLastFlushedAt(lastFlushedAt);
+        return stats;
+    }
+
+    private HourCounter record(Event event) {
+        HourCounter counter = counters.computeIfAbsent(Instant.now().truncatedTo(ChronoUnit.HOURS), hour -> new HourCounter());
+        counter.events[event.ordinal()].increment();
+        totals[event.ordinal()].increment();
+        if (!SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ANONYMOUS)) {
+            SecurityUtils.getCurrentUserLogin().ifPresent(counter.activeUsers::add);
+        }
+        return counter;
+    }
+
+    private boolean flushHour(Instant hour, HourCounter counter) {
+        long[] events = new long[Event.values().length];
+        for (Event event : Event.values()) {
+            events[event.ordinal()] = counter.events[event.ordinal()].sum();
+        }
+        double quizScoreSum = counter.quizScoreSum.sum();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                EngagementBucket bucket = engagementBucketRepository
+                    .findByIdForUpdate(hour)
+                    .orElseGet(() -> new EngagementBucket().bucketStart(hour));
+                // The sketch is merged, not added: flushing the same users twice does not count them twice
+                HyperLogLog activeUsers = new HyperLogLog();
+                if (bucket.getActiveUserSketch() != null) {
+                    activeUsers.merge(HyperLogLog.fromBytes(bucket.getActiveUserSketch()));
+                }
+                activeUsers.merge(counter.activeUsers);
+                bucket
+                    .videoViews(bucket.getVideoViews() + events[Event.VIDEO_VIEW.ordinal()])
+                    .quizzesAttempted(bucket.getQuizzesAttempted() + events[Event.QUIZ_ATTEMPT.ordinal()])
+                    .quizScoreSum(bucket.getQuizScoreSum() + quizScoreSum)
+                    .commentsPosted(bucket.getCommentsPosted() + events[Event.COMMENT_POSTED.ordinal()])
+                    .sessionsStarted(bucket.getSessionsStarted() + events[Event.SESSION_STARTED.ordinal()])
+                    .sessionsCompleted(bucket.getSessionsCompleted() + events[Event.SESSION_COMPLETED.ordinal()])
+                    .activeUserSketch(activeUsers.toBytes())
+                    .updatedAt(Instant.now());
+                engagementBucketRepository.save(bucket);
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("Could not flush engagement counters of {}, will retry: {}", hour, e.getMessage());
+            return false;
+        }
+        // Only once the row is committed, so that the stats read meanwhile still count the flushed events
+        for (Event event : Event.values()) {
+            counter.events[event.ordinal()].add(-events[event.ordinal()]);
+        }
+        counter.quizScoreSum.add(-quizScoreSum);
+        return true;
+    }
+
+    private record DetachedCounter(Instant hour, HourCounter counter, Instant detachedAt) {}
+
+    private static final class HourCounter {
+
+        private final LongAdder[] events = new LongAdder[Event.values().length];
+
+        private final DoubleAdder quizScoreSum = new DoubleAdder();
+
+        private final HyperLogLog activeUsers = new HyperLogLog();
+
+        private HourCounter() {
+            for (int i = 0; i < events.length; i++) {
+                events[i] = new LongAdder();
+            }
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.langleague.service;
 
+import com.langleague.repository.AppUserRepository;
 import com.langleague.domain.ExerciseResult;
 import com.langleague.repository.ExerciseResultRepository;
+import com.langleague.service.ChangeLogService.EntityType;
 import com.langleague.service.dto.ExerciseResultDTO;
+import com.langleague.service.event.LearningEvent;
 import com.langleague.service.mapper.ExerciseResultMapper;
+import java.time.Instant;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,11 +27,38 @@ public class ExerciseResultService {
 
     private final ExerciseResultRepository exerciseResultRepository;
 
+    private final AppUserRepository appUserRepository;
+
     private final ExerciseResultMapper exerciseResultMapper;
 
-    public ExerciseResultService(ExerciseResultRepository exerciseResultRepository, ExerciseResultMapper exerciseResultMapper) {
+    private final DashboardStatsService dashboardStatsService;
+
+    private final EngagementMetrics engagementMetrics;
+
+    private final LearningEventService learningEventService;
+
+    private final LeaderboardService leaderboardService;
+
+    private final ChangeLogService changeLogService;
+
+    public ExerciseResultService(
+        ExerciseResultRepository exerciseResultRepository,
+        AppUserRepository appUserRepository,
+        ExerciseResultMapper exerciseResultMapper,
+        DashboardStatsService dashboardStatsService,
+        EngagementMetrics engagementMetrics,
+        LearningEventService learningEventService,
+        LeaderboardService leaderboardService,
+        ChangeLogService changeLogService
+    ) {
         this.exerciseResultRepository = exerciseResultRepository;
+        this.appUserRepository = appUserRepository;
         this.exerciseResultMapper = exerciseResultMapper;
+        this.dashboardStatsService = dashboardStatsService;
+        this.engagementMetrics = engagementMetrics;
+        this.learningEventService = learningEventService;
+        this.leaderboardService = leaderboardService;
+        this.changeLogService = changeLogService;
     }
 
     /**
@@ -40,6 +71,20 @@ public class ExerciseResultService {
         LOG.debug("Request to save ExerciseResult : {}", exerciseResultDTO);
         ExerciseResult exerciseResult = exerciseResultMapper.toEntity(exerciseResultDTO);
         exerciseResult = exerciseResultRepository.save(exerciseResult);
+        dashboardStatsService.quizCompletedChanged(null, appUserIdOf(exerciseResult));
+        changeLogService.upserted(appUserIdOf(exerciseResult), EntityType.EXERCISE_RESULT, exerciseResult.getId());
+        engagementMetrics.quizAttempted(exerciseResult.getScore());
+        Long skillId = exerciseResult.getSkill() != null ? exerciseResult.getSkill().getId() : null;
+        String login = Optional.ofNullable(appUserIdOf(exerciseResult)).flatMap(appUserRepository::findUserLoginById).orElse(null);
+        learningEventService.publish(LearningEvent.exerciseSubmitted(login, skillId, exerciseResult.getScore()));
+        leaderboardService.scoreChanged(
+            null,
+            null,
+            null,
+            appUserIdOf(exerciseResult),
+            exerciseResult.getScore(),
+            exerciseResult.getSubmittedAt()
+        );
         return exerciseResultMapper.toDto(exerciseResult);
     }
 
@@ -51,8 +96,28 @@ public class ExerciseResultService {
      */
     public ExerciseResultDTO update(ExerciseResultDTO exerciseResultDTO) {
         LOG.debug("Request to update ExerciseResult : {}", exerciseResultDTO);
+        Optional<ExerciseResult> previous = exerciseResultRepository.findById(exerciseResultDTO.getId());
+        Long previousAppUserId = previous.map(ExerciseResultService::appUserIdOf).orElse(null);
+        Integer previousScore = previous.map(ExerciseResult::getScore).orElse(null);
+        Instant previousSubmittedAt = previous.map(ExerciseResult::getSubmittedAt).orElse(null);
         ExerciseResult exerciseResult = exerciseResultMapper.toEntity(exerciseResultDTO);
         exerciseResult = exerciseResultRepository.save(exerciseResult);
+        dashboardStatsService.quizCompletedChanged(previousAppUserId, appUserIdOf(exerciseResult));
+        changeLogService.moved(
+            EntityType.EXERCISE_RESULT,
+            previousAppUserId,
+            exerciseResult.getId(),
+            appUserIdOf(exerciseResult),
+            exerciseResult.getId()
+        );
+        leaderboardService.scoreChanged(
+            previousAppUserId,
+            previousScore,
+            previousSubmittedAt,
+            appUserIdOf(exerciseResult),
+            exerciseResult.getScore(),
+            exerciseResult.getSubmittedAt()
+        );
         return exerciseResultMapper.toDto(exerciseResult);
     }
 
@@ -68,7 +133,26 @@ public class ExerciseResultService {
         return exerciseResultRepository
             .findById(exerciseResultDTO.getId())
             .map(existingExerciseResult -> {
+                Long previousAppUserId = appUserIdOf(existingExerciseResult);
+                Integer previousScore = existingExerciseResult.getScore();
+                Instant previousSubmittedAt = existingExerciseResult.getSubmittedAt();
                 exerciseResultMapper.partialUpdate(existingExerciseResult, exerciseResultDTO);
+                dashboardStatsService.quizCompletedChanged(previousAppUserId, appUserIdOf(existingExerciseResult));
+                changeLogService.moved(
+                    EntityType.EXERCISE_RESULT,
+                    previousAppUserId,
+                    existingExerciseResult.getId(),
+                    appUserIdOf(existingExerciseResult),
+                    existingExerciseResult.getId()
+                );
+                leaderboardService.scoreChanged(
+                    previousAppUserId,
+                    previousScore,
+                    previousSubmittedAt,
+                    appUserIdOf(existingExerciseResult),
+                    existingExerciseResult.getScore(),
+                    existingExerciseResult.getSubmittedAt()
+                );
 
                 return existingExerciseResult;
             })
@@ -107,6 +191,24 @@ public class ExerciseResultService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete ExerciseResult : {}", id);
-        exerciseResultRepository.deleteById(id);
+        exerciseResultRepository
+            .findById(id)
+            .ifPresent(exerciseResult -> {
+                dashboardStatsService.quizCompletedChanged(appUserIdOf(exerciseResult), null);
+                changeLogService.deleted(appUserIdOf(exerciseResult), EntityType.EXERCISE_RESULT, exerciseResult.getId());
+                leaderboardService.scoreChanged(
+                    appUserIdOf(exerciseResult),
+                    exerciseResult.getScore(),
+                    exerciseResult.getSubmittedAt(),
+                    null,
+                    null,
+                    null
+                );
+                exerciseResultRepository.delete(exerciseResult);
+            });
+    }
+
+    private static Long appUserIdOf(ExerciseResult exerciseResult) {
+        return exerciseResult.getAppUser() != null ? exerciseResult.getAppUser().getId() : null;
     }
 }
@@ -0,0 +1,237 @@
+package com.langleague.service;
+
+import com.langleague.repository.ExerciseSearchFields;
+import com.langleague.repository.ListeningExerciseRepository;
+import com.langleague.repository.ReadingExerciseRepository;
+import com.langleague.repository.SpeakingExerciseRepository;
+import com.langleague.repository.WritingExerciseRepository;
+import com.langleague.service.catalog.CatalogSnapshot.LessonNode;
+import com.langleague.service.dto.ExerciseSearchHitDTO;
+import com.langleague.service.search.ExerciseSearchIndex;
+import com.langleague.service.search.ExerciseSearchIndex.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service searching the text of the listening, speaking, reading and writing exercises: passages, transcripts,
+ * prompts, questions, target phrases and sample answers, ranked with BM25.
+ * <p>
+ * The exercises are kept in memory in an {@link ExerciseSearchIndex}, so a search never reads their text from the
+ * database. The level of a lesson is looked up in the {@link CatalogSnapshotService catalog snapshot}, so writing a
+ * lesson does not index its exercises again. Writers of exercises call {@link #exercisesChanged} inside their
+ * transaction; the exercises concerned are read again and replaced in the index once it commits. The index is built at
+ * startup and rebuilt every night at 04:15, which also picks up the writes of other instances; the exercises indexed
+ * while it rebuilds are indexed again in the new index.
+ */
+@Service
+public class ExerciseSearchService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExerciseSearchService.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ListeningExerciseRepository listeningExerciseRepository;
+
+    private final SpeakingExerciseRepository speakingExerciseRepository;
+
+    private final ReadingExerciseRepository readingExerciseRepository;
+
+    private final WritingExerciseRepository writingExerciseRepository;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private ExerciseSearchIndex index = new ExerciseSearchIndex();
+
+    // The exercises indexed since the running rebuild started, null if none runs
+    private Map<Type, Set<Long>> indexedDuringRebuild;
+
+    public ExerciseSearchService(
+        ListeningExerciseRepository listeningExerciseRepository,
+        SpeakingExerciseRepository speakingExerciseRepository,
+        ReadingExerciseRepository readingExerciseRepository,
+        WritingExerciseRepository writingExerciseRepository,
+        CatalogSnapshotService catalogSnapshotService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.listeningExerciseRepository = listeningExerciseRepository;
+        this.speakingExerciseRepository = speakingExerciseRepository;
+        this.readingExerciseRepository = readingExerciseRepository;
+        this.writingExerciseRepository = writingExerciseRepository;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.transactionTemplate = AfterCommit.readOnlyTransaction(transactionManager);
+    }
+
+    /**
+     * Search the exercises.
+     *
+     * @param query the words and {@code "quoted phrases"} the exercises must all contain.
+     * @param type only return the exercises of this skill, or {@code null}.
+     * @param lessonId only return the exercises of this lesson, or {@code null}.
+     * @param level only return the exercises of the lessons of this level, case-insensitive, or {@code null}.
+     * @param limit the maximum number of exercises, at most {@value #MAX_LIMIT}.
+     * @return the matching exercises, best first.
+     */
+    public List<ExerciseSearchHitDTO> search(String query, Type type, Long lessonId, String level, int limit) {
+        LongPredicate lessonFilter = null;
+        if (level != null) {
+            Set<Long> lessonIds = catalogSnapshotService
+                .get()
+                .lessons()
+                .stream()
+                .filter(lesson -> level.equalsIgnoreCase(lesson.level()))
+                .map(LessonNode::id)
+                .collect(Collectors.toSet());
+            lessonFilter = lessonIds::contains;
+        }
+        if (lessonId != null) {
+            LongPredicate ofLesson = id -> id == lessonId;
+            lessonFilter = lessonFilter != null ? lessonFilter.and(ofLesson) : ofLesson;
+        }
+        List<ExerciseSearchIndex.Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = index.search(query, type, lessonFilter, Math.min(limit, MAX_LIMIT));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits.stream().map(ExerciseSearchService::toDto).toList();
+    }
+
+    /**
+     * Exercises were written: they are indexed again once the current transaction commits, or now if there is none.
+     *
+     * @param type the skill of the exercises.
+     * @param exerciseIds the exercises, {@code null}s are ignored.
+     */
+    public void exercisesChanged(Type type, Long... exerciseIds) {
+        Set<Long> ids = new HashSet<>(Arrays.asList(exerciseIds));
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> reindexQuietly(type, ids));
+    }
+
+    /**
+     * Rebuild the index from the database.
+     * <p>
+     * This runs at startup and every night at 04:15.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 15 4 * * ?")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        ExerciseSearchIndex newIndex = new ExerciseSearchIndex();
+        Map<Type, Set<Long>> replay = new EnumMap<>(Type.class);
+        setIndexedDuringRebuild(replay);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Type type : Type.values()) {
+                    findAllSearchFields(type).forEach(exercise -> newIndex.put(document(type, exercise)));
+                }
+            });
+            lock.writeLock().lock();
+            try {
+                index = newIndex;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            setIndexedDuringRebuild(null);
+        }
+        replay.forEach(this::reindexQuietly);
+        LOG.info(
+            "Rebuilt exercise search index: {} exercises, {} terms, in {} ms",
+            newIndex.size(),
+            newIndex.termCount(),
+            System.currentTimeMillis() - start
+        );
+    }
+
+    private void reindexQuietly(Type type, Set<Long> exerciseIds) {
+        try {
+            List<ExerciseSearchFields> exercises = transactionTemplate.execute(status -> findSearchFieldsByIdIn(type, exerciseIds));
+            lock.writeLock().lock();
+            try {
+                // The exercises not found were deleted
+                exerciseIds.forEach(id -> index.remove(type, id));
+                exercises.forEach(exercise -> index.put(document(type, exercise)));
+                if (indexedDuringRebuild != null) {
+                    indexedDuringRebuild.computeIfAbsent(type, key -> new HashSet<>()).addAll(exerciseIds);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            // The nightly rebuild repairs the index
+            LOG.warn("Could not index {} exercises {}: {}", type, exerciseIds, e.getMessage());
+        }
+    }
+
+    private void setIndexedDuringRebuild(Map<Type, Set<Long>> exerciseIds) {
+        lock.writeLock().lock();
+        try {
+            indexedDuringRebuild = exerciseIds;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<ExerciseSearchFields> findAllSearchFields(Type type) {
+        return switch (type) {
+            case LISTENING -> listeningExerciseRepository.findAllSearchFields();
+            case SPEAKING -> speakingExerciseRepository.findAllSearchFields();
+            case READING -> readingExerciseRepository.findAllSearchFields();
+            case WRITING -> writingExerciseRepository.findAllSearchFields();
+        };
+    }
+
+    private List<ExerciseSearchFields> findSearchFieldsByIdIn(Type type, Collection<Long> ids) {
+        return switch (type) {
+            case LISTENING -> listeningExerciseRepository.findSearchFieldsByIdIn(ids);
+            case SPEAKING -> speakingExerciseRepository.findSearchFieldsByIdIn(ids);
+            case READING -> readingExerciseRepository.findSearchFieldsByIdIn(ids);
+            case WRITING -> writingExerciseRepository.findSearchFieldsByIdIn(ids);
+        };
+    }
+
+    private static ExerciseSearchIndex.Document document(Type type, ExerciseSearchFields exercise) {
+        return new ExerciseSearchIndex.Document(
+            type,
+            exercise.getId(),
+            exercise.getLessonId(),
+            exercise.getContent(),
+            exercise.getDetail()
+        );
+    }
+
+    private static ExerciseSearchHitDTO toDto(ExerciseSearchIndex.Hit hit) {
+        ExerciseSearchHitDTO dto = new ExerciseSearchHitDTO();
+        dto.setType(hit.type());
+        dto.setId(hit.id());
+        dto.setLessonId(hit.lessonId());
+        dto.setExcerpt(hit.excerpt());
+        dto.setScore(hit.score());
+        return dto;
+    }
+}
@@ -0,0 +1,345 @@
+package com.langleague.service;
+
+import com.langleague.repository.AppUserRepository;
+import com.langleague.repository.ExerciseResultRepository;
+import com.langleague.service.dto.LeaderboardEntryDTO;
+import com.langleague.service.leaderboard.RankedSet;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service ranking users by XP, the sum of the scores of their exercise results.
+ * <p>
+ * The weekly (since Monday 00:00 UTC) and all-time boards are kept in memory as {@link RankedSet}s, so the top N
+ * and the rank of a user are answered in {@code O(log n)} without querying the database. Writers of exercise
+ * results call {@link #scoreChanged} with the state of the row before and after the write, applied once they commit.
+ * The boards are rebuilt from the database at startup and every night at 00:00 UTC, which also starts a new week on
+ * Mondays and repairs any drift, e.g. from results written by another instance.
+ */
+@Service
+public class LeaderboardService {
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeaderboardService.class);
+
+    /**
+     * The leaderboards.
+     */
+    public enum Period {
+        WEEKLY,
+        ALL_TIME;
+
+        public static Optional<Period> fromName(String name) {
+            return switch (name.toLowerCase(Locale.ROOT)) {
+                case "weekly", "week" -> Optional.of(WEEKLY);
+                case "all-time", "all_time", "alltime" -> Optional.of(ALL_TIME);
+                default -> Optional.empty();
+            };
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Held shared by writers from their commit until their change is applied, and exclusively by a rebuild to take
+    // its snapshot: a change is then either in the snapshot and applied, or committed after it and replayed
+    private final ReentrantReadWriteLock commitGate = new ReentrantReadWriteLock();
+
+    private final ExerciseResultRepository exerciseResultRepository;
+
+    private final AppUserRepository appUserRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private RankedSet weekly = new RankedSet();
+
+    private RankedSet allTime = new RankedSet();
+
+    private Instant weekStart = currentWeekStart();
+
+    // The changes committed after the snapshot of the running rebuild, null if none runs
+    private List<ScoreChange> replay;
+
+    private record ScoreChange(
+        Long previousAppUserId,
+        Integer previousScore,
+        Instant previousSubmittedAt,
+        Long appUserId,
+        Integer score,
+        Instant submittedAt
+    ) {}
+
+    public LeaderboardService(
+        ExerciseResultRepository exerciseResultRepository,
+        AppUserRepository appUserRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.exerciseResultRepository = exerciseResultRepository;
+        this.appUserRepository = appUserRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * An exercise result changed. The change is applied once the current transaction commits, and dropped if it
+     * rolls back.
+     *
+     * @param previousAppUserId owner before the write, or {@code null} for an insert.
+     * @param previousScore score before the write.
+     * @param previousSubmittedAt submission time before the write.
+     * @param appUserId owner after the write, or {@code null} for a delete.
+     * @param score score after the write.
+     * @param submittedAt submission time after the write.
+     */
+    public void scoreChanged(
+        Long previousAppUserId,
+        Integer previousScore,
+        Instant previousSubmittedAt,
+        Long appUserId,
+        Integer score,
+        Instant submittedAt
+    ) {
+        ScoreChange change = new ScoreChange(previousAppUserId, previousScore, previousSubmittedAt, appUserId, score, submittedAt);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                private boolean committing;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    commitGate.readLock().lock();
+                    committing = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (committing) {
+                        commitGate.readLock().unlock();
+                    }
+                }
+            }
+        );
+    }
+
+    /**
+     * Rebuild both boards from the exercise results.
+     * <p>
+     * This runs at startup and every night at 00:00 UTC. The changes committed while it reads are replayed on the new
+     * boards.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 0 * * ?", zone = "UTC")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Instant newWeekStart = currentWeekStart();
+        RankedSet newWeekly = new RankedSet();
+        RankedSet newAllTime = new RankedSet();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                commitGate.writeLock().lock();
+                try {
+                    // The first read fixes the snapshot of the transaction, with no writer between commit and apply
+                    exerciseResultRepository.existsById(0L);
+                    startReplay();
+                } finally {
+                    commitGate.writeLock().unlock();
+                }
+                exerciseResultRepository.sumScoresByAppUser().forEach(row -> putXp(newAllTime, row));
+                exerciseResultRepository.sumScoresByAppUserSince(newWeekStart).forEach(row -> putXp(newWeekly, row));
+            });
+        } catch (RuntimeException e) {
+            stopReplay();
+            throw e;
+        }
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            weekly = newWeekly;
+            allTime = newAllTime;
+            weekStart = newWeekStart;
+            replayed = replay.size();
+            replay.forEach(this::addXp);
+            replay = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.info(
+            "Rebuilt leaderboards: {} users all-time, {} this week, {} changes replayed, in {} ms",
+            newAllTime.size(),
+            newWeekly.size(),
+            replayed,
+            System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Get a page of a leaderboard.
+     *
+     * @param period the leaderboard.
+     * @param offset the number of users to skip.
+     * @param limit the number of users, at most {@value #MAX_LIMIT}.
+     * @return the users, best first.
+     */
+    @Transactional(readOnly = true)
+    public List<LeaderboardEntryDTO> getTop(Period period, int offset, int limit) {
+        List<RankedSet.Entry> entries;
+        lock.readLock().lock();
+        try {
+            entries = board(period).range(Math.max(0, offset), Math.min(Math.max(0, limit), MAX_LIMIT));
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (entries.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, AppUserRepository.AppUserName> names = appUserRepository
+            .findNamesByIdIn(entries.stream().map(RankedSet.Entry::id).toList())
+            .stream()
+            .collect(Collectors.toMap(AppUserRepository.AppUserName::getId, Function.identity()));
+        return entries.stream().map(entry -> toDto(entry, names.get(entry.id()))).toList();
+    }
+
+    /**
+     * Get the rank of a user.
+     *
+     * @param period the leaderboard.
+     * @param appUserId the user.
+     * @return the entry of the user, with rank 0 and no XP if the user is not ranked.
+     */
+    @Transactional(readOnly = true)
+    public LeaderboardEntryDTO getRank(Period period, Long appUserId) {
+        RankedSet.Entry entry;
+        lock.readLock().lock();
+        try {
+            entry = board(period).entry(appUserId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        AppUserRepository.AppUserName name = appUserRepository.findNamesByIdIn(List.of(appUserId)).stream().findFirst().orElse(null);
+        return toDto(entry != null ? entry : new RankedSet.Entry(appUserId, 0, 0), name);
+    }
+
+    /**
+     * Get the rank of the user with the given login.
+     *
+     * @param period the leaderboard.
+     * @param login the login of the user.
+     * @return the entry of the user, or empty if the login has no profile.
+     */
+    @Transactional(readOnly = true)
+    public Optional<LeaderboardEntryDTO> getRank(Period period, String login) {
+        return appUserRepository.findIdByUserLogin(login).map(appUserId -> getRank(period, appUserId));
+    }
+
+    private RankedSet board(Period period) {
+        return period == Period.WEEKLY ? weekly : allTime;
+    }
+
+    private void apply(ScoreChange change) {
+        lock.writeLock().lock();
+        try {
+            addXp(change);
+            if (replay != null) {
+                replay.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void startReplay() {
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void stopReplay() {
+        lock.writeLock().lock();
+        try {
+            replay = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addXp(ScoreChange change) {
+        addXp(change.previousAppUserId(), change.previousScore(), change.previousSubmittedAt(), -1);
+        addXp(change.appUserId(), change.score(), change.submittedAt(), 1);
+    }
+
+    private void addXp(Long appUserId, Integer score, Instant submittedAt, int sign) {
+        if (appUserId == null || score == null || score == 0) {
+            return;
+        }
+        long delta = (long) sign * score;
+        removeIfEmpty(allTime, appUserId, allTime.increment(appUserId, delta));
+        Instant at = submittedAt != null ? submittedAt : Instant.now();
+        if (!at.isBefore(weekStart)) {
+            removeIfEmpty(weekly, appUserId, weekly.increment(appUserId, delta));
+        }
+    }
+
+    private static void removeIfEmpty(RankedSet board, long appUserId, long xp) {
+        if (xp == 0) {
+            board.remove(appUserId);
+        }
+    }
+
+    private static void putXp(RankedSet board, ExerciseResultRepository.UserXp row) {
+        if (row.getAppUserId() != null && row.getXp() != null && row.getXp() != 0) {
+            board.put(row.getAppUserId(), row.getXp());
+        }
+    }
+
+    private static LeaderboardEntryDTO toDto(RankedSet.Entry entry, AppUserRepository.AppUserName name) {
+        LeaderboardEntryDTO dto = new LeaderboardEntryDTO();
+        dto.setRank(entry.rank());
+        dto.setAppUserId(entry.id());
+        dto.setXp(entry.score());
+        if (name != null) {
+            dto.setLogin(name.getLogin());
+            dto.setDisplayName(name.getDisplayName());
+        }
+        return dto;
+    }
+
+    private static Instant currentWeekStart() {
+        return LocalDate.now(ZoneOffset.UTC)
+            .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+            .atStartOfDay(ZoneOffset.UTC)
+            .toInstant();
+    }
+}
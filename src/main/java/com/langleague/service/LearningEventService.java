@@ -0,0 +1,215 @@
+package com.langleague.service;
+
+import com.langleague.config.ApplicationProperties;
+import com.langleague.service.event.LearningEvent;
+import com.langleague.service.event.LearningEventListener;
+import com.langleague.service.event.RingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-process pipeline of {@link LearningEvent}s.
+ * <p>
+ * {@link #publish(LearningEvent)} only enqueues the event, once the transaction of the activity commits, into a
+ * bounded lock-free {@link RingBuffer}; a single writer thread drains it in batches of up to
+ * {@code application.events.batch-size}, appends each batch to the {@code learning_event} table with one JDBC batch
+ * insert, then hands it to the {@link LearningEventListener}s.
+ * When the buffer is full the event is dropped rather than blocking the request: the
+ * {@code langleague.learning-events} meters (tagged {@code result=published|dropped|persisted|failed}) and the
+ * {@code langleague.learning-events.buffer.size} gauge show the backpressure.
+ * <p>
+ * Rows are written with JDBC rather than JPA because Hibernate cannot batch inserts into identity-keyed tables.
+ */
+@Service
+public class LearningEventService implements SmartLifecycle {
+
+    public static final String EVENTS_METER_NAME = "langleague.learning-events";
+
+    private static final Logger LOG = LoggerFactory.getLogger(LearningEventService.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO learning_event (event_type, login, subject_id, event_value, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final RingBuffer<LearningEvent> buffer;
+
+    private final int batchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectProvider<LearningEventListener> listeners;
+
+    private final Counter publishedCounter;
+
+    private final Counter droppedCounter;
+
+    private final Counter persistedCounter;
+
+    private final Counter failedCounter;
+
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    public LearningEventService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        ObjectProvider<LearningEventListener> listeners,
+        MeterRegistry meterRegistry
+    ) {
+        this.buffer = new RingBuffer<>(applicationProperties.getEvents().getBufferCapacity());
+        this.batchSize = applicationProperties.getEvents().getBatchSize();
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.listeners = listeners;
+        this.publishedCounter = eventsCounter(meterRegistry, "published");
+        this.droppedCounter = eventsCounter(meterRegistry, "dropped");
+        this.persistedCounter = eventsCounter(meterRegistry, "persisted");
+        this.failedCounter = eventsCounter(meterRegistry, "failed");
+        this.batchTimer = Timer.builder(EVENTS_METER_NAME + ".batch")
+            .description("Time to persist and dispatch one batch of learning events")
+            .register(meterRegistry);
+        Gauge.builder(EVENTS_METER_NAME + ".buffer.size", buffer, RingBuffer::size)
+            .description("Learning events waiting to be persisted")
+            .register(meterRegistry);
+        Gauge.builder(EVENTS_METER_NAME + ".buffer.capacity", buffer, RingBuffer::capacity)
+            .description("Maximum number of learning events waiting to be persisted")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Publish an event once the current transaction commits, or now if there is none, so that no event is recorded for
+     * an activity that is rolled back. Never blocks: if the buffer is full the event is dropped and counted.
+     *
+     * @param event the event.
+     */
+    public void publish(LearningEvent event) {
+        AfterCommit.run(() -> enqueue(event));
+    }
+
+    private void enqueue(LearningEvent event) {
+        if (buffer.offer(event)) {
+            publishedCounter.increment();
+        } else {
+            droppedCounter.increment();
+            LOG.debug("Learning event buffer full, dropped {}", event);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "learning-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop accepting new work and write what is left in the buffer.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            LOG.warn("{} learning events were not persisted at shutdown", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<LearningEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            buffer.drainTo(batch::add, batchSize);
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            List<LearningEvent> events = List.copyOf(batch);
+            batch.clear();
+            batchTimer.record(() -> {
+                if (persist(events)) {
+                    dispatch(events);
+                }
+            });
+        }
+    }
+
+    private boolean persist(List<LearningEvent> events) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+                        statement.setString(1, event.getType().name());
+                        statement.setString(2, event.getLogin());
+                        statement.setObject(3, event.getSubjectId(), Types.BIGINT);
+                        statement.setObject(4, event.getValue(), Types.INTEGER);
+                        statement.setTimestamp(5, Timestamp.from(event.getOccurredAt()));
+                    })
+                );
+                persistedCounter.increment(events.size());
+                return true;
+            } catch (RuntimeException e) {
+                LOG.warn("Could not persist {} learning events (attempt {}/{}): {}", events.size(), attempt, MAX_ATTEMPTS, e.getMessage());
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(attempt));
+            }
+        }
+        failedCounter.increment(events.size());
+        return false;
+    }
+
+    private void dispatch(List<LearningEvent> events) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onEvents(events);
+            } catch (RuntimeException e) {
+                LOG.warn("Learning event listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        });
+    }
+
+    private static Counter eventsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(EVENTS_METER_NAME)
+            .description("Learning events by outcome")
+            .baseUnit("events")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -25,9 +25,16 @@ public class LearningStreakService {
 
     private final LearningStreakMapper learningStreakMapper;
 
-    public LearningStreakService(LearningStreakRepository learningStreakRepository, LearningStreakMapper learningStreakMapper) {
+    private final DashboardStatsService dashboardStatsService;
+
+    public LearningStreakService(
+        LearningStreakRepository learningStreakRepository,
+        LearningStreakMapper learningStreakMapper,
+        DashboardStatsService dashboardStatsService
+    ) {
         this.learningStreakRepository = learningStreakRepository;
         this.learningStreakMapper = learningStreakMapper;
+        this.dashboardStatsService = dashboardStatsService;
     }
 
     /**
@@ -40,6 +47,7 @@ public class LearningStreakService {
         LOG.debug("Request to save LearningStreak : {}", learningStreakDTO);
         LearningStreak learningStreak = learningStreakMapper.toEntity(learningStreakDTO);
         learningStreak = learningStreakRepository.save(learningStreak);
+        streakChanged(learningStreak);
         return learningStreakMapper.toDto(learningStreak);
     }
 
@@ -53,6 +61,7 @@ public class LearningStreakService {
         LOG.debug("Request to update LearningStreak : {}", learningStreakDTO);
         LearningStreak learningStreak = learningStreakMapper.toEntity(learningStreakDTO);
         learningStreak = learningStreakRepository.save(learningStreak);
+        streakChanged(learningStreak);
         return learningStreakMapper.toDto(learningStreak);
     }
 
@@ -73,7 +82,10 @@ public class LearningStreakService {
                 return existingLearningStreak;
             })
             .map(learningStreakRepository::save)
-            .map(learningStreakMapper::toDto);
+            .map(learningStreak -> {
+                streakChanged(learningStreak);
+                return learningStreakMapper.toDto(learningStreak);
+            });
     }
 
     /**
@@ -109,4 +121,14 @@ public class LearningStreakService {
         LOG.debug("Request to delete LearningStreak : {}", id);
         learningStreakRepository.deleteById(id);
     }
+
+    private void streakChanged(LearningStreak learningStreak) {
+        if (learningStreak.getAppUser() != null) {
+            dashboardStatsService.streakChanged(
+                learningStreak.getAppUser().getId(),
+                learningStreak.getCurrentStreak(),
+                learningStreak.getLongestStreak()
+            );
+        }
+    }
 }
@@ -0,0 +1,237 @@
+package com.langleague.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.langleague.config.ApplicationProperties;
+import com.langleague.repository.LessonRepository;
+import com.langleague.repository.MediaFileRepository;
+import com.langleague.repository.WordExampleRepository;
+import com.langleague.service.bundle.LessonBundleStore;
+import com.langleague.service.bundle.LessonBundleStore.Bundle;
+import com.langleague.service.dto.LessonBundleDTO;
+import com.langleague.service.dto.WordDTO;
+import com.langleague.service.mapper.MediaFileMapper;
+import com.langleague.service.mapper.WordExampleMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service rendering the content bundle of each published lesson: its details, the examples of its words and its media
+ * files, in one JSON document stored on disk with a gzip variant, so that opening a lesson is one download of a file.
+ * <p>
+ * A bundle is rendered when its lesson is published, and again whenever the lesson or its content is written, on the
+ * {@link LessonDetailService.LessonsChanged} event, by a task of the task executor; it is removed when the lesson is
+ * unpublished or deleted. The bundles are dropped at startup and every night at 04:00, which also picks up the writes
+ * of other instances, and a missing bundle is rendered on its first download.
+ * <p>
+ * Each instance stores its bundles in its own subdirectory of {@code application.bundles.directory}, deleted when it
+ * stops.
+ */
+@Service
+public class LessonBundleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LessonBundleService.class);
+
+    private final LessonDetailService lessonDetailService;
+
+    private final LessonRepository lessonRepository;
+
+    private final WordExampleRepository wordExampleRepository;
+
+    private final MediaFileRepository mediaFileRepository;
+
+    private final WordExampleMapper wordExampleMapper;
+
+    private final MediaFileMapper mediaFileMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor taskExecutor;
+
+    private final LessonBundleStore store;
+
+    // Rendered by one task at a time, so that an older render never replaces a newer one
+    private final Set<Long> changedLessonIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean renderScheduled = new AtomicBoolean();
+
+    public LessonBundleService(
+        LessonDetailService lessonDetailService,
+        LessonRepository lessonRepository,
+        WordExampleRepository wordExampleRepository,
+        MediaFileRepository mediaFileRepository,
+        WordExampleMapper wordExampleMapper,
+        MediaFileMapper mediaFileMapper,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        ApplicationProperties applicationProperties
+    ) throws IOException {
+        this.lessonDetailService = lessonDetailService;
+        this.lessonRepository = lessonRepository;
+        this.wordExampleRepository = wordExampleRepository;
+        this.mediaFileRepository = mediaFileRepository;
+        this.wordExampleMapper = wordExampleMapper;
+        this.mediaFileMapper = mediaFileMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        // "pid@host": unique among the instances sharing the directory
+        String instance = ManagementFactory.getRuntimeMXBean().getName().replaceAll("[^A-Za-z0-9.@-]", "_");
+        this.store = new LessonBundleStore(Path.of(applicationProperties.getBundles().getDirectory()).resolve(instance));
+    }
+
+    /**
+     * Get the bundle of a lesson, rendering it if it is missing.
+     *
+     * @param lessonId the lesson.
+     * @return the current bundle, or empty if the lesson is not published.
+     */
+    public Optional<Bundle> getBundle(Long lessonId) {
+        Optional<Bundle> bundle = store.get(lessonId);
+        return bundle.isPresent() ? bundle : render(lessonId);
+    }
+
+    /**
+     * Forget a bundle whose files are missing, e.g. deleted from the disk, so that it is rendered again.
+     *
+     * @param bundle the bundle.
+     */
+    public void bundleMissing(Bundle bundle) {
+        LOG.warn("The files of the bundle of lesson {} are missing", bundle.lessonId());
+        try {
+            store.remove(bundle);
+        } catch (IOException e) {
+            LOG.warn("Could not remove the bundle of lesson {}: {}", bundle.lessonId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Render the bundles of the lessons that changed again, in the background.
+     *
+     * @param event the lessons.
+     */
+    @EventListener
+    public void onLessonsChanged(LessonDetailService.LessonsChanged event) {
+        changedLessonIds.addAll(event.lessonIds());
+        scheduleRender();
+    }
+
+    /**
+     * Drop every bundle; they are rendered again on their first download.
+     * <p>
+     * This runs at startup and every night at 04:00.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 4 * * ?")
+    public void clear() {
+        try {
+            int bundles = store.size();
+            store.clear();
+            LOG.info("Dropped {} lesson bundles", bundles);
+        } catch (IOException e) {
+            LOG.warn("Could not drop the lesson bundles: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the directory of this instance.
+     */
+    @PreDestroy
+    public void deleteDirectory() {
+        try {
+            store.delete();
+        } catch (IOException e) {
+            LOG.warn("Could not delete the lesson bundles: {}", e.getMessage());
+        }
+    }
+
+    private void scheduleRender() {
+        if (!changedLessonIds.isEmpty() && renderScheduled.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                try {
+                    renderChanged();
+                } finally {
+                    renderScheduled.set(false);
+                }
+                // Picks up the lessons that changed after the last one was taken
+                scheduleRender();
+            });
+        }
+    }
+
+    private void renderChanged() {
+        for (Iterator<Long> lessonIds = changedLessonIds.iterator(); lessonIds.hasNext(); ) {
+            Long lessonId = lessonIds.next();
+            lessonIds.remove();
+            try {
+                render(lessonId);
+            } catch (RuntimeException e) {
+                // Rendered again on the next download
+                LOG.warn("Could not render the bundle of lesson {}: {}", lessonId, e.getMessage());
+                removeQuietly(lessonId);
+            }
+        }
+    }
+
+    private Optional<Bundle> render(Long lessonId) {
+        Optional<LessonBundleDTO> content = transactionTemplate.execute(status -> content(lessonId));
+        try {
+            if (content.isEmpty()) {
+                store.remove(lessonId);
+                return Optional.empty();
+            }
+            return Optional.of(store.put(lessonId, objectMapper.writeValueAsBytes(content.orElseThrow())));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Optional<LessonBundleDTO> content(Long lessonId) {
+        if (!lessonRepository.existsByIdAndIsPublishedTrue(lessonId)) {
+            return Optional.empty();
+        }
+        return lessonDetailService
+            .getLessonDetail(lessonId)
+            .map(detail -> {
+                List<Long> wordIds = detail.getWords().stream().map(WordDTO::getId).toList();
+                return new LessonBundleDTO(
+                    detail,
+                    wordIds.isEmpty() ? List.of() : wordExampleMapper.toDto(wordExampleRepository.findByWordIdInOrderById(wordIds)),
+                    mediaFileMapper.toDto(mediaFileRepository.findByLessonIdOrderById(lessonId))
+                );
+            });
+    }
+
+    private void removeQuietly(Long lessonId) {
+        try {
+            store.remove(lessonId);
+        } catch (IOException e) {
+            LOG.warn("Could not remove the bundle of lesson {}: {}", lessonId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.langleague.service;
+
+import com.langleague.repository.LessonRepository;
+import com.langleague.repository.LessonSkillRepository;
+import com.langleague.repository.LessonWordRepository;
+import com.langleague.repository.ListeningExerciseRepository;
+import com.langleague.repository.ReadingExerciseRepository;
+import com.langleague.repository.SpeakingExerciseRepository;
+import com.langleague.repository.WritingExerciseRepository;
+import com.langleague.service.dto.LessonDetailDTO;
+import com.langleague.service.mapper.LessonMapper;
+import com.langleague.service.mapper.LessonSkillMapper;
+import com.langleague.service.mapper.ListeningExerciseMapper;
+import com.langleague.service.mapper.ReadingExerciseMapper;
+import com.langleague.service.mapper.SpeakingExerciseMapper;
+import com.langleague.service.mapper.WordMapper;
+import com.langleague.service.mapper.WritingExerciseMapper;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service assembling the {@link LessonDetailDTO} of a lesson.
+ * <p>
+ * The lesson and each of its collections are read by their own query on the lesson id, so that the rows read add up
+ * to the size of the collections: fetching them all in one join would read the product of their sizes. The details
+ * are cached in {@value #LESSON_DETAILS_CACHE}.
+ * <p>
+ * Writers of lessons and of their content (lesson words, words and their examples, lesson skills, exercises and media
+ * files) call {@link #lessonsChanged} inside their transaction. Once it commits, the lessons concerned are evicted
+ * and a {@link LessonsChanged} event is published for the other views of their content.
+ */
+@Service
+@Transactional(readOnly = true)
+public class LessonDetailService {
+
+    public static final String LESSON_DETAILS_CACHE = "lessonDetails";
+
+    private static final Logger LOG = LoggerFactory.getLogger(LessonDetailService.class);
+
+    /**
+     * Published once the lessons, or their content, were written.
+     *
+     * @param lessonIds the lessons.
+     */
+    public record LessonsChanged(Set<Long> lessonIds) {}
+
+    private final LessonRepository lessonRepository;
+
+    private final LessonWordRepository lessonWordRepository;
+
+    private final LessonSkillRepository lessonSkillRepository;
+
+    private final ListeningExerciseRepository listeningExerciseRepository;
+
+    private final SpeakingExerciseRepository speakingExerciseRepository;
+
+    private final ReadingExerciseRepository readingExerciseRepository;
+
+    private final WritingExerciseRepository writingExerciseRepository;
+
+    private final LessonMapper lessonMapper;
+
+    private final WordMapper wordMapper;
+
+    private final LessonSkillMapper lessonSkillMapper;
+
+    private final ListeningExerciseMapper listeningExerciseMapper;
+
+    private final SpeakingExerciseMapper speakingExerciseMapper;
+
+    private final ReadingExerciseMapper readingExerciseMapper;
+
+    private final WritingExerciseMapper writingExerciseMapper;
+
+    private final CacheManager cacheManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LessonDetailService(
+        LessonRepository lessonRepository,
+        LessonWordRepository lessonWordRepository,
+        LessonSkillRepository lessonSkillRepository,
+        ListeningExerciseRepository listeningExerciseRepository,
+        SpeakingExerciseRepository speakingExerciseRepository,
+        ReadingExerciseRepository readingExerciseRepository,
+        WritingExerciseRepository writingExerciseRepository,
+        LessonMapper lessonMapper,
+        WordMapper wordMapper,
+        LessonSkillMapper lessonSkillMapper,
+        ListeningExerciseMapper listeningExerciseMapper,
+        SpeakingExerciseMapper speakingExerciseMapper,
+        ReadingExerciseMapper readingExerciseMapper,
+        WritingExerciseMapper writingExerciseMapper,
+        CacheManager cacheManager,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.lessonRepository = lessonRepository;
+        this.lessonWordRepository = lessonWordRepository;
+        this.lessonSkillRepository = lessonSkillRepository;
+        this.listeningExerciseRepository = listeningExerciseRepository;
+        this.speakingExerciseRepository = speakingExerciseRepository;
+        this.readingExerciseRepository = readingExerciseRepository;
+        this.writingExerciseRepository = writingExerciseRepository;
+        this.lessonMapper = lessonMapper;
+        this.wordMapper = wordMapper;
+        this.lessonSkillMapper = lessonSkillMapper;
+        this.listeningExerciseMapper = listeningExerciseMapper;
+        this.speakingExerciseMapper = speakingExerciseMapper;
+        this.readingExerciseMapper = readingExerciseMapper;
+        this.writingExerciseMapper = writingExerciseMapper;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Get the details of a lesson: its words, skills and exercises, in the order they were added.
+     *
+     * @param id the id of the lesson.
+     * @return the details, or empty if there is no such lesson.
+     */
+    @Cacheable(cacheNames = LESSON_DETAILS_CACHE, unless = "#result == null")
+    public Optional<LessonDetailDTO> getLessonDetail(Long id) {
+        LOG.debug("Request to get the details of Lesson : {}", id);
+        return lessonRepository
+            .findById(id)
+            .map(lesson ->
+                new LessonDetailDTO(
+                    lessonMapper.toDto(lesson),
+                    wordMapper.toDto(lessonWordRepository.findWordsByLessonId(id)),
+                    lessonSkillMapper.toDto(lessonSkillRepository.findByLessonIdOrderById(id)),
+                    listeningExerciseMapper.toDto(listeningExerciseRepository.findByLessonIdOrderById(id)),
+                    speakingExerciseMapper.toDto(speakingExerciseRepository.findByLessonIdOrderById(id)),
+                    readingExerciseMapper.toDto(readingExerciseRepository.findByLessonIdOrderById(id)),
+                    writingExerciseMapper.toDto(writingExerciseRepository.findByLessonIdOrderById(id))
+                )
+            );
+    }
+
+    /**
+     * Lessons, or their content, were written: their details are evicted once the current transaction commits, or
+     * now if there is none.
+     *
+     * @param lessonIds the lessons, {@code null}s are ignored.
+     */
+    public void lessonsChanged(Long... lessonIds) {
+        lessonsChanged(Arrays.asList(lessonIds));
+    }
+
+    /**
+     * Lessons, or their content, were written: their details are evicted once the current transaction commits, or
+     * now if there is none.
+     *
+     * @param lessonIds the lessons, {@code null}s are ignored.
+     */
+    public void lessonsChanged(Collection<Long> lessonIds) {
+        Set<Long> ids = new HashSet<>(lessonIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        changed(ids);
+                    }
+                }
+            );
+        } else {
+            changed(ids);
+        }
+    }
+
+    private void changed(Set<Long> lessonIds) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(LESSON_DETAILS_CACHE));
+        lessonIds.forEach(cache::evictIfPresent);
+        eventPublisher.publishEvent(new LessonsChanged(Set.copyOf(lessonIds)));
+    }
+}
@@ -0,0 +1,247 @@
+package com.langleague.service;
+
+import com.langleague.repository.UserProgressRepository;
+import com.langleague.repository.UserProgressRepository.LessonAccess;
+import com.langleague.service.event.LearningEvent;
+import com.langleague.service.event.LearningEventListener;
+import com.langleague.service.event.LearningEventType;
+import com.langleague.service.recommendation.LessonNeighbours;
+import com.langleague.service.recommendation.LessonNeighbours.History;
+import com.langleague.service.recommendation.LessonRecommenderEvaluation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service recommending lessons to a learner from what the learners who finished the same lessons went on to.
+ * <p>
+ * A batch job mines the {@link LessonNeighbours} of every lesson from the progress of all learners, at startup and
+ * every night at 02:30, and also loads the lessons of each learner. Lessons started or progressed afterwards arrive as
+ * {@link LearningEvent}s. A recommendation merges the neighbours of the learner's recent lessons, all in memory, so it
+ * never queries the database.
+ * <p>
+ * Each run of the job also evaluates the recommendations offline with {@link LessonRecommenderEvaluation}, and
+ * publishes the hit rate to Micrometer as {@value #HIT_RATE_METER_NAME}, next to
+ * {@value #POPULARITY_HIT_RATE_METER_NAME} for the most popular lessons.
+ */
+@Service
+public class LessonRecommendationService implements LearningEventListener {
+
+    public static final String HIT_RATE_METER_NAME = "langleague.recommendations.hit-rate";
+
+    public static final String POPULARITY_HIT_RATE_METER_NAME = "langleague.recommendations.popularity-hit-rate";
+
+    static final int NEIGHBOURS = 20;
+
+    static final int WINDOW = 10;
+
+    static final int MIN_SUPPORT = 2;
+
+    static final int RECENT_LESSONS = 5;
+
+    static final int EVALUATION_K = 10;
+
+    private static final int COMPLETED_PERCENT = 100;
+
+    private static final Logger LOG = LoggerFactory.getLogger(LessonRecommendationService.class);
+
+    private final Map<String, Learner> learners = new ConcurrentHashMap<>();
+
+    private final UserProgressRepository userProgressRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor taskExecutor;
+
+    private volatile LessonNeighbours neighbours = LessonNeighbours.EMPTY;
+
+    private volatile LessonRecommenderEvaluation.Result evaluation = new LessonRecommenderEvaluation.Result(0, 0, 0);
+
+    public LessonRecommendationService(
+        UserProgressRepository userProgressRepository,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        @Qualifier("taskExecutor") Executor taskExecutor
+    ) {
+        this.userProgressRepository = userProgressRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        Gauge.builder(HIT_RATE_METER_NAME, this, service -> service.evaluation.hitRate())
+            .description("Hit rate at " + EVALUATION_K + " of the lesson recommendations, on a held-out split")
+            .register(meterRegistry);
+        Gauge.builder(POPULARITY_HIT_RATE_METER_NAME, this, service -> service.evaluation.popularityHitRate())
+            .description("Hit rate at " + EVALUATION_K + " of the most popular lessons, on a held-out split")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Recommend lessons to a learner.
+     *
+     * @param login the login of the learner, or {@code null}.
+     * @param eligible whether a lesson may be recommended; the lessons the learner took are never recommended.
+     * @param limit the maximum number of lessons.
+     * @return the ids of the lessons, best first; empty for a learner without lessons.
+     */
+    public List<Long> recommend(String login, LongPredicate eligible, int limit) {
+        Learner learner = login != null ? learners.get(login) : null;
+        if (learner == null) {
+            return List.of();
+        }
+        return neighbours.recommend(learner.recent(), id -> !learner.took(id) && eligible.test(id), limit);
+    }
+
+    /**
+     * @param login the login of a learner, or {@code null}.
+     * @param lessonId a lesson.
+     * @return {@code true} if the learner took the lesson.
+     */
+    public boolean took(String login, long lessonId) {
+        Learner learner = login != null ? learners.get(login) : null;
+        return learner != null && learner.took(lessonId);
+    }
+
+    @Override
+    public void onEvents(List<LearningEvent> events) {
+        for (LearningEvent event : events) {
+            boolean lessonEvent =
+                event.getType() == LearningEventType.LESSON_STARTED || event.getType() == LearningEventType.PROGRESS_SAVED;
+            if (lessonEvent && event.getLogin() != null && event.getSubjectId() != null) {
+                learners.compute(event.getLogin(), (login, learner) ->
+                    Objects.requireNonNullElse(learner, Learner.NONE).accessed(event.getSubjectId())
+                );
+            }
+        }
+    }
+
+    /**
+     * Run the first {@link #rebuild()} in the background, so that startup does not wait for it: until it ends, nobody
+     * gets recommendations.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAtStartup() {
+        taskExecutor.execute(this::rebuild);
+    }
+
+    /**
+     * Mine the neighbours of the lessons, load the lessons of the learners and evaluate the recommendations.
+     * <p>
+     * This runs at startup and every night at 02:30.
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<String, History> histories = transactionTemplate.execute(status -> {
+            try (Stream<LessonAccess> accesses = userProgressRepository.streamAllLessonAccesses()) {
+                return histories(accesses);
+            }
+        });
+        List<History> all = new ArrayList<>(histories.values());
+        neighbours = LessonNeighbours.build(all, NEIGHBOURS, WINDOW, MIN_SUPPORT);
+        // Lessons taken during the job may be missing until the next event of the learner or the next run
+        histories.forEach((login, history) -> learners.put(login, Learner.of(history)));
+        learners.keySet().retainAll(histories.keySet());
+        long mined = System.currentTimeMillis();
+        evaluation = LessonRecommenderEvaluation.hitRate(all, EVALUATION_K, RECENT_LESSONS, NEIGHBOURS, WINDOW, MIN_SUPPORT);
+        LOG.info(
+            "Mined the neighbours of {} lessons from {} learners in {} ms; hit rate at {}: {}, most popular: {}, on {} learners",
+            neighbours.size(),
+            all.size(),
+            mined - start,
+            EVALUATION_K,
+            String.format("%.3f", evaluation.hitRate()),
+            String.format("%.3f", evaluation.popularityHitRate()),
+            evaluation.learners()
+        );
+    }
+
+    private static Map<String, History> histories(Stream<LessonAccess> accesses) {
+        Map<String, History> histories = new HashMap<>();
+        List<Long> lessons = new ArrayList<>();
+        List<Boolean> finished = new ArrayList<>();
+        String login = null;
+        // The accesses of a learner are consecutive
+        for (LessonAccess access : (Iterable<LessonAccess>) accesses::iterator) {
+            if (!Objects.equals(access.getLogin(), login)) {
+                addHistory(histories, login, lessons, finished);
+                login = access.getLogin();
+            }
+            lessons.add(access.getLessonId());
+            finished.add(access.getPercent() != null && access.getPercent() >= COMPLETED_PERCENT);
+        }
+        addHistory(histories, login, lessons, finished);
+        return histories;
+    }
+
+    private static void addHistory(Map<String, History> histories, String login, List<Long> lessons, List<Boolean> finished) {
+        if (login != null && !lessons.isEmpty()) {
+            boolean[] finishedArray = new boolean[finished.size()];
+            for (int i = 0; i < finishedArray.length; i++) {
+                finishedArray[i] = finished.get(i);
+            }
+            histories.put(login, new History(lessons.stream().mapToLong(Long::longValue).toArray(), finishedArray));
+        }
+        lessons.clear();
+        finished.clear();
+    }
+
+    /**
+     * The lessons of a learner: the recent ones, most recent first, and all of them, sorted. Immutable.
+     */
+    private record Learner(long[] recent, long[] taken) {
+        private static final Learner NONE = new Learner(new long[0], new long[0]);
+
+        private static Learner of(History history) {
+            long[] lessons = history.lessons();
+            long[] recent = new long[Math.min(RECENT_LESSONS, lessons.length)];
+            for (int i = 0; i < recent.length; i++) {
+                recent[i] = lessons[lessons.length - 1 - i];
+            }
+            long[] taken = lessons.clone();
+            Arrays.sort(taken);
+            return new Learner(recent, taken);
+        }
+
+        private boolean took(long lessonId) {
+            return Arrays.binarySearch(taken, lessonId) >= 0;
+        }
+
+        private Learner accessed(long lessonId) {
+            long[] newRecent = new long[Math.min(RECENT_LESSONS, recent.length + 1)];
+            newRecent[0] = lessonId;
+            int size = 1;
+            for (int i = 0; i < recent.length && size < newRecent.length; i++) {
+                if (recent[i] != lessonId) {
+                    newRecent[size++] = recent[i];
+                }
+            }
+            int index = Arrays.binarySearch(taken, lessonId);
+            long[] newTaken = taken;
+            if (index < 0) {
+                newTaken = new long[taken.length + 1];
+                System.arraycopy(taken, 0, newTaken, 0, -index - 1);
+                newTaken[-index - 1] = lessonId;
+                System.arraycopy(taken, -index - 1, newTaken, -index, taken.length + index + 1);
+            }
+            return new Learner(Arrays.copyOf(newRecent, size), newTaken);
+        }
+    }
+}
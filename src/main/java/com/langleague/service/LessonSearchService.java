@@ -0,0 +1,198 @@
+package com.langleague.service;
+
+import com.langleague.repository.LessonRepository;
+import com.langleague.repository.LessonRepository.LessonSearchFields;
+import com.langleague.repository.LessonWordRepository;
+import com.langleague.repository.LessonWordRepository.LessonWordText;
+import com.langleague.service.search.LessonSearchIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service searching the published lessons by title, Korean title, description and the text and meaning of their
+ * words, ranked with BM25.
+ * <p>
+ * The lessons are kept in memory in a {@link LessonSearchIndex}, so a search never queries the database. Writers of
+ * lessons, words and lesson words call {@link #lessonsChanged} inside their transaction; the lessons concerned are
+ * read again and replaced in the index once it commits. The index is built at startup and rebuilt every night at
+ * 03:30, which also picks up the writes of other instances; the lessons indexed while it rebuilds are indexed again in
+ * the new index.
+ */
+@Service
+public class LessonSearchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LessonSearchService.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LessonRepository lessonRepository;
+
+    private final LessonWordRepository lessonWordRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private LessonSearchIndex index = new LessonSearchIndex();
+
+    // The lessons indexed since the running rebuild started, null if none runs
+    private Set<Long> indexedDuringRebuild;
+
+    public LessonSearchService(
+        LessonRepository lessonRepository,
+        LessonWordRepository lessonWordRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.lessonRepository = lessonRepository;
+        this.lessonWordRepository = lessonWordRepository;
+        this.transactionTemplate = AfterCommit.readOnlyTransaction(transactionManager);
+    }
+
+    /**
+     * Search the published lessons.
+     *
+     * @param query the query, as typed; its last word also matches the words it starts.
+     * @param level only return the lessons of this level, case-insensitive, or {@code null}.
+     * @param limit the maximum number of lessons.
+     * @return the ids of the matching lessons, best first.
+     */
+    public List<Long> search(String query, String level, int limit) {
+        List<LessonSearchIndex.Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = index.search(query, level, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits.stream().map(LessonSearchIndex.Hit::id).toList();
+    }
+
+    /**
+     * Lessons, or their words, were written: they are indexed again once the current transaction commits, or now if
+     * there is none.
+     *
+     * @param lessonIds the lessons, {@code null}s are ignored.
+     */
+    public void lessonsChanged(Long... lessonIds) {
+        lessonsChanged(Arrays.asList(lessonIds));
+    }
+
+    /**
+     * Lessons, or their words, were written: they are indexed again once the current transaction commits, or now if
+     * there is none.
+     *
+     * @param lessonIds the lessons, {@code null}s are ignored.
+     */
+    public void lessonsChanged(Collection<Long> lessonIds) {
+        Set<Long> ids = new HashSet<>(lessonIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> reindexQuietly(ids));
+    }
+
+    /**
+     * Rebuild the index from the database.
+     * <p>
+     * This runs at startup and every night at 03:30.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 3 * * ?")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        LessonSearchIndex newIndex = new LessonSearchIndex();
+        Set<Long> replay = new HashSet<>();
+        setIndexedDuringRebuild(replay);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                documents(lessonRepository.findAllSearchFields(), lessonWordRepository.findAllWordTexts()).forEach(newIndex::put)
+            );
+            lock.writeLock().lock();
+            try {
+                index = newIndex;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            setIndexedDuringRebuild(null);
+        }
+        if (!replay.isEmpty()) {
+            reindexQuietly(replay);
+        }
+        LOG.info(
+            "Rebuilt lesson search index: {} lessons, {} terms, in {} ms",
+            newIndex.size(),
+            newIndex.termCount(),
+            System.currentTimeMillis() - start
+        );
+    }
+
+    private void reindexQuietly(Set<Long> lessonIds) {
+        try {
+            List<LessonSearchIndex.Document> documents = transactionTemplate.execute(status ->
+                documents(lessonRepository.findSearchFieldsByIdIn(lessonIds), lessonWordRepository.findWordTextsByLessonIdIn(lessonIds))
+            );
+            lock.writeLock().lock();
+            try {
+                // The lessons not found were deleted
+                lessonIds.forEach(index::remove);
+                documents.forEach(index::put);
+                if (indexedDuringRebuild != null) {
+                    indexedDuringRebuild.addAll(lessonIds);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            // The nightly rebuild repairs the index
+            LOG.warn("Could not index lessons {}: {}", lessonIds, e.getMessage());
+        }
+    }
+
+    private void setIndexedDuringRebuild(Set<Long> lessonIds) {
+        lock.writeLock().lock();
+        try {
+            indexedDuringRebuild = lessonIds;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<LessonSearchIndex.Document> documents(List<LessonSearchFields> lessons, List<LessonWordText> words) {
+        Map<Long, List<String>> wordsByLesson = new HashMap<>();
+        for (LessonWordText word : words) {
+            List<String> texts = wordsByLesson.computeIfAbsent(word.getLessonId(), id -> new ArrayList<>());
+            texts.add(word.getText());
+            texts.add(word.getMeaning());
+        }
+        return lessons
+            .stream()
+            .map(lesson ->
+                new LessonSearchIndex.Document(
+                    lesson.getId(),
+                    lesson.getLevel(),
+                    Boolean.TRUE.equals(lesson.getIsPublished()),
+                    lesson.getTitle(),
+                    lesson.getTitleKorean(),
+                    lesson.getDescription(),
+                    wordsByLesson.getOrDefault(lesson.getId(), List.of()).stream().filter(Objects::nonNull).toList()
+                )
+            )
+            .toList();
+    }
+}
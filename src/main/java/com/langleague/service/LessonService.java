@@ -1,6 +1,7 @@
 package com.langleague.service;
 
 import com.langleague.service.dto.LessonDTO;
+import com.langleague.service.dto.LessonOverviewDTO;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -36,4 +37,7 @@ public interface LessonService {
 
     // Get all unique chapter numbers
     List<Integer> getAllChapters();
+
+    // Get the lesson tree with the completion of the current user by chapter and by book
+    LessonOverviewDTO getLessonOverview(Long chapterId);
 }
@@ -25,9 +25,16 @@ public class LessonSkillService {
 
     private final LessonSkillMapper lessonSkillMapper;
 
-    public LessonSkillService(LessonSkillRepository lessonSkillRepository, LessonSkillMapper lessonSkillMapper) {
+    private final LessonDetailService lessonDetailService;
+
+    public LessonSkillService(
+        LessonSkillRepository lessonSkillRepository,
+        LessonSkillMapper lessonSkillMapper,
+        LessonDetailService lessonDetailService
+    ) {
         this.lessonSkillRepository = lessonSkillRepository;
         this.lessonSkillMapper = lessonSkillMapper;
+        this.lessonDetailService = lessonDetailService;
     }
 
     /**
@@ -40,6 +47,7 @@ public class LessonSkillService {
         LOG.debug("Request to save LessonSkill : {}", lessonSkillDTO);
         LessonSkill lessonSkill = lessonSkillMapper.toEntity(lessonSkillDTO);
         lessonSkill = lessonSkillRepository.save(lessonSkill);
+        lessonDetailService.lessonsChanged(lessonIdOf(lessonSkill));
         return lessonSkillMapper.toDto(lessonSkill);
     }
 
@@ -51,8 +59,10 @@ public class LessonSkillService {
      */
     public LessonSkillDTO update(LessonSkillDTO lessonSkillDTO) {
         LOG.debug("Request to update LessonSkill : {}", lessonSkillDTO);
+        Long previousLessonId = lessonSkillRepository.findById(lessonSkillDTO.getId()).map(LessonSkillService::lessonIdOf).orElse(null);
         LessonSkill lessonSkill = lessonSkillMapper.toEntity(lessonSkillDTO);
         lessonSkill = lessonSkillRepository.save(lessonSkill);
+        lessonDetailService.lessonsChanged(previousLessonId, lessonIdOf(lessonSkill));
         return lessonSkillMapper.toDto(lessonSkill);
     }
 
@@ -69,6 +79,7 @@ public class LessonSkillService {
             .findById(lessonSkillDTO.getId())
             .map(existingLessonSkill -> {
                 lessonSkillMapper.partialUpdate(existingLessonSkill, lessonSkillDTO);
+                lessonDetailService.lessonsChanged(lessonIdOf(existingLessonSkill));
 
                 return existingLessonSkill;
             })
@@ -107,6 +118,11 @@ public class LessonSkillService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete LessonSkill : {}", id);
+        lessonSkillRepository.findById(id).ifPresent(lessonSkill -> lessonDetailService.lessonsChanged(lessonIdOf(lessonSkill)));
         lessonSkillRepository.deleteById(id);
     }
+
+    private static Long lessonIdOf(LessonSkill lessonSkill) {
+        return lessonSkill.getLesson() != null ? lessonSkill.getLesson().getId() : null;
+    }
 }
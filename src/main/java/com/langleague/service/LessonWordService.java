@@ -25,9 +25,24 @@ public class LessonWordService {
 
     private final LessonWordMapper lessonWordMapper;
 
-    public LessonWordService(LessonWordRepository lessonWordRepository, LessonWordMapper lessonWordMapper) {
+    private final LessonSearchService lessonSearchService;
+
+    private final WordSuggestService wordSuggestService;
+
+    private final LessonDetailService lessonDetailService;
+
+    public LessonWordService(
+        LessonWordRepository lessonWordRepository,
+        LessonWordMapper lessonWordMapper,
+        LessonSearchService lessonSearchService,
+        WordSuggestService wordSuggestService,
+        LessonDetailService lessonDetailService
+    ) {
         this.lessonWordRepository = lessonWordRepository;
         this.lessonWordMapper = lessonWordMapper;
+        this.lessonSearchService = lessonSearchService;
+        this.wordSuggestService = wordSuggestService;
+        this.lessonDetailService = lessonDetailService;
     }
 
     /**
@@ -40,6 +55,9 @@ public class LessonWordService {
         LOG.debug("Request to save LessonWord : {}", lessonWordDTO);
         LessonWord lessonWord = lessonWordMapper.toEntity(lessonWordDTO);
         lessonWord = lessonWordRepository.save(lessonWord);
+        lessonSearchService.lessonsChanged(lessonIdOf(lessonWord));
+        lessonDetailService.lessonsChanged(lessonIdOf(lessonWord));
+        wordSuggestService.wordsChanged(wordIdOf(lessonWord));
         return lessonWordMapper.toDto(lessonWord);
     }
 
@@ -51,8 +69,14 @@ public class LessonWordService {
      */
     public LessonWordDTO update(LessonWordDTO lessonWordDTO) {
         LOG.debug("Request to update LessonWord : {}", lessonWordDTO);
+        Optional<LessonWord> previous = lessonWordRepository.findById(lessonWordDTO.getId());
+        Long previousLessonId = previous.map(LessonWordService::lessonIdOf).orElse(null);
+        Long previousWordId = previous.map(LessonWordService::wordIdOf).orElse(null);
         LessonWord lessonWord = lessonWordMapper.toEntity(lessonWordDTO);
         lessonWord = lessonWordRepository.save(lessonWord);
+        lessonSearchService.lessonsChanged(previousLessonId, lessonIdOf(lessonWord));
+        lessonDetailService.lessonsChanged(previousLessonId, lessonIdOf(lessonWord));
+        wordSuggestService.wordsChanged(previousWordId, wordIdOf(lessonWord));
         return lessonWordMapper.toDto(lessonWord);
     }
 
@@ -68,7 +92,12 @@ public class LessonWordService {
         return lessonWordRepository
             .findById(lessonWordDTO.getId())
             .map(existingLessonWord -> {
+                Long previousLessonId = lessonIdOf(existingLessonWord);
+                Long previousWordId = wordIdOf(existingLessonWord);
                 lessonWordMapper.partialUpdate(existingLessonWord, lessonWordDTO);
+                lessonSearchService.lessonsChanged(previousLessonId, lessonIdOf(existingLessonWord));
+                lessonDetailService.lessonsChanged(previousLessonId, lessonIdOf(existingLessonWord));
+                wordSuggestService.wordsChanged(previousWordId, wordIdOf(existingLessonWord));
 
                 return existingLessonWord;
             })
@@ -107,6 +136,21 @@ public class LessonWordService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete LessonWord : {}", id);
+        lessonWordRepository
+            .findById(id)
+            .ifPresent(lessonWord -> {
+                lessonSearchService.lessonsChanged(lessonIdOf(lessonWord));
+                lessonDetailService.lessonsChanged(lessonIdOf(lessonWord));
+                wordSuggestService.wordsChanged(wordIdOf(lessonWord));
+            });
         lessonWordRepository.deleteById(id);
     }
+
+    private static Long lessonIdOf(LessonWord lessonWord) {
+        return lessonWord.getLesson() != null ? lessonWord.getLesson().getId() : null;
+    }
+
+    private static Long wordIdOf(LessonWord lessonWord) {
+        return lessonWord.getWord() != null ? lessonWord.getWord().getId() : null;
+    }
 }
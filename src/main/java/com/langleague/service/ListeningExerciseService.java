@@ -1,9 +1,13 @@
 package com.langleague.service;
 
+import com.langleague.domain.Lesson;
+import com.langleague.domain.LessonSkill;
 import com.langleague.domain.ListeningExercise;
+import com.langleague.repository.LessonSkillRepository;
 import com.langleague.repository.ListeningExerciseRepository;
 import com.langleague.service.dto.ListeningExerciseDTO;
 import com.langleague.service.mapper.ListeningExerciseMapper;
+import com.langleague.service.search.ExerciseSearchIndex;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,12 +29,24 @@ public class ListeningExerciseService {
 
     private final ListeningExerciseMapper listeningExerciseMapper;
 
+    private final LessonSkillRepository lessonSkillRepository;
+
+    private final LessonDetailService lessonDetailService;
+
+    private final ExerciseSearchService exerciseSearchService;
+
     public ListeningExerciseService(
         ListeningExerciseRepository listeningExerciseRepository,
-        ListeningExerciseMapper listeningExerciseMapper
+        ListeningExerciseMapper listeningExerciseMapper,
+        LessonSkillRepository lessonSkillRepository,
+        LessonDetailService lessonDetailService,
+        ExerciseSearchService exerciseSearchService
     ) {
         this.listeningExerciseRepository = listeningExerciseRepository;
         this.listeningExerciseMapper = listeningExerciseMapper;
+        this.lessonSkillRepository = lessonSkillRepository;
+        this.lessonDetailService = lessonDetailService;
+        this.exerciseSearchService = exerciseSearchService;
     }
 
     /**
@@ -42,7 +58,10 @@ public class ListeningExerciseService {
     public ListeningExerciseDTO save(ListeningExerciseDTO listeningExerciseDTO) {
         LOG.debug("Request to save ListeningExercise : {}", listeningExerciseDTO);
         ListeningExercise listeningExercise = listeningExerciseMapper.toEntity(listeningExerciseDTO);
+        listeningExercise.setLesson(lessonOf(listeningExercise, null));
         listeningExercise = listeningExerciseRepository.save(listeningExercise);
+        lessonDetailService.lessonsChanged(lessonIdOf(listeningExercise));
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.LISTENING, listeningExercise.getId());
         return listeningExerciseMapper.toDto(listeningExercise);
     }
 
@@ -54,8 +73,15 @@ public class ListeningExerciseService {
      */
     public ListeningExerciseDTO update(ListeningExerciseDTO listeningExerciseDTO) {
         LOG.debug("Request to update ListeningExercise : {}", listeningExerciseDTO);
+        Lesson previousLesson = listeningExerciseRepository
+            .findById(listeningExerciseDTO.getId())
+            .map(ListeningExercise::getLesson)
+            .orElse(null);
         ListeningExercise listeningExercise = listeningExerciseMapper.toEntity(listeningExerciseDTO);
+        listeningExercise.setLesson(lessonOf(listeningExercise, previousLesson));
         listeningExercise = listeningExerciseRepository.save(listeningExercise);
+        lessonDetailService.lessonsChanged(previousLesson != null ? previousLesson.getId() : null, lessonIdOf(listeningExercise));
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.LISTENING, listeningExercise.getId());
         return listeningExerciseMapper.toDto(listeningExercise);
     }
 
@@ -72,6 +98,8 @@ public class ListeningExerciseService {
             .findById(listeningExerciseDTO.getId())
             .map(existingListeningExercise -> {
                 listeningExerciseMapper.partialUpdate(existingListeningExercise, listeningExerciseDTO);
+                lessonDetailService.lessonsChanged(lessonIdOf(existingListeningExercise));
+                exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.LISTENING, existingListeningExercise.getId());
 
                 return existingListeningExercise;
             })
@@ -110,6 +138,26 @@ public class ListeningExerciseService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete ListeningExercise : {}", id);
+        listeningExerciseRepository
+            .findById(id)
+            .ifPresent(listeningExercise -> lessonDetailService.lessonsChanged(lessonIdOf(listeningExercise)));
         listeningExerciseRepository.deleteById(id);
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.LISTENING, id);
+    }
+
+    /**
+     * The lesson of an exercise is the lesson of its lesson skill, of which the DTO only carries the id; an exercise
+     * without one keeps its previous lesson.
+     */
+    private Lesson lessonOf(ListeningExercise listeningExercise, Lesson previousLesson) {
+        LessonSkill lessonSkill = listeningExercise.getLessonSkill();
+        if (lessonSkill == null || lessonSkill.getId() == null) {
+            return previousLesson;
+        }
+        return lessonSkillRepository.findLessonById(lessonSkill.getId()).orElse(previousLesson);
+    }
+
+    private static Long lessonIdOf(ListeningExercise listeningExercise) {
+        return listeningExercise.getLesson() != null ? listeningExercise.getLesson().getId() : null;
     }
 }
@@ -25,9 +25,20 @@ public class MediaFileService {
 
     private final MediaFileMapper mediaFileMapper;
 
-    public MediaFileService(MediaFileRepository mediaFileRepository, MediaFileMapper mediaFileMapper) {
+    private final EngagementMetrics engagementMetrics;
+
+    private final LessonDetailService lessonDetailService;
+
+    public MediaFileService(
+        MediaFileRepository mediaFileRepository,
+        MediaFileMapper mediaFileMapper,
+        EngagementMetrics engagementMetrics,
+        LessonDetailService lessonDetailService
+    ) {
         this.mediaFileRepository = mediaFileRepository;
         this.mediaFileMapper = mediaFileMapper;
+        this.engagementMetrics = engagementMetrics;
+        this.lessonDetailService = lessonDetailService;
     }
 
     /**
@@ -40,6 +51,7 @@ public class MediaFileService {
         LOG.debug("Request to save MediaFile : {}", mediaFileDTO);
         MediaFile mediaFile = mediaFileMapper.toEntity(mediaFileDTO);
         mediaFile = mediaFileRepository.save(mediaFile);
+        lessonDetailService.lessonsChanged(lessonIdOf(mediaFile));
         return mediaFileMapper.toDto(mediaFile);
     }
 
@@ -51,8 +63,10 @@ public class MediaFileService {
      */
     public MediaFileDTO update(MediaFileDTO mediaFileDTO) {
         LOG.debug("Request to update MediaFile : {}", mediaFileDTO);
+        Long previousLessonId = mediaFileRepository.findById(mediaFileDTO.getId()).map(MediaFileService::lessonIdOf).orElse(null);
         MediaFile mediaFile = mediaFileMapper.toEntity(mediaFileDTO);
         mediaFile = mediaFileRepository.save(mediaFile);
+        lessonDetailService.lessonsChanged(previousLessonId, lessonIdOf(mediaFile));
         return mediaFileMapper.toDto(mediaFile);
     }
 
@@ -69,6 +83,7 @@ public class MediaFileService {
             .findById(mediaFileDTO.getId())
             .map(existingMediaFile -> {
                 mediaFileMapper.partialUpdate(existingMediaFile, mediaFileDTO);
+                lessonDetailService.lessonsChanged(lessonIdOf(existingMediaFile));
 
                 return existingMediaFile;
             })
@@ -100,6 +115,22 @@ public class MediaFileService {
         return mediaFileRepository.findById(id).map(mediaFileMapper::toDto);
     }
 
+    /**
+     * Record that a mediaFile was played.
+     *
+     * @param id the id of the entity.
+     * @return {@code false} if there is no such mediaFile.
+     */
+    @Transactional(readOnly = true)
+    public boolean recordPlayback(Long id) {
+        LOG.debug("Request to record playback of MediaFile : {}", id);
+        if (!mediaFileRepository.existsById(id)) {
+            return false;
+        }
+        engagementMetrics.videoViewed();
+        return true;
+    }
+
     /**
      * Delete the mediaFile by id.
      *
@@ -107,6 +138,11 @@ public class MediaFileService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete MediaFile : {}", id);
+        mediaFileRepository.findById(id).ifPresent(mediaFile -> lessonDetailService.lessonsChanged(lessonIdOf(mediaFile)));
         mediaFileRepository.deleteById(id);
     }
+
+    private static Long lessonIdOf(MediaFile mediaFile) {
+        return mediaFile.getLesson() != null ? mediaFile.getLesson().getId() : null;
+    }
 }
@@ -0,0 +1,144 @@
+package com.langleague.service;
+
+import com.langleague.config.ApplicationProperties;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-user version of the learning progress, for conditional requests.
+ * <p>
+ * The version of a user is read from the {@link ChangeLogService change log}, where the writers of user progress,
+ * vocabulary and exercise results record each change in their own transaction: every instance computes the same
+ * version for the same committed data, and a reader can never see the new version with the old data. The version is
+ * exposed as a strong ETag, and a request whose {@code If-None-Match} still matches is answered {@code 304} without
+ * reading the progress. The most recently read views are kept with the version they were read at, up to
+ * {@code application.progress.snapshot-cache-size} of them.
+ * <p>
+ * Progress ticks buffered by {@link UserProgressWriteBehindService} are only seen by the readers of this instance
+ * until they are written: while a user has some, the ETag also carries a version local to this instance, see
+ * {@link #buffered} and {@link #written}.
+ */
+@Service
+public class ProgressVersionService {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong lastBufferedVersion = new AtomicLong();
+
+    private final Map<Long, Long> bufferedVersions = new ConcurrentHashMap<>();
+
+    private final ChangeLogService changeLogService;
+
+    private final Map<SnapshotKey, Snapshot<?>> snapshots;
+
+    public ProgressVersionService(ChangeLogService changeLogService, ApplicationProperties applicationProperties) {
+        this.changeLogService = changeLogService;
+        int capacity = applicationProperties.getProgress().getSnapshotCacheSize();
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SnapshotKey, Snapshot<?>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private record SnapshotKey(Long appUserId, String view) {}
+
+    /**
+     * A view of the progress of a user.
+     *
+     * @param etag the ETag of the version the view was read at.
+     * @param body the view, shared by the readers of this version: not to be modified.
+     * @param <T> the type of the view.
+     */
+    public record Snapshot<T>(String etag, T body) {}
+
+    /**
+     * A progress tick of a user was buffered: the ETags held by the readers of this instance are stale.
+     *
+     * @param appUserId the user.
+     */
+    public void buffered(Long appUserId) {
+        bufferedVersions.put(appUserId, lastBufferedVersion.incrementAndGet());
+    }
+
+    /**
+     * @return the version of the last tick {@link #buffered}, to pass to {@link #written}.
+     */
+    public long lastBufferedVersion() {
+        return lastBufferedVersion.get();
+    }
+
+    /**
+     * The buffered ticks were written and committed, up to some version: the users without any tick left get back the
+     * version of the change log, shared with the other instances.
+     *
+     * @param upTo the {@link #lastBufferedVersion} read before {@code stillBuffered}: the ticks buffered after it are
+     *             kept.
+     * @param stillBuffered the users whose ticks are still buffered.
+     */
+    public void written(long upTo, Set<Long> stillBuffered) {
+        bufferedVersions.forEach((appUserId, version) -> {
+            if (version <= upTo && !stillBuffered.contains(appUserId)) {
+                bufferedVersions.remove(appUserId, version);
+            }
+        });
+    }
+
+    /**
+     * @param appUserId the user.
+     * @return the strong ETag of the current version of the progress of the user.
+     */
+    public String etag(Long appUserId) {
+        // Read the buffered version first: once it is gone, its ticks are in the change log
+        Long buffered = bufferedVersions.get(appUserId);
+        String version = changeLogService.findVersion(appUserId);
+        return "\"" + version + (buffered != null ? "-" + epoch + "." + buffered : "") + "\"";
+    }
+
+    /**
+     * @param ifNoneMatch the {@code If-None-Match} header of a request, or {@code null}.
+     * @param etag the current ETag.
+     * @return {@code true} if the client already has the current version.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(",")).map(String::trim).anyMatch(tag -> tag.equals(etag) || tag.equals("*"));
+    }
+
+    /**
+     * Get a view of the progress of a user, from the snapshot cache if it is still current.
+     *
+     * @param appUserId the user.
+     * @param view the name of the view, always read by the same loader.
+     * @param loader reads the view from the database.
+     * @param <T> the type of the view.
+     * @return the view, with the ETag of the version it was read at.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Snapshot<T> snapshot(Long appUserId, String view, Supplier<T> loader) {
+        // Read the version first: if a write commits while loading, the snapshot is tagged as stale, never as current
+        String etag = etag(appUserId);
+        SnapshotKey key = new SnapshotKey(appUserId, view);
+        Snapshot<T> snapshot;
+        synchronized (snapshots) {
+            snapshot = (Snapshot<T>) snapshots.get(key);
+        }
+        if (snapshot != null && snapshot.etag().equals(etag)) {
+            return snapshot;
+        }
+        snapshot = new Snapshot<>(etag, loader.get());
+        synchronized (snapshots) {
+            snapshots.put(key, snapshot);
+        }
+        return snapshot;
+    }
+}
@@ -1,9 +1,13 @@
 package com.langleague.service;
 
+import com.langleague.domain.Lesson;
+import com.langleague.domain.LessonSkill;
 import com.langleague.domain.ReadingExercise;
+import com.langleague.repository.LessonSkillRepository;
 import com.langleague.repository.ReadingExerciseRepository;
 import com.langleague.service.dto.ReadingExerciseDTO;
 import com.langleague.service.mapper.ReadingExerciseMapper;
+import com.langleague.service.search.ExerciseSearchIndex;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,9 +29,24 @@ public class ReadingExerciseService {
 
     private final ReadingExerciseMapper readingExerciseMapper;
 
-    public ReadingExerciseService(ReadingExerciseRepository readingExerciseRepository, ReadingExerciseMapper readingExerciseMapper) {
+    private final LessonSkillRepository lessonSkillRepository;
+
+    private final LessonDetailService lessonDetailService;
+
+    private final ExerciseSearchService exerciseSearchService;
+
+    public ReadingExerciseService(
+        ReadingExerciseRepository readingExerciseRepository,
+        ReadingExerciseMapper readingExerciseMapper,
+        LessonSkillRepository lessonSkillRepository,
+        LessonDetailService lessonDetailService,
+        ExerciseSearchService exerciseSearchService
+    ) {
         this.readingExerciseRepository = readingExerciseRepository;
         this.readingExerciseMapper = readingExerciseMapper;
+        this.lessonSkillRepository = lessonSkillRepository;
+        this.lessonDetailService = lessonDetailService;
+        this.exerciseSearchService = exerciseSearchService;
     }
 
     /**
@@ -39,7 +58,10 @@ public class ReadingExerciseService {
     public ReadingExerciseDTO save(ReadingExerciseDTO readingExerciseDTO) {
         LOG.debug("Request to save ReadingExercise : {}", readingExerciseDTO);
         ReadingExercise readingExercise = readingExerciseMapper.toEntity(readingExerciseDTO);
+        readingExercise.setLesson(lessonOf(readingExercise, null));
         readingExercise = readingExerciseRepository.save(readingExercise);
+        lessonDetailService.lessonsChanged(lessonIdOf(readingExercise));
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.READING, readingExercise.getId());
         return readingExerciseMapper.toDto(readingExercise);
     }
 
@@ -51,8 +73,12 @@ public class ReadingExerciseService {
      */
     public ReadingExerciseDTO update(ReadingExerciseDTO readingExerciseDTO) {
         LOG.debug("Request to update ReadingExercise : {}", readingExerciseDTO);
+        Lesson previousLesson = readingExerciseRepository.findById(readingExerciseDTO.getId()).map(ReadingExercise::getLesson).orElse(null);
         ReadingExercise readingExercise = readingExerciseMapper.toEntity(readingExerciseDTO);
+        readingExercise.setLesson(lessonOf(readingExercise, previousLesson));
         readingExercise = readingExerciseRepository.save(readingExercise);
+        lessonDetailService.lessonsChanged(previousLesson != null ? previousLesson.getId() : null, lessonIdOf(readingExercise));
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.READING, readingExercise.getId());
         return readingExerciseMapper.toDto(readingExercise);
     }
 
@@ -69,6 +95,8 @@ public class ReadingExerciseService {
             .findById(readingExerciseDTO.getId())
             .map(existingReadingExercise -> {
                 readingExerciseMapper.partialUpdate(existingReadingExercise, readingExerciseDTO);
+                lessonDetailService.lessonsChanged(lessonIdOf(existingReadingExercise));
+                exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.READING, existingReadingExercise.getId());
 
                 return existingReadingExercise;
             })
@@ -107,6 +135,26 @@ public class ReadingExerciseService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete ReadingExercise : {}", id);
+        readingExerciseRepository
+            .findById(id)
+            .ifPresent(readingExercise -> lessonDetailService.lessonsChanged(lessonIdOf(readingExercise)));
         readingExerciseRepository.deleteById(id);
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.READING, id);
+    }
+
+    /**
+     * The lesson of an exercise is the lesson of its lesson skill, of which the DTO only carries the id; an exercise
+     * without one keeps its previous lesson.
+     */
+    private Lesson lessonOf(ReadingExercise readingExercise, Lesson previousLesson) {
+        LessonSkill lessonSkill = readingExercise.getLessonSkill();
+        if (lessonSkill == null || lessonSkill.getId() == null) {
+            return previousLesson;
+        }
+        return lessonSkillRepository.findLessonById(lessonSkill.getId()).orElse(previousLesson);
+    }
+
+    private static Long lessonIdOf(ReadingExercise readingExercise) {
+        return readingExercise.getLesson() != null ? readingExercise.getLesson().getId() : null;
     }
 }
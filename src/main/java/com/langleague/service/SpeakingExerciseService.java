@@ -1,9 +1,13 @@
 package com.langleague.service;
 
+import com.langleague.domain.Lesson;
+import com.langleague.domain.LessonSkill;
 import com.langleague.domain.SpeakingExercise;
+import com.langleague.repository.LessonSkillRepository;
 import com.langleague.repository.SpeakingExerciseRepository;
 import com.langleague.service.dto.SpeakingExerciseDTO;
 import com.langleague.service.mapper.SpeakingExerciseMapper;
+import com.langleague.service.search.ExerciseSearchIndex;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,9 +29,24 @@ public class SpeakingExerciseService {
 
     private final SpeakingExerciseMapper speakingExerciseMapper;
 
-    public SpeakingExerciseService(SpeakingExerciseRepository speakingExerciseRepository, SpeakingExerciseMapper speakingExerciseMapper) {
+    private final LessonSkillRepository lessonSkillRepository;
+
+    private final LessonDetailService lessonDetailService;
+
+    private final ExerciseSearchService exerciseSearchService;
+
+    public SpeakingExerciseService(
+        SpeakingExerciseRepository speakingExerciseRepository,
+        SpeakingExerciseMapper speakingExerciseMapper,
+        LessonSkillRepository lessonSkillRepository,
+        LessonDetailService lessonDetailService,
+        ExerciseSearchService exerciseSearchService
+    ) {
         this.speakingExerciseRepository = speakingExerciseRepository;
         this.speakingExerciseMapper = speakingExerciseMapper;
+        this.lessonSkillRepository = lessonSkillRepository;
+        this.lessonDetailService = lessonDetailService;
+        this.exerciseSearchService = exerciseSearchService;
     }
 
     /**
@@ -39,7 +58,10 @@ public class SpeakingExerciseService {
     public SpeakingExerciseDTO save(SpeakingExerciseDTO speakingExerciseDTO) {
         LOG.debug("Request to save SpeakingExercise : {}", speakingExerciseDTO);
         SpeakingExercise speakingExercise = speakingExerciseMapper.toEntity(speakingExerciseDTO);
+        speakingExercise.setLesson(lessonOf(speakingExercise, null));
         speakingExercise = speakingExerciseRepository.save(speakingExercise);
+        lessonDetailService.lessonsChanged(lessonIdOf(speakingExercise));
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.SPEAKING, speakingExercise.getId());
         return speakingExerciseMapper.toDto(speakingExercise);
     }
 
@@ -51,8 +73,15 @@ public class SpeakingExerciseService {
      */
     public SpeakingExerciseDTO update(SpeakingExerciseDTO speakingExerciseDTO) {
         LOG.debug("Request to update SpeakingExercise : {}", speakingExerciseDTO);
+        Lesson previousLesson = speakingExerciseRepository
+            .findById(speakingExerciseDTO.getId())
+            .map(SpeakingExercise::getLesson)
+            .orElse(null);
         SpeakingExercise speakingExercise = speakingExerciseMapper.toEntity(speakingExerciseDTO);
+        speakingExercise.setLesson(lessonOf(speakingExercise, previousLesson));
         speakingExercise = speakingExerciseRepository.save(speakingExercise);
+        lessonDetailService.lessonsChanged(previousLesson != null ? previousLesson.getId() : null, lessonIdOf(speakingExercise));
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.SPEAKING, speakingExercise.getId());
         return speakingExerciseMapper.toDto(speakingExercise);
     }
 
@@ -69,6 +98,8 @@ public class SpeakingExerciseService {
             .findById(speakingExerciseDTO.getId())
             .map(existingSpeakingExercise -> {
                 speakingExerciseMapper.partialUpdate(existingSpeakingExercise, speakingExerciseDTO);
+                lessonDetailService.lessonsChanged(lessonIdOf(existingSpeakingExercise));
+                exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.SPEAKING, existingSpeakingExercise.getId());
 
                 return existingSpeakingExercise;
             })
@@ -107,6 +138,26 @@ public class SpeakingExerciseService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete SpeakingExercise : {}", id);
+        speakingExerciseRepository
+            .findById(id)
+            .ifPresent(speakingExercise -> lessonDetailService.lessonsChanged(lessonIdOf(speakingExercise)));
         speakingExerciseRepository.deleteById(id);
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.SPEAKING, id);
+    }
+
+    /**
+     * The lesson of an exercise is the lesson of its lesson skill, of which the DTO only carries the id; an exercise
+     * without one keeps its previous lesson.
+     */
+    private Lesson lessonOf(SpeakingExercise speakingExercise, Lesson previousLesson) {
+        LessonSkill lessonSkill = speakingExercise.getLessonSkill();
+        if (lessonSkill == null || lessonSkill.getId() == null) {
+            return previousLesson;
+        }
+        return lessonSkillRepository.findLessonById(lessonSkill.getId()).orElse(previousLesson);
+    }
+
+    private static Long lessonIdOf(SpeakingExercise speakingExercise) {
+        return speakingExercise.getLesson() != null ? speakingExercise.getLesson().getId() : null;
     }
 }
@@ -0,0 +1,322 @@
+package com.langleague.service;
+
+import com.langleague.service.export.CsvRowWriter;
+import com.langleague.service.export.RowWriter;
+import com.langleague.service.export.XlsxRowWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service streaming statistics exports.
+ * <p>
+ * Rows are read through a forward-only, read-only JDBC statement with a fetch size of {@link Integer#MIN_VALUE},
+ * which makes MySQL Connector/J stream them one at a time, and written to the output as they arrive, so memory use
+ * does not depend on the number of rows. Only the export statement streams: the other queries of the application
+ * keep reading their results in full.
+ * <p>
+ * Every running export has an id; {@link #cancel(String)} stops it before its next row. A streaming result set
+ * reads all its remaining rows when it is closed, so stopping an export also aborts its connection, which the pool
+ * then discards. {@code Statement.cancel()} cannot be used: Connector/J no longer considers the statement executing
+ * once the first rows are returned, and a query killed on the server leaves the connection unusable anyway.
+ */
+@Service
+public class StatisticsExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatisticsExportService.class);
+
+    private final Map<String, RunningExport> runningExports = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public StatisticsExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * The datasets that can be exported, with the column their date range filters on.
+     */
+    public enum ExportType {
+        SESSIONS(
+            "SELECT s.id, u.login, s.lesson_id, s.start_time, s.end_time, s.duration, s.status, s.progress, s.score " +
+            "FROM study_session s JOIN jhi_user u ON u.id = s.user_id",
+            "s.start_time",
+            List.of("id", "login", "lessonId", "startTime", "endTime", "durationMinutes", "status", "progress", "score")
+        ),
+        RESULTS(
+            "SELECT r.id, r.app_user_id, r.skill_id, r.exercise_type, r.score, r.submitted_at FROM exercise_result r",
+            "r.submitted_at",
+            List.of("id", "appUserId", "skillId", "exerciseType", "score", "submittedAt")
+        ),
+        PROGRESS(
+            "SELECT p.id, p.app_user_id, p.lesson_id, p.percent, p.last_accessed FROM user_progress p",
+            "p.last_accessed",
+            List.of("id", "appUserId", "lessonId", "percent", "lastAccessed")
+        ),
+        USERS(
+            "SELECT u.id, u.login, u.email, u.activated, u.lang_key, u.created_date FROM jhi_user u",
+            "u.created_date",
+            List.of("id", "login", "email", "activated", "langKey", "createdDate")
+        );
+
+        private final String select;
+
+        private final String dateColumn;
+
+        private final List<String> columns;
+
+        ExportType(String select, String dateColumn, List<String> columns) {
+            this.select = select;
+            this.dateColumn = dateColumn;
+            this.columns = columns;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        public static Optional<ExportType> fromName(String name) {
+            try {
+                return Optional.of(valueOf(name.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * The output formats.
+     */
+    public enum ExportFormat {
+        CSV("csv", "text/csv;charset=UTF-8"),
+        EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+        private final String extension;
+
+        private final String contentType;
+
+        ExportFormat(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Optional<ExportFormat> fromName(String name) {
+            return switch (name.toLowerCase(Locale.ROOT)) {
+                case "csv" -> Optional.of(CSV);
+                case "excel", "xlsx" -> Optional.of(EXCEL);
+                default -> Optional.empty();
+            };
+        }
+
+        RowWriter newWriter(OutputStream out) {
+            return this == CSV ? new CsvRowWriter(out) : new XlsxRowWriter(out);
+        }
+    }
+
+    /**
+     * Thrown from the writing thread when an export is cancelled.
+     */
+    public static class ExportCancelledException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public ExportCancelledException(String exportId) {
+            super("Export " + exportId + " was cancelled");
+        }
+    }
+
+    /**
+     * Register a new export; it can be cancelled from now on.
+     *
+     * @return the id of the export.
+     */
+    public String register() {
+        String exportId = UUID.randomUUID().toString();
+        runningExports.put(exportId, new RunningExport());
+        return exportId;
+    }
+
+    /**
+     * Forget an export once its response is complete, whether it streamed, failed, or never started; an export
+     * still running is stopped.
+     *
+     * @param exportId the id returned by {@link #register()}.
+     */
+    public void release(String exportId) {
+        RunningExport export = runningExports.remove(exportId);
+        if (export != null) {
+            stop(export);
+        }
+    }
+
+    /**
+     * Cancel a running export.
+     *
+     * @param exportId the id of the export.
+     * @return {@code false} if there is no such running export.
+     */
+    public boolean cancel(String exportId) {
+        RunningExport export = runningExports.get(exportId);
+        if (export == null) {
+            return false;
+        }
+        stop(export);
+        return true;
+    }
+
+    /**
+     * Stream an export to {@code out}. Blocks until the last row is written, the export is cancelled, or the
+     * client disconnects.
+     *
+     * @param exportId the id returned by {@link #register()}.
+     * @param type the dataset.
+     * @param format the output format.
+     * @param from the start of the date range, inclusive, or {@code null}.
+     * @param to the end of the date range, exclusive, or {@code null}.
+     * @param out the output, not closed.
+     * @return the number of rows written.
+     */
+    public long export(String exportId, ExportType type, ExportFormat format, Instant from, Instant to, OutputStream out) {
+        RunningExport export = runningExports.computeIfAbsent(exportId, id -> new RunningExport());
+        RowWriter writer = format.newWriter(out);
+        StringBuilder sql = new StringBuilder(type.select);
+        List<Object> parameters = new ArrayList<>();
+        if (from != null) {
+            sql.append(parameters.isEmpty() ? " WHERE " : " AND ").append(type.dateColumn).append(" >= ?");
+            parameters.add(Timestamp.from(from));
+        }
+        if (to != null) {
+            sql.append(parameters.isEmpty() ? " WHERE " : " AND ").append(type.dateColumn).append(" < ?");
+            parameters.add(Timestamp.from(to));
+        }
+        sql.append(" ORDER BY 1");
+        int columnCount = type.columns.size();
+        long[] rows = new long[1];
+        try {
+            writer.writeHeader(type.columns);
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    jdbcTemplate.query(
+                        connection -> {
+                            synchronized (export) {
+                                if (export.cancelled) {
+                                    throw new ExportCancelledException(exportId);
+                                }
+                                export.connection = connection;
+                            }
+                            PreparedStatement statement = connection.prepareStatement(
+                                sql.toString(),
+                                ResultSet.TYPE_FORWARD_ONLY,
+                                ResultSet.CONCUR_READ_ONLY
+                            );
+                            // The connection runs no other statement until the last row is read
+                            statement.setFetchSize(Integer.MIN_VALUE);
+                            for (int i = 0; i < parameters.size(); i++) {
+                                statement.setObject(i + 1, parameters.get(i));
+                            }
+                            return statement;
+                        },
+                        (RowCallbackHandler) resultSet -> {
+                            if (export.cancelled) {
+                                throw new ExportCancelledException(exportId);
+                            }
+                            try {
+                                writeRow(writer, resultSet, columnCount);
+                            } catch (UncheckedIOException e) {
+                                // Most likely the client went away: nobody will read the remaining rows
+                                stop(export);
+                                throw e;
+                            }
+                            rows[0]++;
+                        }
+                    );
+                } finally {
+                    // Before the connection returns to the pool, where aborting it would hit another request
+                    synchronized (export) {
+                        export.connection = null;
+                    }
+                }
+            });
+            writer.finish();
+            LOG.debug("Export {} of {} as {} wrote {} rows", exportId, type, format, rows[0]);
+            return rows[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            if (export.cancelled && !(e instanceof ExportCancelledException)) {
+                // The connection was aborted under the query or its rollback
+                throw new ExportCancelledException(exportId);
+            }
+            throw e;
+        } finally {
+            runningExports.remove(exportId);
+        }
+    }
+
+    private void stop(RunningExport export) {
+        synchronized (export) {
+            export.cancelled = true;
+            if (export.connection != null) {
+                try {
+                    export.connection.abort(Runnable::run);
+                } catch (SQLException e) {
+                    LOG.warn("Could not abort the connection of an export: {}", e.getMessage());
+                }
+                export.connection = null;
+            }
+        }
+    }
+
+    private static void writeRow(RowWriter writer, ResultSet resultSet, int columnCount) throws SQLException {
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = resultSet.getObject(i + 1);
+        }
+        try {
+            writer.writeRow(values);
+        } catch (IOException e) {
+            // Most likely the client went away: stop reading
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class RunningExport {
+
+        private volatile boolean cancelled;
+
+        // The connection streaming the rows, guarded by this
+        private Connection connection;
+    }
+}
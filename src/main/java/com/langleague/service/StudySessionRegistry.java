@@ -0,0 +1,184 @@
+package com.langleague.service;
+
+import com.langleague.config.ApplicationProperties;
+import com.langleague.domain.StudySession;
+import com.langleague.service.dto.StudySessionDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Registry of the study sessions open right now.
+ * <p>
+ * {@link StudySessionService} registers a session when it starts and forgets it when it completes; in between the
+ * client sends heartbeats, which only touch this registry. Every {@code application.sessions.sweep-interval-ms}, the
+ * sessions without heartbeat for {@code application.sessions.idle-timeout-seconds} are closed as
+ * {@value #ABANDONED} in one batched UPDATE, ending at their last heartbeat and lasting at most
+ * {@code application.sessions.max-duration-minutes}. The same sweep closes the sessions left open by a restart once
+ * they are older than that maximum, with a duration of 0 since their last heartbeat is unknown.
+ * <p>
+ * The number of users studying right now is read from the registry, and published to Micrometer as
+ * {@value #ACTIVE_METER_NAME}.
+ */
+@Service
+public class StudySessionRegistry {
+
+    public static final String ABANDONED = "ABANDONED";
+
+    public static final String ACTIVE_METER_NAME = "langleague.study-sessions.active";
+
+    private static final Logger LOG = LoggerFactory.getLogger(StudySessionRegistry.class);
+
+    private static final String CLOSE_SQL =
+        "UPDATE study_session SET status = '" + ABANDONED + "', end_time = ?, duration = ? WHERE id = ? AND status = 'IN_PROGRESS'";
+
+    private static final String CLOSE_ORPHANS_SQL =
+        "UPDATE study_session SET status = '" + ABANDONED + "', end_time = start_time, duration = 0 " +
+        "WHERE status = 'IN_PROGRESS' AND start_time < ?";
+
+    private final Map<Long, ActiveSession> sessions = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration idleTimeout;
+
+    private final Duration maxDuration;
+
+    public StudySessionRegistry(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idleTimeout = Duration.ofSeconds(applicationProperties.getSessions().getIdleTimeoutSeconds());
+        this.maxDuration = Duration.ofMinutes(applicationProperties.getSessions().getMaxDurationMinutes());
+        Gauge.builder(ACTIVE_METER_NAME, sessions, Map::size).description("Number of open study sessions").register(meterRegistry);
+    }
+
+    /**
+     * An open study session.
+     */
+    private static final class ActiveSession {
+
+        private final Long userId;
+
+        private final String login;
+
+        private final Instant startTime;
+
+        private volatile Instant lastHeartbeat;
+
+        private ActiveSession(Long userId, String login, Instant startTime) {
+            this.userId = userId;
+            this.login = login;
+            this.startTime = startTime;
+            this.lastHeartbeat = startTime;
+        }
+    }
+
+    /**
+     * A study session was started.
+     *
+     * @param session the saved session.
+     */
+    public void register(StudySession session) {
+        sessions.put(session.getId(), new ActiveSession(session.getUser().getId(), session.getUser().getLogin(), session.getStartTime()));
+    }
+
+    /**
+     * A study session was completed or deleted.
+     *
+     * @param sessionId the session.
+     */
+    public void unregister(Long sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    /**
+     * The client of a study session is still there.
+     *
+     * @param sessionId the session.
+     * @param login the login of the current user.
+     * @return {@code false} if the session is not open or not owned by {@code login}.
+     */
+    public boolean heartbeat(Long sessionId, String login) {
+        ActiveSession session = sessions.get(sessionId);
+        if (session == null || !session.login.equals(login)) {
+            return false;
+        }
+        session.lastHeartbeat = Instant.now();
+        return true;
+    }
+
+    /**
+     * @return the numbers of open study sessions and of users studying.
+     */
+    public StudySessionDTO.Activity getActivity() {
+        Set<Long> users = new HashSet<>();
+        sessions.values().forEach(session -> users.add(session.userId));
+        StudySessionDTO.Activity activity = new StudySessionDTO.Activity();
+        activity.setActiveSessions(sessions.size());
+        activity.setActiveUsers(users.size());
+        return activity;
+    }
+
+    /**
+     * Close the idle study sessions, and the orphans older than the maximum duration.
+     *
+     * @return the number of sessions closed.
+     */
+    @Scheduled(fixedDelayString = "${application.sessions.sweep-interval-ms:60000}")
+    public int sweep() {
+        Instant now = Instant.now();
+        Instant idleSince = now.minus(idleTimeout);
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        sessions.forEach((id, session) -> {
+            Instant cappedEnd = session.startTime.plus(maxDuration);
+            if (session.lastHeartbeat.isBefore(idleSince) || cappedEnd.isBefore(now)) {
+                Instant end = session.lastHeartbeat.isBefore(cappedEnd) ? session.lastHeartbeat : cappedEnd;
+                ids.add(id);
+                rows.add(new Object[] { Timestamp.from(end), Duration.between(session.startTime, end).toMinutes(), id });
+            }
+        });
+        int closed;
+        try {
+            closed = transactionTemplate.execute(status -> {
+                int count = 0;
+                if (!rows.isEmpty()) {
+                    for (int updated : jdbcTemplate.batchUpdate(CLOSE_SQL, rows)) {
+                        count += Math.max(updated, 0);
+                    }
+                }
+                return count + jdbcTemplate.update(CLOSE_ORPHANS_SQL, Timestamp.from(now.minus(maxDuration)));
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("Could not close {} idle study sessions, will retry: {}", rows.size(), e.getMessage());
+            return 0;
+        }
+        ids.forEach(sessions::remove);
+        if (closed > 0) {
+            LOG.info("Closed {} idle study sessions", closed);
+        }
+        return closed;
+    }
+}
@@ -7,35 +7,54 @@ import com.langleague.repository.LessonRepository;
 import com.langleague.repository.StudySessionRepository;
 import com.langleague.repository.UserRepository;
 import com.langleague.security.SecurityUtils;
+import com.langleague.service.dto.SeekCursor;
 import com.langleague.service.dto.StudySessionDTO;
+import com.langleague.service.event.LearningEvent;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class StudySessionService {
 
+    public static final String PLATFORM_STATS_CACHE = "studySessionPlatformStats";
+
     private final Logger log = LoggerFactory.getLogger(StudySessionService.class);
 
     private final StudySessionRepository studySessionRepository;
     private final UserRepository userRepository;
     private final LessonRepository lessonRepository;
+    private final StudyTimeRollupService studyTimeRollupService;
+    private final EngagementMetrics engagementMetrics;
+    private final LearningEventService learningEventService;
+    private final StudySessionRegistry studySessionRegistry;
 
     public StudySessionService(
         StudySessionRepository studySessionRepository,
         UserRepository userRepository,
-        LessonRepository lessonRepository
+        LessonRepository lessonRepository,
+        StudyTimeRollupService studyTimeRollupService,
+        EngagementMetrics engagementMetrics,
+        LearningEventService learningEventService,
+        StudySessionRegistry studySessionRegistry
     ) {
         this.studySessionRepository = studySessionRepository;
         this.userRepository = userRepository;
         this.lessonRepository = lessonRepository;
+        this.studyTimeRollupService = studyTimeRollupService;
+        this.engagementMetrics = engagementMetrics;
+        this.learningEventService = learningEventService;
+        this.studySessionRegistry = studySessionRegistry;
     }
 
     /**
@@ -51,7 +70,13 @@ public class StudySessionService {
         session.setStartTime(Instant.now());
         session.setStatus("IN_PROGRESS");
 
-        return studySessionRepository.save(session);
+        session = studySessionRepository.save(session);
+        StudySession saved = session;
+        // Heartbeats and sweeps only see sessions that exist in the database
+        AfterCommit.run(() -> studySessionRegistry.register(saved));
+        engagementMetrics.sessionStarted();
+        learningEventService.publish(LearningEvent.lessonStarted(currentUser.getLogin(), lessonId));
+        return session;
     }
 
     /**
@@ -59,15 +84,13 @@ public class StudySessionService {
      */
     public StudySession completeSession(Long sessionId) {
         StudySession session = studySessionRepository
-            .findById(sessionId)
+            .findByIdForUpdate(sessionId)
             .orElseThrow(() -> new IllegalArgumentException("Session not found"));
 
         // Verify user owns this session
         verifySessionOwnership(session);
 
-        session.setEndTime(Instant.now());
-        session.setStatus("COMPLETED");
-        session.setDuration(Duration.between(session.getStartTime(), session.getEndTime()).toMinutes());
+        markCompleted(session);
 
         return studySessionRepository.save(session);
     }
@@ -77,7 +100,7 @@ public class StudySessionService {
      */
     public StudySession updateProgress(Long sessionId, StudySessionDTO.ProgressUpdate progressUpdate) {
         StudySession session = studySessionRepository
-            .findById(sessionId)
+            .findByIdForUpdate(sessionId)
             .orElseThrow(() -> new IllegalArgumentException("Session not found"));
 
         // Verify user owns this session
@@ -89,14 +112,32 @@ public class StudySessionService {
 
         // If session is completed via progress update
         if (Boolean.TRUE.equals(progressUpdate.getIsCompleted())) {
-            session.setEndTime(Instant.now());
-            session.setStatus("COMPLETED");
-            session.setDuration(Duration.between(session.getStartTime(), session.getEndTime()).toMinutes());
+            markCompleted(session);
         }
 
         return studySessionRepository.save(session);
     }
 
+    /**
+     * Keep a study session of the current user open, without touching the database
+     *
+     * @return {@code false} if the session is not open
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean heartbeat(Long sessionId) {
+        String currentUserLogin = SecurityUtils.getCurrentUserLogin()
+            .orElseThrow(() -> new IllegalStateException("Current user not found"));
+        return studySessionRegistry.heartbeat(sessionId, currentUserLogin);
+    }
+
+    /**
+     * Delete a study session
+     */
+    public void deleteSession(Long sessionId) {
+        studySessionRepository.deleteById(sessionId);
+        AfterCommit.run(() -> studySessionRegistry.unregister(sessionId));
+    }
+
     /**
      * Get current user's study sessions
      */
@@ -113,6 +154,35 @@ public class StudySessionService {
         return studySessionRepository.findByUserId(userId, pageable);
     }
 
+    /**
+     * Get a page of current user's study sessions, newest first, without counting them
+     *
+     * @param cursor the cursor of the last session of the previous page, or {@code null} for the first page
+     * @param size the page size
+     */
+    @Transactional(readOnly = true)
+    public Slice<StudySession> getCurrentUserSessions(SeekCursor cursor, int size) {
+        PageRequest page = PageRequest.of(0, size);
+        return cursor == null
+            ? studySessionRepository.findFirstPageByUserIsCurrentUser(page)
+            : studySessionRepository.findPageAfterByUserIsCurrentUser(cursor.position(), cursor.id(), page);
+    }
+
+    /**
+     * Get a page of user's study sessions, newest first, without counting them
+     *
+     * @param userId the user
+     * @param cursor the cursor of the last session of the previous page, or {@code null} for the first page
+     * @param size the page size
+     */
+    @Transactional(readOnly = true)
+    public Slice<StudySession> getUserSessions(Long userId, SeekCursor cursor, int size) {
+        PageRequest page = PageRequest.of(0, size);
+        return cursor == null
+            ? studySessionRepository.findByUserIdOrderByStartTimeDescIdDesc(userId, page)
+            : studySessionRepository.findPageAfterByUserId(userId, cursor.position(), cursor.id(), page);
+    }
+
     /**
      * Get current user's study statistics
      */
@@ -131,40 +201,70 @@ public class StudySessionService {
     }
 
     /**
-     * Get platform-wide study statistics
+     * Get platform-wide study statistics.
+     * <p>
+     * Computed by a single aggregate query and cached for a short, configurable time
+     * ({@code application.stats.platform-cache-ttl-seconds}): figures may lag the database by at most that long.
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = PLATFORM_STATS_CACHE)
     public StudySessionDTO.PlatformStats getPlatformStats(Instant startDate, Instant endDate) {
-        List<StudySession> sessions = studySessionRepository.findByStartTimeBetween(
+        StudySessionRepository.SessionAggregate aggregate = studySessionRepository.aggregateInPeriod(
             startDate != null ? startDate : Instant.EPOCH,
             endDate != null ? endDate : Instant.now()
         );
 
         StudySessionDTO.PlatformStats stats = new StudySessionDTO.PlatformStats();
-        stats.setTotalSessions(sessions.size());
-        stats.setTotalUsers((long) sessions.stream().map(s -> s.getUser().getId()).distinct().count());
-        stats.setTotalDuration(sessions.stream().mapToLong(StudySession::getDuration).sum());
-        stats.setAverageSessionDuration(stats.getTotalSessions() > 0 ? stats.getTotalDuration() / stats.getTotalSessions() : 0);
+        stats.setTotalSessions(aggregate.getTotalSessions().intValue());
+        stats.setCompletedSessions(aggregate.getCompletedSessions().intValue());
+        stats.setTotalUsers(aggregate.getTotalUsers());
+        stats.setTotalDuration(aggregate.getTotalDuration());
+        stats.setAverageSessionDuration(averageDuration(aggregate));
+        stats.setCompletionRate(completionRate(aggregate));
 
         return stats;
     }
 
     private StudySessionDTO.Stats getStatsForUser(Long userId, Instant startDate, Instant endDate) {
-        List<StudySession> sessions = studySessionRepository.findByUserIdAndStartTimeBetween(
+        StudySessionRepository.SessionAggregate aggregate = studySessionRepository.aggregateForUserInPeriod(
             userId,
             startDate != null ? startDate : Instant.EPOCH,
             endDate != null ? endDate : Instant.now()
         );
 
         StudySessionDTO.Stats stats = new StudySessionDTO.Stats();
-        stats.setTotalSessions(sessions.size());
-        stats.setCompletedSessions((int) sessions.stream().filter(s -> "COMPLETED".equals(s.getStatus())).count());
-        stats.setTotalDuration(sessions.stream().mapToLong(StudySession::getDuration).sum());
-        stats.setAverageSessionDuration(stats.getTotalSessions() > 0 ? stats.getTotalDuration() / stats.getTotalSessions() : 0);
+        stats.setTotalSessions(aggregate.getTotalSessions().intValue());
+        stats.setCompletedSessions(aggregate.getCompletedSessions().intValue());
+        stats.setTotalDuration(aggregate.getTotalDuration());
+        stats.setAverageSessionDuration(averageDuration(aggregate));
+        stats.setAverageScore(aggregate.getAverageScore());
 
         return stats;
     }
 
+    private static long averageDuration(StudySessionRepository.SessionAggregate aggregate) {
+        return aggregate.getTotalSessions() > 0 ? aggregate.getTotalDuration() / aggregate.getTotalSessions() : 0;
+    }
+
+    private static double completionRate(StudySessionRepository.SessionAggregate aggregate) {
+        return aggregate.getTotalSessions() > 0 ? (double) aggregate.getCompletedSessions() / aggregate.getTotalSessions() : 0.0;
+    }
+
+    private void markCompleted(StudySession session) {
+        // Completed already, or abandoned by the sweep: it keeps the end and the capped duration it was closed with
+        if (!"IN_PROGRESS".equals(session.getStatus())) {
+            return;
+        }
+        session.setEndTime(Instant.now());
+        session.setStatus("COMPLETED");
+        session.setDuration(Duration.between(session.getStartTime(), session.getEndTime()).toMinutes());
+        Long sessionId = session.getId();
+        AfterCommit.run(() -> studySessionRegistry.unregister(sessionId));
+
+        studyTimeRollupService.sessionCompleted(session.getUser().getId(), session.getStartTime(), session.getEndTime());
+        engagementMetrics.sessionCompleted();
+    }
+
     private User getCurrentUser() {
         return SecurityUtils.getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
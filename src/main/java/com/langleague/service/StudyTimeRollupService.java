@@ -0,0 +1,270 @@
+package com.langleague.service;
+
+import com.langleague.domain.StudyDayRollup;
+import com.langleague.repository.AppUserRepository;
+import com.langleague.repository.StudyDayRollupRepository;
+import com.langleague.repository.StudySessionRepository;
+import com.langleague.repository.UserRepository;
+import com.langleague.service.dto.StudyDayDTO;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the daily study-time buckets ({@link StudyDayRollup}).
+ * <p>
+ * A completed study session is split at the midnights of its owner's time zone and each part is
+ * added to the bucket of its local day; the session itself is counted on the day it started.
+ * Users without a valid time zone are bucketed in UTC.
+ */
+@Service
+@Transactional
+public class StudyTimeRollupService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StudyTimeRollupService.class);
+
+    private static final ZoneId DEFAULT_ZONE = ZoneOffset.UTC;
+
+    private static final int BACKFILL_CHUNK_SIZE = 100;
+
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final StudyDayRollupRepository studyDayRollupRepository;
+
+    private final StudySessionRepository studySessionRepository;
+
+    private final AppUserRepository appUserRepository;
+
+    private final UserRepository userRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public StudyTimeRollupService(
+        StudyDayRollupRepository studyDayRollupRepository,
+        StudySessionRepository studySessionRepository,
+        AppUserRepository appUserRepository,
+        UserRepository userRepository,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.studyDayRollupRepository = studyDayRollupRepository;
+        this.studySessionRepository = studySessionRepository;
+        this.appUserRepository = appUserRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A study session in progress was completed. A session is completed at most once, so its span is only added.
+     *
+     * @param userId the owner of the session.
+     * @param startTime the start of the session.
+     * @param endTime the end of the session.
+     */
+    public void sessionCompleted(Long userId, Instant startTime, Instant endTime) {
+        if (userId == null || startTime == null) {
+            return;
+        }
+        // Waits for a backfill rebuilding the buckets of the user
+        studyDayRollupRepository.lockUser(userId);
+        ZoneId zone = resolveZone(appUserRepository.findTimeZoneByUserId(userId).orElse(null));
+        addSpan(userId, startTime, endTime, zone, 1);
+    }
+
+    /**
+     * Get the study time of a user for each day of {@code [from, to]}, days without study included.
+     *
+     * @param login the login of the user.
+     * @param from the first day, in the user's time zone.
+     * @param to the last day, in the user's time zone.
+     * @return one entry per day.
+     */
+    @Transactional(readOnly = true)
+    public List<StudyDayDTO> getDailyStudyTime(String login, LocalDate from, LocalDate to) {
+        LOG.debug("Request to get daily study time for user : {} from {} to {}", login, from, to);
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("The range must contain between 1 and " + MAX_RANGE_DAYS + " days");
+        }
+        Long userId = getUserId(login);
+        return getDays(userId, from, to);
+    }
+
+    /**
+     * Get the study hours of a user for each day of the current week (Monday to Sunday) in the user's time zone.
+     *
+     * @param login the login of the user.
+     * @return seven entries of {@code day} (short English day name) and {@code hours}.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getWeeklyProgress(String login) {
+        LOG.debug("Request to get weekly progress for user : {}", login);
+        Long userId = getUserId(login);
+        ZoneId zone = resolveZone(appUserRepository.findTimeZoneByUserId(userId).orElse(null));
+        LocalDate monday = LocalDate.now(zone).with(DayOfWeek.MONDAY);
+        List<Map<String, Object>> weeklyData = new ArrayList<>();
+        for (StudyDayDTO day : getDays(userId, monday, monday.plusDays(6))) {
+            Map<String, Object> dayData = new HashMap<>();
+            dayData.put("day", day.getDay().getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH));
+            dayData.put("hours", day.getHours());
+            weeklyData.add(dayData);
+        }
+        return weeklyData;
+    }
+
+    /**
+     * Rebuild every bucket from the completed {@code study_session} rows.
+     * <p>
+     * Users are processed in id order, {@value #BACKFILL_CHUNK_SIZE} at a time, each chunk in its own
+     * transaction: their buckets are deleted and written again from their sessions with one JDBC batch, so
+     * readers never see them empty. The buckets of the chunk's users are locked first, so that sessions completed
+     * meanwhile are recorded by {@link #sessionCompleted} either before the chunk reads them or after it
+     * commits, and counted once.
+     *
+     * @return the number of sessions processed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long backfill() {
+        LOG.info("Backfilling daily study-time buckets");
+        long processed = 0;
+        long afterId = 0L;
+        BackfillChunk chunk;
+        do {
+            long chunkAfterId = afterId;
+            chunk = transactionTemplate.execute(status -> rebuildChunk(chunkAfterId));
+            processed += chunk.sessions();
+            if (!chunk.userIds().isEmpty()) {
+                afterId = chunk.userIds().get(chunk.userIds().size() - 1);
+            }
+        } while (chunk.userIds().size() == BACKFILL_CHUNK_SIZE);
+        LOG.info("Backfilled daily study-time buckets from {} sessions", processed);
+        return processed;
+    }
+
+    private record BackfillChunk(List<Long> userIds, int sessions) {}
+
+    private BackfillChunk rebuildChunk(long afterId) {
+        List<Long> userIds = studyDayRollupRepository.findUserIdsAfter(afterId, BACKFILL_CHUNK_SIZE);
+        if (userIds.isEmpty()) {
+            return new BackfillChunk(userIds, 0);
+        }
+        // In id order; sessionCompleted only ever holds the lock of one user, so the two cannot deadlock
+        userIds.forEach(studyDayRollupRepository::lockUser);
+        List<StudySessionRepository.SessionSpan> spans = studySessionRepository.findCompletedSpansByUserIds(userIds);
+        studyDayRollupRepository.deleteByUserIds(userIds);
+        Set<Long> spanUserIds = spans.stream().map(StudySessionRepository.SessionSpan::getUserId).collect(Collectors.toSet());
+        Map<Long, ZoneId> zones = new HashMap<>();
+        appUserRepository
+            .findTimeZonesByUserIds(spanUserIds)
+            .forEach(userTimeZone -> zones.put(userTimeZone.getUserId(), resolveZone(userTimeZone.getTimeZone())));
+
+        // Aggregate the chunk per (user, day) first so that each bucket is written once
+        Map<StudyDayRollup.StudyDayRollupId, long[]> buckets = new LinkedHashMap<>();
+        for (StudySessionRepository.SessionSpan span : spans) {
+            if (span.getUserId() == null || span.getStartTime() == null) {
+                continue;
+            }
+            ZoneId zone = zones.getOrDefault(span.getUserId(), DEFAULT_ZONE);
+            LocalDate startDay = LocalDate.ofInstant(span.getStartTime(), zone);
+            splitByDay(span.getStartTime(), span.getEndTime(), zone).forEach((day, seconds) -> {
+                long[] bucket = buckets.computeIfAbsent(new StudyDayRollup.StudyDayRollupId(span.getUserId(), day), key -> new long[2]);
+                bucket[0] += seconds;
+            });
+            buckets.computeIfAbsent(new StudyDayRollup.StudyDayRollupId(span.getUserId(), startDay), key -> new long[2])[1]++;
+        }
+
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((key, bucket) -> rows.add(new Object[] { key.getUserId(), key.getStudyDay(), bucket[0], bucket[1] }));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(StudyDayRollupRepository.UPSERT_SQL, rows);
+        }
+        return new BackfillChunk(userIds, spans.size());
+    }
+
+    private void addSpan(Long userId, Instant startTime, Instant endTime, ZoneId zone, int sign) {
+        LocalDate startDay = LocalDate.ofInstant(startTime, zone);
+        Map<LocalDate, Long> secondsByDay = splitByDay(startTime, endTime, zone);
+        secondsByDay.putIfAbsent(startDay, 0L);
+        secondsByDay.forEach((day, seconds) ->
+            studyDayRollupRepository.addStudyTime(userId, day, sign * seconds, day.equals(startDay) ? sign : 0)
+        );
+    }
+
+    private List<StudyDayDTO> getDays(Long userId, LocalDate from, LocalDate to) {
+        Map<LocalDate, StudyDayRollup> rollups = studyDayRollupRepository
+            .findByUserIdAndStudyDayBetweenOrderByStudyDay(userId, from, to)
+            .stream()
+            .collect(Collectors.toMap(StudyDayRollup::getStudyDay, rollup -> rollup));
+        List<StudyDayDTO> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            StudyDayRollup rollup = rollups.get(day);
+            days.add(
+                rollup != null ? new StudyDayDTO(day, rollup.getStudySeconds(), rollup.getSessionCount()) : new StudyDayDTO(day, 0L, 0)
+            );
+        }
+        return days;
+    }
+
+    private Long getUserId(String login) {
+        return userRepository
+            .findOneByLogin(login)
+            .orElseThrow(() -> new IllegalStateException("Current user not found"))
+            .getId();
+    }
+
+    /**
+     * Split {@code [start, end)} at the midnights of {@code zone}.
+     *
+     * @return the number of seconds falling on each local day, in day order.
+     */
+    static Map<LocalDate, Long> splitByDay(Instant start, Instant end, ZoneId zone) {
+        Map<LocalDate, Long> secondsByDay = new LinkedHashMap<>();
+        if (start == null || end == null || !end.isAfter(start)) {
+            return secondsByDay;
+        }
+        Instant cursor = start;
+        while (cursor.isBefore(end)) {
+            LocalDate day = LocalDate.ofInstant(cursor, zone);
+            Instant nextMidnight = day.plusDays(1).atStartOfDay(zone).toInstant();
+            Instant sliceEnd = nextMidnight.isBefore(end) ? nextMidnight : end;
+            secondsByDay.merge(day, Duration.between(cursor, sliceEnd).getSeconds(), Long::sum);
+            cursor = sliceEnd;
+        }
+        return secondsByDay;
+    }
+
+    static ZoneId resolveZone(String timeZone) {
+        if (timeZone == null || timeZone.isBlank()) {
+            return DEFAULT_ZONE;
+        }
+        try {
+            return ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            return DEFAULT_ZONE;
+        }
+    }
+}
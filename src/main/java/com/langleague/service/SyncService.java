@@ -0,0 +1,235 @@
+package com.langleague.service;
+
+import com.langleague.config.ApplicationProperties;
+import com.langleague.repository.AppUserRepository;
+import com.langleague.repository.ExerciseResultRepository;
+import com.langleague.repository.UserFavoriteLessonRepository;
+import com.langleague.repository.UserProgressRepository;
+import com.langleague.repository.UserVocabularyRepository;
+import com.langleague.security.SecurityUtils;
+import com.langleague.service.ChangeLogService.EntityType;
+import com.langleague.service.ChangeLogService.LoggedChange;
+import com.langleague.service.ChangeLogService.Operation;
+import com.langleague.service.dto.SyncDTO;
+import com.langleague.service.mapper.ExerciseResultMapper;
+import com.langleague.service.mapper.UserProgressMapper;
+import com.langleague.service.mapper.UserVocabularyMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for the delta sync of the data of a user: progress, vocabulary, exercise results and favorite lessons.
+ * <p>
+ * Without token, the client gets all of its data and a token. With a token, it only gets the entities changed since,
+ * read from {@link ChangeLogService} at most {@code application.sync.page-size} changes at a time, each entity once
+ * in its latest state. A reconnect thus costs in the number of changes, not in the size of the history.
+ * <p>
+ * A change is only passed by the token once it is {@code application.sync.settle-ms} old: a write still in flight
+ * may have taken a lower position in the log than one already committed, and must not be skipped. The most recent
+ * changes are sent anyway, and again with the next sync; applying them twice is harmless.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SyncService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SyncService.class);
+
+    private final ChangeLogService changeLogService;
+
+    private final AppUserRepository appUserRepository;
+
+    private final UserProgressRepository userProgressRepository;
+
+    private final UserVocabularyRepository userVocabularyRepository;
+
+    private final ExerciseResultRepository exerciseResultRepository;
+
+    private final UserFavoriteLessonRepository userFavoriteLessonRepository;
+
+    private final UserProgressMapper userProgressMapper;
+
+    private final UserVocabularyMapper userVocabularyMapper;
+
+    private final ExerciseResultMapper exerciseResultMapper;
+
+    private final int pageSize;
+
+    private final Duration settleDelay;
+
+    public SyncService(
+        ChangeLogService changeLogService,
+        AppUserRepository appUserRepository,
+        UserProgressRepository userProgressRepository,
+        UserVocabularyRepository userVocabularyRepository,
+        ExerciseResultRepository exerciseResultRepository,
+        UserFavoriteLessonRepository userFavoriteLessonRepository,
+        UserProgressMapper userProgressMapper,
+        UserVocabularyMapper userVocabularyMapper,
+        ExerciseResultMapper exerciseResultMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.changeLogService = changeLogService;
+        this.appUserRepository = appUserRepository;
+        this.userProgressRepository = userProgressRepository;
+        this.userVocabularyRepository = userVocabularyRepository;
+        this.exerciseResultRepository = exerciseResultRepository;
+        this.userFavoriteLessonRepository = userFavoriteLessonRepository;
+        this.userProgressMapper = userProgressMapper;
+        this.userVocabularyMapper = userVocabularyMapper;
+        this.exerciseResultMapper = exerciseResultMapper;
+        this.pageSize = applicationProperties.getSync().getPageSize();
+        this.settleDelay = Duration.ofMillis(applicationProperties.getSync().getSettleMs());
+    }
+
+    /**
+     * Get the data of the current user changed since a token.
+     *
+     * @param token the token of the previous sync, or {@code null} for a full sync.
+     * @return the changes, and the token of the next sync, or empty if the user has no profile.
+     * @throws IllegalArgumentException if the token was not returned by a previous sync.
+     */
+    public Optional<SyncDTO> syncCurrentUser(String token) {
+        return SecurityUtils.getCurrentUserLogin().flatMap(appUserRepository::findIdByUserLogin).map(appUserId -> sync(appUserId, token));
+    }
+
+    /**
+     * Get the data of a user changed since a token.
+     *
+     * @param appUserId the user.
+     * @param token the token of the previous sync, or {@code null} for a full sync.
+     * @return the changes, and the token of the next sync.
+     * @throws IllegalArgumentException if the token was not returned by a previous sync.
+     */
+    public SyncDTO sync(Long appUserId, String token) {
+        LOG.debug("Request to sync user {} since {}", appUserId, token);
+        Instant settledAt = Instant.now().minus(settleDelay);
+        if (token == null) {
+            return fullSync(appUserId, settledAt);
+        }
+        long since;
+        try {
+            since = Long.parseLong(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync token", e);
+        }
+        if (since < 0) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+        return deltaSync(appUserId, since, settledAt);
+    }
+
+    private SyncDTO fullSync(Long appUserId, Instant settledAt) {
+        // Read the token first: a change committed while reading is sent again by the next sync
+        long next = changeLogService.findSettledSeq(appUserId, settledAt);
+        SyncDTO sync = new SyncDTO();
+        sync.setToken(Long.toString(next));
+        sync.setFull(true);
+        sync.setUserProgresses(
+            userProgressRepository
+                .findAllByAppUserIdOrderByLastAccessedDescIdDesc(appUserId)
+                .stream()
+                .map(userProgressMapper::toDto)
+                .toList()
+        );
+        sync.setUserVocabularies(userVocabularyRepository.findByAppUserId(appUserId).stream().map(userVocabularyMapper::toDto).toList());
+        sync.setExerciseResults(exerciseResultRepository.findByAppUserId(appUserId).stream().map(exerciseResultMapper::toDto).toList());
+        sync.setFavoriteLessonIds(userFavoriteLessonRepository.findLessonIdsByAppUserId(appUserId));
+        return sync;
+    }
+
+    private SyncDTO deltaSync(Long appUserId, long since, Instant settledAt) {
+        List<LoggedChange> changes = changeLogService.findChanges(appUserId, since, pageSize + 1);
+        boolean more = changes.size() > pageSize;
+        List<LoggedChange> page = more ? changes.subList(0, pageSize) : changes;
+        long next = since;
+        for (LoggedChange change : page) {
+            if (change.changedAt().isAfter(settledAt)) {
+                break;
+            }
+            next = change.seq();
+        }
+        // Only the latest change of each entity matters
+        Map<EntityType, Map<Long, Operation>> latest = new EnumMap<>(EntityType.class);
+        page.forEach(change ->
+            latest.computeIfAbsent(change.entityType(), type -> new HashMap<>()).put(change.entityId(), change.operation())
+        );
+
+        SyncDTO sync = new SyncDTO();
+        sync.setToken(Long.toString(next));
+        sync.setMore(more && next > since);
+        SyncDTO.Deleted deleted = sync.getDeleted();
+        Set<Long> ids = upserted(latest, EntityType.USER_PROGRESS);
+        if (!ids.isEmpty()) {
+            sync.setUserProgresses(
+                userProgressRepository.findByAppUserIdAndLessonIdIn(appUserId, ids).stream().map(userProgressMapper::toDto).toList()
+            );
+            ids.removeAll(keys(sync.getUserProgresses(), dto -> dto.getLesson() != null ? dto.getLesson().getId() : null));
+        }
+        deleted.setUserProgressLessonIds(removed(latest, EntityType.USER_PROGRESS, ids));
+        ids = upserted(latest, EntityType.USER_VOCABULARY);
+        if (!ids.isEmpty()) {
+            sync.setUserVocabularies(
+                userVocabularyRepository.findByAppUserIdAndIdIn(appUserId, ids).stream().map(userVocabularyMapper::toDto).toList()
+            );
+            ids.removeAll(keys(sync.getUserVocabularies(), dto -> dto.getId()));
+        }
+        deleted.setUserVocabularyIds(removed(latest, EntityType.USER_VOCABULARY, ids));
+        ids = upserted(latest, EntityType.EXERCISE_RESULT);
+        if (!ids.isEmpty()) {
+            sync.setExerciseResults(
+                exerciseResultRepository.findByAppUserIdAndIdIn(appUserId, ids).stream().map(exerciseResultMapper::toDto).toList()
+            );
+            ids.removeAll(keys(sync.getExerciseResults(), dto -> dto.getId()));
+        }
+        deleted.setExerciseResultIds(removed(latest, EntityType.EXERCISE_RESULT, ids));
+        ids = upserted(latest, EntityType.FAVORITE_LESSON);
+        if (!ids.isEmpty()) {
+            sync.setFavoriteLessonIds(userFavoriteLessonRepository.findLessonIdsByAppUserIdAndLessonIdIn(appUserId, ids));
+            ids.removeAll(sync.getFavoriteLessonIds());
+        }
+        deleted.setFavoriteLessonIds(removed(latest, EntityType.FAVORITE_LESSON, ids));
+        LOG.debug("Synced {} changes of user {} since {}", page.size(), appUserId, since);
+        return sync;
+    }
+
+    private static Set<Long> upserted(Map<EntityType, Map<Long, Operation>> latest, EntityType type) {
+        Set<Long> ids = new HashSet<>();
+        latest.getOrDefault(type, Map.of()).forEach((id, operation) -> {
+            if (operation == Operation.UPSERT) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * @return the entities deleted, and those upserted but gone by now, whose deletion is in a later change.
+     */
+    private static List<Long> removed(Map<EntityType, Map<Long, Operation>> latest, EntityType type, Set<Long> gone) {
+        Set<Long> ids = new HashSet<>(gone);
+        latest.getOrDefault(type, Map.of()).forEach((id, operation) -> {
+            if (operation == Operation.DELETE) {
+                ids.add(id);
+            }
+        });
+        return List.copyOf(ids);
+    }
+
+    private static <T> Set<Long> keys(List<T> dtos, Function<T, Long> key) {
+        Set<Long> keys = new HashSet<>();
+        dtos.forEach(dto -> keys.add(key.apply(dto)));
+        return keys;
+    }
+}
@@ -6,6 +6,7 @@ import com.langleague.domain.UserFavoriteLesson;
 import com.langleague.repository.AppUserRepository;
 import com.langleague.repository.LessonRepository;
 import com.langleague.repository.UserFavoriteLessonRepository;
+import com.langleague.service.ChangeLogService.EntityType;
 import java.time.Instant;
 import java.util.List;
 import org.slf4j.Logger;
@@ -26,15 +27,18 @@ public class UserFavoriteLessonService {
     private final UserFavoriteLessonRepository userFavoriteLessonRepository;
     private final AppUserRepository appUserRepository;
     private final LessonRepository lessonRepository;
+    private final ChangeLogService changeLogService;
 
     public UserFavoriteLessonService(
         UserFavoriteLessonRepository userFavoriteLessonRepository,
         AppUserRepository appUserRepository,
-        LessonRepository lessonRepository
+        LessonRepository lessonRepository,
+        ChangeLogService changeLogService
     ) {
         this.userFavoriteLessonRepository = userFavoriteLessonRepository;
         this.appUserRepository = appUserRepository;
         this.lessonRepository = lessonRepository;
+        this.changeLogService = changeLogService;
     }
 
     /**
@@ -62,7 +66,9 @@ public class UserFavoriteLessonService {
         favorite.setLesson(lesson);
         favorite.setCreatedAt(Instant.now());
 
-        return userFavoriteLessonRepository.save(favorite);
+        favorite = userFavoriteLessonRepository.save(favorite);
+        changeLogService.upserted(appUser.getId(), EntityType.FAVORITE_LESSON, lessonId);
+        return favorite;
     }
 
     /**
@@ -78,6 +84,7 @@ public class UserFavoriteLessonService {
         AppUser appUser = appUserRepository.findByUser_Login(login).orElseThrow(() -> new RuntimeException("AppUser not found"));
 
         userFavoriteLessonRepository.deleteByAppUserIdAndLessonId(appUser.getId(), lessonId);
+        changeLogService.deleted(appUser.getId(), EntityType.FAVORITE_LESSON, lessonId);
     }
 
     /**
@@ -1,14 +1,26 @@
 package com.langleague.service;
 
+import com.langleague.domain.AppUser;
+import com.langleague.domain.Lesson;
 import com.langleague.domain.UserProgress;
+import com.langleague.repository.AppUserRepository;
 import com.langleague.repository.UserProgressRepository;
+import com.langleague.repository.UserProgressRepositoryWithUpsert.ProgressWriteResult;
+import com.langleague.security.SecurityUtils;
+import com.langleague.service.ChangeLogService.EntityType;
+import com.langleague.service.dto.SeekCursor;
 import com.langleague.service.dto.UserProgressDTO;
+import com.langleague.service.event.LearningEvent;
 import com.langleague.service.mapper.UserProgressMapper;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,13 +33,46 @@ public class UserProgressService {
 
     private static final Logger LOG = LoggerFactory.getLogger(UserProgressService.class);
 
+    private static final int COMPLETED_PERCENT = 100;
+
     private final UserProgressRepository userProgressRepository;
 
+    private final AppUserRepository appUserRepository;
+
     private final UserProgressMapper userProgressMapper;
 
-    public UserProgressService(UserProgressRepository userProgressRepository, UserProgressMapper userProgressMapper) {
+    private final DashboardStatsService dashboardStatsService;
+
+    private final CompletionCohortService completionCohortService;
+
+    private final ChapterCompletionService chapterCompletionService;
+
+    private final LearningEventService learningEventService;
+
+    private final UserProgressWriteBehindService userProgressWriteBehindService;
+
+    private final ChangeLogService changeLogService;
+
+    public UserProgressService(
+        UserProgressRepository userProgressRepository,
+        AppUserRepository appUserRepository,
+        UserProgressMapper userProgressMapper,
+        DashboardStatsService dashboardStatsService,
+        CompletionCohortService completionCohortService,
+        ChapterCompletionService chapterCompletionService,
+        LearningEventService learningEventService,
+        UserProgressWriteBehindService userProgressWriteBehindService,
+        ChangeLogService changeLogService
+    ) {
         this.userProgressRepository = userProgressRepository;
+        this.appUserRepository = appUserRepository;
         this.userProgressMapper = userProgressMapper;
+        this.dashboardStatsService = dashboardStatsService;
+        this.completionCohortService = completionCohortService;
+        this.chapterCompletionService = chapterCompletionService;
+        this.learningEventService = learningEventService;
+        this.userProgressWriteBehindService = userProgressWriteBehindService;
+        this.changeLogService = changeLogService;
     }
 
     /**
@@ -40,6 +85,17 @@ public class UserProgressService {
         LOG.debug("Request to save UserProgress : {}", userProgressDTO);
         UserProgress userProgress = userProgressMapper.toEntity(userProgressDTO);
         userProgress = userProgressRepository.save(userProgress);
+        dashboardStatsService.lessonProgressChanged(null, null, appUserIdOf(userProgress), userProgress.getPercent());
+        completionCohortService.progressChanged(null, null, lessonIdOf(userProgress), userProgress.getPercent());
+        chapterCompletionService.progressChanged(
+            null,
+            null,
+            null,
+            appUserIdOf(userProgress),
+            lessonIdOf(userProgress),
+            userProgress.getPercent()
+        );
+        changeLogService.upserted(appUserIdOf(userProgress), EntityType.USER_PROGRESS, lessonIdOf(userProgress));
         return userProgressMapper.toDto(userProgress);
     }
 
@@ -51,8 +107,34 @@ public class UserProgressService {
      */
     public UserProgressDTO update(UserProgressDTO userProgressDTO) {
         LOG.debug("Request to update UserProgress : {}", userProgressDTO);
+        Optional<UserProgress> previous = userProgressRepository.findById(userProgressDTO.getId());
+        Long previousAppUserId = previous.map(UserProgressService::appUserIdOf).orElse(null);
+        Long previousLessonId = previous.map(UserProgressService::lessonIdOf).orElse(null);
+        Integer previousPercent = previous.map(UserProgress::getPercent).orElse(null);
         UserProgress userProgress = userProgressMapper.toEntity(userProgressDTO);
         userProgress = userProgressRepository.save(userProgress);
+        dashboardStatsService.lessonProgressChanged(
+            previousAppUserId,
+            previousPercent,
+            appUserIdOf(userProgress),
+            userProgress.getPercent()
+        );
+        completionCohortService.progressChanged(previousLessonId, previousPercent, lessonIdOf(userProgress), userProgress.getPercent());
+        chapterCompletionService.progressChanged(
+            previousAppUserId,
+            previousLessonId,
+            previousPercent,
+            appUserIdOf(userProgress),
+            lessonIdOf(userProgress),
+            userProgress.getPercent()
+        );
+        changeLogService.moved(
+            EntityType.USER_PROGRESS,
+            previousAppUserId,
+            previousLessonId,
+            appUserIdOf(userProgress),
+            lessonIdOf(userProgress)
+        );
         return userProgressMapper.toDto(userProgress);
     }
 
@@ -68,12 +150,26 @@ public class UserProgressService {
         return userProgressRepository
             .findById(userProgressDTO.getId())
             .map(existingUserProgress -> {
+                Integer previousPercent = existingUserProgress.getPercent();
                 if (userProgressDTO.getPercent() != null) {
                     existingUserProgress.setPercent(userProgressDTO.getPercent());
                 }
                 if (userProgressDTO.getLastAccessed() != null) {
                     existingUserProgress.setLastAccessed(userProgressDTO.getLastAccessed());
                 }
+                Long appUserId = appUserIdOf(existingUserProgress);
+                dashboardStatsService.lessonProgressChanged(appUserId, previousPercent, appUserId, existingUserProgress.getPercent());
+                Long lessonId = lessonIdOf(existingUserProgress);
+                completionCohortService.progressChanged(lessonId, previousPercent, lessonId, existingUserProgress.getPercent());
+                chapterCompletionService.progressChanged(
+                    appUserId,
+                    lessonId,
+                    previousPercent,
+                    appUserId,
+                    lessonId,
+                    existingUserProgress.getPercent()
+                );
+                changeLogService.upserted(appUserId, EntityType.USER_PROGRESS, lessonId);
                 return existingUserProgress;
             })
             .map(userProgressRepository::save)
@@ -111,12 +207,31 @@ public class UserProgressService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete UserProgress : {}", id);
-        userProgressRepository.deleteById(id);
+        userProgressRepository
+            .findById(id)
+            .ifPresent(userProgress -> {
+                dashboardStatsService.lessonProgressChanged(appUserIdOf(userProgress), userProgress.getPercent(), null, null);
+                completionCohortService.progressChanged(lessonIdOf(userProgress), userProgress.getPercent(), null, null);
+                chapterCompletionService.progressChanged(
+                    appUserIdOf(userProgress),
+                    lessonIdOf(userProgress),
+                    userProgress.getPercent(),
+                    null,
+                    null,
+                    null
+                );
+                changeLogService.deleted(appUserIdOf(userProgress), EntityType.USER_PROGRESS, lessonIdOf(userProgress));
+                userProgressRepository.delete(userProgress);
+            });
     }
 
     /**
      * Use case 24: Mark lesson as completed
      * Mark a lesson as learned or to review
+     * <p>
+     * The row is written with one upsert, so that concurrent calls from several devices never create a second row for
+     * the lesson, and is locked until the transaction commits, so that the read models are adjusted with the percent
+     * actually overwritten.
      *
      * @param appUserId user ID
      * @param lessonId lesson ID
@@ -125,36 +240,54 @@ public class UserProgressService {
      */
     public UserProgressDTO markLessonProgress(Long appUserId, Long lessonId, Integer percent) {
         LOG.debug("Request to mark lesson {} progress for user {} at {}%", lessonId, appUserId, percent);
-
-        Optional<UserProgress> existing = userProgressRepository.findByAppUserIdAndLessonId(appUserId, lessonId);
-
-        UserProgress userProgress;
-        if (existing.isPresent()) {
-            userProgress = existing.orElseThrow();
-            userProgress.setPercent(percent);
-        } else {
-            userProgress = new UserProgress();
-            // Set appUser and lesson references here
-            userProgress.setPercent(percent);
+        Instant lastAccessed = Instant.now();
+        ProgressWriteResult result = userProgressRepository.upsertProgress(appUserId, lessonId, percent, lastAccessed);
+        // This write supersedes any progress still buffered for the lesson
+        userProgressWriteBehindService.discard(appUserId, lessonId, lastAccessed);
+        AppUser appUser = new AppUser();
+        appUser.setId(appUserId);
+        Lesson lesson = new Lesson();
+        lesson.setId(lessonId);
+        UserProgress userProgress = new UserProgress().id(result.id()).appUser(appUser).lesson(lesson);
+        if (!result.applied()) {
+            // Another instance wrote a later access, e.g. with a clock ahead of ours: it wins
+            return userProgressMapper.toDto(userProgress.percent(result.previousPercent()).lastAccessed(result.previousLastAccessed()));
         }
 
-        userProgress.setLastAccessed(java.time.Instant.now());
-        userProgress = userProgressRepository.save(userProgress);
-        return userProgressMapper.toDto(userProgress);
+        boolean existing = result.existed();
+        Integer previousPercent = result.previousPercent();
+        dashboardStatsService.lessonProgressChanged(existing ? appUserId : null, previousPercent, appUserId, percent);
+        completionCohortService.progressChanged(existing ? lessonId : null, previousPercent, lessonId, percent);
+        chapterCompletionService.progressChanged(
+            existing ? appUserId : null,
+            existing ? lessonId : null,
+            previousPercent,
+            appUserId,
+            lessonId,
+            percent
+        );
+        changeLogService.upserted(appUserId, EntityType.USER_PROGRESS, lessonId);
+        learningEventService.publish(LearningEvent.progressSaved(loginOf(appUserId), lessonId, percent));
+        return userProgressMapper.toDto(userProgress.percent(percent).lastAccessed(lastAccessed));
     }
 
     /**
      * Use case 25: Save progress
      * Continue learning from where you left off
+     * <p>
+     * The player calls this every few seconds, so the progress is buffered by
+     * {@link UserProgressWriteBehindService} and written in batches; only the latest tick of each lesson is kept.
      *
      * @param appUserId user ID
      * @param lessonId lesson ID
      * @param percent current progress percentage
-     * @return the saved user progress
+     * @return the saved user progress, without id until it is written
      */
     public UserProgressDTO saveProgress(Long appUserId, Long lessonId, Integer percent) {
         LOG.debug("Request to save progress for lesson {} and user {}", lessonId, appUserId);
-        return markLessonProgress(appUserId, lessonId, percent);
+        UserProgressDTO result = userProgressWriteBehindService.save(appUserId, lessonId, percent);
+        learningEventService.publish(LearningEvent.progressSaved(loginOf(appUserId), lessonId, percent));
+        return result;
     }
 
     /**
@@ -180,7 +313,22 @@ public class UserProgressService {
     @Transactional(readOnly = true)
     public Optional<UserProgressDTO> getLessonProgress(Long appUserId, Long lessonId) {
         LOG.debug("Request to get progress for lesson {} and user {}", lessonId, appUserId);
-        return userProgressRepository.findByAppUserIdAndLessonId(appUserId, lessonId).map(userProgressMapper::toDto);
+        // Look at the buffer first: a flush completing in between then shows up in the stored row
+        Optional<UserProgressDTO> pending = userProgressWriteBehindService.getPending(appUserId, lessonId);
+        Optional<UserProgressDTO> stored = userProgressRepository
+            .findByAppUserIdAndLessonId(appUserId, lessonId)
+            .map(userProgressMapper::toDto);
+        if (pending.isEmpty()) {
+            return stored;
+        }
+        // Progress saved but not written yet wins over the stored row
+        UserProgressDTO latest = pending.orElseThrow();
+        stored.ifPresent(dto -> {
+            latest.setId(dto.getId());
+            latest.setAppUser(dto.getAppUser());
+            latest.setLesson(dto.getLesson());
+        });
+        return Optional.of(latest);
     }
 
     /**
@@ -198,15 +346,76 @@ public class UserProgressService {
     }
 
     /**
-     * Get current authenticated user's progress
+     * Use case 41: Learning history view, one page after another without counting them
+     *
+     * @param appUserId user ID
+     * @param cursor the cursor of the last row of the previous page, or {@code null} for the first page
+     * @param size the page size
+     * @return a page of learning history, most recently accessed first
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserProgressDTO> getLearningHistory(Long appUserId, SeekCursor cursor, int size) {
+        LOG.debug("Request to get learning history for user {} after {}", appUserId, cursor);
+        PageRequest page = PageRequest.of(0, size);
+        Slice<UserProgress> slice = cursor == null
+            ? userProgressRepository.findByAppUserIdAndLastAccessedNotNullOrderByLastAccessedDescIdDesc(appUserId, page)
+            : userProgressRepository.findHistoryAfter(appUserId, cursor.position(), cursor.id(), page);
+        return slice.map(userProgressMapper::toDto);
+    }
+
+    /**
+     * Get current authenticated user's progress, most recently accessed first
      *
      * @return list of user progress
      */
     @Transactional(readOnly = true)
     public java.util.List<UserProgressDTO> getCurrentUserProgress() {
         LOG.debug("Request to get current user's progress");
-        // TODO: Get current user from SecurityContext
-        // For now, return empty list or mock data
-        return userProgressRepository.findAll().stream().map(userProgressMapper::toDto).collect(java.util.stream.Collectors.toList());
+        return getCurrentAppUserId()
+            .map(appUserId ->
+                userProgressRepository
+                    .findAllByAppUserIdOrderByLastAccessedDescIdDesc(appUserId)
+                    .stream()
+                    .map(userProgressMapper::toDto)
+                    .collect(java.util.stream.Collectors.toList())
+            )
+            .orElseGet(java.util.ArrayList::new);
+    }
+
+    /**
+     * Continue learning: get the unfinished lesson the current user accessed last
+     *
+     * @return the progress of that lesson, or empty if every started lesson is completed
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserProgressDTO> getCurrentUserResume() {
+        LOG.debug("Request to get current user's lesson to resume");
+        return getCurrentAppUserId()
+            .flatMap(appUserId ->
+                userProgressRepository.findFirstByAppUserIdAndPercentLessThanOrderByLastAccessedDescIdDesc(appUserId, COMPLETED_PERCENT)
+            )
+            .map(userProgressMapper::toDto);
+    }
+
+    /**
+     * Get the id of the current user's profile; cached by login, so that conditional requests need no query.
+     *
+     * @return the app user id, or empty if not authenticated or without profile
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getCurrentAppUserId() {
+        return SecurityUtils.getCurrentUserLogin().flatMap(appUserRepository::findIdByUserLogin);
+    }
+
+    private String loginOf(Long appUserId) {
+        return appUserRepository.findUserLoginById(appUserId).orElse(null);
+    }
+
+    private static Long appUserIdOf(UserProgress userProgress) {
+        return userProgress.getAppUser() != null ? userProgress.getAppUser().getId() : null;
+    }
+
+    private static Long lessonIdOf(UserProgress userProgress) {
+        return userProgress.getLesson() != null ? userProgress.getLesson().getId() : null;
     }
 }
@@ -0,0 +1,224 @@
+package com.langleague.service;
+
+import com.langleague.repository.AppUserRepository;
+import com.langleague.repository.UserProgressRepository;
+import com.langleague.repository.UserProgressRepositoryWithUpsert.ProgressWrite;
+import com.langleague.repository.UserProgressRepositoryWithUpsert.ProgressWriteResult;
+import com.langleague.service.ChangeLogService.Change;
+import com.langleague.service.ChangeLogService.EntityType;
+import com.langleague.service.ChangeLogService.Operation;
+import com.langleague.service.dto.UserProgressBatchDTO;
+import com.langleague.service.dto.UserProgressBatchResultDTO;
+import com.langleague.service.dto.UserProgressBatchResultDTO.Status;
+import com.langleague.service.dto.UserProgressDTO;
+import com.langleague.service.event.LearningEvent;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service applying batches of lesson progress recorded by clients, e.g. while they were offline.
+ * <p>
+ * A batch is applied in one transaction with a constant number of statements: one select of the lessons, then one
+ * {@link UserProgressRepository#upsertProgress(List) upsert} of the items. Conflicts are resolved last-writer-wins on
+ * the client timestamp, against the stored progress, the progress buffered by {@link UserProgressWriteBehindService},
+ * and the other items of the batch.
+ */
+@Service
+@Transactional
+public class UserProgressSyncService {
+
+    public static final int MAX_ITEMS = 500;
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserProgressSyncService.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final UserProgressRepository userProgressRepository;
+
+    private final AppUserRepository appUserRepository;
+
+    private final UserProgressWriteBehindService userProgressWriteBehindService;
+
+    private final DashboardStatsService dashboardStatsService;
+
+    private final CompletionCohortService completionCohortService;
+
+    private final ChapterCompletionService chapterCompletionService;
+
+    private final LearningEventService learningEventService;
+
+    private final ChangeLogService changeLogService;
+
+    public UserProgressSyncService(
+        NamedParameterJdbcTemplate jdbcTemplate,
+        UserProgressRepository userProgressRepository,
+        AppUserRepository appUserRepository,
+        UserProgressWriteBehindService userProgressWriteBehindService,
+        DashboardStatsService dashboardStatsService,
+        CompletionCohortService completionCohortService,
+        ChapterCompletionService chapterCompletionService,
+        LearningEventService learningEventService,
+        ChangeLogService changeLogService
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userProgressRepository = userProgressRepository;
+        this.appUserRepository = appUserRepository;
+        this.userProgressWriteBehindService = userProgressWriteBehindService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.completionCohortService = completionCohortService;
+        this.chapterCompletionService = chapterCompletionService;
+        this.learningEventService = learningEventService;
+        this.changeLogService = changeLogService;
+    }
+
+    /**
+     * Apply a batch of lesson progress of a user.
+     * <p>
+     * An item wins if its client timestamp is after the last access of the lesson; a timestamp in the future is
+     * taken as now, so that a client with a skewed clock cannot pin a lesson. Between items of the batch for the
+     * same lesson, the latest one wins, and the last one listed on a tie.
+     *
+     * @param appUserId user ID
+     * @param items the progress recorded by the client, at most {@value #MAX_ITEMS}.
+     * @return the outcome of each item, in the order of {@code items}.
+     */
+    public List<UserProgressBatchResultDTO> syncProgress(Long appUserId, List<UserProgressBatchDTO.Item> items) {
+        LOG.debug("Request to sync {} progress items for user {}", items.size(), appUserId);
+        Instant now = Instant.now();
+        UserProgressBatchResultDTO[] results = new UserProgressBatchResultDTO[items.size()];
+        Map<Long, Integer> latestByLesson = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            UserProgressBatchDTO.Item item = items.get(i);
+            if (!isValid(item)) {
+                results[i] = result(item != null ? item.getLessonId() : null, Status.INVALID, null, null);
+                continue;
+            }
+            Integer latest = latestByLesson.get(item.getLessonId());
+            if (latest != null && timestampOf(items.get(latest), now).isAfter(timestampOf(item, now))) {
+                results[i] = result(item.getLessonId(), Status.STALE, null, null);
+                continue;
+            }
+            if (latest != null) {
+                results[latest] = result(item.getLessonId(), Status.STALE, null, null);
+            }
+            latestByLesson.put(item.getLessonId(), i);
+        }
+        if (latestByLesson.isEmpty()) {
+            return List.of(results);
+        }
+
+        Set<Long> lessonIds = findLessons(latestByLesson.keySet());
+        List<ProgressWrite> writes = new ArrayList<>();
+        Map<Long, Integer> writeIndexes = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : latestByLesson.entrySet()) {
+            Long lessonId = entry.getKey();
+            UserProgressBatchDTO.Item item = items.get(entry.getValue());
+            if (!lessonIds.contains(lessonId)) {
+                results[entry.getValue()] = result(lessonId, Status.NOT_FOUND, null, null);
+                continue;
+            }
+            Instant timestamp = timestampOf(item, now);
+            Optional<UserProgressDTO> pending = userProgressWriteBehindService.getPending(appUserId, lessonId);
+            if (pending.isPresent() && !timestamp.isAfter(pending.orElseThrow().getLastAccessed())) {
+                results[entry.getValue()] = result(
+                    lessonId,
+                    Status.STALE,
+                    pending.orElseThrow().getPercent(),
+                    pending.orElseThrow().getLastAccessed()
+                );
+                continue;
+            }
+            writeIndexes.put(lessonId, entry.getValue());
+            writes.add(new ProgressWrite(appUserId, lessonId, item.getPercent(), timestamp));
+        }
+        // The stored progress is compared with the items by the upsert, under the row locks
+        List<UserProgressBatchDTO.Item> applied = new ArrayList<>();
+        for (ProgressWriteResult written : userProgressRepository.upsertProgress(writes)) {
+            ProgressWrite write = written.write();
+            Long lessonId = write.lessonId();
+            int index = writeIndexes.get(lessonId);
+            if (!written.applied()) {
+                results[index] = result(lessonId, Status.STALE, written.previousPercent(), written.previousLastAccessed());
+                continue;
+            }
+            userProgressWriteBehindService.discard(appUserId, lessonId, write.lastAccessed());
+            boolean existing = written.existed();
+            Integer previousPercent = written.previousPercent();
+            dashboardStatsService.lessonProgressChanged(existing ? appUserId : null, previousPercent, appUserId, write.percent());
+            completionCohortService.progressChanged(existing ? lessonId : null, previousPercent, lessonId, write.percent());
+            chapterCompletionService.progressChanged(
+                existing ? appUserId : null,
+                existing ? lessonId : null,
+                previousPercent,
+                appUserId,
+                lessonId,
+                write.percent()
+            );
+            results[index] = result(lessonId, Status.APPLIED, write.percent(), write.lastAccessed());
+            applied.add(items.get(index));
+        }
+        // Items superseded within the batch report what their lesson ended up with
+        for (int i = 0; i < results.length; i++) {
+            Integer latest = results[i].getStatus() == Status.STALE ? latestByLesson.get(results[i].getLessonId()) : null;
+            if (latest != null && latest != i) {
+                results[i].setPercent(results[latest].getPercent());
+                results[i].setLastAccessed(results[latest].getLastAccessed());
+            }
+        }
+        if (!applied.isEmpty()) {
+            changeLogService.record(
+                applied.stream().map(item -> new Change(appUserId, EntityType.USER_PROGRESS, item.getLessonId(), Operation.UPSERT)).toList()
+            );
+        }
+        if (!applied.isEmpty()) {
+            String login = appUserRepository.findUserLoginById(appUserId).orElse(null);
+            applied.forEach(item ->
+                learningEventService.publish(LearningEvent.progressSaved(login, item.getLessonId(), item.getPercent()))
+            );
+        }
+        LOG.debug("Applied {} of {} progress items for user {}", applied.size(), items.size(), appUserId);
+        return List.of(results);
+    }
+
+    private Set<Long> findLessons(Set<Long> lessonIds) {
+        return new HashSet<>(
+            jdbcTemplate.queryForList("SELECT id FROM lesson WHERE id IN (:ids)", Map.of("ids", lessonIds), Long.class)
+        );
+    }
+
+    private static boolean isValid(UserProgressBatchDTO.Item item) {
+        return (
+            item != null &&
+            item.getLessonId() != null &&
+            item.getClientTimestamp() != null &&
+            item.getPercent() != null &&
+            item.getPercent() >= 0 &&
+            item.getPercent() <= 100
+        );
+    }
+
+    private static Instant timestampOf(UserProgressBatchDTO.Item item, Instant now) {
+        return item.getClientTimestamp().isAfter(now) ? now : item.getClientTimestamp();
+    }
+
+    private static UserProgressBatchResultDTO result(Long lessonId, Status status, Integer percent, Instant lastAccessed) {
+        UserProgressBatchResultDTO result = new UserProgressBatchResultDTO();
+        result.setLessonId(lessonId);
+        result.setStatus(status);
+        result.setPercent(percent);
+        result.setLastAccessed(lastAccessed);
+        return result;
+    }
+}
@@ -0,0 +1,307 @@
+package com.langleague.service;
+
+import com.langleague.config.ApplicationProperties;
+import com.langleague.repository.AppUserRepository;
+import com.langleague.repository.LessonRepository;
+import com.langleague.repository.UserProgressRepository;
+import com.langleague.repository.UserProgressRepositoryWithUpsert.ProgressWrite;
+import com.langleague.repository.UserProgressRepositoryWithUpsert.ProgressWriteResult;
+import com.langleague.service.dto.AppUserDTO;
+import com.langleague.service.dto.LessonDTO;
+import com.langleague.service.dto.UserProgressDTO;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind buffer for the progress ticks of the lesson player.
+ * <p>
+ * {@link #save} only records the latest percent and access time of each (user, lesson) pair in memory. The buffer
+ * is written every {@code application.progress.flush-interval-ms}, as soon as it holds
+ * {@code application.progress.flush-threshold} pairs, and at shutdown: each chunk of pairs costs one
+ * {@link UserProgressRepository#upsertProgress(List) upsert}, however many ticks were coalesced into it. A tick never
+ * overwrites a progress accessed after it, e.g. a lesson marked meanwhile. The dashboard and completion read models are
+ * adjusted at flush time with the percent that was actually overwritten.
+ * <p>
+ * Until a pair is written, {@link #getPending} returns it, so that readers see their own writes. The user and the
+ * lesson of a tick are checked when it is buffered.
+ */
+@Service
+public class UserProgressWriteBehindService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserProgressWriteBehindService.class);
+
+    private final Map<ProgressKey, PendingProgress> pending = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final UserProgressRepository userProgressRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final LessonRepository lessonRepository;
+
+    private final AppUserRepository appUserRepository;
+
+    private final DashboardStatsService dashboardStatsService;
+
+    private final CompletionCohortService completionCohortService;
+
+    private final ChapterCompletionService chapterCompletionService;
+
+    private final ProgressVersionService progressVersionService;
+
+    private final ChangeLogService changeLogService;
+
+    private final Executor taskExecutor;
+
+    private final int flushThreshold;
+
+    private final int batchSize;
+
+    public UserProgressWriteBehindService(
+        UserProgressRepository userProgressRepository,
+        PlatformTransactionManager transactionManager,
+        CatalogSnapshotService catalogSnapshotService,
+        LessonRepository lessonRepository,
+        AppUserRepository appUserRepository,
+        DashboardStatsService dashboardStatsService,
+        CompletionCohortService completionCohortService,
+        ChapterCompletionService chapterCompletionService,
+        ProgressVersionService progressVersionService,
+        ChangeLogService changeLogService,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.userProgressRepository = userProgressRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.lessonRepository = lessonRepository;
+        this.appUserRepository = appUserRepository;
+        this.dashboardStatsService = dashboardStatsService;
+        this.completionCohortService = completionCohortService;
+        this.chapterCompletionService = chapterCompletionService;
+        this.progressVersionService = progressVersionService;
+        this.changeLogService = changeLogService;
+        this.taskExecutor = taskExecutor;
+        this.flushThreshold = applicationProperties.getProgress().getFlushThreshold();
+        this.batchSize = applicationProperties.getProgress().getBatchSize();
+    }
+
+    /**
+     * Key of a progress row.
+     */
+    record ProgressKey(Long appUserId, Long lessonId) {}
+
+    /**
+     * Latest buffered state of a progress row. Compared by identity, so that a flush only removes what it wrote.
+     */
+    static final class PendingProgress {
+
+        private final Integer percent;
+
+        private final Instant lastAccessed;
+
+        private PendingProgress(Integer percent, Instant lastAccessed) {
+            this.percent = percent;
+            this.lastAccessed = lastAccessed;
+        }
+    }
+
+    /**
+     * Buffer the progress of a user in a lesson, replacing any buffered progress of the same pair.
+     *
+     * @param appUserId user ID
+     * @param lessonId lesson ID
+     * @param percent current progress percentage
+     * @return the buffered progress, without id if the row is not written yet.
+     * @throws IllegalArgumentException if the user or the lesson does not exist.
+     */
+    public UserProgressDTO save(Long appUserId, Long lessonId, Integer percent) {
+        // Checked now rather than by the flush, where an unknown id would fail its whole chunk
+        if (lessonId == null || (catalogSnapshotService.get().lesson(lessonId).isEmpty() && !lessonRepository.existsById(lessonId))) {
+            throw new IllegalArgumentException("Lesson not found");
+        }
+        if (appUserId == null || appUserRepository.findById(appUserId).isEmpty()) {
+            throw new IllegalArgumentException("User not found");
+        }
+        ProgressKey key = new ProgressKey(appUserId, lessonId);
+        PendingProgress progress = new PendingProgress(percent, Instant.now());
+        pending.put(key, progress);
+        // Readers see the buffered tick: the ETags they hold are stale
+        progressVersionService.buffered(appUserId);
+        if (pending.size() >= flushThreshold && flushScheduled.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushScheduled.set(false);
+                }
+            });
+        }
+        return toDto(key, progress);
+    }
+
+    /**
+     * Get the buffered progress of a user in a lesson.
+     *
+     * @param appUserId user ID
+     * @param lessonId lesson ID
+     * @return the progress not written yet, if any.
+     */
+    public Optional<UserProgressDTO> getPending(Long appUserId, Long lessonId) {
+        ProgressKey key = new ProgressKey(appUserId, lessonId);
+        return Optional.ofNullable(pending.get(key)).map(progress -> toDto(key, progress));
+    }
+
+    /**
+     * Forget the buffered progress of a user in a lesson once the current transaction commits, because it was just
+     * written synchronously. A tick buffered after the write is kept.
+     * <p>
+     * A flush may already be writing the forgotten tick: it is then not applied, since the row was accessed after it.
+     *
+     * @param appUserId user ID
+     * @param lessonId lesson ID
+     * @param lastAccessed the access time written.
+     */
+    public void discard(Long appUserId, Long lessonId, Instant lastAccessed) {
+        ProgressKey key = new ProgressKey(appUserId, lessonId);
+        AfterCommit.run(() ->
+            pending.computeIfPresent(key, (k, progress) -> progress.lastAccessed.isAfter(lastAccessed) ? progress : null)
+        );
+    }
+
+    /**
+     * Write the buffered progress, one transaction per {@code application.progress.batch-size} pairs.
+     * <p>
+     * This is scheduled every {@code application.progress.flush-interval-ms}, and runs at shutdown. The pairs of a
+     * chunk that fails are written again one by one: those the database rejects, e.g. because their lesson was
+     * deleted, are dropped, and the others stay buffered for the next flush.
+     *
+     * @return the number of pairs written.
+     */
+    @Scheduled(fixedDelayString = "${application.progress.flush-interval-ms:1000}")
+    @PreDestroy
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            settleVersions();
+            return 0;
+        }
+        List<Map.Entry<ProgressKey, PendingProgress>> entries = new ArrayList<>(pending.size());
+        pending.forEach((key, progress) -> entries.add(Map.entry(key, progress)));
+        int written = 0;
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<ProgressKey, PendingProgress>> chunk = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeChunk(chunk));
+                // A newer tick that arrived meanwhile is kept for the next flush
+                chunk.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+                written += chunk.size();
+            } catch (RuntimeException e) {
+                LOG.warn("Could not write {} buffered progress rows, writing them one by one: {}", chunk.size(), e.getMessage());
+                written += writeOneByOne(chunk);
+            }
+        }
+        settleVersions();
+        LOG.debug("Wrote {} buffered progress rows", written);
+        return written;
+    }
+
+    private void settleVersions() {
+        long upTo = progressVersionService.lastBufferedVersion();
+        Set<Long> stillBuffered = pending.keySet().stream().map(ProgressKey::appUserId).collect(Collectors.toSet());
+        progressVersionService.written(upTo, stillBuffered);
+    }
+
+    private int writeOneByOne(List<Map.Entry<ProgressKey, PendingProgress>> chunk) {
+        int written = 0;
+        for (Map.Entry<ProgressKey, PendingProgress> entry : chunk) {
+            ProgressKey key = entry.getKey();
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeChunk(List.of(entry)));
+                pending.remove(key, entry.getValue());
+                written++;
+            } catch (DataIntegrityViolationException e) {
+                // Writing it again would fail forever
+                LOG.warn("Dropping buffered progress of user {} in lesson {}: {}", key.appUserId(), key.lessonId(), e.getMessage());
+                pending.remove(key, entry.getValue());
+            } catch (RuntimeException e) {
+                // Not caused by the row, e.g. the database is down: the rest of the chunk would fail the same way
+                LOG.warn("Could not write buffered progress rows, will retry: {}", e.getMessage());
+                break;
+            }
+        }
+        return written;
+    }
+
+    private void writeChunk(List<Map.Entry<ProgressKey, PendingProgress>> chunk) {
+        List<ProgressWrite> writes = chunk
+            .stream()
+            .map(entry -> {
+                ProgressKey key = entry.getKey();
+                return new ProgressWrite(key.appUserId(), key.lessonId(), entry.getValue().percent, entry.getValue().lastAccessed);
+            })
+            .toList();
+        List<ChangeLogService.Change> changes = new ArrayList<>(chunk.size());
+        for (ProgressWriteResult result : userProgressRepository.upsertProgress(writes)) {
+            if (!result.applied()) {
+                // A later access was written synchronously meanwhile
+                continue;
+            }
+            ProgressWrite write = result.write();
+            Long previousAppUserId = result.existed() ? write.appUserId() : null;
+            Long previousLessonId = result.existed() ? write.lessonId() : null;
+            Integer previousPercent = result.previousPercent();
+            dashboardStatsService.lessonProgressChanged(previousAppUserId, previousPercent, write.appUserId(), write.percent());
+            completionCohortService.progressChanged(previousLessonId, previousPercent, write.lessonId(), write.percent());
+            chapterCompletionService.progressChanged(
+                previousAppUserId,
+                previousLessonId,
+                previousPercent,
+                write.appUserId(),
+                write.lessonId(),
+                write.percent()
+            );
+            changes.add(
+                new ChangeLogService.Change(
+                    write.appUserId(),
+                    ChangeLogService.EntityType.USER_PROGRESS,
+                    write.lessonId(),
+                    ChangeLogService.Operation.UPSERT
+                )
+            );
+        }
+        changeLogService.record(changes);
+    }
+
+    private static UserProgressDTO toDto(ProgressKey key, PendingProgress progress) {
+        UserProgressDTO dto = new UserProgressDTO();
+        dto.setPercent(progress.percent);
+        dto.setLastAccessed(progress.lastAccessed);
+        AppUserDTO appUser = new AppUserDTO();
+        appUser.setId(key.appUserId());
+        dto.setAppUser(appUser);
+        LessonDTO lesson = new LessonDTO();
+        lesson.setId(key.lessonId());
+        dto.setLesson(lesson);
+        return dto;
+    }
+}
@@ -3,6 +3,7 @@ package com.langleague.service;
 import com.langleague.config.Constants;
 import com.langleague.domain.Authority;
 import com.langleague.domain.User;
+import com.langleague.repository.AppUserRepository;
 import com.langleague.repository.AuthorityRepository;
 import com.langleague.repository.UserRepository;
 import com.langleague.security.AuthoritiesConstants;
@@ -326,6 +327,9 @@ public class UserService {
 
     private void clearUserCaches(User user) {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evictIfPresent(user.getLogin());
+        Objects.requireNonNull(cacheManager.getCache(AppUserRepository.APP_USER_IDS_BY_LOGIN_CACHE)).evictIfPresent(user.getLogin());
+        // Keyed by app_user id: the login may have changed
+        Objects.requireNonNull(cacheManager.getCache(AppUserRepository.USER_LOGINS_BY_APP_USER_ID_CACHE)).clear();
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evictIfPresent(user.getEmail());
         }
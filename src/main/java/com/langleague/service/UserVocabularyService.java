@@ -1,9 +1,13 @@
 package com.langleague.service;
 
+import com.langleague.repository.AppUserRepository;
 import com.langleague.domain.UserVocabulary;
 import com.langleague.repository.UserVocabularyRepository;
+import com.langleague.service.ChangeLogService.EntityType;
 import com.langleague.service.dto.UserVocabularyDTO;
+import com.langleague.service.event.LearningEvent;
 import com.langleague.service.mapper.UserVocabularyMapper;
+import java.time.Instant;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,11 +27,30 @@ public class UserVocabularyService {
 
     private final UserVocabularyRepository userVocabularyRepository;
 
+    private final AppUserRepository appUserRepository;
+
     private final UserVocabularyMapper userVocabularyMapper;
 
-    public UserVocabularyService(UserVocabularyRepository userVocabularyRepository, UserVocabularyMapper userVocabularyMapper) {
+    private final DashboardStatsService dashboardStatsService;
+
+    private final LearningEventService learningEventService;
+
+    private final ChangeLogService changeLogService;
+
+    public UserVocabularyService(
+        UserVocabularyRepository userVocabularyRepository,
+        AppUserRepository appUserRepository,
+        UserVocabularyMapper userVocabularyMapper,
+        DashboardStatsService dashboardStatsService,
+        LearningEventService learningEventService,
+        ChangeLogService changeLogService
+    ) {
         this.userVocabularyRepository = userVocabularyRepository;
+        this.appUserRepository = appUserRepository;
         this.userVocabularyMapper = userVocabularyMapper;
+        this.dashboardStatsService = dashboardStatsService;
+        this.learningEventService = learningEventService;
+        this.changeLogService = changeLogService;
     }
 
     /**
@@ -40,6 +63,9 @@ public class UserVocabularyService {
         LOG.debug("Request to save UserVocabulary : {}", userVocabularyDTO);
         UserVocabulary userVocabulary = userVocabularyMapper.toEntity(userVocabularyDTO);
         userVocabulary = userVocabularyRepository.save(userVocabulary);
+        dashboardStatsService.wordLearnedChanged(null, false, appUserIdOf(userVocabulary), isLearned(userVocabulary));
+        publishReview(null, userVocabulary);
+        changeLogService.upserted(appUserIdOf(userVocabulary), EntityType.USER_VOCABULARY, userVocabulary.getId());
         return userVocabularyMapper.toDto(userVocabulary);
     }
 
@@ -51,8 +77,21 @@ public class UserVocabularyService {
      */
     public UserVocabularyDTO update(UserVocabularyDTO userVocabularyDTO) {
         LOG.debug("Request to update UserVocabulary : {}", userVocabularyDTO);
+        Optional<UserVocabulary> previous = userVocabularyRepository.findById(userVocabularyDTO.getId());
+        Long previousAppUserId = previous.map(UserVocabularyService::appUserIdOf).orElse(null);
+        boolean wasLearned = previous.map(UserVocabularyService::isLearned).orElse(false);
+        Instant previousReview = previous.map(UserVocabulary::getLastReviewed).orElse(null);
         UserVocabulary userVocabulary = userVocabularyMapper.toEntity(userVocabularyDTO);
         userVocabulary = userVocabularyRepository.save(userVocabulary);
+        dashboardStatsService.wordLearnedChanged(previousAppUserId, wasLearned, appUserIdOf(userVocabulary), isLearned(userVocabulary));
+        publishReview(previousReview, userVocabulary);
+        changeLogService.moved(
+            EntityType.USER_VOCABULARY,
+            previousAppUserId,
+            userVocabulary.getId(),
+            appUserIdOf(userVocabulary),
+            userVocabulary.getId()
+        );
         return userVocabularyMapper.toDto(userVocabulary);
     }
 
@@ -68,7 +107,24 @@ public class UserVocabularyService {
         return userVocabularyRepository
             .findById(userVocabularyDTO.getId())
             .map(existingUserVocabulary -> {
+                Long previousAppUserId = appUserIdOf(existingUserVocabulary);
+                boolean wasLearned = isLearned(existingUserVocabulary);
+                Instant previousReview = existingUserVocabulary.getLastReviewed();
                 userVocabularyMapper.partialUpdate(existingUserVocabulary, userVocabularyDTO);
+                publishReview(previousReview, existingUserVocabulary);
+                dashboardStatsService.wordLearnedChanged(
+                    previousAppUserId,
+                    wasLearned,
+                    appUserIdOf(existingUserVocabulary),
+                    isLearned(existingUserVocabulary)
+                );
+                changeLogService.moved(
+                    EntityType.USER_VOCABULARY,
+                    previousAppUserId,
+                    existingUserVocabulary.getId(),
+                    appUserIdOf(existingUserVocabulary),
+                    existingUserVocabulary.getId()
+                );
 
                 return existingUserVocabulary;
             })
@@ -107,6 +163,29 @@ public class UserVocabularyService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete UserVocabulary : {}", id);
-        userVocabularyRepository.deleteById(id);
+        userVocabularyRepository
+            .findById(id)
+            .ifPresent(userVocabulary -> {
+                dashboardStatsService.wordLearnedChanged(appUserIdOf(userVocabulary), isLearned(userVocabulary), null, false);
+                changeLogService.deleted(appUserIdOf(userVocabulary), EntityType.USER_VOCABULARY, userVocabulary.getId());
+                userVocabularyRepository.delete(userVocabulary);
+            });
+    }
+
+    private void publishReview(Instant previousReview, UserVocabulary userVocabulary) {
+        Instant review = userVocabulary.getLastReviewed();
+        if (review != null && !review.equals(previousReview)) {
+            Long wordId = userVocabulary.getWord() != null ? userVocabulary.getWord().getId() : null;
+            String login = Optional.ofNullable(appUserIdOf(userVocabulary)).flatMap(appUserRepository::findUserLoginById).orElse(null);
+            learningEventService.publish(LearningEvent.wordReviewed(login, wordId, isLearned(userVocabulary)));
+        }
+    }
+
+    private static Long appUserIdOf(UserVocabulary userVocabulary) {
+        return userVocabulary.getAppUser() != null ? userVocabulary.getAppUser().getId() : null;
+    }
+
+    private static boolean isLearned(UserVocabulary userVocabulary) {
+        return Boolean.TRUE.equals(userVocabulary.getIsMemorized());
     }
 }
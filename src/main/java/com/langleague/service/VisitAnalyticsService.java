@@ -0,0 +1,213 @@
+package com.langleague.service;
+
+import com.langleague.domain.VisitDayStats;
+import com.langleague.repository.VisitDayStatsRepository;
+import com.langleague.service.analytics.HyperLogLog;
+import com.langleague.service.dto.VisitReportDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service counting visits per UTC day.
+ * <p>
+ * Visits are recorded in memory, into {@link LongAdder} hit counters and {@link HyperLogLog} sketches of the
+ * distinct visitors and users, then flushed every minute to {@link VisitDayStats}. A day therefore costs two
+ * 4 KB sketches however many visits it receives, and the uniques of a month are estimated by merging 30 daily
+ * sketches, with a relative standard error of about 1.6% (see {@link HyperLogLog}).
+ */
+@Service
+@Transactional
+public class VisitAnalyticsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VisitAnalyticsService.class);
+
+    private static final int REPORT_DAYS = 30;
+
+    // How long the counter of a day stays in the map after the day ends, for the visits that read the date just before
+    private static final Duration DETACH_GRACE = Duration.ofMinutes(5);
+
+    private final ConcurrentMap<LocalDate, DayCounter> counters = new ConcurrentHashMap<>();
+
+    private final VisitDayStatsRepository visitDayStatsRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public VisitAnalyticsService(VisitDayStatsRepository visitDayStatsRepository, PlatformTransactionManager transactionManager) {
+        this.visitDayStatsRepository = visitDayStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record a visit. Only touches memory.
+     *
+     * @param login the login of the authenticated user, or {@code null} for an anonymous visit.
+     * @param anonymousKey a key identifying an anonymous visitor, used when {@code login} is {@code null}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recordVisit(String login, String anonymousKey) {
+        // No lock once the counter of the day exists: it is only detached well after the day ends
+        counters.computeIfAbsent(LocalDate.now(ZoneOffset.UTC), day -> new DayCounter()).record(login, anonymousKey);
+    }
+
+    /**
+     * Flush the in-memory counters to the database, one transaction per day.
+     * <p>
+     * This is scheduled to run every minute. The counter of a day is flushed in place until {@link #DETACH_GRACE}
+     * after the day ends, so that a visit still holding it is flushed by the next run. It is then removed before its
+     * last flush, and put back if that flush fails.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flush() {
+        Instant now = Instant.now();
+        for (Map.Entry<LocalDate, DayCounter> entry : counters.entrySet()) {
+            LocalDate day = entry.getKey();
+            DayCounter counter = entry.getValue();
+            Instant detachAt = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().plus(DETACH_GRACE);
+            if (now.isBefore(detachAt)) {
+                flushDay(day, counter);
+            } else if (counters.remove(day, counter) && !flushDay(day, counter)) {
+                // A late visit may have started a new counter for the day meanwhile
+                counters.merge(day, counter, DayCounter::add);
+            }
+        }
+    }
+
+    /**
+     * Get the visits of the last 30 days, including today, and the growth of unique users over the 30 days before.
+     *
+     * @return the visit report.
+     */
+    @Transactional(readOnly = true)
+    public VisitReportDTO getReport() {
+        LocalDate to = LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = to.minusDays(REPORT_DAYS - 1L);
+        LocalDate previousFrom = from.minusDays(REPORT_DAYS);
+
+        long totalVisits = 0;
+        long authenticatedVisits = 0;
+        HyperLogLog visitors = new HyperLogLog();
+        HyperLogLog users = new HyperLogLog();
+        HyperLogLog previousUsers = new HyperLogLog();
+        List<VisitDayStats> days = visitDayStatsRepository.findByVisitDayBetween(previousFrom, to);
+        for (VisitDayStats stats : days) {
+            if (stats.getVisitDay().isBefore(from)) {
+                mergeInto(previousUsers, stats.getUserSketch());
+                continue;
+            }
+            totalVisits += stats.getHits();
+            authenticatedVisits += stats.getAuthenticatedHits();
+            mergeInto(visitors, stats.getVisitorSketch());
+            mergeInto(users, stats.getUserSketch());
+        }
+        // Add what has not been flushed yet
+        for (Map.Entry<LocalDate, DayCounter> entry : counters.entrySet()) {
+            if (!entry.getKey().isBefore(from)) {
+                totalVisits += entry.getValue().hits.sum();
+                authenticatedVisits += entry.getValue().authenticatedHits.sum();
+                visitors.merge(entry.getValue().visitors);
+                users.merge(entry.getValue().users);
+            }
+        }
+
+        VisitReportDTO report = new VisitReportDTO();
+        report.setFrom(from);
+        report.setTo(to);
+        report.setTotalVisits(totalVisits);
+        report.setAuthenticatedVisits(authenticatedVisits);
+        report.setUniqueVisitors(visitors.estimate());
+        report.setUniqueUsers(users.estimate());
+        report.setPreviousUniqueUsers(previousUsers.estimate());
+        report.setMonthlyGrowth(growth(previousUsers.estimate(), users.estimate()));
+        report.setRelativeStandardError(HyperLogLog.relativeStandardError(HyperLogLog.DEFAULT_PRECISION));
+        return report;
+    }
+
+    private boolean flushDay(LocalDate day, DayCounter counter) {
+        long hits = counter.hits.sumThenReset();
+        long authenticatedHits = counter.authenticatedHits.sumThenReset();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                VisitDayStats stats = visitDayStatsRepository.findByIdForUpdate(day).orElseGet(() -> new VisitDayStats().visitDay(day));
+                // Sketches are merged, not added: flushing the same visits twice does not count them twice
+                HyperLogLog visitors = new HyperLogLog();
+                HyperLogLog users = new HyperLogLog();
+                mergeInto(visitors, stats.getVisitorSketch());
+                mergeInto(users, stats.getUserSketch());
+                visitors.merge(counter.visitors);
+                users.merge(counter.users);
+                stats
+                    .hits(stats.getHits() + hits)
+                    .authenticatedHits(stats.getAuthenticatedHits() + authenticatedHits)
+                    .visitorSketch(visitors.toBytes())
+                    .userSketch(users.toBytes())
+                    .updatedAt(Instant.now());
+                visitDayStatsRepository.save(stats);
+            });
+            return true;
+        } catch (RuntimeException e) {
+            LOG.warn("Could not flush visit counters of {}, will retry: {}", day, e.getMessage());
+            counter.hits.add(hits);
+            counter.authenticatedHits.add(authenticatedHits);
+            return false;
+        }
+    }
+
+    private static void mergeInto(HyperLogLog target, byte[] sketch) {
+        if (sketch != null) {
+            target.merge(HyperLogLog.fromBytes(sketch));
+        }
+    }
+
+    private static double growth(long previous, long current) {
+        if (previous == 0) {
+            return 0.0;
+        }
+        return Math.round((current - previous) * 1000.0 / previous) / 10.0;
+    }
+
+    private static final class DayCounter {
+
+        private final LongAdder hits = new LongAdder();
+
+        private final LongAdder authenticatedHits = new LongAdder();
+
+        private final HyperLogLog visitors = new HyperLogLog();
+
+        private final HyperLogLog users = new HyperLogLog();
+
+        private void record(String login, String anonymousKey) {
+            hits.increment();
+            if (login != null) {
+                authenticatedHits.increment();
+                users.add(login);
+                visitors.add("u:" + login);
+            } else {
+                visitors.add("a:" + anonymousKey);
+            }
+        }
+
+        private DayCounter add(DayCounter other) {
+            hits.add(other.hits.sum());
+            authenticatedHits.add(other.authenticatedHits.sum());
+            visitors.merge(other.visitors);
+            users.merge(other.users);
+            return this;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.langleague.service;
 
 import com.langleague.domain.WordExample;
+import com.langleague.repository.LessonWordRepository;
 import com.langleague.repository.WordExampleRepository;
 import com.langleague.service.dto.WordExampleDTO;
 import com.langleague.service.mapper.WordExampleMapper;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -25,9 +28,20 @@ public class WordExampleService {
 
     private final WordExampleMapper wordExampleMapper;
 
-    public WordExampleService(WordExampleRepository wordExampleRepository, WordExampleMapper wordExampleMapper) {
+    private final LessonWordRepository lessonWordRepository;
+
+    private final LessonDetailService lessonDetailService;
+
+    public WordExampleService(
+        WordExampleRepository wordExampleRepository,
+        WordExampleMapper wordExampleMapper,
+        LessonWordRepository lessonWordRepository,
+        LessonDetailService lessonDetailService
+    ) {
         this.wordExampleRepository = wordExampleRepository;
         this.wordExampleMapper = wordExampleMapper;
+        this.lessonWordRepository = lessonWordRepository;
+        this.lessonDetailService = lessonDetailService;
     }
 
     /**
@@ -40,6 +54,7 @@ public class WordExampleService {
         LOG.debug("Request to save WordExample : {}", wordExampleDTO);
         WordExample wordExample = wordExampleMapper.toEntity(wordExampleDTO);
         wordExample = wordExampleRepository.save(wordExample);
+        lessonsOfWordsChanged(wordIdOf(wordExample));
         return wordExampleMapper.toDto(wordExample);
     }
 
@@ -51,8 +66,10 @@ public class WordExampleService {
      */
     public WordExampleDTO update(WordExampleDTO wordExampleDTO) {
         LOG.debug("Request to update WordExample : {}", wordExampleDTO);
+        Long previousWordId = wordExampleRepository.findById(wordExampleDTO.getId()).map(WordExampleService::wordIdOf).orElse(null);
         WordExample wordExample = wordExampleMapper.toEntity(wordExampleDTO);
         wordExample = wordExampleRepository.save(wordExample);
+        lessonsOfWordsChanged(previousWordId, wordIdOf(wordExample));
         return wordExampleMapper.toDto(wordExample);
     }
 
@@ -69,6 +86,7 @@ public class WordExampleService {
             .findById(wordExampleDTO.getId())
             .map(existingWordExample -> {
                 wordExampleMapper.partialUpdate(existingWordExample, wordExampleDTO);
+                lessonsOfWordsChanged(wordIdOf(existingWordExample));
 
                 return existingWordExample;
             })
@@ -107,6 +125,21 @@ public class WordExampleService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete WordExample : {}", id);
+        wordExampleRepository.findById(id).ifPresent(wordExample -> lessonsOfWordsChanged(wordIdOf(wordExample)));
         wordExampleRepository.deleteById(id);
     }
+
+    private void lessonsOfWordsChanged(Long... wordIds) {
+        lessonDetailService.lessonsChanged(
+            Stream.of(wordIds)
+                .filter(Objects::nonNull)
+                .distinct()
+                .flatMap(wordId -> lessonWordRepository.findLessonIdsByWordId(wordId).stream())
+                .toList()
+        );
+    }
+
+    private static Long wordIdOf(WordExample wordExample) {
+        return wordExample.getWord() != null ? wordExample.getWord().getId() : null;
+    }
 }
@@ -0,0 +1,175 @@
+package com.langleague.service;
+
+import com.langleague.repository.WordRepository;
+import com.langleague.repository.WordRepository.WordSuggestFields;
+import com.langleague.service.dto.WordSuggestionDTO;
+import com.langleague.service.search.WordSuggestTrie;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service suggesting words of the dictionary as the user types, by text or pronunciation, the words in the most
+ * lessons first.
+ * <p>
+ * The words are kept in memory in a {@link WordSuggestTrie}, so a suggestion never queries the database. Writers of
+ * words and lesson words call {@link #wordsChanged} inside their transaction; the words concerned are read again and
+ * replaced in the trie once it commits. The trie is built at startup and rebuilt every night at 03:45, which also picks
+ * up the writes of other instances; the words reloaded while it rebuilds are reloaded again in the new trie.
+ */
+@Service
+public class WordSuggestService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final Logger LOG = LoggerFactory.getLogger(WordSuggestService.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final WordRepository wordRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private WordSuggestTrie trie = new WordSuggestTrie();
+
+    private Map<Long, Suggestion> suggestions = new HashMap<>();
+
+    // The words reloaded since the running rebuild started, null if none runs
+    private Set<Long> reloadedDuringRebuild;
+
+    public WordSuggestService(WordRepository wordRepository, PlatformTransactionManager transactionManager) {
+        this.wordRepository = wordRepository;
+        this.transactionTemplate = AfterCommit.readOnlyTransaction(transactionManager);
+    }
+
+    /**
+     * Suggest words.
+     *
+     * @param prefix the start of the text or pronunciation of the words, as typed.
+     * @param limit the maximum number of words, at most {@value #MAX_LIMIT}.
+     * @return the words in the most lessons first.
+     */
+    public List<WordSuggestionDTO> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return trie.suggest(prefix, Math.min(limit, MAX_LIMIT)).stream().map(id -> suggestions.get(id).toDto(id)).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Words, or the lessons they are in, were written: they are read again once the current transaction commits, or
+     * now if there is none.
+     *
+     * @param wordIds the words, {@code null}s are ignored.
+     */
+    public void wordsChanged(Long... wordIds) {
+        Set<Long> ids = new HashSet<>(Arrays.asList(wordIds));
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> reloadQuietly(ids));
+    }
+
+    /**
+     * Rebuild the trie from the database.
+     * <p>
+     * This runs at startup and every night at 03:45.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 45 3 * * ?")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        WordSuggestTrie newTrie = new WordSuggestTrie();
+        Map<Long, Suggestion> newSuggestions = new HashMap<>();
+        Set<Long> replay = new HashSet<>();
+        setReloadedDuringRebuild(replay);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                wordRepository.findAllSuggestFields().forEach(word -> put(newTrie, newSuggestions, word))
+            );
+            lock.writeLock().lock();
+            try {
+                trie = newTrie;
+                suggestions = newSuggestions;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            setReloadedDuringRebuild(null);
+        }
+        if (!replay.isEmpty()) {
+            reloadQuietly(replay);
+        }
+        LOG.info(
+            "Rebuilt word suggestions: {} words, {} nodes, in {} ms",
+            newTrie.size(),
+            newTrie.nodeCount(),
+            System.currentTimeMillis() - start
+        );
+    }
+
+    private void reloadQuietly(Set<Long> wordIds) {
+        try {
+            List<WordSuggestFields> words = transactionTemplate.execute(status -> wordRepository.findSuggestFieldsByIdIn(wordIds));
+            lock.writeLock().lock();
+            try {
+                // The words not found were deleted
+                for (Long id : wordIds) {
+                    trie.remove(id);
+                    suggestions.remove(id);
+                }
+                words.forEach(word -> put(trie, suggestions, word));
+                if (reloadedDuringRebuild != null) {
+                    reloadedDuringRebuild.addAll(wordIds);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            // The nightly rebuild repairs the trie
+            LOG.warn("Could not reload the suggestions of words {}: {}", wordIds, e.getMessage());
+        }
+    }
+
+    private void setReloadedDuringRebuild(Set<Long> wordIds) {
+        lock.writeLock().lock();
+        try {
+            reloadedDuringRebuild = wordIds;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void put(WordSuggestTrie trie, Map<Long, Suggestion> suggestions, WordSuggestFields word) {
+        int lessonCount = Objects.requireNonNullElse(word.getLessonCount(), 0L).intValue();
+        trie.put(word.getId(), lessonCount, word.getText(), word.getPronunciation());
+        suggestions.put(word.getId(), new Suggestion(word.getText(), word.getPronunciation(), lessonCount));
+    }
+
+    private record Suggestion(String text, String pronunciation, int lessonCount) {
+        private WordSuggestionDTO toDto(Long id) {
+            WordSuggestionDTO dto = new WordSuggestionDTO();
+            dto.setId(id);
+            dto.setText(text);
+            dto.setPronunciation(pronunciation);
+            dto.setLessonCount(lessonCount);
+            return dto;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.langleague.service;
 
+import com.langleague.domain.Lesson;
+import com.langleague.domain.LessonSkill;
 import com.langleague.domain.WritingExercise;
+import com.langleague.repository.LessonSkillRepository;
 import com.langleague.repository.WritingExerciseRepository;
 import com.langleague.service.dto.WritingExerciseDTO;
 import com.langleague.service.mapper.WritingExerciseMapper;
+import com.langleague.service.search.ExerciseSearchIndex;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,9 +29,24 @@ public class WritingExerciseService {
 
     private final WritingExerciseMapper writingExerciseMapper;
 
-    public WritingExerciseService(WritingExerciseRepository writingExerciseRepository, WritingExerciseMapper writingExerciseMapper) {
+    private final LessonSkillRepository lessonSkillRepository;
+
+    private final LessonDetailService lessonDetailService;
+
+    private final ExerciseSearchService exerciseSearchService;
+
+    public WritingExerciseService(
+        WritingExerciseRepository writingExerciseRepository,
+        WritingExerciseMapper writingExerciseMapper,
+        LessonSkillRepository lessonSkillRepository,
+        LessonDetailService lessonDetailService,
+        ExerciseSearchService exerciseSearchService
+    ) {
         this.writingExerciseRepository = writingExerciseRepository;
         this.writingExerciseMapper = writingExerciseMapper;
+        this.lessonSkillRepository = lessonSkillRepository;
+        this.lessonDetailService = lessonDetailService;
+        this.exerciseSearchService = exerciseSearchService;
     }
 
     /**
@@ -39,7 +58,10 @@ public class WritingExerciseService {
     public WritingExerciseDTO save(WritingExerciseDTO writingExerciseDTO) {
         LOG.debug("Request to save WritingExercise : {}", writingExerciseDTO);
         WritingExercise writingExercise = writingExerciseMapper.toEntity(writingExerciseDTO);
+        writingExercise.setLesson(lessonOf(writingExercise, null));
         writingExercise = writingExerciseRepository.save(writingExercise);
+        lessonDetailService.lessonsChanged(lessonIdOf(writingExercise));
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.WRITING, writingExercise.getId());
         return writingExerciseMapper.toDto(writingExercise);
     }
 
@@ -51,8 +73,12 @@ public class WritingExerciseService {
      */
     public WritingExerciseDTO update(WritingExerciseDTO writingExerciseDTO) {
         LOG.debug("Request to update WritingExercise : {}", writingExerciseDTO);
+        Lesson previousLesson = writingExerciseRepository.findById(writingExerciseDTO.getId()).map(WritingExercise::getLesson).orElse(null);
         WritingExercise writingExercise = writingExerciseMapper.toEntity(writingExerciseDTO);
+        writingExercise.setLesson(lessonOf(writingExercise, previousLesson));
         writingExercise = writingExerciseRepository.save(writingExercise);
+        lessonDetailService.lessonsChanged(previousLesson != null ? previousLesson.getId() : null, lessonIdOf(writingExercise));
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.WRITING, writingExercise.getId());
         return writingExerciseMapper.toDto(writingExercise);
     }
 
@@ -69,6 +95,8 @@ public class WritingExerciseService {
             .findById(writingExerciseDTO.getId())
             .map(existingWritingExercise -> {
                 writingExerciseMapper.partialUpdate(existingWritingExercise, writingExerciseDTO);
+                lessonDetailService.lessonsChanged(lessonIdOf(existingWritingExercise));
+                exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.WRITING, existingWritingExercise.getId());
 
                 return existingWritingExercise;
             })
@@ -107,6 +135,26 @@ public class WritingExerciseService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete WritingExercise : {}", id);
+        writingExerciseRepository
+            .findById(id)
+            .ifPresent(writingExercise -> lessonDetailService.lessonsChanged(lessonIdOf(writingExercise)));
         writingExerciseRepository.deleteById(id);
+        exerciseSearchService.exercisesChanged(ExerciseSearchIndex.Type.WRITING, id);
+    }
+
+    /**
+     * The lesson of an exercise is the lesson of its lesson skill, of which the DTO only carries the id; an exercise
+     * without one keeps its previous lesson.
+     */
+    private Lesson lessonOf(WritingExercise writingExercise, Lesson previousLesson) {
+        LessonSkill lessonSkill = writingExercise.getLessonSkill();
+        if (lessonSkill == null || lessonSkill.getId() == null) {
+            return previousLesson;
+        }
+        return lessonSkillRepository.findLessonById(lessonSkill.getId()).orElse(previousLesson);
+    }
+
+    private static Long lessonIdOf(WritingExercise writingExercise) {
+        return writingExercise.getLesson() != null ? writingExercise.getLesson().getId() : null;
     }
 }
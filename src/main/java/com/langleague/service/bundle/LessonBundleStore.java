@@ -0,0 +1,188 @@
+package com.langleague.service.bundle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The current content bundle of each lesson, stored in a directory as a JSON file and its gzip variant.
+ * <p>
+ * A bundle is versioned by the hash of its content, which names its files: a new version is written next to the
+ * current one, then replaces it, and the files of the replaced version are deleted. Storing the same content again
+ * writes nothing.
+ * <p>
+ * Thread-safe: writes are serialized, reads do not wait for them.
+ */
+public final class LessonBundleStore {
+
+    private static final String JSON = ".json";
+
+    private static final String GZIP = ".json.gz";
+
+    /**
+     * A version of the bundle of a lesson.
+     *
+     * @param lessonId the lesson.
+     * @param version the hash of the content, in hexadecimal.
+     * @param json the file of the content.
+     * @param gzip the file of the content compressed with gzip.
+     */
+    public record Bundle(long lessonId, String version, Path json, Path gzip) {}
+
+    private final Map<Long, Bundle> bundles = new ConcurrentHashMap<>();
+
+    private final Path directory;
+
+    /**
+     * @param directory the directory of the files, created if missing.
+     * @throws IOException if the directory cannot be created.
+     */
+    public LessonBundleStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * @param lessonId a lesson.
+     * @return its current bundle, if any.
+     */
+    public Optional<Bundle> get(long lessonId) {
+        return Optional.ofNullable(bundles.get(lessonId));
+    }
+
+    /**
+     * Store the content of the bundle of a lesson.
+     *
+     * @param lessonId the lesson.
+     * @param json the content.
+     * @return the current bundle of the lesson.
+     * @throws IOException if the files cannot be written, in which case the previous bundle stays current.
+     */
+    public synchronized Bundle put(long lessonId, byte[] json) throws IOException {
+        String version = version(json);
+        Bundle current = bundles.get(lessonId);
+        if (current != null && current.version().equals(version)) {
+            return current;
+        }
+        Bundle bundle = new Bundle(
+            lessonId,
+            version,
+            directory.resolve(lessonId + "-" + version + JSON),
+            directory.resolve(lessonId + "-" + version + GZIP)
+        );
+        write(bundle.json(), json, false);
+        write(bundle.gzip(), json, true);
+        bundles.put(lessonId, bundle);
+        if (current != null) {
+            delete(current);
+        }
+        return bundle;
+    }
+
+    /**
+     * Remove the bundle of a lesson, if any.
+     *
+     * @param lessonId the lesson.
+     * @throws IOException if the files cannot be deleted.
+     */
+    public synchronized void remove(long lessonId) throws IOException {
+        Bundle current = bundles.remove(lessonId);
+        if (current != null) {
+            delete(current);
+        }
+    }
+
+    /**
+     * Remove a bundle if it is still the current one of its lesson, e.g. after its files were found missing.
+     *
+     * @param bundle the bundle.
+     * @throws IOException if the files cannot be deleted.
+     */
+    public synchronized void remove(Bundle bundle) throws IOException {
+        if (bundles.remove(bundle.lessonId(), bundle)) {
+            delete(bundle);
+        }
+    }
+
+    /**
+     * Remove every bundle, and any other file of the directory.
+     *
+     * @throws IOException if the files cannot be deleted.
+     */
+    public synchronized void clear() throws IOException {
+        bundles.clear();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Remove every bundle, then the directory.
+     *
+     * @throws IOException if the files or the directory cannot be deleted.
+     */
+    public synchronized void delete() throws IOException {
+        clear();
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * @return the number of bundles.
+     */
+    public int size() {
+        return bundles.size();
+    }
+
+    private void write(Path file, byte[] json, boolean compressed) throws IOException {
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                if (compressed) {
+                    // Compressed once for every download, so the best ratio is worth its time
+                    try (OutputStream gzip = new BestGzipOutputStream(out)) {
+                        gzip.write(json);
+                    }
+                } else {
+                    out.write(json);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void delete(Bundle bundle) throws IOException {
+        Files.deleteIfExists(bundle.json());
+        Files.deleteIfExists(bundle.gzip());
+    }
+
+    private static String version(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class BestGzipOutputStream extends GZIPOutputStream {
+
+        private BestGzipOutputStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
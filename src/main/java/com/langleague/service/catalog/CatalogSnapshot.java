@@ -0,0 +1,252 @@
+package com.langleague.service.catalog;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An immutable copy of the course catalog: books, their chapters and the lessons of the chapters.
+ * <p>
+ * Everything a catalog read needs is computed once when the snapshot is built: the books in id order, the chapters
+ * of each book and the lessons of each chapter in reading order, the published lessons in catalog order (book, then
+ * chapter, then lesson), and for each published lesson the previous and next published lesson of the same book.
+ * Reads are then plain lookups, and a snapshot can be shared by any number of threads without locking.
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * A book of the catalog.
+     */
+    public record BookNode(Long id, String title, String level, String thumbnail) {}
+
+    /**
+     * A chapter of the catalog.
+     */
+    public record ChapterNode(Long id, String title, Integer orderIndex, Long bookId, String bookTitle) {}
+
+    /**
+     * A lesson of the catalog, published or not.
+     */
+    public record LessonNode(
+        Long id,
+        String title,
+        String description,
+        String level,
+        Integer estimatedMinutes,
+        String thumbnail,
+        Integer orderIndex,
+        boolean published,
+        Long chapterId
+    ) {}
+
+    private static final Comparator<ChapterNode> CHAPTER_ORDER = Comparator.comparing(
+        ChapterNode::orderIndex,
+        Comparator.nullsLast(Comparator.naturalOrder())
+    ).thenComparing(ChapterNode::id);
+
+    private static final Comparator<LessonNode> LESSON_ORDER = Comparator.comparing(
+        LessonNode::orderIndex,
+        Comparator.nullsLast(Comparator.naturalOrder())
+    ).thenComparing(LessonNode::id);
+
+    private final long version;
+
+    private final Instant builtAt;
+
+    private final List<BookNode> books;
+
+    private final Map<Long, BookNode> booksById;
+
+    private final Map<Long, ChapterNode> chaptersById;
+
+    private final Map<Long, List<ChapterNode>> chaptersByBook;
+
+    private final List<Long> chapterIds;
+
+    private final Map<Long, LessonNode> lessonsById;
+
+    private final Map<Long, List<LessonNode>> lessonsByChapter;
+
+    private final List<LessonNode> lessons;
+
+    private final List<LessonNode> publishedLessons;
+
+    private final Map<Long, Long> previousLessonIds;
+
+    private final Map<Long, Long> nextLessonIds;
+
+    /**
+     * Build a snapshot.
+     *
+     * @param version the version of the snapshot, higher for a later build.
+     * @param builtAt when the catalog was read.
+     * @param books the books, in any order.
+     * @param chapters the chapters, in any order.
+     * @param lessons the lessons, in any order; those of an unknown chapter are ignored.
+     */
+    public CatalogSnapshot(long version, Instant builtAt, List<BookNode> books, List<ChapterNode> chapters, List<LessonNode> lessons) {
+        this.version = version;
+        this.builtAt = builtAt;
+
+        List<BookNode> sortedBooks = new ArrayList<>(books);
+        sortedBooks.sort(Comparator.comparing(BookNode::id));
+        this.books = List.copyOf(sortedBooks);
+        Map<Long, BookNode> booksById = new HashMap<>();
+        sortedBooks.forEach(book -> booksById.put(book.id(), book));
+        this.booksById = Map.copyOf(booksById);
+
+        Map<Long, ChapterNode> chaptersById = new HashMap<>();
+        Map<Long, List<ChapterNode>> chaptersByBook = new HashMap<>();
+        for (ChapterNode chapter : chapters) {
+            chaptersById.put(chapter.id(), chapter);
+            if (chapter.bookId() != null) {
+                chaptersByBook.computeIfAbsent(chapter.bookId(), id -> new ArrayList<>()).add(chapter);
+            }
+        }
+        chaptersByBook.replaceAll((bookId, bookChapters) -> bookChapters.stream().sorted(CHAPTER_ORDER).toList());
+        this.chaptersById = Map.copyOf(chaptersById);
+        this.chaptersByBook = Map.copyOf(chaptersByBook);
+        this.chapterIds = chaptersById.keySet().stream().sorted().toList();
+
+        Map<Long, LessonNode> lessonsById = new HashMap<>();
+        Map<Long, List<LessonNode>> lessonsByChapter = new HashMap<>();
+        for (LessonNode lesson : lessons) {
+            if (chaptersById.containsKey(lesson.chapterId())) {
+                lessonsById.put(lesson.id(), lesson);
+                lessonsByChapter.computeIfAbsent(lesson.chapterId(), id -> new ArrayList<>()).add(lesson);
+            }
+        }
+        lessonsByChapter.replaceAll((chapterId, chapterLessons) -> chapterLessons.stream().sorted(LESSON_ORDER).toList());
+        this.lessonsById = Map.copyOf(lessonsById);
+        this.lessonsByChapter = Map.copyOf(lessonsByChapter);
+
+        // Catalog order: books by id, then the chapters without book, each in chapter then lesson order
+        List<ChapterNode> orderedChapters = new ArrayList<>();
+        sortedBooks.forEach(book -> orderedChapters.addAll(this.chaptersByBook.getOrDefault(book.id(), List.of())));
+        chapters
+            .stream()
+            .filter(chapter -> chapter.bookId() == null || !booksById.containsKey(chapter.bookId()))
+            .sorted(CHAPTER_ORDER)
+            .forEach(orderedChapters::add);
+        List<LessonNode> ordered = new ArrayList<>(lessonsById.size());
+        orderedChapters.forEach(chapter -> ordered.addAll(this.lessonsByChapter.getOrDefault(chapter.id(), List.of())));
+        this.lessons = List.copyOf(ordered);
+        this.publishedLessons = ordered.stream().filter(LessonNode::published).toList();
+
+        Map<Long, Long> previousLessonIds = new HashMap<>();
+        Map<Long, Long> nextLessonIds = new HashMap<>();
+        for (int i = 1; i < publishedLessons.size(); i++) {
+            LessonNode previous = publishedLessons.get(i - 1);
+            LessonNode lesson = publishedLessons.get(i);
+            Long previousBookId = chaptersById.get(previous.chapterId()).bookId();
+            if (previousBookId != null && previousBookId.equals(chaptersById.get(lesson.chapterId()).bookId())) {
+                previousLessonIds.put(lesson.id(), previous.id());
+                nextLessonIds.put(previous.id(), lesson.id());
+            }
+        }
+        this.previousLessonIds = Map.copyOf(previousLessonIds);
+        this.nextLessonIds = Map.copyOf(nextLessonIds);
+    }
+
+    /**
+     * @return the version of the snapshot, higher for a later build.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return when the catalog was read.
+     */
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    /**
+     * @return the books, in id order.
+     */
+    public List<BookNode> books() {
+        return books;
+    }
+
+    /**
+     * @param id the book id.
+     * @return the book.
+     */
+    public Optional<BookNode> book(Long id) {
+        return Optional.ofNullable(booksById.get(id));
+    }
+
+    /**
+     * @param id the chapter id.
+     * @return the chapter.
+     */
+    public Optional<ChapterNode> chapter(Long id) {
+        return Optional.ofNullable(chaptersById.get(id));
+    }
+
+    /**
+     * @param bookId the book id.
+     * @return the chapters of the book, in chapter order.
+     */
+    public List<ChapterNode> chaptersOfBook(Long bookId) {
+        return chaptersByBook.getOrDefault(bookId, List.of());
+    }
+
+    /**
+     * @return the ids of every chapter, ascending.
+     */
+    public List<Long> chapterIds() {
+        return chapterIds;
+    }
+
+    /**
+     * @param id the lesson id.
+     * @return the lesson, published or not.
+     */
+    public Optional<LessonNode> lesson(Long id) {
+        return Optional.ofNullable(lessonsById.get(id));
+    }
+
+    /**
+     * @param chapterId the chapter id.
+     * @return the lessons of the chapter, published or not, in lesson order.
+     */
+    public List<LessonNode> lessonsOfChapter(Long chapterId) {
+        return lessonsByChapter.getOrDefault(chapterId, List.of());
+    }
+
+    /**
+     * @return every lesson, published or not, in catalog order.
+     */
+    public List<LessonNode> lessons() {
+        return lessons;
+    }
+
+    /**
+     * @return the published lessons, in catalog order.
+     */
+    public List<LessonNode> publishedLessons() {
+        return publishedLessons;
+    }
+
+    /**
+     * @param lessonId a published lesson.
+     * @return the published lesson before it in the same book.
+     */
+    public Optional<LessonNode> previousLesson(Long lessonId) {
+        return Optional.ofNullable(previousLessonIds.get(lessonId)).map(lessonsById::get);
+    }
+
+    /**
+     * @param lessonId a published lesson.
+     * @return the published lesson after it in the same book.
+     */
+    public Optional<LessonNode> nextLesson(Long lessonId) {
+        return Optional.ofNullable(nextLessonIds.get(lessonId)).map(lessonsById::get);
+    }
+}
@@ -22,6 +22,9 @@ public class AppUserDTO implements Serializable {
     @Lob
     private String bio;
 
+    @Size(max = 64)
+    private String timeZone;
+
     private Long userId;
     private String userLogin;
 
@@ -57,6 +60,14 @@ public class AppUserDTO implements Serializable {
         this.bio = bio;
     }
 
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
     public String getUserLogin() {
         return userLogin;
     }
@@ -102,6 +113,7 @@ public class AppUserDTO implements Serializable {
             ", displayName='" + getDisplayName() + "'" +
             ", avatarUrl='" + getAvatarUrl() + "'" +
             ", bio='" + getBio() + "'" +
+            ", timeZone='" + getTimeZone() + "'" +
             ", userId=" + getUserId() +
 
             "}";
@@ -0,0 +1,212 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the completion statistics, backed by {@link com.langleague.domain.LessonCompletionCohort}.
+ * <p>
+ * Figures count (student, lesson) pairs: {@code notStarted} is the number of pairs without progress.
+ * {@code refreshedAt} is the oldest full recomputation of the selected lessons, {@code updatedAt} their last change.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CompletionStatsDTO implements Serializable {
+
+    private String groupBy;
+
+    private Long bookId;
+
+    private String level;
+
+    private Long totalStudents = 0L;
+
+    private Figures totals;
+
+    private List<Figures> breakdown = new ArrayList<>();
+
+    private Instant refreshedAt;
+
+    private Instant updatedAt;
+
+    public String getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(String groupBy) {
+        this.groupBy = groupBy;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public void setLevel(String level) {
+        this.level = level;
+    }
+
+    public Long getTotalStudents() {
+        return totalStudents;
+    }
+
+    public void setTotalStudents(Long totalStudents) {
+        this.totalStudents = totalStudents;
+    }
+
+    public Figures getTotals() {
+        return totals;
+    }
+
+    public void setTotals(Figures totals) {
+        this.totals = totals;
+    }
+
+    public List<Figures> getBreakdown() {
+        return breakdown;
+    }
+
+    public void setBreakdown(List<Figures> breakdown) {
+        this.breakdown = breakdown;
+    }
+
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public void setRefreshedAt(Instant refreshedAt) {
+        this.refreshedAt = refreshedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CompletionStatsDTO{" +
+            "groupBy='" + getGroupBy() + "'" +
+            ", bookId=" + getBookId() +
+            ", level='" + getLevel() + "'" +
+            ", totalStudents=" + getTotalStudents() +
+            ", totals=" + getTotals() +
+            ", breakdown=" + getBreakdown() +
+            ", refreshedAt='" + getRefreshedAt() + "'" +
+            ", updatedAt='" + getUpdatedAt() + "'" +
+            "}";
+    }
+
+    /**
+     * Completion figures of all the selected lessons, or of one book, chapter or level.
+     */
+    public static class Figures implements Serializable {
+
+        private String key;
+
+        private String label;
+
+        private Long lessons = 0L;
+
+        private Long completed = 0L;
+
+        private Long inProgress = 0L;
+
+        private Long notStarted = 0L;
+
+        private Double averageCompletion = 0.0;
+
+        private Double completionRate = 0.0;
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+
+        public Long getLessons() {
+            return lessons;
+        }
+
+        public void setLessons(Long lessons) {
+            this.lessons = lessons;
+        }
+
+        public Long getCompleted() {
+            return completed;
+        }
+
+        public void setCompleted(Long completed) {
+            this.completed = completed;
+        }
+
+        public Long getInProgress() {
+            return inProgress;
+        }
+
+        public void setInProgress(Long inProgress) {
+            this.inProgress = inProgress;
+        }
+
+        public Long getNotStarted() {
+            return notStarted;
+        }
+
+        public void setNotStarted(Long notStarted) {
+            this.notStarted = notStarted;
+        }
+
+        public Double getAverageCompletion() {
+            return averageCompletion;
+        }
+
+        public void setAverageCompletion(Double averageCompletion) {
+            this.averageCompletion = averageCompletion;
+        }
+
+        public Double getCompletionRate() {
+            return completionRate;
+        }
+
+        public void setCompletionRate(Double completionRate) {
+            this.completionRate = completionRate;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Figures{" +
+                "key='" + getKey() + "'" +
+                ", label='" + getLabel() + "'" +
+                ", lessons=" + getLessons() +
+                ", completed=" + getCompleted() +
+                ", inProgress=" + getInProgress() +
+                ", notStarted=" + getNotStarted() +
+                ", averageCompletion=" + getAverageCompletion() +
+                ", completionRate=" + getCompletionRate() +
+                "}";
+        }
+    }
+}
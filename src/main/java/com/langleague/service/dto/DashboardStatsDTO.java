@@ -0,0 +1,117 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO for the dashboard statistics of the current user, backed by {@link com.langleague.domain.UserDashboardStats}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class DashboardStatsDTO implements Serializable {
+
+    private Integer wordsLearned = 0;
+
+    private Integer quizzesCompleted = 0;
+
+    private Integer courseProgress = 0;
+
+    private Integer languagesStudying = 0;
+
+    private Long totalLessons = 0L;
+
+    private Integer completedLessons = 0;
+
+    private Integer currentStreak = 0;
+
+    private Integer longestStreak = 0;
+
+    private Instant updatedAt;
+
+    public Integer getWordsLearned() {
+        return wordsLearned;
+    }
+
+    public void setWordsLearned(Integer wordsLearned) {
+        this.wordsLearned = wordsLearned;
+    }
+
+    public Integer getQuizzesCompleted() {
+        return quizzesCompleted;
+    }
+
+    public void setQuizzesCompleted(Integer quizzesCompleted) {
+        this.quizzesCompleted = quizzesCompleted;
+    }
+
+    public Integer getCourseProgress() {
+        return courseProgress;
+    }
+
+    public void setCourseProgress(Integer courseProgress) {
+        this.courseProgress = courseProgress;
+    }
+
+    public Integer getLanguagesStudying() {
+        return languagesStudying;
+    }
+
+    public void setLanguagesStudying(Integer languagesStudying) {
+        this.languagesStudying = languagesStudying;
+    }
+
+    public Long getTotalLessons() {
+        return totalLessons;
+    }
+
+    public void setTotalLessons(Long totalLessons) {
+        this.totalLessons = totalLessons;
+    }
+
+    public Integer getCompletedLessons() {
+        return completedLessons;
+    }
+
+    public void setCompletedLessons(Integer completedLessons) {
+        this.completedLessons = completedLessons;
+    }
+
+    public Integer getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public void setCurrentStreak(Integer currentStreak) {
+        this.currentStreak = currentStreak;
+    }
+
+    public Integer getLongestStreak() {
+        return longestStreak;
+    }
+
+    public void setLongestStreak(Integer longestStreak) {
+        this.longestStreak = longestStreak;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DashboardStatsDTO{" +
+            "wordsLearned=" + getWordsLearned() +
+            ", quizzesCompleted=" + getQuizzesCompleted() +
+            ", courseProgress=" + getCourseProgress() +
+            ", languagesStudying=" + getLanguagesStudying() +
+            ", totalLessons=" + getTotalLessons() +
+            ", completedLessons=" + getCompletedLessons() +
+            ", currentStreak=" + getCurrentStreak() +
+            ", longestStreak=" + getLongestStreak() +
+            ", updatedAt='" + getUpdatedAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,143 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A DTO for the engagement statistics of a range of days, backed by {@link com.langleague.domain.EngagementBucket}.
+ * <p>
+ * {@code activeUsers} and {@code dailyActiveUsers} are HyperLogLog estimates; {@code lastFlushedAt} is the last
+ * time in-memory counters were written to the database.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class EngagementStatsDTO implements Serializable {
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private Long videoViews = 0L;
+
+    private Long quizzesAttempted = 0L;
+
+    private Double averageQuizScore = 0.0;
+
+    private Long commentsPosted = 0L;
+
+    private Long sessionsStarted = 0L;
+
+    private Long sessionsCompleted = 0L;
+
+    private Long activeUsers = 0L;
+
+    private Long dailyActiveUsers = 0L;
+
+    private Instant lastFlushedAt;
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public Long getVideoViews() {
+        return videoViews;
+    }
+
+    public void setVideoViews(Long videoViews) {
+        this.videoViews = videoViews;
+    }
+
+    public Long getQuizzesAttempted() {
+        return quizzesAttempted;
+    }
+
+    public void setQuizzesAttempted(Long quizzesAttempted) {
+        this.quizzesAttempted = quizzesAttempted;
+    }
+
+    public Double getAverageQuizScore() {
+        return averageQuizScore;
+    }
+
+    public void setAverageQuizScore(Double averageQuizScore) {
+        this.averageQuizScore = averageQuizScore;
+    }
+
+    public Long getCommentsPosted() {
+        return commentsPosted;
+    }
+
+    public void setCommentsPosted(Long commentsPosted) {
+        this.commentsPosted = commentsPosted;
+    }
+
+    public Long getSessionsStarted() {
+        return sessionsStarted;
+    }
+
+    public void setSessionsStarted(Long sessionsStarted) {
+        this.sessionsStarted = sessionsStarted;
+    }
+
+    public Long getSessionsCompleted() {
+        return sessionsCompleted;
+    }
+
+    public void setSessionsCompleted(Long sessionsCompleted) {
+        this.sessionsCompleted = sessionsCompleted;
+    }
+
+    public Long getActiveUsers() {
+        return activeUsers;
+    }
+
+    public void setActiveUsers(Long activeUsers) {
+        this.activeUsers = activeUsers;
+    }
+
+    public Long getDailyActiveUsers() {
+        return dailyActiveUsers;
+    }
+
+    public void setDailyActiveUsers(Long dailyActiveUsers) {
+        this.dailyActiveUsers = dailyActiveUsers;
+    }
+
+    public Instant getLastFlushedAt() {
+        return lastFlushedAt;
+    }
+
+    public void setLastFlushedAt(Instant lastFlushedAt) {
+        this.lastFlushedAt = lastFlushedAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EngagementStatsDTO{" +
+            "from='" + getFrom() + "'" +
+            ", to='" + getTo() + "'" +
+            ", videoViews=" + getVideoViews() +
+            ", quizzesAttempted=" + getQuizzesAttempted() +
+            ", averageQuizScore=" + getAverageQuizScore() +
+            ", commentsPosted=" + getCommentsPosted() +
+            ", sessionsStarted=" + getSessionsStarted() +
+            ", sessionsCompleted=" + getSessionsCompleted() +
+            ", activeUsers=" + getActiveUsers() +
+            ", dailyActiveUsers=" + getDailyActiveUsers() +
+            ", lastFlushedAt='" + getLastFlushedAt() + "'" +
+            "}";
+    }
+}
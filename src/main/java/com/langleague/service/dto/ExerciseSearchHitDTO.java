@@ -0,0 +1,73 @@
+package com.langleague.service.dto;
+
+import com.langleague.service.search.ExerciseSearchIndex;
+import java.io.Serializable;
+
+/**
+ * A DTO for an exercise matching a search of the text of the exercises, with the start of its content.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ExerciseSearchHitDTO implements Serializable {
+
+    private ExerciseSearchIndex.Type type;
+
+    private Long id;
+
+    private Long lessonId;
+
+    private String excerpt;
+
+    private Float score;
+
+    public ExerciseSearchIndex.Type getType() {
+        return type;
+    }
+
+    public void setType(ExerciseSearchIndex.Type type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public void setLessonId(Long lessonId) {
+        this.lessonId = lessonId;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
+    public Float getScore() {
+        return score;
+    }
+
+    public void setScore(Float score) {
+        this.score = score;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ExerciseSearchHitDTO{" +
+            "type=" + getType() +
+            ", id=" + getId() +
+            ", lessonId=" + getLessonId() +
+            ", excerpt='" + getExcerpt() + "'" +
+            ", score=" + getScore() +
+            "}";
+    }
+}
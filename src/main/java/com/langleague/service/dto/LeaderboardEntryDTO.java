@@ -0,0 +1,72 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for one row of the XP leaderboard. {@code rank} starts at 1, and is 0 for a user without XP.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class LeaderboardEntryDTO implements Serializable {
+
+    private Integer rank;
+
+    private Long appUserId;
+
+    private String login;
+
+    private String displayName;
+
+    private Long xp;
+
+    public Integer getRank() {
+        return rank;
+    }
+
+    public void setRank(Integer rank) {
+        this.rank = rank;
+    }
+
+    public Long getAppUserId() {
+        return appUserId;
+    }
+
+    public void setAppUserId(Long appUserId) {
+        this.appUserId = appUserId;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public Long getXp() {
+        return xp;
+    }
+
+    public void setXp(Long xp) {
+        this.xp = xp;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LeaderboardEntryDTO{" +
+            "rank=" + getRank() +
+            ", appUserId=" + getAppUserId() +
+            ", login='" + getLogin() + "'" +
+            ", displayName='" + getDisplayName() + "'" +
+            ", xp=" + getXp() +
+            "}";
+    }
+}
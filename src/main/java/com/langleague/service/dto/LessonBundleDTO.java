@@ -0,0 +1,56 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO for the content bundle of a lesson: everything needed to open it, in one document.
+ * <p>
+ * Immutable. Bump {@link #FORMAT_VERSION} when the structure changes, so that clients holding the previous bundles
+ * download them again.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public final class LessonBundleDTO implements Serializable {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final long serialVersionUID = 1L;
+
+    private final LessonDetailDTO detail;
+
+    private final List<WordExampleDTO> wordExamples;
+
+    private final List<MediaFileDTO> mediaFiles;
+
+    public LessonBundleDTO(LessonDetailDTO detail, List<WordExampleDTO> wordExamples, List<MediaFileDTO> mediaFiles) {
+        this.detail = detail;
+        this.wordExamples = List.copyOf(wordExamples);
+        this.mediaFiles = List.copyOf(mediaFiles);
+    }
+
+    public int getFormatVersion() {
+        return FORMAT_VERSION;
+    }
+
+    public LessonDetailDTO getDetail() {
+        return detail;
+    }
+
+    public List<WordExampleDTO> getWordExamples() {
+        return wordExamples;
+    }
+
+    public List<MediaFileDTO> getMediaFiles() {
+        return mediaFiles;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LessonBundleDTO{" +
+            "detail=" + getDetail() +
+            ", wordExamples=" + getWordExamples().size() +
+            ", mediaFiles=" + getMediaFiles().size() +
+            "}";
+    }
+}
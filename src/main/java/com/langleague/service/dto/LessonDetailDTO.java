@@ -0,0 +1,90 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO for the detail page of a lesson: the lesson with its words, skills and exercises.
+ * <p>
+ * Immutable, as one instance is cached and shared by every request for the lesson: its lists cannot be modified, and
+ * the DTOs they hold must not be.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public final class LessonDetailDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final LessonDTO lesson;
+
+    private final List<WordDTO> words;
+
+    private final List<LessonSkillDTO> skills;
+
+    private final List<ListeningExerciseDTO> listeningExercises;
+
+    private final List<SpeakingExerciseDTO> speakingExercises;
+
+    private final List<ReadingExerciseDTO> readingExercises;
+
+    private final List<WritingExerciseDTO> writingExercises;
+
+    public LessonDetailDTO(
+        LessonDTO lesson,
+        List<WordDTO> words,
+        List<LessonSkillDTO> skills,
+        List<ListeningExerciseDTO> listeningExercises,
+        List<SpeakingExerciseDTO> speakingExercises,
+        List<ReadingExerciseDTO> readingExercises,
+        List<WritingExerciseDTO> writingExercises
+    ) {
+        this.lesson = lesson;
+        this.words = List.copyOf(words);
+        this.skills = List.copyOf(skills);
+        this.listeningExercises = List.copyOf(listeningExercises);
+        this.speakingExercises = List.copyOf(speakingExercises);
+        this.readingExercises = List.copyOf(readingExercises);
+        this.writingExercises = List.copyOf(writingExercises);
+    }
+
+    public LessonDTO getLesson() {
+        return lesson;
+    }
+
+    public List<WordDTO> getWords() {
+        return words;
+    }
+
+    public List<LessonSkillDTO> getSkills() {
+        return skills;
+    }
+
+    public List<ListeningExerciseDTO> getListeningExercises() {
+        return listeningExercises;
+    }
+
+    public List<SpeakingExerciseDTO> getSpeakingExercises() {
+        return speakingExercises;
+    }
+
+    public List<ReadingExerciseDTO> getReadingExercises() {
+        return readingExercises;
+    }
+
+    public List<WritingExerciseDTO> getWritingExercises() {
+        return writingExercises;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LessonDetailDTO{" +
+            "lesson=" + getLesson() +
+            ", words=" + getWords().size() +
+            ", skills=" + getSkills().size() +
+            ", listeningExercises=" + getListeningExercises().size() +
+            ", speakingExercises=" + getSpeakingExercises().size() +
+            ", readingExercises=" + getReadingExercises().size() +
+            ", writingExercises=" + getWritingExercises().size() +
+            "}";
+    }
+}
@@ -0,0 +1,129 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the lesson list, with the completion of the current user by chapter and by book.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class LessonOverviewDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<LessonDTO> lessons = new ArrayList<>();
+
+    private List<Integer> chapters = new ArrayList<>();
+
+    private long totalLessons;
+
+    private long completedLessons;
+
+    private List<Completion> chapterCompletions = new ArrayList<>();
+
+    private List<Completion> bookCompletions = new ArrayList<>();
+
+    public List<LessonDTO> getLessons() {
+        return lessons;
+    }
+
+    public void setLessons(List<LessonDTO> lessons) {
+        this.lessons = lessons;
+    }
+
+    public List<Integer> getChapters() {
+        return chapters;
+    }
+
+    public void setChapters(List<Integer> chapters) {
+        this.chapters = chapters;
+    }
+
+    public long getTotalLessons() {
+        return totalLessons;
+    }
+
+    public void setTotalLessons(long totalLessons) {
+        this.totalLessons = totalLessons;
+    }
+
+    public long getCompletedLessons() {
+        return completedLessons;
+    }
+
+    public void setCompletedLessons(long completedLessons) {
+        this.completedLessons = completedLessons;
+    }
+
+    public List<Completion> getChapterCompletions() {
+        return chapterCompletions;
+    }
+
+    public void setChapterCompletions(List<Completion> chapterCompletions) {
+        this.chapterCompletions = chapterCompletions;
+    }
+
+    public List<Completion> getBookCompletions() {
+        return bookCompletions;
+    }
+
+    public void setBookCompletions(List<Completion> bookCompletions) {
+        this.bookCompletions = bookCompletions;
+    }
+
+    /**
+     * Inner class for the completion of one chapter or book.
+     */
+    public static class Completion implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+        private long totalLessons;
+        private long completedLessons;
+
+        public Completion() {}
+
+        public Completion(Long id, long totalLessons, long completedLessons) {
+            this.id = id;
+            this.totalLessons = totalLessons;
+            this.completedLessons = completedLessons;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public long getTotalLessons() {
+            return totalLessons;
+        }
+
+        public void setTotalLessons(long totalLessons) {
+            this.totalLessons = totalLessons;
+        }
+
+        public long getCompletedLessons() {
+            return completedLessons;
+        }
+
+        public void setCompletedLessons(long completedLessons) {
+            this.completedLessons = completedLessons;
+        }
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LessonOverviewDTO{" +
+            "lessons=" + getLessons().size() +
+            ", chapters=" + getChapters() +
+            ", totalLessons=" + getTotalLessons() +
+            ", completedLessons=" + getCompletedLessons() +
+            "}";
+    }
+}
@@ -0,0 +1,75 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Position of the last row of a page in a listing sorted by a timestamp, then by id, both descending.
+ * <p>
+ * The next page starts strictly after that row ("keyset" or "seek" pagination), so reading it costs the same at
+ * any depth and needs no count. Clients receive it as an opaque token, see {@link #encode()}.
+ *
+ * @param position timestamp of the last row.
+ * @param id id of the last row.
+ */
+public record SeekCursor(Instant position, Long id) implements Serializable {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int DEFAULT_SIZE = 20;
+
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * @return the cursor as a URL-safe token.
+     */
+    public String encode() {
+        String raw = position + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read a token returned by {@link #encode()}.
+     *
+     * @param token the token.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}.
+     */
+    public static SeekCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SeekCursor(Instant.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * @param size the requested page size, or {@code null}.
+     * @return the page size to use, between 1 and {@value #MAX_SIZE}.
+     */
+    public static int pageSize(Integer size) {
+        return size == null || size < 1 ? DEFAULT_SIZE : Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * @param slice a page of a listing.
+     * @param cursorOf the cursor of a row.
+     * @return the cursor of the last row, or empty if this is the last page.
+     */
+    public static <T> Optional<SeekCursor> next(Slice<T> slice, Function<T, SeekCursor> cursorOf) {
+        if (!slice.hasNext() || slice.getContent().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(cursorOf.apply(slice.getContent().get(slice.getContent().size() - 1)));
+    }
+}
@@ -0,0 +1,63 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A DTO for the study time of a user on one day, backed by {@link com.langleague.domain.StudyDayRollup}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class StudyDayDTO implements Serializable {
+
+    private LocalDate day;
+
+    private Long studySeconds = 0L;
+
+    private Integer sessionCount = 0;
+
+    public StudyDayDTO() {}
+
+    public StudyDayDTO(LocalDate day, Long studySeconds, Integer sessionCount) {
+        this.day = day;
+        this.studySeconds = studySeconds;
+        this.sessionCount = sessionCount;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public Long getStudySeconds() {
+        return studySeconds;
+    }
+
+    public void setStudySeconds(Long studySeconds) {
+        this.studySeconds = studySeconds;
+    }
+
+    public Integer getSessionCount() {
+        return sessionCount;
+    }
+
+    public void setSessionCount(Integer sessionCount) {
+        this.sessionCount = sessionCount;
+    }
+
+    public Double getHours() {
+        return studySeconds != null ? Math.round(studySeconds / 36.0) / 100.0 : 0.0;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "StudyDayDTO{" +
+            "day='" + getDay() + "'" +
+            ", studySeconds=" + getStudySeconds() +
+            ", sessionCount=" + getSessionCount() +
+            "}";
+    }
+}
@@ -185,9 +185,11 @@ public class StudySessionDTO implements Serializable {
     public static class PlatformStats implements Serializable {
 
         private Integer totalSessions;
+        private Integer completedSessions;
         private Long totalUsers;
         private Long totalDuration;
         private Long averageSessionDuration;
+        private Double completionRate;
 
         public Integer getTotalSessions() {
             return totalSessions;
@@ -197,6 +199,14 @@ public class StudySessionDTO implements Serializable {
             this.totalSessions = totalSessions;
         }
 
+        public Integer getCompletedSessions() {
+            return completedSessions;
+        }
+
+        public void setCompletedSessions(Integer completedSessions) {
+            this.completedSessions = completedSessions;
+        }
+
         public Long getTotalUsers() {
             return totalUsers;
         }
@@ -220,5 +230,38 @@ public class StudySessionDTO implements Serializable {
         public void setAverageSessionDuration(Long averageSessionDuration) {
             this.averageSessionDuration = averageSessionDuration;
         }
+
+        public Double getCompletionRate() {
+            return completionRate;
+        }
+
+        public void setCompletionRate(Double completionRate) {
+            this.completionRate = completionRate;
+        }
+    }
+
+    /**
+     * Inner class for the study sessions open right now
+     */
+    public static class Activity implements Serializable {
+
+        private Integer activeSessions;
+        private Integer activeUsers;
+
+        public Integer getActiveSessions() {
+            return activeSessions;
+        }
+
+        public void setActiveSessions(Integer activeSessions) {
+            this.activeSessions = activeSessions;
+        }
+
+        public Integer getActiveUsers() {
+            return activeUsers;
+        }
+
+        public void setActiveUsers(Integer activeUsers) {
+            this.activeUsers = activeUsers;
+        }
     }
 }
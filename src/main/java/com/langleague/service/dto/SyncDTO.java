@@ -0,0 +1,156 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the data of a user changed since a sync token.
+ * <p>
+ * If {@code full}, the client replaces its copy with the content; otherwise it applies the upserts and the
+ * deletions. Either way it sends {@code token} with its next sync, right away if {@code more}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SyncDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String token;
+
+    private boolean full;
+
+    private boolean more;
+
+    private List<UserProgressDTO> userProgresses = new ArrayList<>();
+
+    private List<UserVocabularyDTO> userVocabularies = new ArrayList<>();
+
+    private List<ExerciseResultDTO> exerciseResults = new ArrayList<>();
+
+    private List<Long> favoriteLessonIds = new ArrayList<>();
+
+    private Deleted deleted = new Deleted();
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public boolean isMore() {
+        return more;
+    }
+
+    public void setMore(boolean more) {
+        this.more = more;
+    }
+
+    public List<UserProgressDTO> getUserProgresses() {
+        return userProgresses;
+    }
+
+    public void setUserProgresses(List<UserProgressDTO> userProgresses) {
+        this.userProgresses = userProgresses;
+    }
+
+    public List<UserVocabularyDTO> getUserVocabularies() {
+        return userVocabularies;
+    }
+
+    public void setUserVocabularies(List<UserVocabularyDTO> userVocabularies) {
+        this.userVocabularies = userVocabularies;
+    }
+
+    public List<ExerciseResultDTO> getExerciseResults() {
+        return exerciseResults;
+    }
+
+    public void setExerciseResults(List<ExerciseResultDTO> exerciseResults) {
+        this.exerciseResults = exerciseResults;
+    }
+
+    public List<Long> getFavoriteLessonIds() {
+        return favoriteLessonIds;
+    }
+
+    public void setFavoriteLessonIds(List<Long> favoriteLessonIds) {
+        this.favoriteLessonIds = favoriteLessonIds;
+    }
+
+    public Deleted getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(Deleted deleted) {
+        this.deleted = deleted;
+    }
+
+    /**
+     * Inner class for the entities deleted since the token. Progress and favorites are identified by lesson.
+     */
+    public static class Deleted implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private List<Long> userProgressLessonIds = new ArrayList<>();
+        private List<Long> userVocabularyIds = new ArrayList<>();
+        private List<Long> exerciseResultIds = new ArrayList<>();
+        private List<Long> favoriteLessonIds = new ArrayList<>();
+
+        public List<Long> getUserProgressLessonIds() {
+            return userProgressLessonIds;
+        }
+
+        public void setUserProgressLessonIds(List<Long> userProgressLessonIds) {
+            this.userProgressLessonIds = userProgressLessonIds;
+        }
+
+        public List<Long> getUserVocabularyIds() {
+            return userVocabularyIds;
+        }
+
+        public void setUserVocabularyIds(List<Long> userVocabularyIds) {
+            this.userVocabularyIds = userVocabularyIds;
+        }
+
+        public List<Long> getExerciseResultIds() {
+            return exerciseResultIds;
+        }
+
+        public void setExerciseResultIds(List<Long> exerciseResultIds) {
+            this.exerciseResultIds = exerciseResultIds;
+        }
+
+        public List<Long> getFavoriteLessonIds() {
+            return favoriteLessonIds;
+        }
+
+        public void setFavoriteLessonIds(List<Long> favoriteLessonIds) {
+            this.favoriteLessonIds = favoriteLessonIds;
+        }
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SyncDTO{" +
+            "token='" + getToken() + "'" +
+            ", full='" + isFull() + "'" +
+            ", more='" + isMore() + "'" +
+            ", userProgresses=" + getUserProgresses().size() +
+            ", userVocabularies=" + getUserVocabularies().size() +
+            ", exerciseResults=" + getExerciseResults().size() +
+            ", favoriteLessonIds=" + getFavoriteLessonIds().size() +
+            "}";
+    }
+}
@@ -0,0 +1,89 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for a batch of lesson progress recorded by a client, e.g. while it was offline.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class UserProgressBatchDTO implements Serializable {
+
+    /** Only set by an admin syncing the progress of another user: defaults to the current user. */
+    private Long appUserId;
+
+    private List<Item> items = new ArrayList<>();
+
+    public Long getAppUserId() {
+        return appUserId;
+    }
+
+    public void setAppUserId(Long appUserId) {
+        this.appUserId = appUserId;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserProgressBatchDTO{" +
+            "appUserId=" + getAppUserId() +
+            ", items=" + getItems() +
+            "}";
+    }
+
+    /**
+     * The progress of one lesson, at the time the client recorded it.
+     */
+    public static class Item implements Serializable {
+
+        private Long lessonId;
+
+        private Integer percent;
+
+        private Instant clientTimestamp;
+
+        public Long getLessonId() {
+            return lessonId;
+        }
+
+        public void setLessonId(Long lessonId) {
+            this.lessonId = lessonId;
+        }
+
+        public Integer getPercent() {
+            return percent;
+        }
+
+        public void setPercent(Integer percent) {
+            this.percent = percent;
+        }
+
+        public Instant getClientTimestamp() {
+            return clientTimestamp;
+        }
+
+        public void setClientTimestamp(Instant clientTimestamp) {
+            this.clientTimestamp = clientTimestamp;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Item{" +
+                "lessonId=" + getLessonId() +
+                ", percent=" + getPercent() +
+                ", clientTimestamp='" + getClientTimestamp() + "'" +
+                "}";
+        }
+    }
+}
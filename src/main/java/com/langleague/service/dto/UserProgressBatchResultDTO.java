@@ -0,0 +1,77 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO for the outcome of one item of a {@link UserProgressBatchDTO}, in the order of the request.
+ * {@code percent} and {@code lastAccessed} are the progress kept for the lesson, unless the item was rejected.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class UserProgressBatchResultDTO implements Serializable {
+
+    /**
+     * What happened to an item.
+     */
+    public enum Status {
+        /** The item was written. */
+        APPLIED,
+        /** A more recent progress of the lesson exists, in the database or later in the same batch. */
+        STALE,
+        /** The lesson does not exist. */
+        NOT_FOUND,
+        /** The lesson, percent or timestamp is missing, or the percent is not between 0 and 100. */
+        INVALID,
+    }
+
+    private Long lessonId;
+
+    private Status status;
+
+    private Integer percent;
+
+    private Instant lastAccessed;
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public void setLessonId(Long lessonId) {
+        this.lessonId = lessonId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Integer getPercent() {
+        return percent;
+    }
+
+    public void setPercent(Integer percent) {
+        this.percent = percent;
+    }
+
+    public Instant getLastAccessed() {
+        return lastAccessed;
+    }
+
+    public void setLastAccessed(Instant lastAccessed) {
+        this.lastAccessed = lastAccessed;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserProgressBatchResultDTO{" +
+            "lessonId=" + getLessonId() +
+            ", status='" + getStatus() + "'" +
+            ", percent=" + getPercent() +
+            ", lastAccessed='" + getLastAccessed() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,120 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A DTO for the visit report of a range of days, backed by {@link com.langleague.domain.VisitDayStats}.
+ * <p>
+ * {@code uniqueVisitors}, {@code uniqueUsers} and {@code previousUniqueUsers} are HyperLogLog estimates
+ * with a relative standard error of {@code relativeStandardError}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class VisitReportDTO implements Serializable {
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private Long totalVisits = 0L;
+
+    private Long authenticatedVisits = 0L;
+
+    private Long uniqueVisitors = 0L;
+
+    private Long uniqueUsers = 0L;
+
+    private Long previousUniqueUsers = 0L;
+
+    private Double monthlyGrowth = 0.0;
+
+    private Double relativeStandardError;
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public Long getTotalVisits() {
+        return totalVisits;
+    }
+
+    public void setTotalVisits(Long totalVisits) {
+        this.totalVisits = totalVisits;
+    }
+
+    public Long getAuthenticatedVisits() {
+        return authenticatedVisits;
+    }
+
+    public void setAuthenticatedVisits(Long authenticatedVisits) {
+        this.authenticatedVisits = authenticatedVisits;
+    }
+
+    public Long getUniqueVisitors() {
+        return uniqueVisitors;
+    }
+
+    public void setUniqueVisitors(Long uniqueVisitors) {
+        this.uniqueVisitors = uniqueVisitors;
+    }
+
+    public Long getUniqueUsers() {
+        return uniqueUsers;
+    }
+
+    public void setUniqueUsers(Long uniqueUsers) {
+        this.uniqueUsers = uniqueUsers;
+    }
+
+    public Long getPreviousUniqueUsers() {
+        return previousUniqueUsers;
+    }
+
+    public void setPreviousUniqueUsers(Long previousUniqueUsers) {
+        this.previousUniqueUsers = previousUniqueUsers;
+    }
+
+    public Double getMonthlyGrowth() {
+        return monthlyGrowth;
+    }
+
+    public void setMonthlyGrowth(Double monthlyGrowth) {
+        this.monthlyGrowth = monthlyGrowth;
+    }
+
+    public Double getRelativeStandardError() {
+        return relativeStandardError;
+    }
+
+    public void setRelativeStandardError(Double relativeStandardError) {
+        this.relativeStandardError = relativeStandardError;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "VisitReportDTO{" +
+            "from='" + getFrom() + "'" +
+            ", to='" + getTo() + "'" +
+            ", totalVisits=" + getTotalVisits() +
+            ", authenticatedVisits=" + getAuthenticatedVisits() +
+            ", uniqueVisitors=" + getUniqueVisitors() +
+            ", uniqueUsers=" + getUniqueUsers() +
+            ", previousUniqueUsers=" + getPreviousUniqueUsers() +
+            ", monthlyGrowth=" + getMonthlyGrowth() +
+            ", relativeStandardError=" + getRelativeStandardError() +
+            "}";
+    }
+}
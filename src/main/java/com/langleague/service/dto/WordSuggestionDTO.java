@@ -0,0 +1,61 @@
+package com.langleague.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for a word suggested while typing, with the number of lessons it is in.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class WordSuggestionDTO implements Serializable {
+
+    private Long id;
+
+    private String text;
+
+    private String pronunciation;
+
+    private Integer lessonCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getPronunciation() {
+        return pronunciation;
+    }
+
+    public void setPronunciation(String pronunciation) {
+        this.pronunciation = pronunciation;
+    }
+
+    public Integer getLessonCount() {
+        return lessonCount;
+    }
+
+    public void setLessonCount(Integer lessonCount) {
+        this.lessonCount = lessonCount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "WordSuggestionDTO{" +
+            "id=" + getId() +
+            ", text='" + getText() + "'" +
+            ", pronunciation='" + getPronunciation() + "'" +
+            ", lessonCount=" + getLessonCount() +
+            "}";
+    }
+}
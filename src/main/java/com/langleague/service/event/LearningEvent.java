@@ -0,0 +1,78 @@
+package com.langleague.service.event;
+
+import java.time.Instant;
+
+/**
+ * An immutable learning activity of a user, recorded in the append-only {@code learning_event} table.
+ * <p>
+ * The user is the owner of the data written, passed explicitly: it is not the current user when, e.g., an
+ * administrator writes the progress of a learner.
+ */
+public final class LearningEvent {
+
+    private final LearningEventType type;
+
+    private final String login;
+
+    private final Long subjectId;
+
+    private final Integer value;
+
+    private final Instant occurredAt;
+
+    private LearningEvent(LearningEventType type, String login, Long subjectId, Integer value) {
+        this.type = type;
+        this.login = login;
+        this.subjectId = subjectId;
+        this.value = value;
+        this.occurredAt = Instant.now();
+    }
+
+    public static LearningEvent lessonStarted(String login, Long lessonId) {
+        return new LearningEvent(LearningEventType.LESSON_STARTED, login, lessonId, null);
+    }
+
+    public static LearningEvent progressSaved(String login, Long lessonId, Integer percent) {
+        return new LearningEvent(LearningEventType.PROGRESS_SAVED, login, lessonId, percent);
+    }
+
+    public static LearningEvent exerciseSubmitted(String login, Long skillId, Integer score) {
+        return new LearningEvent(LearningEventType.EXERCISE_SUBMITTED, login, skillId, score);
+    }
+
+    public static LearningEvent wordReviewed(String login, Long wordId, boolean memorized) {
+        return new LearningEvent(LearningEventType.WORD_REVIEWED, login, wordId, memorized ? 1 : 0);
+    }
+
+    public LearningEventType getType() {
+        return type;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public Integer getValue() {
+        return value;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LearningEvent{" +
+            "type=" + getType() +
+            ", login='" + getLogin() + "'" +
+            ", subjectId=" + getSubjectId() +
+            ", value=" + getValue() +
+            ", occurredAt='" + getOccurredAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,17 @@
+package com.langleague.service.event;
+
+import java.util.List;
+
+/**
+ * Subscriber to the learning-event stream.
+ * <p>
+ * Beans implementing this interface receive every batch of events once it has been persisted, on the single
+ * writer thread of {@link com.langleague.service.LearningEventService}, so they add no latency to the requests
+ * that published the events. They should be quick; a listener that throws does not affect the others.
+ */
+public interface LearningEventListener {
+    /**
+     * @param events the events of the batch, in publication order.
+     */
+    void onEvents(List<LearningEvent> events);
+}
@@ -0,0 +1,26 @@
+package com.langleague.service.event;
+
+/**
+ * The kinds of {@link LearningEvent}.
+ */
+public enum LearningEventType {
+    /**
+     * A study session was started; the subject is the lesson.
+     */
+    LESSON_STARTED,
+
+    /**
+     * Lesson progress was saved; the subject is the lesson and the value the percent.
+     */
+    PROGRESS_SAVED,
+
+    /**
+     * An exercise result was submitted; the subject is the skill and the value the score.
+     */
+    EXERCISE_SUBMITTED,
+
+    /**
+     * A vocabulary word was reviewed; the subject is the word and the value 1 if it is memorized, else 0.
+     */
+    WORD_REVIEWED,
+}
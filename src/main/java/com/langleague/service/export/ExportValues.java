@@ -0,0 +1,21 @@
+package com.langleague.service.export;
+
+import java.sql.Timestamp;
+
+/**
+ * Text representation of the JDBC values of an export.
+ */
+final class ExportValues {
+
+    private ExportValues() {}
+
+    static String format(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant().toString();
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().toString();
+        }
+        return String.valueOf(value);
+    }
+}
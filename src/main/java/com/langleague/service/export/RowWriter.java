@@ -0,0 +1,18 @@
+package com.langleague.service.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a table row by row to an output stream, without buffering more than one row.
+ */
+public interface RowWriter {
+    void writeHeader(List<String> columns) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * Write whatever the format needs after the last row and flush; does not close the underlying stream.
+     */
+    void finish() throws IOException;
+}
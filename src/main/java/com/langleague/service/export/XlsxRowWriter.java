@@ -0,0 +1,201 @@
+package com.langleague.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal Office Open XML workbook (.xlsx), written as a stream.
+ * <p>
+ * A workbook is a zip of XML parts. Rows are written straight into the worksheet part with inline strings,
+ * so nothing but the current row is held in memory; the workbook part listing the sheets is written last.
+ * When a sheet reaches the Excel limit of {@value #MAX_ROWS_PER_SHEET} rows, the export continues on a new
+ * sheet with the same header.
+ */
+public class XlsxRowWriter implements RowWriter {
+
+    static final int MAX_ROWS_PER_SHEET = 1_048_576;
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final ZipOutputStream zip;
+
+    private final Writer writer;
+
+    private final int maxRowsPerSheet;
+
+    private Object[] header;
+
+    private int sheetCount;
+
+    private int rowsInSheet;
+
+    private boolean sheetOpen;
+
+    public XlsxRowWriter(OutputStream out) {
+        this(out, MAX_ROWS_PER_SHEET);
+    }
+
+    XlsxRowWriter(OutputStream out, int maxRowsPerSheet) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        this.maxRowsPerSheet = maxRowsPerSheet;
+    }
+
+    @Override
+    public void writeHeader(List<String> columns) throws IOException {
+        this.header = columns.toArray();
+        openSheet();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        if (rowsInSheet >= maxRowsPerSheet) {
+            closeSheet();
+            openSheet();
+        }
+        writeRowXml(values);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (!sheetOpen && sheetCount == 0) {
+            openSheet();
+        }
+        closeSheet();
+
+        StringBuilder sheets = new StringBuilder();
+        StringBuilder relationships = new StringBuilder();
+        StringBuilder overrides = new StringBuilder();
+        for (int i = 1; i <= sheetCount; i++) {
+            sheets
+                .append("<sheet name=\"Sheet")
+                .append(i)
+                .append("\" sheetId=\"")
+                .append(i)
+                .append("\" r:id=\"rId")
+                .append(i)
+                .append("\"/>");
+            relationships
+                .append("<Relationship Id=\"rId")
+                .append(i)
+                .append("\" Type=\"")
+                .append(REL_NS)
+                .append("/worksheet\" Target=\"worksheets/sheet")
+                .append(i)
+                .append(".xml\"/>");
+            overrides
+                .append("<Override PartName=\"/xl/worksheets/sheet")
+                .append(i)
+                .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+
+        writeEntry(
+            "[Content_Types].xml",
+            "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">" +
+            "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>" +
+            "<Default Extension=\"xml\" ContentType=\"application/xml\"/>" +
+            "<Override PartName=\"/xl/workbook.xml\" " +
+            "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>" +
+            overrides +
+            "</Types>"
+        );
+        writeEntry(
+            "_rels/.rels",
+            "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+            "<Relationship Id=\"rId1\" Type=\"" +
+            REL_NS +
+            "/officeDocument\" Target=\"xl/workbook.xml\"/>" +
+            "</Relationships>"
+        );
+        writeEntry(
+            "xl/workbook.xml",
+            "<workbook xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS + "\"><sheets>" + sheets + "</sheets></workbook>"
+        );
+        writeEntry(
+            "xl/_rels/workbook.xml.rels",
+            "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" + relationships + "</Relationships>"
+        );
+        zip.finish();
+        zip.flush();
+    }
+
+    private void openSheet() throws IOException {
+        sheetCount++;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        writer.write(XML_HEADER);
+        writer.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+        sheetOpen = true;
+        rowsInSheet = 0;
+        if (header != null) {
+            writeRowXml(header);
+        }
+    }
+
+    private void closeSheet() throws IOException {
+        if (!sheetOpen) {
+            return;
+        }
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        sheetOpen = false;
+    }
+
+    private void writeRowXml(Object[] values) throws IOException {
+        writer.write("<row>");
+        for (Object value : values) {
+            if (value == null) {
+                writer.write("<c/>");
+            } else if (value instanceof Number) {
+                writer.write("<c><v>");
+                writer.write(value.toString());
+                writer.write("</v></c>");
+            } else if (value instanceof Boolean bool) {
+                writer.write(bool ? "<c t=\"b\"><v>1</v></c>" : "<c t=\"b\"><v>0</v></c>");
+            } else {
+                writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writeEscaped(ExportValues.format(value));
+                writer.write("</t></is></c>");
+            }
+        }
+        writer.write("</row>");
+        rowsInSheet++;
+    }
+
+    private void writeEscaped(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> writer.write("&lt;");
+                case '>' -> writer.write("&gt;");
+                case '&' -> writer.write("&amp;");
+                case '"' -> writer.write("&quot;");
+                default -> {
+                    // Control characters other than tab and line breaks are not allowed in XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(XML_HEADER);
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+}
@@ -2,6 +2,7 @@ package com.langleague.service.impl;
 
 import com.langleague.domain.Chapter;
 import com.langleague.repository.ChapterRepository;
+import com.langleague.service.CatalogSnapshotService;
 import com.langleague.service.ChapterService;
 import com.langleague.service.dto.ChapterDTO;
 import com.langleague.service.mapper.ChapterMapper;
@@ -23,10 +24,16 @@ public class ChapterServiceImpl implements ChapterService {
 
     private final ChapterRepository chapterRepository;
     private final ChapterMapper chapterMapper;
+    private final CatalogSnapshotService catalogSnapshotService;
 
-    public ChapterServiceImpl(ChapterRepository chapterRepository, ChapterMapper chapterMapper) {
+    public ChapterServiceImpl(
+        ChapterRepository chapterRepository,
+        ChapterMapper chapterMapper,
+        CatalogSnapshotService catalogSnapshotService
+    ) {
         this.chapterRepository = chapterRepository;
         this.chapterMapper = chapterMapper;
+        this.catalogSnapshotService = catalogSnapshotService;
     }
 
     @Override
@@ -34,6 +41,7 @@ public class ChapterServiceImpl implements ChapterService {
         log.debug("Request to save Chapter : {}", chapterDTO);
         Chapter chapter = chapterMapper.toEntity(chapterDTO);
         chapter = chapterRepository.save(chapter);
+        catalogSnapshotService.changed();
         return chapterMapper.toDto(chapter);
     }
 
@@ -42,6 +50,7 @@ public class ChapterServiceImpl implements ChapterService {
         log.debug("Request to update Chapter : {}", chapterDTO);
         Chapter chapter = chapterMapper.toEntity(chapterDTO);
         chapter = chapterRepository.save(chapter);
+        catalogSnapshotService.changed();
         return chapterMapper.toDto(chapter);
     }
 
@@ -53,6 +62,7 @@ public class ChapterServiceImpl implements ChapterService {
             .findById(chapterDTO.getId())
             .map(existingChapter -> {
                 chapterMapper.partialUpdate(existingChapter, chapterDTO);
+                catalogSnapshotService.changed();
                 return existingChapter;
             })
             .map(chapterRepository::save)
@@ -70,7 +80,12 @@ public class ChapterServiceImpl implements ChapterService {
     @Transactional(readOnly = true)
     public List<ChapterDTO> findAllByBookId(Long bookId) {
         log.debug("Request to get all Chapters for Book : {}", bookId);
-        return chapterRepository.findByBookIdOrderByOrderIndex(bookId).stream().map(chapterMapper::toDto).collect(Collectors.toList());
+        return catalogSnapshotService
+            .get()
+            .chaptersOfBook(bookId)
+            .stream()
+            .map(CatalogSnapshotService::toDto)
+            .collect(Collectors.toList());
     }
 
     @Override
@@ -84,5 +99,6 @@ public class ChapterServiceImpl implements ChapterService {
     public void delete(Long id) {
         log.debug("Request to delete Chapter : {}", id);
         chapterRepository.deleteById(id);
+        catalogSnapshotService.changed();
     }
 }
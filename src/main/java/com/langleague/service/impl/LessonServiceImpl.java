@@ -2,11 +2,26 @@ package com.langleague.service.impl;
 
 import com.langleague.domain.Lesson;
 import com.langleague.repository.LessonRepository;
+import com.langleague.security.SecurityUtils;
+import com.langleague.service.CatalogSnapshotService;
+import com.langleague.service.ChapterCompletionService;
+import com.langleague.service.LessonDetailService;
+import com.langleague.service.LessonRecommendationService;
+import com.langleague.service.LessonSearchService;
 import com.langleague.service.LessonService;
+import com.langleague.service.catalog.CatalogSnapshot;
+import com.langleague.service.catalog.CatalogSnapshot.LessonNode;
 import com.langleague.service.dto.LessonDTO;
+import com.langleague.service.dto.LessonOverviewDTO;
 import com.langleague.service.mapper.LessonMapper;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,14 +34,36 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class LessonServiceImpl implements LessonService {
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    private static final String DEFAULT_LEVEL = "beginner";
+
     private final Logger log = LoggerFactory.getLogger(LessonServiceImpl.class);
 
     private final LessonRepository lessonRepository;
     private final LessonMapper lessonMapper;
+    private final ChapterCompletionService chapterCompletionService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final LessonSearchService lessonSearchService;
+    private final LessonRecommendationService lessonRecommendationService;
+    private final LessonDetailService lessonDetailService;
 
-    public LessonServiceImpl(LessonRepository lessonRepository, LessonMapper lessonMapper) {
+    public LessonServiceImpl(
+        LessonRepository lessonRepository,
+        LessonMapper lessonMapper,
+        ChapterCompletionService chapterCompletionService,
+        CatalogSnapshotService catalogSnapshotService,
+        LessonSearchService lessonSearchService,
+        LessonRecommendationService lessonRecommendationService,
+        LessonDetailService lessonDetailService
+    ) {
         this.lessonRepository = lessonRepository;
         this.lessonMapper = lessonMapper;
+        this.chapterCompletionService = chapterCompletionService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.lessonSearchService = lessonSearchService;
+        this.lessonRecommendationService = lessonRecommendationService;
+        this.lessonDetailService = lessonDetailService;
     }
 
     @Override
@@ -34,6 +71,9 @@ public class LessonServiceImpl implements LessonService {
         log.debug("Request to save Lesson : {}", lessonDTO);
         Lesson lesson = lessonMapper.toEntity(lessonDTO);
         lesson = lessonRepository.save(lesson);
+        catalogSnapshotService.changed();
+        lessonSearchService.lessonsChanged(lesson.getId());
+        lessonDetailService.lessonsChanged(lesson.getId());
         return lessonMapper.toDto(lesson);
     }
 
@@ -42,6 +82,9 @@ public class LessonServiceImpl implements LessonService {
         log.debug("Request to update Lesson : {}", lessonDTO);
         Lesson lesson = lessonMapper.toEntity(lessonDTO);
         lesson = lessonRepository.save(lesson);
+        catalogSnapshotService.changed();
+        lessonSearchService.lessonsChanged(lesson.getId());
+        lessonDetailService.lessonsChanged(lesson.getId());
         return lessonMapper.toDto(lesson);
     }
 
@@ -53,6 +96,9 @@ public class LessonServiceImpl implements LessonService {
             .findById(lessonDTO.getId())
             .map(existingLesson -> {
                 lessonMapper.partialUpdate(existingLesson, lessonDTO);
+                catalogSnapshotService.changed();
+                lessonSearchService.lessonsChanged(existingLesson.getId());
+                lessonDetailService.lessonsChanged(existingLesson.getId());
                 return existingLesson;
             })
             .map(lessonRepository::save)
@@ -70,7 +116,7 @@ public class LessonServiceImpl implements LessonService {
     @Transactional(readOnly = true)
     public List<LessonDTO> findAllByChapterId(Long chapterId) {
         log.debug("Request to get all Lessons for Chapter : {}", chapterId);
-        return lessonRepository.findByChapterEntityId(chapterId).stream().map(lessonMapper::toDto).collect(Collectors.toList());
+        return toDtos(catalogSnapshotService.get().lessonsOfChapter(chapterId));
     }
 
     @Override
@@ -84,10 +130,16 @@ public class LessonServiceImpl implements LessonService {
     public void delete(Long id) {
         log.debug("Request to delete Lesson : {}", id);
         lessonRepository.deleteById(id);
+        catalogSnapshotService.changed();
+        lessonSearchService.lessonsChanged(id);
+        lessonDetailService.lessonsChanged(id);
     }
 
     /**
      * Use case 18: Search lessons by name, topic, level or vocabulary
+     * <p>
+     * A keyword is looked up in the in-memory search index, best match first; the lessons are then read from the
+     * catalog snapshot.
      *
      * @param keyword search keyword
      * @param level filter by level (optional)
@@ -98,23 +150,25 @@ public class LessonServiceImpl implements LessonService {
     public List<LessonDTO> searchLessons(String keyword, String level) {
         log.debug("Request to search Lessons with keyword: {} and level: {}", keyword, level);
 
-        List<Lesson> lessons;
         if (keyword != null && !keyword.isEmpty()) {
-            lessons = lessonRepository.searchByKeyword(keyword);
-            if (level != null && !level.isEmpty()) {
-                lessons = lessons.stream().filter(l -> level.equalsIgnoreCase(l.getLevel())).collect(Collectors.toList());
-            }
+            CatalogSnapshot catalog = catalogSnapshotService.get();
+            return lessonSearchService
+                .search(keyword, level != null && !level.isEmpty() ? level : null, MAX_SEARCH_RESULTS)
+                .stream()
+                .map(catalog::lesson)
+                .flatMap(Optional::stream)
+                .map(CatalogSnapshotService::toDto)
+                .collect(Collectors.toList());
         } else if (level != null && !level.isEmpty()) {
-            lessons = lessonRepository.findByLevel(level);
-        } else {
-            lessons = lessonRepository.findAllPublished();
+            return toDtos(publishedLessonsOfLevel(level));
         }
-
-        return lessons.stream().map(lessonMapper::toDto).collect(Collectors.toList());
+        return toDtos(catalogSnapshotService.get().publishedLessons());
     }
 
     /**
      * Use case 53: Hide/Show lessons (Admin) - Publish lesson
+     * <p>
+     * The content bundle of the lesson is rendered once the transaction commits.
      *
      * @param id lesson ID
      * @return published lesson
@@ -127,6 +181,9 @@ public class LessonServiceImpl implements LessonService {
             .map(lesson -> {
                 lesson.setIsPublished(true);
                 lessonRepository.save(lesson);
+                catalogSnapshotService.changed();
+                lessonSearchService.lessonsChanged(id);
+                lessonDetailService.lessonsChanged(id);
                 return lessonMapper.toDto(lesson);
             })
             .orElseThrow(() -> new RuntimeException("Lesson not found with id: " + id));
@@ -146,6 +203,9 @@ public class LessonServiceImpl implements LessonService {
             .map(lesson -> {
                 lesson.setIsPublished(false);
                 lessonRepository.save(lesson);
+                catalogSnapshotService.changed();
+                lessonSearchService.lessonsChanged(id);
+                lessonDetailService.lessonsChanged(id);
                 return lessonMapper.toDto(lesson);
             })
             .orElseThrow(() -> new RuntimeException("Lesson not found with id: " + id));
@@ -153,8 +213,11 @@ public class LessonServiceImpl implements LessonService {
 
     /**
      * Use case 27: Get lesson recommendations appropriate for user level
+     * <p>
+     * The current user is recommended the lessons that learners who finished the same lessons went on to, then the
+     * published lessons of the level they did not take yet. Nothing is read from the database.
      *
-     * @param userLevel user's current level
+     * @param userLevel user's current level, or {@code null} for any level, then beginner lessons
      * @param limit maximum number of recommendations
      * @return list of recommended lessons
      */
@@ -162,9 +225,31 @@ public class LessonServiceImpl implements LessonService {
     @Transactional(readOnly = true)
     public List<LessonDTO> getRecommendations(String userLevel, int limit) {
         log.debug("Request to get lesson recommendations for level: {}", userLevel);
-
-        List<Lesson> lessons = lessonRepository.findByLevel(userLevel);
-        return lessons.stream().limit(limit).map(lessonMapper::toDto).collect(Collectors.toList());
+        CatalogSnapshot catalog = catalogSnapshotService.get();
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        LongPredicate eligible = id -> {
+            Optional<LessonNode> lesson = catalog.lesson(id);
+            return (
+                lesson.isPresent() && lesson.get().published() && (userLevel == null || userLevel.equalsIgnoreCase(lesson.get().level()))
+            );
+        };
+        List<LessonDTO> recommendations = new ArrayList<>();
+        Set<Long> recommended = new HashSet<>();
+        lessonRecommendationService
+            .recommend(login, eligible, limit)
+            .forEach(id -> {
+                recommendations.add(CatalogSnapshotService.toDto(catalog.lesson(id).orElseThrow()));
+                recommended.add(id);
+            });
+        for (LessonNode lesson : publishedLessonsOfLevel(userLevel != null ? userLevel : DEFAULT_LEVEL)) {
+            if (recommendations.size() >= limit) {
+                break;
+            }
+            if (!recommended.contains(lesson.id()) && !lessonRecommendationService.took(login, lesson.id())) {
+                recommendations.add(CatalogSnapshotService.toDto(lesson));
+            }
+        }
+        return recommendations;
     }
 
     /**
@@ -176,37 +261,84 @@ public class LessonServiceImpl implements LessonService {
     @Transactional(readOnly = true)
     public List<LessonDTO> getPublishedLessons() {
         log.debug("Request to get all published lessons");
-        return lessonRepository.findAllPublished().stream().map(lessonMapper::toDto).collect(Collectors.toList());
+        return toDtos(catalogSnapshotService.get().publishedLessons());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<LessonDTO> getAllLessonsWithProgress() {
         log.debug("Request to get all lessons with progress");
-        return lessonRepository.findAll().stream().map(lessonMapper::toDto).collect(Collectors.toList());
+        return toDtos(catalogSnapshotService.get().lessons());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<LessonDTO> getLessonsByChapter(Integer chapterNumber) {
         log.debug("Request to get lessons by chapter number : {}", chapterNumber);
-        // Note: This assumes you have a chapter number field
-        // If using Chapter ID instead, modify accordingly
-        return lessonRepository.findAll().stream().map(lessonMapper::toDto).collect(Collectors.toList());
+        return chapterNumber != null ? toDtos(catalogSnapshotService.get().lessonsOfChapter(chapterNumber.longValue())) : List.of();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Integer> getAllChapters() {
         log.debug("Request to get all chapter numbers");
-        // Return unique chapter numbers
-        return lessonRepository
-            .findAll()
+        return catalogSnapshotService.get().chapterIds().stream().map(Long::intValue).collect(Collectors.toList());
+    }
+
+    /**
+     * Get the lesson tree from the catalog snapshot with the completion of the current user, with one keyed lookup of
+     * the user's chapter completion rollup.
+     *
+     * @param chapterId only return the lessons of this chapter (optional).
+     * @return the lessons, every chapter id, and the completion by chapter and by book.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public LessonOverviewDTO getLessonOverview(Long chapterId) {
+        log.debug("Request to get lesson overview for chapter : {}", chapterId);
+        CatalogSnapshot catalog = catalogSnapshotService.get();
+        Map<Long, Integer> completedByChapter = chapterCompletionService.getCurrentUserCompletedLessons();
+
+        Map<Long, Long> totalByChapter = new LinkedHashMap<>();
+        catalog.lessons().forEach(lesson -> totalByChapter.merge(lesson.chapterId(), 1L, Long::sum));
+
+        LessonOverviewDTO overview = new LessonOverviewDTO();
+        Map<Long, LessonOverviewDTO.Completion> bookCompletions = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : totalByChapter.entrySet()) {
+            long total = entry.getValue();
+            // The rollup may briefly lag a lesson moved out of the chapter until the nightly rebuild
+            long completed = Math.min(total, completedByChapter.getOrDefault(entry.getKey(), 0));
+            overview.getChapterCompletions().add(new LessonOverviewDTO.Completion(entry.getKey(), total, completed));
+            Long bookId = catalog.chapter(entry.getKey()).map(CatalogSnapshot.ChapterNode::bookId).orElse(null);
+            if (bookId != null) {
+                LessonOverviewDTO.Completion book = bookCompletions.computeIfAbsent(bookId, id ->
+                    new LessonOverviewDTO.Completion(id, 0, 0)
+                );
+                book.setTotalLessons(book.getTotalLessons() + total);
+                book.setCompletedLessons(book.getCompletedLessons() + completed);
+            }
+            if (chapterId == null || chapterId.equals(entry.getKey())) {
+                overview.setTotalLessons(overview.getTotalLessons() + total);
+                overview.setCompletedLessons(overview.getCompletedLessons() + completed);
+            }
+        }
+        overview.setBookCompletions(List.copyOf(bookCompletions.values()));
+        overview.setChapters(totalByChapter.keySet().stream().map(Long::intValue).sorted().collect(Collectors.toList()));
+        overview.setLessons(toDtos(chapterId != null ? catalog.lessonsOfChapter(chapterId) : catalog.lessons()));
+        return overview;
+    }
+
+    private List<LessonNode> publishedLessonsOfLevel(String level) {
+        // Compared like the case-insensitive collation of the column
+        return catalogSnapshotService
+            .get()
+            .publishedLessons()
             .stream()
-            .map(lesson -> lesson.getChapterEntity().getId().intValue())
-            .filter(java.util.Objects::nonNull)
-            .distinct()
-            .sorted()
+            .filter(lesson -> level.equalsIgnoreCase(lesson.level()))
             .collect(Collectors.toList());
     }
+
+    private static List<LessonDTO> toDtos(List<LessonNode> lessons) {
+        return lessons.stream().map(CatalogSnapshotService::toDto).collect(Collectors.toList());
+    }
 }
@@ -4,7 +4,10 @@ import com.langleague.domain.LessonWord;
 import com.langleague.domain.Word;
 import com.langleague.repository.LessonWordRepository;
 import com.langleague.repository.WordRepository;
+import com.langleague.service.LessonDetailService;
+import com.langleague.service.LessonSearchService;
 import com.langleague.service.WordService;
+import com.langleague.service.WordSuggestService;
 import com.langleague.service.dto.WordDTO;
 import com.langleague.service.mapper.WordMapper;
 import java.util.List;
@@ -26,11 +29,24 @@ public class WordServiceImpl implements WordService {
     private final WordRepository wordRepository;
     private final LessonWordRepository lessonWordRepository;
     private final WordMapper wordMapper;
+    private final LessonSearchService lessonSearchService;
+    private final WordSuggestService wordSuggestService;
+    private final LessonDetailService lessonDetailService;
 
-    public WordServiceImpl(WordRepository wordRepository, LessonWordRepository lessonWordRepository, WordMapper wordMapper) {
+    public WordServiceImpl(
+        WordRepository wordRepository,
+        LessonWordRepository lessonWordRepository,
+        WordMapper wordMapper,
+        LessonSearchService lessonSearchService,
+        WordSuggestService wordSuggestService,
+        LessonDetailService lessonDetailService
+    ) {
         this.wordRepository = wordRepository;
         this.lessonWordRepository = lessonWordRepository;
         this.wordMapper = wordMapper;
+        this.lessonSearchService = lessonSearchService;
+        this.wordSuggestService = wordSuggestService;
+        this.lessonDetailService = lessonDetailService;
     }
 
     @Override
@@ -38,6 +54,7 @@ public class WordServiceImpl implements WordService {
         log.debug("Request to save Word : {}", wordDTO);
         Word word = wordMapper.toEntity(wordDTO);
         word = wordRepository.save(word);
+        wordSuggestService.wordsChanged(word.getId());
         return wordMapper.toDto(word);
     }
 
@@ -46,6 +63,8 @@ public class WordServiceImpl implements WordService {
         log.debug("Request to update Word : {}", wordDTO);
         Word word = wordMapper.toEntity(wordDTO);
         word = wordRepository.save(word);
+        lessonsOfWordChanged(word.getId());
+        wordSuggestService.wordsChanged(word.getId());
         return wordMapper.toDto(word);
     }
 
@@ -65,12 +84,16 @@ public class WordServiceImpl implements WordService {
                 if (wordDTO.getPronunciation() != null) {
                     existingWord.setPronunciation(wordDTO.getPronunciation());
                 }
+                if (wordDTO.getText() != null || wordDTO.getPronunciation() != null) {
+                    wordSuggestService.wordsChanged(existingWord.getId());
+                }
                 if (wordDTO.getPartOfSpeech() != null) {
                     existingWord.setPartOfSpeech(wordDTO.getPartOfSpeech());
                 }
                 if (wordDTO.getImageUrl() != null) {
                     existingWord.setImageUrl(wordDTO.getImageUrl());
                 }
+                lessonsOfWordChanged(existingWord.getId());
                 return existingWord;
             })
             .map(wordRepository::save)
@@ -107,6 +130,18 @@ public class WordServiceImpl implements WordService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Word : {}", id);
+        lessonsOfWordChanged(id);
+        wordSuggestService.wordsChanged(id);
         wordRepository.deleteById(id);
     }
+
+    /**
+     * The lessons of a word are indexed again, and their details evicted, once the transaction commits. Call it before
+     * deleting the word, while its lessons can still be found.
+     */
+    private void lessonsOfWordChanged(Long wordId) {
+        List<Long> lessonIds = lessonWordRepository.findLessonIdsByWordId(wordId);
+        lessonSearchService.lessonsChanged(lessonIds);
+        lessonDetailService.lessonsChanged(lessonIds);
+    }
 }
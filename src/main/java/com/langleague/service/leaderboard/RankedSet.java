@@ -0,0 +1,269 @@
+package com.langleague.service.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A set of ids ranked by score, highest first, then by id, lowest first.
+ * <p>
+ * This is an indexable skip list: every forward link also records how many elements it skips, so the rank of
+ * an element and the element at a rank are both found in {@code O(log n)}, like a sorted set in Redis. A map
+ * from id to node makes score lookups {@code O(1)} and score changes {@code O(log n)}.
+ * <p>
+ * Not thread-safe: callers synchronize, e.g. with a read-write lock since reads do not modify the structure.
+ */
+public final class RankedSet {
+
+    private static final int MAX_LEVEL = 32;
+
+    /**
+     * One ranked element; {@code rank} starts at 1.
+     */
+    public record Entry(long id, long score, int rank) {}
+
+    private final Node head = new Node(0, 0, MAX_LEVEL);
+
+    private final Map<Long, Node> nodes = new HashMap<>();
+
+    private int level = 1;
+
+    private int size;
+
+    /**
+     * @return the number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param id the id.
+     * @return the score of {@code id}, or {@code null} if it is not in the set.
+     */
+    public Long score(long id) {
+        Node node = nodes.get(id);
+        return node != null ? node.score : null;
+    }
+
+    /**
+     * Set the score of {@code id}, adding it if needed.
+     *
+     * @param id the id.
+     * @param score the new score.
+     */
+    public void put(long id, long score) {
+        Node node = nodes.get(id);
+        if (node != null) {
+            if (node.score == score) {
+                return;
+            }
+            unlink(node);
+        }
+        nodes.put(id, insert(id, score));
+    }
+
+    /**
+     * Add {@code delta} to the score of {@code id}, which starts at 0 if it is not in the set.
+     *
+     * @param id the id.
+     * @param delta the change of score.
+     * @return the new score.
+     */
+    public long increment(long id, long delta) {
+        Long current = score(id);
+        long score = (current != null ? current : 0L) + delta;
+        put(id, score);
+        return score;
+    }
+
+    /**
+     * Remove {@code id}.
+     *
+     * @param id the id.
+     * @return {@code false} if it was not in the set.
+     */
+    public boolean remove(long id) {
+        Node node = nodes.remove(id);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * Remove every element.
+     */
+    public void clear() {
+        nodes.clear();
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+        size = 0;
+    }
+
+    /**
+     * @param id the id.
+     * @return the rank of {@code id}, starting at 1, or {@code 0} if it is not in the set.
+     */
+    public int rank(long id) {
+        Node node = nodes.get(id);
+        if (node == null) {
+            return 0;
+        }
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], node.score, node.id) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node) {
+                return rank;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * @param id the id.
+     * @return the entry of {@code id}, or {@code null} if it is not in the set.
+     */
+    public Entry entry(long id) {
+        Node node = nodes.get(id);
+        return node != null ? new Entry(node.id, node.score, rank(id)) : null;
+    }
+
+    /**
+     * Get the elements ranked {@code offset + 1} to {@code offset + limit}.
+     *
+     * @param offset the number of elements to skip.
+     * @param limit the maximum number of elements to return.
+     * @return the entries, best first.
+     */
+    public List<Entry> range(int offset, int limit) {
+        List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(limit, size - offset)));
+        if (offset < 0 || offset >= size || limit <= 0) {
+            return entries;
+        }
+        Node x = nodeAt(offset + 1);
+        int rank = offset + 1;
+        while (x != null && entries.size() < limit) {
+            entries.add(new Entry(x.id, x.score, rank++));
+            x = x.next[0];
+        }
+        return entries;
+    }
+
+    private Node nodeAt(int rank) {
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private Node insert(long id, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], score, id) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+        Node node = new Node(id, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+        return node;
+    }
+
+    private void unlink(Node node) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], node.score, node.id) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    private static int compare(Node node, long score, long id) {
+        if (node.score != score) {
+            return node.score > score ? -1 : 1;
+        }
+        return Long.compare(node.id, id);
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        // Each level holds a quarter of the nodes of the level below
+        while (nodeLevel < MAX_LEVEL && (ThreadLocalRandom.current().nextInt() & 3) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+
+        private final long id;
+
+        private final long score;
+
+        private final Node[] next;
+
+        private final int[] span;
+
+        private Node(long id, long score, int level) {
+            this.id = id;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
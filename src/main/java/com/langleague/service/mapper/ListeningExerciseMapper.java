@@ -14,8 +14,12 @@ public interface ListeningExerciseMapper extends EntityMapper<ListeningExerciseD
     @Mapping(target = "lessonSkill", source = "lessonSkill", qualifiedByName = "lessonSkillId")
     ListeningExerciseDTO toDto(ListeningExercise s);
 
+    @Mapping(target = "lesson", ignore = true)
+    ListeningExercise toEntity(ListeningExerciseDTO dto);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "lessonSkill", ignore = true)
+    @Mapping(target = "lesson", ignore = true)
     void partialUpdate(@MappingTarget ListeningExercise entity, ListeningExerciseDTO dto);
 
     @Named("lessonSkillId")
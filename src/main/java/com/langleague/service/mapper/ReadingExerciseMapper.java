@@ -14,8 +14,12 @@ public interface ReadingExerciseMapper extends EntityMapper<ReadingExerciseDTO,
     @Mapping(target = "lessonSkill", source = "lessonSkill", qualifiedByName = "lessonSkillId")
     ReadingExerciseDTO toDto(ReadingExercise s);
 
+    @Mapping(target = "lesson", ignore = true)
+    ReadingExercise toEntity(ReadingExerciseDTO dto);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "lessonSkill", ignore = true)
+    @Mapping(target = "lesson", ignore = true)
     void partialUpdate(@MappingTarget ReadingExercise entity, ReadingExerciseDTO dto);
 
     @Named("lessonSkillId")
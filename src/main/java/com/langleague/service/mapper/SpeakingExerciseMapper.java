@@ -14,8 +14,12 @@ public interface SpeakingExerciseMapper extends EntityMapper<SpeakingExerciseDTO
     @Mapping(target = "lessonSkill", source = "lessonSkill", qualifiedByName = "lessonSkillId")
     SpeakingExerciseDTO toDto(SpeakingExercise s);
 
+    @Mapping(target = "lesson", ignore = true)
+    SpeakingExercise toEntity(SpeakingExerciseDTO dto);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "lessonSkill", ignore = true)
+    @Mapping(target = "lesson", ignore = true)
     void partialUpdate(@MappingTarget SpeakingExercise entity, SpeakingExerciseDTO dto);
 
     @Named("lessonSkillId")
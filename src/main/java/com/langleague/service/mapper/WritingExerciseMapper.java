@@ -14,8 +14,12 @@ public interface WritingExerciseMapper extends EntityMapper<WritingExerciseDTO,
     @Mapping(target = "lessonSkill", source = "lessonSkill", qualifiedByName = "lessonSkillId")
     WritingExerciseDTO toDto(WritingExercise s);
 
+    @Mapping(target = "lesson", ignore = true)
+    WritingExercise toEntity(WritingExerciseDTO dto);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "lessonSkill", ignore = true)
+    @Mapping(target = "lesson", ignore = true)
     void partialUpdate(@MappingTarget WritingExercise entity, WritingExerciseDTO dto);
 
     @Named("lessonSkillId")
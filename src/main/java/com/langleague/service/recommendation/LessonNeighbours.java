@@ -0,0 +1,268 @@
+package com.langleague.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * The nearest neighbours of each lesson, mined from the order in which learners took lessons: "learners who finished
+ * X went on to Y".
+ * <p>
+ * A pair {@code X -> Y} is counted once per learner who finished {@code X} and took {@code Y} among the next lessons
+ * they took. Its similarity is the count divided by the geometric mean of the number of learners of {@code X} and of
+ * {@code Y}, so that popular lessons do not neighbour everything. Each lesson keeps its best neighbours only, in
+ * primitive arrays: the lesson ids, sorted, with the offsets of their neighbours in one array of ids and one of
+ * similarities.
+ * <p>
+ * Immutable, and so thread-safe.
+ */
+public final class LessonNeighbours {
+
+    public static final LessonNeighbours EMPTY = new LessonNeighbours(new long[0], new int[1], new long[0], new float[0]);
+
+    /**
+     * The lessons of a learner.
+     *
+     * @param lessons the lessons, in the order they were last accessed, oldest first.
+     * @param finished for each lesson, whether it is finished.
+     */
+    public record History(long[] lessons, boolean[] finished) {
+        public int size() {
+            return lessons.length;
+        }
+    }
+
+    private final long[] lessonIds;
+
+    private final int[] offsets;
+
+    private final long[] neighbourIds;
+
+    private final float[] similarities;
+
+    private LessonNeighbours(long[] lessonIds, int[] offsets, long[] neighbourIds, float[] similarities) {
+        this.lessonIds = lessonIds;
+        this.offsets = offsets;
+        this.neighbourIds = neighbourIds;
+        this.similarities = similarities;
+    }
+
+    /**
+     * Mine the neighbours of the lessons.
+     *
+     * @param histories the lessons of each learner.
+     * @param neighbours the number of neighbours to keep per lesson.
+     * @param window how many of the following lessons of a learner a finished lesson is paired with.
+     * @param minSupport the number of learners a pair needs, below which it is noise.
+     * @return the neighbours.
+     */
+    public static LessonNeighbours build(List<History> histories, int neighbours, int window, int minSupport) {
+        Map<Long, Integer> indexes = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        int[] learners = new int[16];
+        PairCounts pairs = new PairCounts();
+        for (History history : histories) {
+            int[] indexOf = new int[history.size()];
+            for (int i = 0; i < history.size(); i++) {
+                long lessonId = history.lessons()[i];
+                indexOf[i] = indexes.computeIfAbsent(lessonId, id -> {
+                    ids.add(id);
+                    return ids.size() - 1;
+                });
+                if (indexOf[i] == learners.length) {
+                    learners = Arrays.copyOf(learners, learners.length * 2);
+                }
+                learners[indexOf[i]]++;
+            }
+            for (int i = 0; i < history.size(); i++) {
+                if (!history.finished()[i]) {
+                    continue;
+                }
+                for (int j = i + 1; j < Math.min(history.size(), i + 1 + window); j++) {
+                    if (indexOf[j] != indexOf[i]) {
+                        pairs.increment(indexOf[i], indexOf[j]);
+                    }
+                }
+            }
+        }
+
+        // Group the pairs by their first lesson, then keep the best of each group
+        int lessons = ids.size();
+        long[] idOf = ids.stream().mapToLong(Long::longValue).toArray();
+        int[] groupSizes = new int[lessons + 1];
+        pairs.forEach((from, to, count) -> {
+            if (count >= minSupport) {
+                groupSizes[from + 1]++;
+            }
+        });
+        for (int i = 0; i < lessons; i++) {
+            groupSizes[i + 1] += groupSizes[i];
+        }
+        int[] fill = Arrays.copyOf(groupSizes, lessons);
+        int[] candidates = new int[groupSizes[lessons]];
+        float[] candidateSimilarities = new float[groupSizes[lessons]];
+        final int[] learnersOf = learners;
+        pairs.forEach((from, to, count) -> {
+            if (count >= minSupport) {
+                candidates[fill[from]] = to;
+                candidateSimilarities[fill[from]] = (float) (count / Math.sqrt((double) learnersOf[from] * learnersOf[to]));
+                fill[from]++;
+            }
+        });
+
+        // Lessons without neighbours are left out
+        int[] byId = IntStream.range(0, lessons)
+            .filter(index -> groupSizes[index + 1] > groupSizes[index])
+            .boxed()
+            .sorted(Comparator.comparingLong(index -> idOf[index]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        long[] sortedIds = new long[byId.length];
+        int[] offsets = new int[byId.length + 1];
+        long[] neighbourIds = new long[Math.min(candidates.length, byId.length * neighbours)];
+        float[] similarities = new float[neighbourIds.length];
+        for (int i = 0; i < byId.length; i++) {
+            int index = byId[i];
+            int start = groupSizes[index];
+            sortedIds[i] = idOf[index];
+            Integer[] order = new Integer[groupSizes[index + 1] - start];
+            for (int j = 0; j < order.length; j++) {
+                order[j] = start + j;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int bySimilarity = Float.compare(candidateSimilarities[b], candidateSimilarities[a]);
+                return bySimilarity != 0 ? bySimilarity : Long.compare(idOf[candidates[a]], idOf[candidates[b]]);
+            });
+            int kept = Math.min(order.length, neighbours);
+            for (int j = 0; j < kept; j++) {
+                neighbourIds[offsets[i] + j] = idOf[candidates[order[j]]];
+                similarities[offsets[i] + j] = candidateSimilarities[order[j]];
+            }
+            offsets[i + 1] = offsets[i] + kept;
+        }
+        int total = offsets[sortedIds.length];
+        return new LessonNeighbours(sortedIds, offsets, Arrays.copyOf(neighbourIds, total), Arrays.copyOf(similarities, total));
+    }
+
+    /**
+     * @return the number of lessons with neighbours.
+     */
+    public int size() {
+        return lessonIds.length;
+    }
+
+    /**
+     * @param lessonId a lesson.
+     * @return its neighbours, the most similar first.
+     */
+    public long[] neighbours(long lessonId) {
+        int index = Arrays.binarySearch(lessonIds, lessonId);
+        return index >= 0 ? Arrays.copyOfRange(neighbourIds, offsets[index], offsets[index + 1]) : new long[0];
+    }
+
+    /**
+     * Recommend lessons to a learner, merging the neighbours of their recent lessons: the similarities to the most
+     * recent lesson count fully, those to the lesson before it half, then a third, and so on.
+     *
+     * @param recentLessons the recent lessons of the learner, most recent first.
+     * @param eligible whether a lesson may be recommended, e.g. not taken yet.
+     * @param limit the maximum number of lessons.
+     * @return the best lessons, best first.
+     */
+    public List<Long> recommend(long[] recentLessons, LongPredicate eligible, int limit) {
+        Map<Long, Float> scores = new HashMap<>();
+        for (int r = 0; r < recentLessons.length; r++) {
+            int index = Arrays.binarySearch(lessonIds, recentLessons[r]);
+            if (index < 0) {
+                continue;
+            }
+            float weight = 1f / (r + 1);
+            for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+                if (eligible.test(neighbourIds[i])) {
+                    scores.merge(neighbourIds[i], weight * similarities[i], Float::sum);
+                }
+            }
+        }
+        return scores
+            .entrySet()
+            .stream()
+            .sorted(Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /**
+     * Counts of pairs of lesson indexes, in an open-addressing hash table of primitives.
+     */
+    private static final class PairCounts {
+
+        private static final long FREE = -1;
+
+        private long[] keys = filled(1 << 10);
+
+        private int[] counts = new int[1 << 10];
+
+        private int size;
+
+        private void increment(int from, int to) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+            }
+            long key = ((long) from << 32) | to;
+            int slot = slot(keys, key);
+            if (keys[slot] == FREE) {
+                keys[slot] = key;
+                size++;
+            }
+            counts[slot]++;
+        }
+
+        private void forEach(PairConsumer consumer) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != FREE) {
+                    consumer.accept((int) (keys[slot] >>> 32), (int) keys[slot], counts[slot]);
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = filled(oldKeys.length * 2);
+            counts = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) {
+                    int slot = slot(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        private static int slot(long[] keys, long key) {
+            int mask = keys.length - 1;
+            int slot = (int) (Long.hashCode(key * 0x9E3779B97F4A7C15L)) & mask;
+            while (keys[slot] != FREE && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private static long[] filled(int length) {
+            long[] keys = new long[length];
+            Arrays.fill(keys, FREE);
+            return keys;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PairConsumer {
+        void accept(int from, int to, int count);
+    }
+}
@@ -0,0 +1,95 @@
+package com.langleague.service.recommendation;
+
+import com.langleague.service.recommendation.LessonNeighbours.History;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline evaluation of the lesson recommendations, on a held-out split of the histories of the learners.
+ * <p>
+ * The last lesson of each learner with at least two lessons is held out; the neighbours are mined from the rest of
+ * every history. The recommender scores a hit when the held-out lesson is among the {@code k} lessons it recommends
+ * from the recent lessons before it, excluding the lessons the learner took. Recommending the {@code k} lessons with
+ * the most learners is scored the same way, as a baseline the neighbours have to beat.
+ */
+public final class LessonRecommenderEvaluation {
+
+    /**
+     * The outcome of an evaluation.
+     *
+     * @param learners the number of learners evaluated.
+     * @param hitRate the share of learners whose held-out lesson was recommended, from 0 to 1.
+     * @param popularityHitRate the same share when recommending the most popular lessons.
+     */
+    public record Result(int learners, double hitRate, double popularityHitRate) {}
+
+    private LessonRecommenderEvaluation() {}
+
+    /**
+     * Evaluate the hit rate at {@code k}.
+     *
+     * @param histories the lessons of each learner.
+     * @param k the number of lessons recommended.
+     * @param recentLessons the number of recent lessons recommendations are made from.
+     * @param neighbours the number of neighbours to keep per lesson.
+     * @param window see {@link LessonNeighbours#build}.
+     * @param minSupport see {@link LessonNeighbours#build}.
+     * @return the hit rates.
+     */
+    public static Result hitRate(List<History> histories, int k, int recentLessons, int neighbours, int window, int minSupport) {
+        List<History> training = new ArrayList<>(histories.size());
+        List<History> evaluated = new ArrayList<>();
+        for (History history : histories) {
+            if (history.size() < 2) {
+                training.add(history);
+                continue;
+            }
+            int kept = history.size() - 1;
+            training.add(new History(Arrays.copyOf(history.lessons(), kept), Arrays.copyOf(history.finished(), kept)));
+            evaluated.add(history);
+        }
+        if (evaluated.isEmpty()) {
+            return new Result(0, 0, 0);
+        }
+        LessonNeighbours model = LessonNeighbours.build(training, neighbours, window, minSupport);
+        List<Long> popular = popularLessons(training);
+
+        int hits = 0;
+        int popularityHits = 0;
+        for (History history : evaluated) {
+            int kept = history.size() - 1;
+            long heldOut = history.lessons()[kept];
+            long[] taken = Arrays.copyOf(history.lessons(), kept);
+            long[] recent = new long[Math.min(recentLessons, kept)];
+            for (int i = 0; i < recent.length; i++) {
+                recent[i] = taken[kept - 1 - i];
+            }
+            Arrays.sort(taken);
+            if (model.recommend(recent, id -> Arrays.binarySearch(taken, id) < 0, k).contains(heldOut)) {
+                hits++;
+            }
+            if (popular.stream().filter(id -> Arrays.binarySearch(taken, id) < 0).limit(k).anyMatch(id -> id == heldOut)) {
+                popularityHits++;
+            }
+        }
+        return new Result(evaluated.size(), (double) hits / evaluated.size(), (double) popularityHits / evaluated.size());
+    }
+
+    private static List<Long> popularLessons(List<History> histories) {
+        Map<Long, Integer> learners = new HashMap<>();
+        for (History history : histories) {
+            for (long lessonId : history.lessons()) {
+                learners.merge(lessonId, 1, Integer::sum);
+            }
+        }
+        return learners
+            .entrySet()
+            .stream()
+            .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+}
@@ -0,0 +1,371 @@
+package com.langleague.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
+
+/**
+ * An inverted index of the text of the exercises of every skill, ranked with BM25.
+ * <p>
+ * The content of an exercise (the passage, transcript or prompt) and its detail (the question, target phrase or sample
+ * answer) are analyzed with {@link TextAnalyzer}. The postings of a term are the slots of the exercises containing
+ * it; each slot keeps its terms, sorted, with their positions, from which the frequencies are read while scoring and
+ * the phrases are checked. Every term and every {@code "quoted phrase"} of a query must match; the terms of a phrase
+ * must follow each other within one field. The skill and the lesson of an exercise are stored per slot and checked
+ * before anything else.
+ * <p>
+ * Exercises are added, replaced and removed one at a time; the slot of a removed exercise is reused.
+ * <p>
+ * Not thread-safe: callers synchronize, e.g. with a read-write lock since searches do not modify the index.
+ */
+public final class ExerciseSearchIndex {
+
+    static final int EXCERPT_LENGTH = 160;
+
+    private static final float K1 = 1.2f;
+
+    private static final float B = 0.75f;
+
+    /**
+     * The skill of an exercise.
+     */
+    public enum Type {
+        LISTENING,
+        SPEAKING,
+        READING,
+        WRITING;
+
+        public static Optional<Type> fromName(String name) {
+            return Arrays.stream(values()).filter(type -> type.name().equalsIgnoreCase(name)).findFirst();
+        }
+    }
+
+    /**
+     * An exercise to index.
+     *
+     * @param type the skill.
+     * @param id the exercise id.
+     * @param lessonId the lesson, or {@code null}.
+     * @param content the passage, transcript or prompt, or {@code null}.
+     * @param detail the question, target phrase or sample answer, or {@code null}.
+     */
+    public record Document(Type type, long id, Long lessonId, String content, String detail) {}
+
+    /**
+     * A matching exercise.
+     *
+     * @param type the skill.
+     * @param id the exercise id.
+     * @param lessonId the lesson, or {@code null}.
+     * @param excerpt the start of the content.
+     * @param score the BM25 score, higher is better.
+     */
+    public record Hit(Type type, long id, Long lessonId, String excerpt, float score) {}
+
+    private record Key(Type type, long id) {}
+
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+        .thenComparing(Hit::type, Comparator.reverseOrder())
+        .thenComparing(Hit::id, Comparator.reverseOrder());
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    private final Map<Key, Integer> slots = new HashMap<>();
+
+    private final List<Integer> freeSlots = new ArrayList<>();
+
+    private Type[] types = new Type[16];
+
+    private long[] ids = new long[16];
+
+    private Long[] lessonIds = new Long[16];
+
+    private String[] excerpts = new String[16];
+
+    private float[] lengths = new float[16];
+
+    private String[][] slotTerms = new String[16][];
+
+    private int[][][] slotPositions = new int[16][][];
+
+    private int slotCount;
+
+    private double totalLength;
+
+    /**
+     * @return the number of exercises indexed.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * @return the number of distinct terms.
+     */
+    public int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Index an exercise, replacing its previous version.
+     *
+     * @param document the exercise.
+     */
+    public void put(Document document) {
+        remove(document.type(), document.id());
+        Map<String, List<Integer>> positions = new TreeMap<>();
+        // The fields are one position apart, so that no phrase spans them
+        int next = addTerms(positions, document.content(), 0);
+        int length = addTerms(positions, document.detail(), next + 1) - 1;
+        int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.remove(freeSlots.size() - 1);
+        ensureCapacity(slot + 1);
+        String[] terms = positions.keySet().toArray(String[]::new);
+        int[][] termPositions = new int[terms.length][];
+        for (int t = 0; t < terms.length; t++) {
+            termPositions[t] = positions.get(terms[t]).stream().mapToInt(Integer::intValue).toArray();
+            postings.computeIfAbsent(terms[t], term -> new Postings()).add(slot);
+        }
+        types[slot] = document.type();
+        ids[slot] = document.id();
+        lessonIds[slot] = document.lessonId();
+        excerpts[slot] = excerpt(document.content());
+        lengths[slot] = Math.max(length, 0);
+        slotTerms[slot] = terms;
+        slotPositions[slot] = termPositions;
+        totalLength += lengths[slot];
+        slots.put(new Key(document.type(), document.id()), slot);
+    }
+
+    /**
+     * Remove an exercise, if it is indexed.
+     *
+     * @param type the skill.
+     * @param id the exercise id.
+     */
+    public void remove(Type type, long id) {
+        Integer slot = slots.remove(new Key(type, id));
+        if (slot == null) {
+            return;
+        }
+        for (String term : slotTerms[slot]) {
+            Postings termPostings = postings.get(term);
+            termPostings.remove(slot);
+            if (termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths[slot];
+        types[slot] = null;
+        lessonIds[slot] = null;
+        excerpts[slot] = null;
+        slotTerms[slot] = null;
+        slotPositions[slot] = null;
+        freeSlots.add(slot);
+    }
+
+    /**
+     * Search the exercises.
+     *
+     * @param query the terms and {@code "quoted phrases"} the exercises must all contain.
+     * @param type only return the exercises of this skill, or {@code null}.
+     * @param lessonFilter only return the exercises of the lessons it accepts, or {@code null} for any exercise.
+     * @param limit the maximum number of hits.
+     * @return the best hits, best first, then by skill and id.
+     */
+    public List<Hit> search(String query, Type type, LongPredicate lessonFilter, int limit) {
+        List<List<String>> phrases = new ArrayList<>();
+        Set<String> terms = new LinkedHashSet<>();
+        parse(query, terms, phrases);
+        if (terms.isEmpty() || slots.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<Postings> required = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Postings termPostings = postings.get(term);
+            if (termPostings == null) {
+                return List.of();
+            }
+            required.add(termPostings);
+        }
+        // Intersected from the rarest term, so the filters are checked, and the counts of the terms matched kept, for
+        // the fewest slots
+        required.sort(Comparator.comparingInt(termPostings -> termPostings.size));
+        Postings rarest = required.get(0);
+        Map<Integer, Integer> matched = new HashMap<>();
+        for (int i = 0; i < rarest.size; i++) {
+            int slot = rarest.slots[i];
+            if (accepts(slot, type, lessonFilter)) {
+                matched.put(slot, 1);
+            }
+        }
+        for (int r = 1; r < required.size() && !matched.isEmpty(); r++) {
+            Postings termPostings = required.get(r);
+            for (int i = 0; i < termPostings.size; i++) {
+                matched.replace(termPostings.slots[i], r, r + 1);
+            }
+        }
+        float averageLength = (float) Math.max(totalLength / slots.size(), 1);
+        float[] idfs = new float[terms.size()];
+        int t = 0;
+        for (String term : terms) {
+            int documents = postings.get(term).size;
+            idfs[t++] = (float) Math.log(1 + (slots.size() - documents + 0.5) / (documents + 0.5));
+        }
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        for (Map.Entry<Integer, Integer> entry : matched.entrySet()) {
+            int slot = entry.getKey();
+            if (entry.getValue() != required.size() || !containsPhrases(slot, phrases)) {
+                continue;
+            }
+            best.add(new Hit(types[slot], ids[slot], lessonIds[slot], excerpts[slot], score(slot, terms, idfs, averageLength)));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(WORST_FIRST.reversed());
+        return hits;
+    }
+
+    /**
+     * Split a query into its terms, those of its phrases included, and its phrases of more than one term. The text
+     * after an unclosed quote is a phrase.
+     */
+    private static void parse(String query, Set<String> terms, List<List<String>> phrases) {
+        if (query == null) {
+            return;
+        }
+        String[] parts = query.split("\"", -1);
+        for (int p = 0; p < parts.length; p++) {
+            List<String> partTerms = TextAnalyzer.terms(parts[p]);
+            terms.addAll(partTerms);
+            if (p % 2 == 1 && partTerms.size() > 1) {
+                phrases.add(partTerms);
+            }
+        }
+    }
+
+    private boolean accepts(int slot, Type type, LongPredicate lessonFilter) {
+        if (type != null && type != types[slot]) {
+            return false;
+        }
+        return lessonFilter == null || (lessonIds[slot] != null && lessonFilter.test(lessonIds[slot]));
+    }
+
+    private boolean containsPhrases(int slot, List<List<String>> phrases) {
+        for (List<String> phrase : phrases) {
+            int[][] phrasePositions = new int[phrase.size()][];
+            for (int i = 0; i < phrase.size(); i++) {
+                phrasePositions[i] = positions(slot, phrase.get(i));
+            }
+            if (!containsPhrase(phrasePositions)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsPhrase(int[][] phrasePositions) {
+        for (int start : phrasePositions[0]) {
+            boolean follows = true;
+            for (int i = 1; i < phrasePositions.length && follows; i++) {
+                follows = Arrays.binarySearch(phrasePositions[i], start + i) >= 0;
+            }
+            if (follows) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private float score(int slot, Set<String> terms, float[] idfs, float averageLength) {
+        float score = 0;
+        int t = 0;
+        for (String term : terms) {
+            float frequency = positions(slot, term).length;
+            score += (idfs[t++] * frequency * (K1 + 1)) / (frequency + K1 * (1 - B + (B * lengths[slot]) / averageLength));
+        }
+        return score;
+    }
+
+    /**
+     * @return the positions of a term the slot contains.
+     */
+    private int[] positions(int slot, String term) {
+        return slotPositions[slot][Arrays.binarySearch(slotTerms[slot], term)];
+    }
+
+    /**
+     * @return the position after the last term.
+     */
+    private static int addTerms(Map<String, List<Integer>> positions, String text, int start) {
+        int position = start;
+        for (String term : TextAnalyzer.terms(text)) {
+            positions.computeIfAbsent(term, key -> new ArrayList<>()).add(position++);
+        }
+        return position;
+    }
+
+    private static String excerpt(String content) {
+        if (content == null) {
+            return "";
+        }
+        String text = content.strip().replaceAll("\\s+", " ");
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int end = EXCERPT_LENGTH;
+        if (Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end).stripTrailing() + "…";
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int newLength = Math.max(capacity, ids.length * 2);
+            types = Arrays.copyOf(types, newLength);
+            ids = Arrays.copyOf(ids, newLength);
+            lessonIds = Arrays.copyOf(lessonIds, newLength);
+            excerpts = Arrays.copyOf(excerpts, newLength);
+            lengths = Arrays.copyOf(lengths, newLength);
+            slotTerms = Arrays.copyOf(slotTerms, newLength);
+            slotPositions = Arrays.copyOf(slotPositions, newLength);
+        }
+    }
+
+    /**
+     * The slots of the exercises containing a term, in no particular order.
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+
+        private int size;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        private void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
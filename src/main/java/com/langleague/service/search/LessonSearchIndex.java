@@ -0,0 +1,327 @@
+package com.langleague.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * An inverted index of lessons, ranked with BM25.
+ * <p>
+ * Each lesson is analyzed with {@link TextAnalyzer}; a term counts {@value #TITLE_WEIGHT} times in the titles,
+ * {@value #WORD_WEIGHT} times in the text and meaning of the words of the lesson, and once in the description. The
+ * postings of a term are parallel arrays of document slots and weighted frequencies, so a query only walks the
+ * postings of its terms into a score array. The last term of a query also matches the terms it is a prefix of, as the
+ * user is still typing it. The level and the publication of a lesson are stored per slot and checked while scoring.
+ * <p>
+ * Lessons are added, replaced and removed one at a time; the slot of a removed lesson is reused.
+ * <p>
+ * Not thread-safe: callers synchronize, e.g. with a read-write lock since searches do not modify the index.
+ */
+public final class LessonSearchIndex {
+
+    static final int TITLE_WEIGHT = 3;
+
+    static final int WORD_WEIGHT = 2;
+
+    private static final float K1 = 1.2f;
+
+    private static final float B = 0.75f;
+
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    /**
+     * A lesson to index.
+     *
+     * @param id the lesson id.
+     * @param level the level, or {@code null}.
+     * @param published whether the lesson is published.
+     * @param title the title, or {@code null}.
+     * @param titleKorean the Korean title, or {@code null}.
+     * @param description the description, or {@code null}.
+     * @param words the text and meaning of each word of the lesson.
+     */
+    public record Document(
+        long id,
+        String level,
+        boolean published,
+        String title,
+        String titleKorean,
+        String description,
+        List<String> words
+    ) {}
+
+    /**
+     * A matching lesson.
+     *
+     * @param id the lesson id.
+     * @param score the BM25 score, higher is better.
+     */
+    public record Hit(long id, float score) {}
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+
+    private final List<Integer> freeSlots = new ArrayList<>();
+
+    private long[] ids = new long[16];
+
+    private String[] levels = new String[16];
+
+    private boolean[] published = new boolean[16];
+
+    private float[] lengths = new float[16];
+
+    private String[][] slotTerms = new String[16][];
+
+    private int slotCount;
+
+    private double totalLength;
+
+    /**
+     * @return the number of lessons indexed.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * @return the number of distinct terms.
+     */
+    public int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Index a lesson, replacing its previous version.
+     *
+     * @param document the lesson.
+     */
+    public void put(Document document) {
+        remove(document.id());
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, document.title(), TITLE_WEIGHT);
+        addTerms(frequencies, document.titleKorean(), TITLE_WEIGHT);
+        addTerms(frequencies, document.description(), 1);
+        for (String word : document.words()) {
+            addTerms(frequencies, word, WORD_WEIGHT);
+        }
+        int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.remove(freeSlots.size() - 1);
+        ensureCapacity(slot + 1);
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(slot, entry.getValue());
+            length += entry.getValue();
+        }
+        ids[slot] = document.id();
+        levels[slot] = document.level() != null ? document.level().toLowerCase(Locale.ROOT) : null;
+        published[slot] = document.published();
+        lengths[slot] = length;
+        slotTerms[slot] = frequencies.keySet().toArray(String[]::new);
+        totalLength += length;
+        slots.put(document.id(), slot);
+    }
+
+    /**
+     * Remove a lesson, if it is indexed.
+     *
+     * @param id the lesson id.
+     */
+    public void remove(long id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (String term : slotTerms[slot]) {
+            Postings termPostings = postings.get(term);
+            termPostings.remove(slot);
+            if (termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths[slot];
+        slotTerms[slot] = null;
+        levels[slot] = null;
+        freeSlots.add(slot);
+    }
+
+    /**
+     * Search the published lessons.
+     *
+     * @param query the query, as typed.
+     * @param level only return the lessons of this level, case-insensitive, or {@code null}.
+     * @param limit the maximum number of hits.
+     * @return the best hits, best first, then by id.
+     */
+    public List<Hit> search(String query, String level, int limit) {
+        List<String> terms = TextAnalyzer.terms(query);
+        if (terms.isEmpty() || slots.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String levelFilter = level != null ? level.toLowerCase(Locale.ROOT) : null;
+        boolean typing = !Character.isWhitespace(query.charAt(query.length() - 1));
+        float averageLength = (float) Math.max(totalLength / slots.size(), 1);
+        float[] scores = new float[slotCount];
+        // Only the slots matched are ranked, rather than every slot
+        Matches matches = new Matches(slotCount);
+        for (int t = 0; t < terms.size(); t++) {
+            String term = terms.get(t);
+            if (typing && t == terms.size() - 1) {
+                scorePrefix(term, levelFilter, averageLength, scores, matches);
+            } else {
+                Postings termPostings = postings.get(term);
+                if (termPostings != null) {
+                    score(termPostings, levelFilter, averageLength, scores, matches, null);
+                }
+            }
+        }
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, LessonSearchIndex::compareWorstFirst);
+        for (int i = 0; i < matches.size; i++) {
+            int slot = matches.slots[i];
+            best.add(new Hit(ids[slot], scores[slot]));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort((a, b) -> compareWorstFirst(b, a));
+        return hits;
+    }
+
+    /**
+     * A prefix counts once per lesson, with the best of the terms it expands to.
+     */
+    private void scorePrefix(String prefix, String levelFilter, float averageLength, float[] scores, Matches matches) {
+        NavigableMap<String, Postings> expansions = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (expansions.isEmpty()) {
+            return;
+        }
+        if (expansions.firstKey().equals(expansions.lastKey())) {
+            score(expansions.firstEntry().getValue(), levelFilter, averageLength, scores, matches, null);
+            return;
+        }
+        Map<Integer, Float> bestScores = new HashMap<>();
+        int expanded = 0;
+        for (Postings termPostings : expansions.values()) {
+            if (expanded++ == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            score(termPostings, levelFilter, averageLength, null, matches, bestScores);
+        }
+        bestScores.forEach((slot, score) -> scores[slot] += score);
+    }
+
+    private void score(
+        Postings termPostings,
+        String levelFilter,
+        float averageLength,
+        float[] scores,
+        Matches matches,
+        Map<Integer, Float> bestScores
+    ) {
+        int documents = slots.size();
+        float idf = (float) Math.log(1 + (documents - termPostings.size + 0.5) / (termPostings.size + 0.5));
+        for (int i = 0; i < termPostings.size; i++) {
+            int slot = termPostings.slots[i];
+            if (!published[slot] || (levelFilter != null && !levelFilter.equals(levels[slot]))) {
+                continue;
+            }
+            float frequency = termPostings.frequencies[i];
+            float score = (idf * frequency * (K1 + 1)) / (frequency + K1 * (1 - B + (B * lengths[slot]) / averageLength));
+            matches.add(slot);
+            if (bestScores != null) {
+                bestScores.merge(slot, score, Math::max);
+            } else {
+                scores[slot] += score;
+            }
+        }
+    }
+
+    private static int compareWorstFirst(Hit a, Hit b) {
+        int byScore = Float.compare(a.score(), b.score());
+        return byScore != 0 ? byScore : Long.compare(b.id(), a.id());
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : TextAnalyzer.terms(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int newLength = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newLength);
+            levels = Arrays.copyOf(levels, newLength);
+            published = Arrays.copyOf(published, newLength);
+            lengths = Arrays.copyOf(lengths, newLength);
+            slotTerms = Arrays.copyOf(slotTerms, newLength);
+        }
+    }
+
+    /**
+     * The distinct slots matched by a query, in the order they were first matched.
+     */
+    private static final class Matches {
+
+        private final boolean[] matched;
+
+        private int[] slots = new int[16];
+
+        private int size;
+
+        private Matches(int slotCount) {
+            this.matched = new boolean[slotCount];
+        }
+
+        private void add(int slot) {
+            if (matched[slot]) {
+                return;
+            }
+            matched[slot] = true;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    /**
+     * The slots of the lessons containing a term, in no particular order, with the weighted frequency of the term.
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+
+        private int[] frequencies = new int[4];
+
+        private int size;
+
+        private void add(int slot, int frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        private void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+}
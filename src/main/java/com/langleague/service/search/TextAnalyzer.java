@@ -0,0 +1,208 @@
+package com.langleague.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into search terms, for Vietnamese, English and Korean.
+ * <p>
+ * Text is lower-cased and its diacritics are folded, so that {@code "Xin chào"}, {@code "xin chao"} and
+ * {@code "XIN CHÀO"} give the same terms; {@code đ} folds to {@code d}. Hangul syllables are left whole. A run of
+ * letters or digits of the Latin script gives one term. Korean does not separate particles and endings from the word
+ * they follow ({@code 학교에서}), so a run of Hangul gives its overlapping syllable bigrams ({@code 학교}, {@code 교에},
+ * {@code 에서}), or its only syllable: a query for {@code 학교} then matches the bigram of any form of the word.
+ * <p>
+ * For prefix matching, {@link #jamo} spells Hangul out letter by letter instead.
+ */
+public final class TextAnalyzer {
+
+    private static final String INITIALS = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+
+    private static final String[] MEDIALS = {
+        "ㅏ",
+        "ㅐ",
+        "ㅑ",
+        "ㅒ",
+        "ㅓ",
+        "ㅔ",
+        "ㅕ",
+        "ㅖ",
+        "ㅗ",
+        "ㅗㅏ",
+        "ㅗㅐ",
+        "ㅗㅣ",
+        "ㅛ",
+        "ㅜ",
+        "ㅜㅓ",
+        "ㅜㅔ",
+        "ㅜㅣ",
+        "ㅠ",
+        "ㅡ",
+        "ㅡㅣ",
+        "ㅣ",
+    };
+
+    private static final String[] FINALS = {
+        "",
+        "ㄱ",
+        "ㄲ",
+        "ㄱㅅ",
+        "ㄴ",
+        "ㄴㅈ",
+        "ㄴㅎ",
+        "ㄷ",
+        "ㄹ",
+        "ㄹㄱ",
+        "ㄹㅁ",
+        "ㄹㅂ",
+        "ㄹㅅ",
+        "ㄹㅌ",
+        "ㄹㅍ",
+        "ㄹㅎ",
+        "ㅁ",
+        "ㅂ",
+        "ㅂㅅ",
+        "ㅅ",
+        "ㅆ",
+        "ㅇ",
+        "ㅈ",
+        "ㅊ",
+        "ㅋ",
+        "ㅌ",
+        "ㅍ",
+        "ㅎ",
+    };
+
+    /**
+     * The compound letters that can be typed alone, and the letters they are made of.
+     */
+    private static final String COMPOUNDS = "ㄳㄵㄶㄺㄻㄼㄽㄾㄿㅀㅄㅘㅙㅚㅝㅞㅟㅢ";
+
+    private static final String[] COMPOUND_LETTERS = {
+        "ㄱㅅ",
+        "ㄴㅈ",
+        "ㄴㅎ",
+        "ㄹㄱ",
+        "ㄹㅁ",
+        "ㄹㅂ",
+        "ㄹㅅ",
+        "ㄹㅌ",
+        "ㄹㅍ",
+        "ㄹㅎ",
+        "ㅂㅅ",
+        "ㅗㅏ",
+        "ㅗㅐ",
+        "ㅗㅣ",
+        "ㅜㅓ",
+        "ㅜㅔ",
+        "ㅜㅣ",
+        "ㅡㅣ",
+    };
+
+    private TextAnalyzer() {}
+
+    /**
+     * @param text the text, or {@code null}.
+     * @return its terms, in order, with repetitions.
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = fold(text);
+        int start = -1;
+        boolean hangulRun = false;
+        for (int i = 0; i <= folded.length(); i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            boolean hangul = isHangul(c);
+            boolean word = hangul || Character.isLetterOrDigit(c);
+            if (start >= 0 && (!word || hangul != hangulRun)) {
+                addRun(terms, folded, start, i, hangulRun);
+                start = -1;
+            }
+            if (word && start < 0) {
+                start = i;
+                hangulRun = hangul;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * @param text the text.
+     * @return the text lower-cased, without diacritics, with Hangul syllables kept whole.
+     */
+    public static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            folded.append(c == 'đ' ? 'd' : c);
+        }
+        // Decomposition also split the Hangul syllables into jamo, which are not marks: compose them back
+        return Normalizer.normalize(folded, Normalizer.Form.NFC);
+    }
+
+    /**
+     * Fold a text and spell its Hangul out as a sequence of letters (jamo), so that a syllable being typed is a prefix
+     * of the syllables it can become: {@code 한} ({@code ㅎㅏㄴ}) is a prefix of {@code 하나} ({@code ㅎㅏㄴㅏ}) and of
+     * {@code 한국}. Compound vowels and final consonants are split into the letters they are typed with ({@code ㅘ}
+     * into {@code ㅗㅏ}, {@code ㄺ} into {@code ㄹㄱ}); runs of whitespace become one space.
+     *
+     * @param text the text, or {@code null}.
+     * @return the folded text, spelled out, without leading or trailing whitespace.
+     */
+    public static String jamo(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = fold(text).strip();
+        StringBuilder spelled = new StringBuilder(folded.length() * 3);
+        boolean space = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space) {
+                spelled.append(' ');
+                space = false;
+            }
+            int compound = COMPOUNDS.indexOf(c);
+            if (isHangul(c)) {
+                int syllable = c - '가';
+                spelled.append(INITIALS.charAt(syllable / 588)).append(MEDIALS[(syllable % 588) / 28]).append(FINALS[syllable % 28]);
+            } else if (compound >= 0) {
+                spelled.append(COMPOUND_LETTERS[compound]);
+            } else {
+                spelled.append(c);
+            }
+        }
+        return spelled.toString();
+    }
+
+    /**
+     * @param c a character.
+     * @return {@code true} for a Hangul syllable.
+     */
+    public static boolean isHangul(char c) {
+        return c >= '가' && c <= '힣';
+    }
+
+    private static void addRun(List<String> terms, String text, int start, int end, boolean hangul) {
+        if (!hangul || end - start == 1) {
+            terms.add(text.substring(start, end));
+            return;
+        }
+        for (int i = start; i + 2 <= end; i++) {
+            terms.add(text.substring(i, i + 2));
+        }
+    }
+}
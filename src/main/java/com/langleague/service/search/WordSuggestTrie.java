@@ -0,0 +1,331 @@
+package com.langleague.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A compressed trie (radix tree) of words, for suggestions as the user types.
+ * <p>
+ * A word is found under several keys, e.g. its text and its pronunciation, spelled with {@link TextAnalyzer#jamo} so
+ * that a Hangul syllable being typed matches. Each word has a weight; each node keeps the highest weight below it, so
+ * {@link #suggest} visits the nodes best first and stops after the {@code k} best words, instead of collecting every
+ * word under the prefix. Edges are labelled with character arrays, and a node only exists where keys branch or end: a
+ * dictionary of {@code n} keys has fewer than {@code 2n} nodes.
+ * <p>
+ * Words are added, replaced and removed one at a time; a removal prunes and merges the nodes it leaves useless, so the
+ * trie stays as compact as if it was built from scratch.
+ * <p>
+ * Not thread-safe: callers synchronize, e.g. with a read-write lock since suggestions do not modify the trie.
+ */
+public final class WordSuggestTrie {
+
+    private static final char[] NO_CHARS = {};
+
+    private static final Node[] NO_NODES = {};
+
+    private static final long[] NO_IDS = {};
+
+    private static final int[] NO_WEIGHTS = {};
+
+    private final Node root = new Node(NO_CHARS);
+
+    // The keys of each word, separated by a new line, which a key cannot contain
+    private final Map<Long, String> keys = new HashMap<>();
+
+    private int nodeCount = 1;
+
+    /**
+     * @return the number of words.
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * @return the number of nodes, the root included.
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Add a word, replacing its previous version.
+     *
+     * @param id the word id.
+     * @param weight the weight of the word, higher is suggested first; not negative.
+     * @param texts the texts the word is found by, {@code null}s are ignored.
+     */
+    public void put(long id, int weight, String... texts) {
+        remove(id);
+        Set<String> wordKeys = new LinkedHashSet<>();
+        for (String text : texts) {
+            String key = TextAnalyzer.jamo(text);
+            if (!key.isEmpty()) {
+                wordKeys.add(key);
+            }
+        }
+        if (wordKeys.isEmpty()) {
+            return;
+        }
+        for (String key : wordKeys) {
+            insert(root, key, 0, id, weight);
+        }
+        keys.put(id, String.join("\n", wordKeys));
+    }
+
+    /**
+     * Remove a word, if it is in the trie.
+     *
+     * @param id the word id.
+     */
+    public void remove(long id) {
+        String wordKeys = keys.remove(id);
+        if (wordKeys == null) {
+            return;
+        }
+        for (String key : wordKeys.split("\n")) {
+            delete(root, key, 0, id);
+        }
+    }
+
+    /**
+     * Suggest the words with a key starting with a prefix.
+     *
+     * @param prefix the prefix, as typed.
+     * @param limit the maximum number of words.
+     * @return the ids of the best words, by weight then by shortest key then by id.
+     */
+    public List<Long> suggest(String prefix, int limit) {
+        String key = TextAnalyzer.jamo(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Node node = root;
+        int depth = 0;
+        while (depth < key.length()) {
+            Node child = node.child(key.charAt(depth));
+            if (child == null) {
+                return List.of();
+            }
+            int matched = commonPrefixLength(child.label, key, depth);
+            if (matched < Math.min(child.label.length, key.length() - depth)) {
+                return List.of();
+            }
+            node = child;
+            depth += child.label.length;
+        }
+
+        List<Long> ids = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        candidates.add(new Candidate(node.maxWeight, depth, node, 0));
+        while (!candidates.isEmpty() && ids.size() < limit) {
+            Candidate candidate = candidates.poll();
+            if (candidate.node == null) {
+                // A word found under two keys is suggested once, at its best
+                if (seen.add(candidate.id)) {
+                    ids.add(candidate.id);
+                }
+                continue;
+            }
+            Node current = candidate.node;
+            for (int i = 0; i < current.count; i++) {
+                candidates.add(new Candidate(current.weights[i], candidate.depth, null, current.ids[i]));
+            }
+            for (Node child : current.children) {
+                candidates.add(new Candidate(child.maxWeight, candidate.depth + child.label.length, child, 0));
+            }
+        }
+        return ids;
+    }
+
+    private void insert(Node node, String key, int offset, long id, int weight) {
+        node.maxWeight = Math.max(node.maxWeight, weight);
+        if (offset == key.length()) {
+            node.addWord(id, weight);
+            return;
+        }
+        int index = node.indexOf(key.charAt(offset));
+        if (index < 0) {
+            Node leaf = new Node(key.substring(offset).toCharArray());
+            leaf.addWord(id, weight);
+            leaf.maxWeight = weight;
+            node.addChild(-index - 1, leaf);
+            nodeCount++;
+            return;
+        }
+        Node child = node.children[index];
+        int matched = commonPrefixLength(child.label, key, offset);
+        if (matched < child.label.length) {
+            // Split the edge where the key leaves it
+            Node middle = new Node(Arrays.copyOf(child.label, matched));
+            child.label = Arrays.copyOfRange(child.label, matched, child.label.length);
+            middle.firstChars = new char[] { child.label[0] };
+            middle.children = new Node[] { child };
+            middle.maxWeight = child.maxWeight;
+            node.children[index] = middle;
+            nodeCount++;
+            child = middle;
+        }
+        insert(child, key, offset + matched, id, weight);
+    }
+
+    private void delete(Node node, String key, int offset, long id) {
+        if (offset == key.length()) {
+            node.removeWord(id);
+        } else {
+            int index = node.indexOf(key.charAt(offset));
+            if (index < 0) {
+                return;
+            }
+            Node child = node.children[index];
+            if (commonPrefixLength(child.label, key, offset) < child.label.length) {
+                return;
+            }
+            delete(child, key, offset + child.label.length, id);
+            if (child.count == 0 && child.children.length == 0) {
+                node.removeChild(index);
+                nodeCount--;
+            } else if (child.count == 0 && child.children.length == 1) {
+                // A node that neither ends a key nor branches is merged into its only child
+                Node grandChild = child.children[0];
+                char[] label = Arrays.copyOf(child.label, child.label.length + grandChild.label.length);
+                System.arraycopy(grandChild.label, 0, label, child.label.length, grandChild.label.length);
+                grandChild.label = label;
+                node.children[index] = grandChild;
+                nodeCount--;
+            }
+        }
+        node.updateMaxWeight();
+    }
+
+    private static int commonPrefixLength(char[] label, String key, int offset) {
+        int length = Math.min(label.length, key.length() - offset);
+        int i = 0;
+        while (i < length && label[i] == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * A node of the trie, with the label of the edge from its parent, its children sorted by the first character of
+     * their label, and the words whose key ends here.
+     */
+    private static final class Node {
+
+        private char[] label;
+
+        private char[] firstChars = NO_CHARS;
+
+        private Node[] children = NO_NODES;
+
+        private long[] ids = NO_IDS;
+
+        private int[] weights = NO_WEIGHTS;
+
+        private int count;
+
+        private int maxWeight = -1;
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+
+        private Node child(char c) {
+            int index = indexOf(c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private int indexOf(char c) {
+            return Arrays.binarySearch(firstChars, c);
+        }
+
+        private void addChild(int index, Node child) {
+            char[] newFirstChars = new char[firstChars.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(firstChars, 0, newFirstChars, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newFirstChars[index] = child.label[0];
+            newChildren[index] = child;
+            System.arraycopy(firstChars, index, newFirstChars, index + 1, firstChars.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            firstChars = newFirstChars;
+            children = newChildren;
+        }
+
+        private void removeChild(int index) {
+            char[] newFirstChars = new char[firstChars.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(firstChars, 0, newFirstChars, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(firstChars, index + 1, newFirstChars, index, newFirstChars.length - index);
+            System.arraycopy(children, index + 1, newChildren, index, newChildren.length - index);
+            firstChars = newFirstChars.length > 0 ? newFirstChars : NO_CHARS;
+            children = newChildren.length > 0 ? newChildren : NO_NODES;
+        }
+
+        private void addWord(long id, int weight) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(1, count * 2));
+                weights = Arrays.copyOf(weights, ids.length);
+            }
+            ids[count] = id;
+            weights[count] = weight;
+            count++;
+        }
+
+        private void removeWord(long id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    count--;
+                    ids[i] = ids[count];
+                    weights[i] = weights[count];
+                    if (count == 0) {
+                        ids = NO_IDS;
+                        weights = NO_WEIGHTS;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void updateMaxWeight() {
+            int max = -1;
+            for (int i = 0; i < count; i++) {
+                max = Math.max(max, weights[i]);
+            }
+            for (Node child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    /**
+     * A node to visit, or a word to suggest when {@code node} is {@code null}. A node is visited before the words of
+     * the same weight and depth, so that it cannot hide a better word.
+     */
+    private record Candidate(int weight, int depth, Node node, long id) implements Comparable<Candidate> {
+        @Override
+        public int compareTo(Candidate other) {
+            if (weight != other.weight) {
+                return Integer.compare(other.weight, weight);
+            }
+            if (depth != other.depth) {
+                return Integer.compare(depth, other.depth);
+            }
+            if ((node == null) != (other.node == null)) {
+                return node != null ? -1 : 1;
+            }
+            return Long.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.langleague.web.filter;
+
+import com.langleague.security.AuthoritiesConstants;
+import com.langleague.security.SecurityUtils;
+import com.langleague.service.VisitAnalyticsService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Records every API request as a visit in {@link VisitAnalyticsService}.
+ * <p>
+ * Authenticated visitors are identified by their login; anonymous visitors by their address and user agent,
+ * which are only hashed into a sketch and never stored.
+ */
+public class VisitTrackingFilter extends OncePerRequestFilter {
+
+    private final VisitAnalyticsService visitAnalyticsService;
+
+    public VisitTrackingFilter(VisitAnalyticsService visitAnalyticsService) {
+        this.visitAnalyticsService = visitAnalyticsService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String login = SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ANONYMOUS)
+            ? null
+            : SecurityUtils.getCurrentUserLogin().orElse(null);
+        visitAnalyticsService.recordVisit(login, request.getRemoteAddr() + "|" + request.getHeader(HttpHeaders.USER_AGENT));
+        filterChain.doFilter(request, response);
+    }
+}
@@ -3,6 +3,7 @@ package com.langleague.web.rest;
 import com.langleague.domain.Book;
 import com.langleague.repository.BookRepository;
 import com.langleague.security.AuthoritiesConstants;
+import com.langleague.service.CatalogSnapshotService;
 import jakarta.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -22,9 +23,11 @@ public class BookResource {
 
     private final Logger log = LoggerFactory.getLogger(BookResource.class);
     private final BookRepository bookRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
 
-    public BookResource(BookRepository bookRepository) {
+    public BookResource(BookRepository bookRepository, CatalogSnapshotService catalogSnapshotService) {
         this.bookRepository = bookRepository;
+        this.catalogSnapshotService = catalogSnapshotService;
     }
 
     /**
@@ -35,6 +38,7 @@ public class BookResource {
     public ResponseEntity<Book> createBook(@Valid @RequestBody Book book) throws URISyntaxException {
         log.debug("REST request to save Book : {}", book);
         Book result = bookRepository.save(book);
+        catalogSnapshotService.changed();
         return ResponseEntity.created(new URI("/api/books/" + result.getId())).body(result);
     }
 
@@ -47,6 +51,7 @@ public class BookResource {
         log.debug("REST request to update Book : {}", book);
         book.setId(id);
         Book result = bookRepository.save(book);
+        catalogSnapshotService.changed();
         return ResponseEntity.ok().body(result);
     }
 
@@ -96,6 +101,7 @@ public class BookResource {
     public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
         log.debug("REST request to delete Book : {}", id);
         bookRepository.deleteById(id);
+        catalogSnapshotService.changed();
         return ResponseEntity.noContent().build();
     }
 
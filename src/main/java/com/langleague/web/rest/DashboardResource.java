@@ -1,12 +1,35 @@
 package com.langleague.web.rest;
 
+import com.langleague.security.AuthoritiesConstants;
 import com.langleague.security.SecurityUtils;
+import com.langleague.service.CompletionCohortService;
+import com.langleague.service.DashboardStatsService;
+import com.langleague.service.EngagementMetrics;
+import com.langleague.service.StatisticsExportService;
+import com.langleague.service.StudyTimeRollupService;
 import com.langleague.service.UserProgressService;
+import com.langleague.service.VisitAnalyticsService;
+import com.langleague.service.dto.CompletionStatsDTO;
+import com.langleague.service.dto.DashboardStatsDTO;
+import com.langleague.service.dto.EngagementStatsDTO;
+import com.langleague.service.dto.StudyDayDTO;
+import com.langleague.service.dto.VisitReportDTO;
+import com.langleague.web.rest.errors.BadRequestAlertException;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.Callable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for dashboard statistics.
@@ -19,142 +42,225 @@ public class DashboardResource {
 
     private final UserProgressService userProgressService;
 
-    public DashboardResource(UserProgressService userProgressService) {
+    private final DashboardStatsService dashboardStatsService;
+
+    private final StudyTimeRollupService studyTimeRollupService;
+
+    private final VisitAnalyticsService visitAnalyticsService;
+
+    private final StatisticsExportService statisticsExportService;
+
+    private final CompletionCohortService completionCohortService;
+
+    private final EngagementMetrics engagementMetrics;
+
+    public DashboardResource(
+        UserProgressService userProgressService,
+        DashboardStatsService dashboardStatsService,
+        StudyTimeRollupService studyTimeRollupService,
+        VisitAnalyticsService visitAnalyticsService,
+        StatisticsExportService statisticsExportService,
+        CompletionCohortService completionCohortService,
+        EngagementMetrics engagementMetrics
+    ) {
         this.userProgressService = userProgressService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.studyTimeRollupService = studyTimeRollupService;
+        this.visitAnalyticsService = visitAnalyticsService;
+        this.statisticsExportService = statisticsExportService;
+        this.completionCohortService = completionCohortService;
+        this.engagementMetrics = engagementMetrics;
     }
 
     /**
      * GET /dashboard/stats : Get dashboard statistics for current user
      */
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getDashboardStats() {
+    public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
         LOG.debug("REST request to get dashboard stats");
+        String login = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new RuntimeException("User not authenticated"));
+        return ResponseEntity.ok(dashboardStatsService.getStats(login));
+    }
 
-        // For now, return mock data until we implement proper stats calculation
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("wordsLearned", 256);
-        stats.put("quizzesCompleted", 4);
-        stats.put("courseProgress", 32);
-        stats.put("languagesStudying", 10);
-        stats.put("totalLessons", 45);
-        stats.put("completedLessons", 15);
-        stats.put("currentStreak", 7);
-        stats.put("longestStreak", 21);
-
-        return ResponseEntity.ok(stats);
+    /**
+     * {@code POST /dashboard/admin/stats/rebuild} : Recompute every user's dashboard statistics from the source tables.
+     *
+     * @return the number of users processed.
+     */
+    @PostMapping("/admin/stats/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Map<String, Object>> rebuildDashboardStats() {
+        LOG.debug("REST request to rebuild dashboard stats");
+        int processed = dashboardStatsService.rebuildAll();
+        return ResponseEntity.ok(Map.of("usersProcessed", processed));
     }
 
     /**
-     * GET /dashboard/weekly-progress : Get weekly study progress
+     * GET /dashboard/weekly-progress : Get the study hours of the current user for each day of the current week,
+     * in the user's time zone.
      */
     @GetMapping("/weekly-progress")
     public ResponseEntity<List<Map<String, Object>>> getWeeklyProgress() {
         LOG.debug("REST request to get weekly progress");
+        String login = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new RuntimeException("User not authenticated"));
+        return ResponseEntity.ok(studyTimeRollupService.getWeeklyProgress(login));
+    }
 
-        // Mock data for weekly progress
-        List<Map<String, Object>> weeklyData = Arrays.asList(
-            createDayProgress("Mon", 2.0),
-            createDayProgress("Tue", 3.0),
-            createDayProgress("Wed", 1.5),
-            createDayProgress("Thu", 4.0),
-            createDayProgress("Fri", 2.5),
-            createDayProgress("Sat", 3.5),
-            createDayProgress("Sun", 2.0)
-        );
-
-        return ResponseEntity.ok(weeklyData);
+    /**
+     * {@code GET /dashboard/study-time} : Get the study time of the current user for each day of a range of at most 366 days.
+     *
+     * @param from the first day, in the user's time zone.
+     * @param to the last day, in the user's time zone.
+     * @return the study time of each day.
+     */
+    @GetMapping("/study-time")
+    public ResponseEntity<List<StudyDayDTO>> getDailyStudyTime(@RequestParam LocalDate from, @RequestParam LocalDate to) {
+        LOG.debug("REST request to get daily study time from {} to {}", from, to);
+        String login = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new RuntimeException("User not authenticated"));
+        try {
+            return ResponseEntity.ok(studyTimeRollupService.getDailyStudyTime(login, from, to));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), "studyDayRollup", "invalidrange");
+        }
     }
 
-    private Map<String, Object> createDayProgress(String day, Double hours) {
-        Map<String, Object> dayData = new HashMap<>();
-        dayData.put("day", day);
-        dayData.put("hours", hours);
-        return dayData;
+    /**
+     * {@code POST /dashboard/admin/study-time/backfill} : Rebuild the daily study-time buckets from the existing study sessions.
+     *
+     * @return the number of sessions processed.
+     */
+    @PostMapping("/admin/study-time/backfill")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Map<String, Object>> backfillStudyTime() {
+        LOG.debug("REST request to backfill daily study time");
+        long processed = studyTimeRollupService.backfill();
+        return ResponseEntity.ok(Map.of("sessionsProcessed", processed));
     }
 
     /**
-     * {@code GET /dashboard/admin/user-visits} : Get user visit statistics.
+     * {@code GET /dashboard/admin/user-visits} : Get user visit statistics of the last 30 days.
      * Use case 54: View user visit reports (Admin)
+     * <p>
+     * Unique counts are HyperLogLog estimates, within about 1.6% of the true count (one standard error).
      */
     @GetMapping("/admin/user-visits")
-    public ResponseEntity<Map<String, Object>> getUserVisitReports() {
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<VisitReportDTO> getUserVisitReports() {
         LOG.debug("REST request to get user visit reports");
-
-        Map<String, Object> visitStats = new HashMap<>();
-        visitStats.put("totalVisits", 15420);
-        visitStats.put("uniqueUsers", 3245);
-        visitStats.put("avgSessionDuration", "12m 35s");
-        visitStats.put("bounceRate", 23.5);
-        visitStats.put("monthlyGrowth", 15.2);
-
-        return ResponseEntity.ok(visitStats);
+        return ResponseEntity.ok(visitAnalyticsService.getReport());
     }
 
     /**
      * {@code GET /dashboard/admin/completion-stats} : Get student completion statistics.
      * Use case 55: View completion statistics (Admin)
+     * <p>
+     * Served from the precomputed lesson cohorts; {@code refreshedAt} and {@code updatedAt} in the response tell how fresh they are.
+     *
+     * @param groupBy the breakdown: {@code book}, {@code chapter} or {@code level}.
+     * @param bookId drill down into one book.
+     * @param level drill down into one level.
      */
     @GetMapping("/admin/completion-stats")
-    public ResponseEntity<Map<String, Object>> getCompletionStatistics() {
-        LOG.debug("REST request to get completion statistics");
-
-        Map<String, Object> completionStats = new HashMap<>();
-        completionStats.put("totalStudents", 3245);
-        completionStats.put("completedCourses", 892);
-        completionStats.put("inProgress", 1876);
-        completionStats.put("notStarted", 477);
-        completionStats.put("averageCompletion", 67.5);
-        completionStats.put("completionRate", 27.5);
-
-        return ResponseEntity.ok(completionStats);
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<CompletionStatsDTO> getCompletionStatistics(
+        @RequestParam(defaultValue = "book") String groupBy,
+        @RequestParam(required = false) Long bookId,
+        @RequestParam(required = false) String level
+    ) {
+        LOG.debug("REST request to get completion statistics by {} for book {} and level {}", groupBy, bookId, level);
+        CompletionCohortService.GroupBy dimension = CompletionCohortService.GroupBy.fromName(groupBy).orElseThrow(() ->
+            new BadRequestAlertException("Unknown breakdown " + groupBy, "lessonCompletionCohort", "invalidgroupby")
+        );
+        return ResponseEntity.ok(completionCohortService.getStats(dimension, bookId, level));
+    }
+
+    /**
+     * {@code POST /dashboard/admin/completion-stats/refresh} : Recompute the lesson cohorts behind the completion statistics.
+     *
+     * @return the number of rows written.
+     */
+    @PostMapping("/admin/completion-stats/refresh")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Map<String, Object>> refreshCompletionStatistics() {
+        LOG.debug("REST request to refresh completion statistics");
+        int rows = completionCohortService.refresh();
+        return ResponseEntity.ok(Map.of("rowsWritten", rows));
     }
 
     /**
      * {@code GET /dashboard/admin/engagement-stats} : Get engagement statistics.
      * Use case 56: View engagement statistics (Admin)
+     * <p>
+     * Served from the hourly engagement counters of the last 30 days, plus what has not been flushed yet.
      */
     @GetMapping("/admin/engagement-stats")
-    public ResponseEntity<Map<String, Object>> getEngagementStatistics() {
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<EngagementStatsDTO> getEngagementStatistics() {
         LOG.debug("REST request to get engagement statistics");
-
-        Map<String, Object> engagementStats = new HashMap<>();
-        engagementStats.put("videoViews", 45678);
-        engagementStats.put("quizzesAttempted", 23456);
-        engagementStats.put("commentsPosted", 8765);
-        engagementStats.put("averageQuizScore", 78.5);
-        engagementStats.put("activeUsers", 2145);
-        engagementStats.put("dailyActiveUsers", 890);
-
-        return ResponseEntity.ok(engagementStats);
+        return ResponseEntity.ok(engagementMetrics.getStats());
     }
 
     /**
      * {@code GET /dashboard/admin/export-stats} : Export statistics as CSV/Excel.
      * Use case 64: Export statistics (Admin)
+     * <p>
+     * The file is streamed from a database cursor as it is read. The {@code X-Export-Id} response header
+     * identifies the download, which can be cancelled with {@code DELETE /dashboard/admin/export-stats/{exportId}}.
      *
      * @param format the export format (csv or excel).
-     * @param type the type of statistics to export.
-     * @return the file content as byte array.
+     * @param type the data to export (sessions, results, progress or users).
+     * @param from the start of the date range, inclusive, optional.
+     * @param to the end of the date range, exclusive, optional.
+     * @param request the request, to release the export once the response is complete.
+     * @return the streamed file.
      */
     @GetMapping("/admin/export-stats")
-    public ResponseEntity<String> exportStatistics(
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<StreamingResponseBody> exportStatistics(
         @RequestParam(defaultValue = "csv") String format,
-        @RequestParam(defaultValue = "all") String type
+        @RequestParam(defaultValue = "sessions") String type,
+        @RequestParam(required = false) Instant from,
+        @RequestParam(required = false) Instant to,
+        HttpServletRequest request
     ) {
         LOG.debug("REST request to export statistics in format: {} for type: {}", format, type);
+        StatisticsExportService.ExportFormat exportFormat = StatisticsExportService.ExportFormat.fromName(format).orElseThrow(() ->
+            new BadRequestAlertException("Unknown export format " + format, "export", "invalidformat")
+        );
+        StatisticsExportService.ExportType exportType = StatisticsExportService.ExportType.fromName(type).orElseThrow(() ->
+            new BadRequestAlertException("Unknown export type " + type, "export", "invalidtype")
+        );
 
-        // Mock CSV export
-        StringBuilder csv = new StringBuilder();
-        csv.append("Metric,Value\n");
-        csv.append("Total Users,3245\n");
-        csv.append("Active Users,2145\n");
-        csv.append("Total Lessons,45\n");
-        csv.append("Completed Lessons,892\n");
-        csv.append("Average Progress,67.5%\n");
-
+        String exportId = statisticsExportService.register();
+        // Also runs when the body never starts, e.g. when the client goes away first
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(
+            exportId,
+            new CallableProcessingInterceptor() {
+                @Override
+                public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                    statisticsExportService.release(exportId);
+                }
+            }
+        );
+        StreamingResponseBody body = out -> statisticsExportService.export(exportId, exportType, exportFormat, from, to, out);
+        String filename = "statistics-" + exportType.name().toLowerCase(Locale.ROOT) + "." + exportFormat.getExtension();
         return ResponseEntity.ok()
-            .header("Content-Disposition", "attachment; filename=statistics." + format)
-            .header("Content-Type", "text/csv")
-            .body(csv.toString());
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+            .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType())
+            .header("X-Export-Id", exportId)
+            .body(body);
+    }
+
+    /**
+     * {@code DELETE /dashboard/admin/export-stats/:exportId} : Cancel a running export.
+     *
+     * @param exportId the id of the export, from the {@code X-Export-Id} header.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or {@code 404 (Not Found)} if the export is not running.
+     */
+    @DeleteMapping("/admin/export-stats/{exportId}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> cancelExport(@PathVariable String exportId) {
+        LOG.debug("REST request to cancel export : {}", exportId);
+        return statisticsExportService.cancel(exportId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 }
@@ -0,0 +1,60 @@
+package com.langleague.web.rest;
+
+import com.langleague.service.ExerciseSearchService;
+import com.langleague.service.dto.ExerciseSearchHitDTO;
+import com.langleague.service.search.ExerciseSearchIndex;
+import com.langleague.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for searching the text of the exercises of every skill.
+ */
+@RestController
+@RequestMapping("/api/exercises")
+public class ExerciseSearchResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExerciseSearchResource.class);
+
+    private static final String ENTITY_NAME = "exercise";
+
+    private final ExerciseSearchService exerciseSearchService;
+
+    public ExerciseSearchResource(ExerciseSearchService exerciseSearchService) {
+        this.exerciseSearchService = exerciseSearchService;
+    }
+
+    /**
+     * {@code GET  /exercises/search} : search the passages, transcripts, prompts and questions of the exercises.
+     *
+     * @param q the words and {@code "quoted phrases"} the exercises must all contain.
+     * @param type only return the exercises of this skill: {@code listening}, {@code speaking}, {@code reading} or
+     * {@code writing}.
+     * @param lessonId only return the exercises of this lesson.
+     * @param level only return the exercises of the lessons of this level.
+     * @param limit the maximum number of exercises, at most {@value ExerciseSearchService#MAX_LIMIT}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the matching exercises, best first, or with
+     * status {@code 400 (Bad Request)} if the skill is unknown.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ExerciseSearchHitDTO>> searchExercises(
+        @RequestParam("q") String q,
+        @RequestParam(name = "type", required = false) String type,
+        @RequestParam(name = "lessonId", required = false) Long lessonId,
+        @RequestParam(name = "level", required = false) String level,
+        @RequestParam(name = "limit", defaultValue = "20") int limit
+    ) {
+        LOG.debug("REST request to search {} exercises of lesson {} and level {} : {}", type, lessonId, level, q);
+        ExerciseSearchIndex.Type skill = type != null ? parseType(type) : null;
+        return ResponseEntity.ok().body(exerciseSearchService.search(q, skill, lessonId, level, limit));
+    }
+
+    private static ExerciseSearchIndex.Type parseType(String type) {
+        return ExerciseSearchIndex.Type.fromName(type).orElseThrow(() ->
+            new BadRequestAlertException("Unknown exercise type " + type, ENTITY_NAME, "invalidtype")
+        );
+    }
+}
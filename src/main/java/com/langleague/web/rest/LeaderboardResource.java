@@ -0,0 +1,84 @@
+package com.langleague.web.rest;
+
+import com.langleague.security.SecurityUtils;
+import com.langleague.service.LeaderboardService;
+import com.langleague.service.dto.LeaderboardEntryDTO;
+import com.langleague.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the XP leaderboards.
+ */
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeaderboardResource.class);
+
+    private static final String ENTITY_NAME = "leaderboard";
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardResource(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    /**
+     * {@code GET  /leaderboard} : get a page of a leaderboard, best first.
+     *
+     * @param period {@code weekly} or {@code all-time}.
+     * @param offset the number of users to skip.
+     * @param limit the number of users, at most {@value LeaderboardService#MAX_LIMIT}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of ranked users in body.
+     */
+    @GetMapping("")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboard(
+        @RequestParam(defaultValue = "weekly") String period,
+        @RequestParam(defaultValue = "0") int offset,
+        @RequestParam(defaultValue = "10") int limit
+    ) {
+        LOG.debug("REST request to get the {} leaderboard from {} ({})", period, offset, limit);
+        return ResponseEntity.ok(leaderboardService.getTop(parsePeriod(period), offset, limit));
+    }
+
+    /**
+     * {@code GET  /leaderboard/me} : get the rank of the current user.
+     *
+     * @param period {@code weekly} or {@code all-time}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the rank in body, rank 0 if the user has no XP,
+     * or with status {@code 404 (Not Found)} if the user has no profile.
+     */
+    @GetMapping("/me")
+    public ResponseEntity<LeaderboardEntryDTO> getMyRank(@RequestParam(defaultValue = "weekly") String period) {
+        LOG.debug("REST request to get the rank of the current user in the {} leaderboard", period);
+        String login = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new RuntimeException("User not authenticated"));
+        return ResponseUtil.wrapOrNotFound(leaderboardService.getRank(parsePeriod(period), login));
+    }
+
+    /**
+     * {@code GET  /leaderboard/users/:appUserId} : get the rank of a user.
+     *
+     * @param appUserId the id of the user profile.
+     * @param period {@code weekly} or {@code all-time}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the rank in body, rank 0 if the user has no XP.
+     */
+    @GetMapping("/users/{appUserId}")
+    public ResponseEntity<LeaderboardEntryDTO> getUserRank(
+        @PathVariable("appUserId") Long appUserId,
+        @RequestParam(defaultValue = "weekly") String period
+    ) {
+        LOG.debug("REST request to get the rank of user {} in the {} leaderboard", appUserId, period);
+        return ResponseEntity.ok(leaderboardService.getRank(parsePeriod(period), appUserId));
+    }
+
+    private static LeaderboardService.Period parsePeriod(String period) {
+        return LeaderboardService.Period.fromName(period).orElseThrow(() ->
+            new BadRequestAlertException("Unknown leaderboard " + period, ENTITY_NAME, "invalidperiod")
+        );
+    }
+}
@@ -1,13 +1,33 @@
 package com.langleague.web.rest;
 
+import com.langleague.service.LessonBundleService;
+import com.langleague.service.LessonDetailService;
 import com.langleague.service.LessonService;
+import com.langleague.service.ProgressVersionService;
+import com.langleague.service.bundle.LessonBundleStore.Bundle;
 import com.langleague.service.dto.LessonDTO;
+import com.langleague.service.dto.LessonDetailDTO;
+import com.langleague.service.dto.LessonOverviewDTO;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api")
@@ -15,29 +35,39 @@ public class LessonResource {
 
     private final Logger log = LoggerFactory.getLogger(LessonResource.class);
     private final LessonService lessonService;
+    private final LessonDetailService lessonDetailService;
+    private final LessonBundleService lessonBundleService;
 
-    public LessonResource(LessonService lessonService) {
+    public LessonResource(LessonService lessonService, LessonDetailService lessonDetailService, LessonBundleService lessonBundleService) {
         this.lessonService = lessonService;
+        this.lessonDetailService = lessonDetailService;
+        this.lessonBundleService = lessonBundleService;
     }
 
+    /**
+     * {@code GET  /lessons} : Get the lessons with the completion of the current user by chapter and by book.
+     *
+     * @param chapter the id of the chapter to list the lessons of (optional).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the lessons and completion in body.
+     */
     @GetMapping("/lessons")
-    public ResponseEntity<Map<String, Object>> getAllLessons(@RequestParam(required = false) Integer chapter) {
-        List<LessonDTO> lessons = chapter != null ? lessonService.getLessonsByChapter(chapter) : lessonService.getAllLessonsWithProgress();
-
-        List<Integer> chapters = lessonService.getAllChapters();
-
-        // Calculate progress statistics - simplified without status field
-        long completedLessons = 0;
+    public ResponseEntity<Map<String, Object>> getAllLessons(@RequestParam(required = false) Long chapter) {
+        log.debug("REST request to get Lessons for chapter : {}", chapter);
+        LessonOverviewDTO overview = lessonService.getLessonOverview(chapter);
 
         Map<String, Object> response = Map.of(
             "lessons",
-            lessons,
+            overview.getLessons(),
             "chapters",
-            chapters,
+            overview.getChapters(),
             "totalLessons",
-            lessons.size(),
+            overview.getTotalLessons(),
             "completedLessons",
-            completedLessons,
+            overview.getCompletedLessons(),
+            "chapterCompletions",
+            overview.getChapterCompletions(),
+            "bookCompletions",
+            overview.getBookCompletions(),
             "bookInfo",
             Map.of(
                 "title",
@@ -93,6 +123,86 @@ public class LessonResource {
         return lessonService.findOne(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * {@code GET  /lessons/:id/detail} : Get the "id" lesson with its words, skills and exercises.
+     * Use case 17: View lesson details
+     *
+     * @param id the id of the lesson to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the lesson details, or with status
+     * {@code 404 (Not Found)}.
+     */
+    @GetMapping("/lessons/{id}/detail")
+    public ResponseEntity<LessonDetailDTO> getLessonDetail(@PathVariable Long id) {
+        log.debug("REST request to get the details of Lesson : {}", id);
+        return lessonDetailService.getLessonDetail(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code GET  /lessons/:id/bundle} : Get the content bundle of the "id" lesson: its details, word examples and media
+     * files in one JSON document, gzip-compressed if the client accepts it.
+     * <p>
+     * The bundle is a precompressed file, copied to the response by the file channel. Its ETag is the hash of its
+     * content: a request with the current version in {@code v} may be cached for a year, other requests have to
+     * revalidate it.
+     *
+     * @param id the id of the lesson.
+     * @param version the version of the bundle, from the ETag of a previous download (optional).
+     * @param ifNoneMatch the ETag of the bundle the client already has, if any.
+     * @param acceptEncoding the encodings the client accepts.
+     * @param response the response, with status {@code 200 (OK)} and the bundle in body, or with status
+     * {@code 304 (Not Modified)} if the client has the current bundle.
+     * @throws IOException if the bundle cannot be sent.
+     * @throws ResponseStatusException with status {@code 404 (Not Found)} if the lesson is not published.
+     */
+    @GetMapping("/lessons/{id}/bundle")
+    public void getLessonBundle(
+        @PathVariable Long id,
+        @RequestParam(value = "v", required = false) String version,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to get the bundle of Lesson : {}", id);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        // The bundle may be replaced, and its files deleted, between looking it up and opening it
+        for (int attempt = 0; ; attempt++) {
+            Bundle bundle = lessonBundleService
+                .getBundle(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson not published: " + id));
+            String etag = "\"" + bundle.version() + (gzip ? "-gzip" : "") + "\"";
+            CacheControl cacheControl = bundle.version().equals(version)
+                ? CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate();
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (ProgressVersionService.matches(ifNoneMatch, etag)) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return;
+            }
+            Path file = gzip ? bundle.gzip() : bundle.json();
+            try (FileChannel channel = FileChannel.open(file)) {
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                if (gzip) {
+                    response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                }
+                long size = channel.size();
+                response.setContentLengthLong(size);
+                WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+                for (long position = 0; position < size; ) {
+                    position += channel.transferTo(position, size - position, out);
+                }
+                return;
+            } catch (NoSuchFileException e) {
+                if (attempt > 0) {
+                    throw e;
+                }
+                // Replaced meanwhile, or deleted from the disk: rendered again then
+                lessonBundleService.bundleMissing(bundle);
+            }
+        }
+    }
+
     /**
      * {@code GET  /lessons/search} : Search lessons.
      * Use case 18: Search lessons by name, topic, level or vocabulary
@@ -114,14 +224,16 @@ public class LessonResource {
     /**
      * {@code GET  /lessons/recommendations} : Get lesson recommendations.
      * Use case 27: Get lesson recommendations appropriate for user level
+     * <p>
+     * Personalized from the lessons the current user took, then filled with the lessons of the level.
      *
-     * @param level user's current level.
+     * @param level user's current level; if absent, any level, filled with beginner lessons.
      * @param limit maximum number of recommendations (default 10).
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of lessons.
      */
     @GetMapping("/lessons/recommendations")
     public ResponseEntity<List<LessonDTO>> getRecommendations(
-        @RequestParam(required = false, defaultValue = "beginner") String level,
+        @RequestParam(required = false) String level,
         @RequestParam(required = false, defaultValue = "10") int limit
     ) {
         log.debug("REST request to get lesson recommendations for level: {}", level);
@@ -156,4 +268,16 @@ public class LessonResource {
         LessonDTO result = lessonService.unpublishLesson(id);
         return ResponseEntity.ok().body(result);
     }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        return Arrays.stream(acceptEncoding.split(",")).map(String::trim).anyMatch(coding -> {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean refused = parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?");
+            return !refused && (name.equalsIgnoreCase("gzip") || name.equals("*"));
+        });
+    }
 }
@@ -162,6 +162,21 @@ public class MediaFileResource {
         return ResponseUtil.wrapOrNotFound(mediaFileDTO);
     }
 
+    /**
+     * {@code POST  /media-files/:id/play} : record a playback of the "id" mediaFile.
+     *
+     * @param id the id of the mediaFileDTO that was played.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/{id}/play")
+    public ResponseEntity<Void> playMediaFile(@PathVariable("id") Long id) {
+        LOG.debug("REST request to record playback of MediaFile : {}", id);
+        if (!mediaFileService.recordPlayback(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * {@code DELETE  /media-files/:id} : delete the "id" mediaFile.
      *
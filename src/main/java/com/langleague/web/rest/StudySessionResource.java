@@ -3,8 +3,11 @@ package com.langleague.web.rest;
 import com.langleague.domain.StudySession;
 import com.langleague.repository.StudySessionRepository;
 import com.langleague.security.AuthoritiesConstants;
+import com.langleague.service.StudySessionRegistry;
 import com.langleague.service.StudySessionService;
+import com.langleague.service.dto.SeekCursor;
 import com.langleague.service.dto.StudySessionDTO;
+import com.langleague.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -14,6 +17,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -22,13 +27,21 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api")
 public class StudySessionResource {
 
+    private static final String ENTITY_NAME = "studySession";
+
     private final Logger log = LoggerFactory.getLogger(StudySessionResource.class);
     private final StudySessionRepository studySessionRepository;
     private final StudySessionService studySessionService;
+    private final StudySessionRegistry studySessionRegistry;
 
-    public StudySessionResource(StudySessionRepository studySessionRepository, StudySessionService studySessionService) {
+    public StudySessionResource(
+        StudySessionRepository studySessionRepository,
+        StudySessionService studySessionService,
+        StudySessionRegistry studySessionRegistry
+    ) {
         this.studySessionRepository = studySessionRepository;
         this.studySessionService = studySessionService;
+        this.studySessionRegistry = studySessionRegistry;
     }
 
     /**
@@ -67,6 +80,40 @@ public class StudySessionResource {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * USER: Keep a study session open; sessions without heartbeat are closed by the server after a while
+     */
+    @PutMapping("/study-sessions/{id}/heartbeat")
+    @PreAuthorize(
+        "hasAnyAuthority(\"" +
+        AuthoritiesConstants.ADMIN +
+        "\", \"" +
+        AuthoritiesConstants.STAFF +
+        "\", \"" +
+        AuthoritiesConstants.USER +
+        "\")"
+    )
+    public ResponseEntity<Void> heartbeat(@PathVariable Long id) {
+        return studySessionService.heartbeat(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * USER: Get the number of users studying right now
+     */
+    @GetMapping("/study-sessions/activity")
+    @PreAuthorize(
+        "hasAnyAuthority(\"" +
+        AuthoritiesConstants.ADMIN +
+        "\", \"" +
+        AuthoritiesConstants.STAFF +
+        "\", \"" +
+        AuthoritiesConstants.USER +
+        "\")"
+    )
+    public ResponseEntity<StudySessionDTO.Activity> getActivity() {
+        return ResponseEntity.ok(studySessionRegistry.getActivity());
+    }
+
     /**
      * USER: Get my study sessions
      */
@@ -85,6 +132,27 @@ public class StudySessionResource {
         return ResponseEntity.ok().body(page.getContent());
     }
 
+    /**
+     * USER: Scroll through my study sessions, newest first, following the {@code X-Next-Cursor} header
+     */
+    @GetMapping("/study-sessions/my/scroll")
+    @PreAuthorize(
+        "hasAnyAuthority(\"" +
+        AuthoritiesConstants.ADMIN +
+        "\", \"" +
+        AuthoritiesConstants.STAFF +
+        "\", \"" +
+        AuthoritiesConstants.USER +
+        "\")"
+    )
+    public ResponseEntity<List<StudySession>> scrollMyStudySessions(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        Slice<StudySession> slice = studySessionService.getCurrentUserSessions(decodeCursor(cursor), SeekCursor.pageSize(size));
+        return ResponseEntity.ok().headers(nextCursorHeaders(slice)).body(slice.getContent());
+    }
+
     /**
      * USER: Get my study statistics
      */
@@ -115,6 +183,20 @@ public class StudySessionResource {
         return ResponseEntity.ok().body(page.getContent());
     }
 
+    /**
+     * STAFF/ADMIN: Scroll through user's study sessions, newest first, following the {@code X-Next-Cursor} header
+     */
+    @GetMapping("/study-sessions/user/{userId}/scroll")
+    @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.ADMIN + "\", \"" + AuthoritiesConstants.STAFF + "\")")
+    public ResponseEntity<List<StudySession>> scrollUserStudySessions(
+        @PathVariable Long userId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        Slice<StudySession> slice = studySessionService.getUserSessions(userId, decodeCursor(cursor), SeekCursor.pageSize(size));
+        return ResponseEntity.ok().headers(nextCursorHeaders(slice)).body(slice.getContent());
+    }
+
     /**
      * STAFF/ADMIN: Get user's study statistics
      */
@@ -146,7 +228,7 @@ public class StudySessionResource {
     @DeleteMapping("/study-sessions/{id}")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
     public ResponseEntity<Void> deleteStudySession(@PathVariable Long id) {
-        studySessionRepository.deleteById(id);
+        studySessionService.deleteSession(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -170,4 +252,20 @@ public class StudySessionResource {
         StudySession result = studySessionService.updateProgress(id, progressUpdate);
         return ResponseEntity.ok(result);
     }
+
+    private static SeekCursor decodeCursor(String cursor) {
+        try {
+            return cursor != null ? SeekCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
+    private static HttpHeaders nextCursorHeaders(Slice<StudySession> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        SeekCursor.next(slice, session -> new SeekCursor(session.getStartTime(), session.getId())).ifPresent(next ->
+            headers.add(SeekCursor.NEXT_CURSOR_HEADER, next.encode())
+        );
+        return headers;
+    }
 }
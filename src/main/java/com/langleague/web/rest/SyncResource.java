@@ -0,0 +1,49 @@
+package com.langleague.web.rest;
+
+import com.langleague.service.SyncService;
+import com.langleague.service.dto.SyncDTO;
+import com.langleague.web.rest.errors.BadRequestAlertException;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the delta sync of the data of the current user.
+ */
+@RestController
+@RequestMapping("/api/sync")
+public class SyncResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SyncResource.class);
+
+    private static final String ENTITY_NAME = "sync";
+
+    private final SyncService syncService;
+
+    public SyncResource(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /**
+     * {@code GET  /sync} : get the data of the current user changed since the previous sync.
+     *
+     * @param since the token returned by the previous sync, or nothing to get all the data.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the changes in body,
+     * or with status {@code 400 (Bad Request)} if the token is invalid,
+     * or with status {@code 404 (Not Found)} if the user has no profile.
+     */
+    @GetMapping("")
+    public ResponseEntity<SyncDTO> sync(@RequestParam(required = false) String since) {
+        LOG.debug("REST request to sync the current user since {}", since);
+        Optional<SyncDTO> sync;
+        try {
+            sync = syncService.syncCurrentUser(since);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid sync token", ENTITY_NAME, "tokeninvalid");
+        }
+        return ResponseUtil.wrapOrNotFound(sync);
+    }
+}
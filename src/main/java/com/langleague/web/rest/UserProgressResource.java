@@ -1,7 +1,14 @@
 package com.langleague.web.rest;
 
 import com.langleague.repository.UserProgressRepository;
+import com.langleague.security.AuthoritiesConstants;
+import com.langleague.security.SecurityUtils;
+import com.langleague.service.ProgressVersionService;
 import com.langleague.service.UserProgressService;
+import com.langleague.service.UserProgressSyncService;
+import com.langleague.service.dto.SeekCursor;
+import com.langleague.service.dto.UserProgressBatchDTO;
+import com.langleague.service.dto.UserProgressBatchResultDTO;
 import com.langleague.service.dto.UserProgressDTO;
 import com.langleague.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
@@ -14,8 +21,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
@@ -33,6 +43,8 @@ public class UserProgressResource {
 
     private static final String ENTITY_NAME = "userProgress";
 
+    private static final String MY_PROGRESS_VIEW = "myprogress";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -40,9 +52,20 @@ public class UserProgressResource {
 
     private final UserProgressRepository userProgressRepository;
 
-    public UserProgressResource(UserProgressService userProgressService, UserProgressRepository userProgressRepository) {
+    private final UserProgressSyncService userProgressSyncService;
+
+    private final ProgressVersionService progressVersionService;
+
+    public UserProgressResource(
+        UserProgressService userProgressService,
+        UserProgressRepository userProgressRepository,
+        UserProgressSyncService userProgressSyncService,
+        ProgressVersionService progressVersionService
+    ) {
         this.userProgressService = userProgressService;
         this.userProgressRepository = userProgressRepository;
+        this.userProgressSyncService = userProgressSyncService;
+        this.progressVersionService = progressVersionService;
     }
 
     /**
@@ -198,7 +221,8 @@ public class UserProgressResource {
      * Use case 25: Save progress
      *
      * @param progressData the progress data (appUserId, lessonId, percent).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the userProgressDTO.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the userProgressDTO,
+     * or with status {@code 400 (Bad Request)} if the user or the lesson does not exist.
      */
     @PostMapping("/save")
     public ResponseEntity<UserProgressDTO> saveProgress(@RequestBody java.util.Map<String, Object> progressData) {
@@ -207,10 +231,52 @@ public class UserProgressResource {
         Long lessonId = Long.valueOf(progressData.get("lessonId").toString());
         Integer percent = Integer.valueOf(progressData.get("percent").toString());
 
-        UserProgressDTO result = userProgressService.saveProgress(appUserId, lessonId, percent);
+        UserProgressDTO result;
+        try {
+            result = userProgressService.saveProgress(appUserId, lessonId, percent);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "idnotfound");
+        }
         return ResponseEntity.ok().body(result);
     }
 
+    /**
+     * {@code POST  /user-progresses/batch} : Sync lesson progress recorded by a client, e.g. while offline.
+     * Items are applied in one transaction, last-writer-wins on their {@code clientTimestamp}.
+     * <p>
+     * The progress is the current user's: only an admin may sync the progress of another user, by setting its
+     * {@code appUserId}.
+     *
+     * @param batch the progress items, and optionally the user ID.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each item, in order,
+     * or with status {@code 400 (Bad Request)} if the items or the user's profile are missing or there are too many items,
+     * or with status {@code 403 (Forbidden)} if the user ID is another user's and the current user is not an admin.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserProgressBatchResultDTO>> syncProgress(@RequestBody UserProgressBatchDTO batch) {
+        LOG.debug("REST request to sync progress : {}", batch);
+        if (batch.getItems() == null) {
+            throw new BadRequestAlertException("The items are required", ENTITY_NAME, "batchinvalid");
+        }
+        if (batch.getItems().size() > UserProgressSyncService.MAX_ITEMS) {
+            throw new BadRequestAlertException(
+                "At most " + UserProgressSyncService.MAX_ITEMS + " items per batch",
+                ENTITY_NAME,
+                "batchtoolarge"
+            );
+        }
+        Optional<Long> currentAppUserId = userProgressService.getCurrentAppUserId();
+        Long appUserId = batch.getAppUserId() != null ? batch.getAppUserId() : currentAppUserId.orElse(null);
+        if (appUserId == null) {
+            throw new BadRequestAlertException("The current user has no profile", ENTITY_NAME, "batchinvalid");
+        }
+        boolean ownProgress = currentAppUserId.filter(appUserId::equals).isPresent();
+        if (!ownProgress && !SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ADMIN)) {
+            throw new AccessDeniedException("Only an admin may sync the progress of another user");
+        }
+        return ResponseEntity.ok().body(userProgressSyncService.syncProgress(appUserId, batch.getItems()));
+    }
+
     /**
      * {@code GET  /user-progresses/user/:appUserId} : Get progress for user.
      * Use case 26: View learning progress
@@ -236,25 +302,76 @@ public class UserProgressResource {
      *
      * @param appUserId the user ID.
      * @param lessonId the lesson ID.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the userProgressDTO.
+     * @param ifNoneMatch the ETag of the progress the client already has, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the userProgressDTO,
+     * or with status {@code 304 (Not Modified)} if the progress of the user did not change.
      */
     @GetMapping("/user/{appUserId}/lesson/{lessonId}")
-    public ResponseEntity<UserProgressDTO> getLessonProgress(@PathVariable Long appUserId, @PathVariable Long lessonId) {
+    public ResponseEntity<UserProgressDTO> getLessonProgress(
+        @PathVariable Long appUserId,
+        @PathVariable Long lessonId,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         LOG.debug("REST request to get lesson progress for user {} and lesson {}", appUserId, lessonId);
+        String etag = progressVersionService.etag(appUserId);
+        if (ProgressVersionService.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
         Optional<UserProgressDTO> result = userProgressService.getLessonProgress(appUserId, lessonId);
-        return ResponseUtil.wrapOrNotFound(result);
+        return result.map(dto -> ResponseEntity.ok().eTag(etag).body(dto)).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
      * {@code GET  /user-progresses/myprogress} : Get current user's progress.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of user progresses.
+     * @param ifNoneMatch the ETag of the progress the client already has, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of user progresses,
+     * or with status {@code 304 (Not Modified)} if the progress of the user did not change.
      */
     @GetMapping("/myprogress")
-    public ResponseEntity<List<UserProgressDTO>> getMyProgress() {
+    public ResponseEntity<List<UserProgressDTO>> getMyProgress(
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         LOG.debug("REST request to get current user's progress");
-        List<UserProgressDTO> progresses = userProgressService.getCurrentUserProgress();
-        return ResponseEntity.ok().body(progresses);
+        Optional<Long> appUserId = userProgressService.getCurrentAppUserId();
+        if (appUserId.isEmpty()) {
+            return ResponseEntity.ok().body(List.of());
+        }
+        String etag = progressVersionService.etag(appUserId.orElseThrow());
+        if (ProgressVersionService.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        ProgressVersionService.Snapshot<List<UserProgressDTO>> snapshot = progressVersionService.snapshot(
+            appUserId.orElseThrow(),
+            MY_PROGRESS_VIEW,
+            userProgressService::getCurrentUserProgress
+        );
+        return ResponseEntity.ok().eTag(snapshot.etag()).body(snapshot.body());
+    }
+
+    /**
+     * {@code GET  /user-progresses/resume} : Get the unfinished lesson the current user accessed last.
+     *
+     * @param ifNoneMatch the ETag of the progress the client already has, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the userProgressDTO,
+     * or with status {@code 404 (Not Found)} if the user has no unfinished lesson,
+     * or with status {@code 304 (Not Modified)} if the progress of the user did not change.
+     */
+    @GetMapping("/resume")
+    public ResponseEntity<UserProgressDTO> getResume(
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        LOG.debug("REST request to get current user's lesson to resume");
+        Optional<Long> appUserId = userProgressService.getCurrentAppUserId();
+        if (appUserId.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = progressVersionService.etag(appUserId.orElseThrow());
+        if (ProgressVersionService.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        Optional<UserProgressDTO> result = userProgressService.getCurrentUserResume();
+        return result.map(dto -> ResponseEntity.ok().eTag(etag).body(dto)).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
@@ -275,4 +392,39 @@ public class UserProgressResource {
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
+
+    /**
+     * {@code GET  /user-progresses/history/:appUserId/scroll} : Scroll through the learning history.
+     * Unlike {@code /history/:appUserId}, this does not count the rows, and reading a page costs the same at any depth.
+     *
+     * @param appUserId the user ID.
+     * @param cursor the {@code X-Next-Cursor} header of the previous page, or nothing for the first page.
+     * @param size the page size.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the user progresses, most recently accessed first,
+     * with the cursor of the next page in the {@code X-Next-Cursor} header unless this is the last page.
+     */
+    @GetMapping("/history/{appUserId}/scroll")
+    public ResponseEntity<List<UserProgressDTO>> scrollLearningHistory(
+        @PathVariable Long appUserId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        LOG.debug("REST request to scroll learning history for user : {}", appUserId);
+        SeekCursor after;
+        try {
+            after = cursor != null ? SeekCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        Slice<UserProgressDTO> slice = userProgressService.getLearningHistory(appUserId, after, SeekCursor.pageSize(size));
+        HttpHeaders headers = new HttpHeaders();
+        SeekCursor.next(slice, dto -> new SeekCursor(dto.getLastAccessed(), dto.getId())).ifPresent(next ->
+            headers.add(SeekCursor.NEXT_CURSOR_HEADER, next.encode())
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
 }
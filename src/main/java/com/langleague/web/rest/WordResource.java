@@ -1,7 +1,9 @@
 package com.langleague.web.rest;
 
 import com.langleague.service.WordService;
+import com.langleague.service.WordSuggestService;
 import com.langleague.service.dto.WordDTO;
+import com.langleague.service.dto.WordSuggestionDTO;
 import com.langleague.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -31,8 +33,11 @@ public class WordResource {
 
     private final WordService wordService;
 
-    public WordResource(WordService wordService) {
+    private final WordSuggestService wordSuggestService;
+
+    public WordResource(WordService wordService, WordSuggestService wordSuggestService) {
         this.wordService = wordService;
+        this.wordSuggestService = wordSuggestService;
     }
 
     @PostMapping("/words")
@@ -93,6 +98,22 @@ public class WordResource {
         return ResponseEntity.ok().body(words);
     }
 
+    /**
+     * {@code GET  /words/suggest} : suggest words as the user types.
+     *
+     * @param q the start of the text or the pronunciation of the words; a Hangul syllable may be partially typed.
+     * @param limit the maximum number of words, at most {@value WordSuggestService#MAX_LIMIT}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the words in the most lessons first.
+     */
+    @GetMapping("/words/suggest")
+    public ResponseEntity<List<WordSuggestionDTO>> suggestWords(
+        @RequestParam("q") String q,
+        @RequestParam(name = "limit", defaultValue = "10") int limit
+    ) {
+        log.debug("REST request to suggest Words : {}", q);
+        return ResponseEntity.ok().body(wordSuggestService.suggest(q, limit));
+    }
+
     @GetMapping("/words/{id}")
     public ResponseEntity<WordDTO> getWord(@PathVariable Long id) {
         log.debug("REST request to get Word : {}", id);
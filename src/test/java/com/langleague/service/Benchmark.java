@@ -0,0 +1,36 @@
+package com.langleague.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility class for the benchmarks of the tests, only enabled with a system property: logs their measures.
+ */
+public final class Benchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Benchmark.class);
+
+    private Benchmark() {}
+
+    /**
+     * Log the time taken by a number of operations.
+     *
+     * @param operation the name of the operation.
+     * @param count the number of operations.
+     * @param start the {@link System#nanoTime()} before the first operation.
+     */
+    public static void report(String operation, int count, long start) {
+        long nanos = System.nanoTime() - start;
+        LOG.info("{}: {} operations in {} ms, {} ns/op", operation, count, nanos / 1_000_000, nanos / count);
+    }
+
+    /**
+     * Log any other measure.
+     *
+     * @param format the SLF4J message format.
+     * @param arguments the arguments of the message.
+     */
+    public static void log(String format, Object... arguments) {
+        LOG.info(format, arguments);
+    }
+}
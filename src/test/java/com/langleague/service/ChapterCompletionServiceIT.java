@@ -0,0 +1,83 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.IntegrationTest;
+import com.langleague.domain.AppUser;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.domain.UserChapterCompletion;
+import com.langleague.repository.UserChapterCompletionRepository;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link ChapterCompletionService}.
+ */
+@IntegrationTest
+@Transactional
+class ChapterCompletionServiceIT {
+
+    @Autowired
+    private ChapterCompletionService chapterCompletionService;
+
+    @Autowired
+    private UserChapterCompletionRepository userChapterCompletionRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void onlyProgressCrossingCompletionMovesTheRollup() {
+        AppUser appUser = createAppUser();
+        List<Lesson> lessons = createLessons(2);
+        Long appUserId = appUser.getId();
+        Long first = lessons.get(0).getId();
+        Long second = lessons.get(1).getId();
+
+        chapterCompletionService.progressChanged(null, null, null, appUserId, first, 50);
+        chapterCompletionService.progressChanged(appUserId, first, 50, appUserId, first, 100);
+        chapterCompletionService.progressChanged(appUserId, first, 100, appUserId, first, 100);
+        chapterCompletionService.progressChanged(null, null, null, appUserId, second, 100);
+        chapterCompletionService.progressChanged(appUserId, second, 100, null, null, null);
+
+        assertThat(completedLessons(appUserId)).containsExactly(1);
+    }
+
+    private List<Integer> completedLessons(Long appUserId) {
+        return userChapterCompletionRepository
+            .findByAppUserId(appUserId)
+            .stream()
+            .map(UserChapterCompletion::getCompletedLessons)
+            .toList();
+    }
+
+    private AppUser createAppUser() {
+        AppUser appUser = new AppUser();
+        appUser.setDisplayName("Learner");
+        em.persist(appUser);
+        return appUser;
+    }
+
+    private List<Lesson> createLessons(int count) {
+        Book book = new Book().title("Book");
+        em.persist(book);
+        Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+        em.persist(chapter);
+        List<Lesson> lessons = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Lesson lesson = new Lesson();
+            lesson.setTitle("Lesson " + i);
+            lesson.setChapterEntity(chapter);
+            em.persist(lesson);
+            lessons.add(lesson);
+        }
+        em.flush();
+        return lessons;
+    }
+}
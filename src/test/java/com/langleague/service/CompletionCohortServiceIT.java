@@ -0,0 +1,142 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.IntegrationTest;
+import com.langleague.domain.AppUser;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CompletionCohortService}.
+ */
+@IntegrationTest
+class CompletionCohortServiceIT {
+
+    @Autowired
+    private CompletionCohortService completionCohortService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Long appUserId;
+
+    private Long lessonId;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            AppUser appUser = new AppUser();
+            appUser.setDisplayName("Cohort");
+            em.persist(appUser);
+            Book book = new Book().title("Book");
+            em.persist(book);
+            Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+            em.persist(chapter);
+            Lesson lesson = new Lesson();
+            lesson.setTitle("Lesson");
+            lesson.setChapterEntity(chapter);
+            em.persist(lesson);
+            em.flush();
+            appUserId = appUser.getId();
+            lessonId = lesson.getId();
+            jdbcTemplate.update(
+                "INSERT INTO user_progress (percent, last_accessed, app_user_id, lesson_id) VALUES (?, ?, ?, ?)",
+                50,
+                Timestamp.from(Instant.now()),
+                appUserId,
+                lessonId
+            );
+        });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("DELETE FROM user_progress WHERE app_user_id = ?", appUserId)
+        );
+    }
+
+    @Test
+    void refreshRepairsTheDriftOfTheCohorts() {
+        transactionTemplate.executeWithoutResult(status -> {
+            completionCohortService.progressChanged(null, null, lessonId, 100);
+            completionCohortService.progressChanged(null, null, lessonId, 100);
+        });
+
+        completionCohortService.refresh();
+
+        assertThat(cohort()).containsExactly(1L, 1L, 0L, 50L);
+    }
+
+    @Test
+    void refreshKeepsTheChangeOfAWriteInFlight() throws Exception {
+        completionCohortService.refresh();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch refreshed = new CountDownLatch(1);
+        try {
+            // The progress row is written and locked before the refresh, the cohort is updated after it
+            Future<?> writer = executor.submit(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update("UPDATE user_progress SET percent = 100 WHERE app_user_id = ?", appUserId);
+                    written.countDown();
+                    try {
+                        refreshed.await(1, TimeUnit.MINUTES);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    completionCohortService.progressChanged(lessonId, 50, lessonId, 100);
+                })
+            );
+            assertThat(written.await(1, TimeUnit.MINUTES)).isTrue();
+            completionCohortService.refresh();
+            refreshed.countDown();
+            writer.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cohort()).containsExactly(1L, 0L, 1L, 100L);
+    }
+
+    private List<Long> cohort() {
+        return jdbcTemplate.queryForObject(
+            "SELECT learners, in_progress, completed, percent_sum FROM lesson_completion_cohort WHERE lesson_id = ?",
+            (resultSet, rowNum) ->
+                List.of(
+                    resultSet.getLong("learners"),
+                    resultSet.getLong("in_progress"),
+                    resultSet.getLong("completed"),
+                    resultSet.getLong("percent_sum")
+                ),
+            lessonId
+        );
+    }
+}
@@ -0,0 +1,132 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.IntegrationTest;
+import com.langleague.domain.AppUser;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.ExerciseResult;
+import com.langleague.domain.Lesson;
+import com.langleague.domain.User;
+import com.langleague.domain.UserDashboardStats;
+import com.langleague.domain.UserProgress;
+import com.langleague.domain.UserVocabulary;
+import com.langleague.repository.AppUserRepository;
+import com.langleague.repository.UserDashboardStatsRepository;
+import com.langleague.service.dto.DashboardStatsDTO;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link DashboardStatsService}.
+ */
+@IntegrationTest
+@Transactional
+class DashboardStatsServiceIT {
+
+    private static final String LOGIN = "dashboard-stats";
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private UserDashboardStatsRepository userDashboardStatsRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager em;
+
+    private Lesson lesson;
+
+    @BeforeEach
+    public void init() {
+        cacheManager.getCache(AppUserRepository.APP_USER_IDS_BY_LOGIN_CACHE).clear();
+        Book book = new Book().title("Book");
+        em.persist(book);
+        Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+        em.persist(chapter);
+        lesson = new Lesson();
+        lesson.setTitle("Lesson");
+        lesson.setChapterEntity(chapter);
+        em.persist(lesson);
+    }
+
+    @Test
+    void countersFollowTheTransitionsOfTheSourceRows() {
+        Long appUserId = createAppUser(LOGIN).getId();
+
+        dashboardStatsService.wordLearnedChanged(null, false, appUserId, true);
+        dashboardStatsService.wordLearnedChanged(appUserId, true, appUserId, true);
+        dashboardStatsService.wordLearnedChanged(null, false, appUserId, false);
+        dashboardStatsService.quizCompletedChanged(null, appUserId);
+        dashboardStatsService.quizCompletedChanged(null, appUserId);
+        dashboardStatsService.quizCompletedChanged(appUserId, null);
+        dashboardStatsService.lessonProgressChanged(null, null, appUserId, 100);
+        dashboardStatsService.lessonProgressChanged(null, null, appUserId, 100);
+        dashboardStatsService.lessonProgressChanged(appUserId, 100, appUserId, 50);
+        dashboardStatsService.streakChanged(appUserId, 3, 7);
+        em.clear();
+
+        DashboardStatsDTO stats = dashboardStatsService.getStats(LOGIN);
+
+        assertThat(stats.getWordsLearned()).isEqualTo(1);
+        assertThat(stats.getQuizzesCompleted()).isEqualTo(1);
+        assertThat(stats.getCompletedLessons()).isEqualTo(1);
+        assertThat(stats.getCurrentStreak()).isEqualTo(3);
+        assertThat(stats.getLongestStreak()).isEqualTo(7);
+    }
+
+    @Test
+    void rebuildRangeRepairsOnlyTheUsersOfItsRange() {
+        AppUser first = createAppUser(LOGIN);
+        AppUser second = createAppUser(LOGIN + "-2");
+        AppUser outside = createAppUser(LOGIN + "-3");
+        em.persist(new UserVocabulary().isMemorized(true).appUser(first));
+        em.persist(new UserVocabulary().isMemorized(false).appUser(first));
+        em.persist(new ExerciseResult().appUser(first));
+        em.persist(new ExerciseResult().appUser(second));
+        em.persist(new UserProgress().percent(100).appUser(second).lesson(lesson));
+        em.flush();
+        for (AppUser appUser : new AppUser[] { first, second, outside }) {
+            dashboardStatsService.wordLearnedChanged(null, false, appUser.getId(), true);
+            dashboardStatsService.wordLearnedChanged(null, false, appUser.getId(), true);
+        }
+
+        userDashboardStatsRepository.rebuildRange(first.getId(), second.getId(), Instant.now());
+        em.clear();
+
+        assertThat(stats(first)).containsExactly(1, 1, 0);
+        assertThat(stats(second)).containsExactly(0, 1, 1);
+        assertThat(stats(outside)).containsExactly(2, 0, 0);
+    }
+
+    private Integer[] stats(AppUser appUser) {
+        UserDashboardStats stats = userDashboardStatsRepository.findById(appUser.getId()).orElseThrow();
+        return new Integer[] { stats.getWordsLearned(), stats.getQuizzesCompleted(), stats.getLessonsCompleted() };
+    }
+
+    private AppUser createAppUser(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail(login + "@localhost");
+        user.setLangKey("en");
+        em.persist(user);
+        AppUser appUser = new AppUser();
+        appUser.setDisplayName(login);
+        appUser.setUser(user);
+        em.persist(appUser);
+        em.flush();
+        return appUser;
+    }
+}
@@ -0,0 +1,109 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.IntegrationTest;
+import com.langleague.domain.AppUser;
+import com.langleague.domain.ExerciseResult;
+import com.langleague.service.LeaderboardService.Period;
+import com.langleague.service.dto.LeaderboardEntryDTO;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link LeaderboardService}.
+ * <p>
+ * Not transactional: the changes are applied once their transaction commits.
+ */
+@IntegrationTest
+class LeaderboardServiceIT {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Long appUserId;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            AppUser appUser = new AppUser();
+            appUser.setDisplayName("Leaderboard");
+            em.persist(appUser);
+            em.flush();
+            appUserId = appUser.getId();
+        });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("DELETE FROM exercise_result WHERE app_user_id = ?", appUserId)
+        );
+        leaderboardService.rebuild();
+    }
+
+    @Test
+    void appliesAChangeOnceItsTransactionCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            leaderboardService.scoreChanged(null, null, null, appUserId, 40, Instant.now());
+            assertThat(xp(Period.ALL_TIME)).isZero();
+        });
+
+        assertThat(xp(Period.ALL_TIME)).isEqualTo(40);
+        assertThat(xp(Period.WEEKLY)).isEqualTo(40);
+    }
+
+    @Test
+    void dropsTheChangeOfARolledBackTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            leaderboardService.scoreChanged(null, null, null, appUserId, 40, Instant.now());
+            status.setRollbackOnly();
+        });
+
+        assertThat(xp(Period.ALL_TIME)).isZero();
+    }
+
+    @Test
+    void rebuildsFromTheExerciseResultsAndKeepsLaterChanges() {
+        transactionTemplate.executeWithoutResult(status ->
+            em.persist(new ExerciseResult().score(25).submittedAt(Instant.now()).appUser(em.find(AppUser.class, appUserId)))
+        );
+
+        leaderboardService.rebuild();
+        assertThat(xp(Period.ALL_TIME)).isEqualTo(25);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            ExerciseResult result = new ExerciseResult().score(10).submittedAt(Instant.now()).appUser(em.find(AppUser.class, appUserId));
+            em.persist(result);
+            leaderboardService.scoreChanged(null, null, null, appUserId, 10, result.getSubmittedAt());
+        });
+        assertThat(xp(Period.ALL_TIME)).isEqualTo(35);
+
+        leaderboardService.rebuild();
+        assertThat(xp(Period.ALL_TIME)).isEqualTo(35);
+    }
+
+    private long xp(Period period) {
+        LeaderboardEntryDTO entry = leaderboardService.getRank(period, appUserId);
+        return entry.getXp();
+    }
+}
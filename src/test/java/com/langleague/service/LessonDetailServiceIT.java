@@ -0,0 +1,157 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.IntegrationTest;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.domain.LessonSkill;
+import com.langleague.domain.LessonWord;
+import com.langleague.domain.ListeningExercise;
+import com.langleague.domain.ReadingExercise;
+import com.langleague.domain.Skill;
+import com.langleague.domain.SpeakingExercise;
+import com.langleague.domain.Word;
+import com.langleague.domain.WritingExercise;
+import com.langleague.service.dto.LessonDetailDTO;
+import com.langleague.service.dto.WordDTO;
+import jakarta.persistence.EntityManager;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link LessonDetailService}.
+ */
+@IntegrationTest
+@Transactional
+class LessonDetailServiceIT {
+
+    private static final int WORDS = 50;
+
+    private static final int SKILLS = 2;
+
+    private static final int EXERCISES_PER_TYPE = 10;
+
+    @Autowired
+    private LessonDetailService lessonDetailService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    private Lesson lesson;
+
+    @BeforeEach
+    public void init() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        cacheManager.getCache(LessonDetailService.LESSON_DETAILS_CACHE).clear();
+
+        Book book = new Book().title("Book");
+        em.persist(book);
+        Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+        em.persist(chapter);
+        lesson = new Lesson();
+        lesson.setTitle("Lesson");
+        lesson.setChapterEntity(chapter);
+        em.persist(lesson);
+        for (int i = 0; i < WORDS; i++) {
+            Word word = new Word().text("word" + i);
+            em.persist(word);
+            em.persist(new LessonWord().lesson(lesson).word(word));
+        }
+        for (int i = 0; i < SKILLS; i++) {
+            Skill skill = new Skill().name("skill" + i);
+            em.persist(skill);
+            em.persist(new LessonSkill().lesson(lesson).skill(skill));
+        }
+        for (int i = 0; i < EXERCISES_PER_TYPE; i++) {
+            em.persist(new ListeningExercise().lesson(lesson));
+            em.persist(new SpeakingExercise().lesson(lesson));
+            em.persist(new ReadingExercise().lesson(lesson));
+            em.persist(new WritingExercise().lesson(lesson));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void readsEachCollectionOnceInsteadOfTheirProduct() {
+        long[] rows = new long[1];
+        long statements = countStatements(() -> {
+            LessonDetailDTO detail = lessonDetailService.getLessonDetail(lesson.getId()).orElseThrow();
+            rows[0] = statistics.getEntityLoadCount();
+            return detail;
+        });
+
+        // The lesson, then one query per collection
+        assertThat(statements).isEqualTo(7);
+        assertThat(rows[0]).isEqualTo(1 + WORDS + SKILLS + 4 * EXERCISES_PER_TYPE);
+        // What fetch joining the words, skills, listening and speaking exercises to the lesson in one query reads
+        Number cartesianRows = (Number) em
+            .createNativeQuery(
+                "SELECT COUNT(*) FROM lesson l " +
+                "LEFT JOIN lesson_word lw ON lw.lesson_id = l.id " +
+                "LEFT JOIN lesson_skill ls ON ls.lesson_id = l.id " +
+                "LEFT JOIN listening_exercise le ON le.lesson_id = l.id " +
+                "LEFT JOIN speaking_exercise se ON se.lesson_id = l.id " +
+                "WHERE l.id = :id"
+            )
+            .setParameter("id", lesson.getId())
+            .getSingleResult();
+        assertThat(cartesianRows.longValue()).isEqualTo((long) WORDS * SKILLS * EXERCISES_PER_TYPE * EXERCISES_PER_TYPE);
+    }
+
+    @Test
+    void assemblesTheCollectionsInOrder() {
+        LessonDetailDTO detail = lessonDetailService.getLessonDetail(lesson.getId()).orElseThrow();
+
+        assertThat(detail.getLesson().getId()).isEqualTo(lesson.getId());
+        assertThat(detail.getWords()).hasSize(WORDS);
+        assertThat(detail.getWords().get(0)).extracting(WordDTO::getText).isEqualTo("word0");
+        assertThat(detail.getWords().get(WORDS - 1)).extracting(WordDTO::getText).isEqualTo("word" + (WORDS - 1));
+        assertThat(detail.getSkills()).hasSize(SKILLS);
+        assertThat(detail.getListeningExercises()).hasSize(EXERCISES_PER_TYPE);
+        assertThat(detail.getSpeakingExercises()).hasSize(EXERCISES_PER_TYPE);
+        assertThat(detail.getReadingExercises()).hasSize(EXERCISES_PER_TYPE);
+        assertThat(detail.getWritingExercises()).hasSize(EXERCISES_PER_TYPE);
+        assertThat(lessonDetailService.getLessonDetail(Long.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void servesTheDetailsFromTheCacheUntilTheLessonChanges() {
+        lessonDetailService.getLessonDetail(lesson.getId());
+
+        assertThat(countStatements(() -> lessonDetailService.getLessonDetail(lesson.getId()))).isZero();
+
+        // The details are evicted once the writer commits, which the test transaction never does
+        new TransactionTemplate(transactionManager, new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW))
+            .executeWithoutResult(status -> lessonDetailService.lessonsChanged(lesson.getId()));
+
+        assertThat(countStatements(() -> lessonDetailService.getLessonDetail(lesson.getId()))).isEqualTo(7);
+    }
+
+    private long countStatements(Supplier<?> action) {
+        statistics.clear();
+        action.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,110 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.config.ApplicationProperties;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProgressVersionServiceTest {
+
+    private final Map<Long, String> changeLogVersions = new HashMap<>();
+
+    private final ChangeLogService changeLogService = new ChangeLogService(null, null) {
+        @Override
+        public String findVersion(Long appUserId) {
+            return changeLogVersions.getOrDefault(appUserId, "0.0");
+        }
+    };
+
+    private ProgressVersionService progressVersionService;
+
+    @BeforeEach
+    void init() {
+        progressVersionService = new ProgressVersionService(changeLogService, new ApplicationProperties());
+    }
+
+    @Test
+    void followsTheChangeLogOfTheUser() {
+        String first = progressVersionService.etag(1L);
+        String other = progressVersionService.etag(2L);
+
+        changeLogVersions.put(1L, "42.1");
+
+        assertThat(first).startsWith("\"").endsWith("\"");
+        assertThat(progressVersionService.etag(1L)).isNotEqualTo(first);
+        assertThat(progressVersionService.etag(2L)).isEqualTo(other);
+    }
+
+    @Test
+    void givesTheSameVersionOnEveryInstance() {
+        changeLogVersions.put(1L, "42.1");
+        ProgressVersionService otherInstance = new ProgressVersionService(changeLogService, new ApplicationProperties());
+
+        assertThat(otherInstance.etag(1L)).isEqualTo(progressVersionService.etag(1L));
+    }
+
+    @Test
+    void changesTheVersionWhileATickIsBuffered() {
+        String shared = progressVersionService.etag(1L);
+
+        progressVersionService.buffered(1L);
+        String buffered = progressVersionService.etag(1L);
+        changeLogVersions.put(1L, "42.1");
+        String written = progressVersionService.etag(1L);
+        progressVersionService.written(progressVersionService.lastBufferedVersion(), Set.of());
+
+        assertThat(buffered).isNotEqualTo(shared);
+        assertThat(written).isNotEqualTo(buffered);
+        assertThat(progressVersionService.etag(1L)).isEqualTo("\"42.1\"");
+    }
+
+    @Test
+    void keepsTheVersionOfTheTicksStillBuffered() {
+        progressVersionService.buffered(1L);
+        progressVersionService.buffered(2L);
+        long upTo = progressVersionService.lastBufferedVersion();
+        progressVersionService.buffered(3L);
+        String first = progressVersionService.etag(1L);
+        String third = progressVersionService.etag(3L);
+
+        progressVersionService.written(upTo, Set.of(1L));
+
+        assertThat(progressVersionService.etag(1L)).isEqualTo(first);
+        assertThat(progressVersionService.etag(2L)).isEqualTo("\"0.0\"");
+        assertThat(progressVersionService.etag(3L)).isEqualTo(third);
+    }
+
+    @Test
+    void matchesAnyOfTheListedTags() {
+        String etag = progressVersionService.etag(1L);
+
+        assertThat(ProgressVersionService.matches(null, etag)).isFalse();
+        assertThat(ProgressVersionService.matches("\"other\"", etag)).isFalse();
+        assertThat(ProgressVersionService.matches("\"other\", " + etag, etag)).isTrue();
+        assertThat(ProgressVersionService.matches("*", etag)).isTrue();
+    }
+
+    @Test
+    void reloadsTheSnapshotOnlyAfterAChange() {
+        AtomicInteger loads = new AtomicInteger();
+
+        progressVersionService.snapshot(1L, "view", () -> List.of(loads.incrementAndGet()));
+        ProgressVersionService.Snapshot<List<Integer>> cached = progressVersionService.snapshot(1L, "view", () ->
+            List.of(loads.incrementAndGet())
+        );
+        changeLogVersions.put(1L, "42.1");
+        ProgressVersionService.Snapshot<List<Integer>> reloaded = progressVersionService.snapshot(1L, "view", () ->
+            List.of(loads.incrementAndGet())
+        );
+
+        assertThat(cached.body()).containsExactly(1);
+        assertThat(reloaded.body()).containsExactly(2);
+        assertThat(reloaded.etag()).isEqualTo(progressVersionService.etag(1L)).isNotEqualTo(cached.etag());
+    }
+}
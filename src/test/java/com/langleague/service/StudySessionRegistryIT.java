@@ -0,0 +1,196 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.IntegrationTest;
+import com.langleague.config.ApplicationProperties;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.domain.StudySession;
+import com.langleague.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link StudySessionRegistry}.
+ * <p>
+ * Most tests use their own registry, so that the scheduled sweep of the application does not interfere.
+ */
+@IntegrationTest
+class StudySessionRegistryIT {
+
+    private static final String LOGIN = "study-session-registry";
+
+    @Autowired
+    private StudySessionService studySessionService;
+
+    @Autowired
+    private StudySessionRegistry studySessionRegistry;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    private Lesson lesson;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            user = new User();
+            user.setLogin(LOGIN);
+            user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+            user.setActivated(true);
+            user.setEmail(LOGIN + "@localhost");
+            user.setLangKey("en");
+            em.persist(user);
+            Book book = new Book().title("Book");
+            em.persist(book);
+            Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+            em.persist(chapter);
+            lesson = new Lesson();
+            lesson.setTitle("Lesson");
+            lesson.setChapterEntity(chapter);
+            em.persist(lesson);
+        });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM study_session WHERE user_id = ?", user.getId());
+            Lesson managedLesson = em.find(Lesson.class, lesson.getId());
+            Chapter chapter = managedLesson.getChapterEntity();
+            em.remove(managedLesson);
+            em.remove(chapter);
+            em.remove(chapter.getBook());
+            em.remove(em.find(User.class, user.getId()));
+        });
+    }
+
+    @Test
+    @WithMockUser(LOGIN)
+    void registersAStartedSessionOnceItsTransactionCommits() {
+        StudySession rolledBack = transactionTemplate.execute(status -> {
+            StudySession session = studySessionService.startSession(lesson.getId());
+            status.setRollbackOnly();
+            return session;
+        });
+        StudySession started = transactionTemplate.execute(status -> {
+            StudySession session = studySessionService.startSession(lesson.getId());
+            assertThat(studySessionRegistry.heartbeat(session.getId(), LOGIN)).isFalse();
+            return session;
+        });
+
+        assertThat(studySessionRegistry.heartbeat(rolledBack.getId(), LOGIN)).isFalse();
+        assertThat(studySessionRegistry.heartbeat(started.getId(), LOGIN)).isTrue();
+        studySessionRegistry.unregister(started.getId());
+    }
+
+    @Test
+    void acceptsTheHeartbeatsOfTheOwnerOfAnOpenSession() {
+        StudySessionRegistry registry = registry(300, 240);
+        StudySession session = insert(Instant.now());
+        registry.register(session);
+
+        assertThat(registry.heartbeat(session.getId(), LOGIN)).isTrue();
+        assertThat(registry.heartbeat(session.getId(), "someone-else")).isFalse();
+        assertThat(registry.heartbeat(Long.MAX_VALUE, LOGIN)).isFalse();
+        assertThat(registry.getActivity().getActiveSessions()).isEqualTo(1);
+
+        registry.unregister(session.getId());
+
+        assertThat(registry.heartbeat(session.getId(), LOGIN)).isFalse();
+        assertThat(registry.getActivity().getActiveSessions()).isZero();
+    }
+
+    @Test
+    void sweepClosesTheIdleSessionsAsAbandoned() {
+        StudySessionRegistry registry = registry(60, 240);
+        StudySession idle = insert(Instant.now().minus(30, ChronoUnit.MINUTES));
+        StudySession alive = insert(Instant.now().minus(30, ChronoUnit.MINUTES));
+        registry.register(idle);
+        registry.register(alive);
+        registry.heartbeat(alive.getId(), LOGIN);
+
+        assertThat(registry.sweep()).isGreaterThanOrEqualTo(1);
+
+        // Ends at its last heartbeat, its start as none was sent
+        assertThat(row(idle)).containsEntry("status", StudySessionRegistry.ABANDONED).containsEntry("duration", 0L);
+        assertThat(row(idle).get("end_time")).isEqualTo(row(idle).get("start_time"));
+        assertThat(registry.heartbeat(idle.getId(), LOGIN)).isFalse();
+        assertThat(row(alive)).containsEntry("status", "IN_PROGRESS");
+        assertThat(registry.heartbeat(alive.getId(), LOGIN)).isTrue();
+    }
+
+    @Test
+    void sweepCapsTheSessionsOpenForLongerThanTheMaximumDuration() {
+        StudySessionRegistry registry = registry(3600, 20);
+        StudySession session = insert(Instant.now().minus(30, ChronoUnit.MINUTES));
+        registry.register(session);
+        registry.heartbeat(session.getId(), LOGIN);
+
+        registry.sweep();
+
+        assertThat(row(session)).containsEntry("status", StudySessionRegistry.ABANDONED).containsEntry("duration", 20L);
+        assertThat(registry.heartbeat(session.getId(), LOGIN)).isFalse();
+    }
+
+    @Test
+    void sweepClosesTheOrphansOlderThanTheMaximumDuration() {
+        StudySessionRegistry registry = registry(60, 240);
+        StudySession orphan = insert(Instant.now().minus(5, ChronoUnit.HOURS));
+        StudySession recent = insert(Instant.now().minus(1, ChronoUnit.HOURS));
+
+        assertThat(registry.sweep()).isGreaterThanOrEqualTo(1);
+
+        assertThat(row(orphan)).containsEntry("status", StudySessionRegistry.ABANDONED).containsEntry("duration", 0L);
+        assertThat(row(orphan).get("end_time")).isEqualTo(row(orphan).get("start_time"));
+        assertThat(row(recent)).containsEntry("status", "IN_PROGRESS");
+    }
+
+    private StudySessionRegistry registry(long idleTimeoutSeconds, long maxDurationMinutes) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSessions().setIdleTimeoutSeconds(idleTimeoutSeconds);
+        applicationProperties.getSessions().setMaxDurationMinutes(maxDurationMinutes);
+        return new StudySessionRegistry(jdbcTemplate, transactionManager, applicationProperties, new SimpleMeterRegistry());
+    }
+
+    private StudySession insert(Instant startTime) {
+        return transactionTemplate.execute(status -> {
+            StudySession session = new StudySession();
+            session.setUser(em.find(User.class, user.getId()));
+            session.setLesson(em.find(Lesson.class, lesson.getId()));
+            session.setStartTime(startTime.truncatedTo(ChronoUnit.SECONDS));
+            session.setStatus("IN_PROGRESS");
+            em.persist(session);
+            return session;
+        });
+    }
+
+    private Map<String, Object> row(StudySession session) {
+        return jdbcTemplate.queryForMap("SELECT status, start_time, end_time, duration FROM study_session WHERE id = ?", session.getId());
+    }
+}
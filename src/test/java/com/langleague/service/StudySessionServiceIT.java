@@ -0,0 +1,189 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.IntegrationTest;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.domain.StudySession;
+import com.langleague.domain.User;
+import com.langleague.service.dto.StudySessionDTO;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link StudySessionService}.
+ */
+@IntegrationTest
+@Transactional
+class StudySessionServiceIT {
+
+    @Autowired
+    private StudySessionService studySessionService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+
+    private User user;
+
+    private Lesson lesson;
+
+    @BeforeEach
+    public void init() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        cacheManager.getCache(StudySessionService.PLATFORM_STATS_CACHE).clear();
+
+        user = new User();
+        user.setLogin("study-session-stats");
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail("study-session-stats@localhost");
+        user.setLangKey("en");
+        em.persist(user);
+
+        Book book = new Book().title("Book");
+        em.persist(book);
+        Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+        em.persist(chapter);
+        lesson = new Lesson();
+        lesson.setTitle("Lesson");
+        lesson.setChapterEntity(chapter);
+        em.persist(lesson);
+        em.flush();
+    }
+
+    @Test
+    void statsUseAConstantNumberOfStatementsRegardlessOfRowCount() {
+        createSessions(5);
+        long fewRows = countStatements(() -> studySessionService.getUserStats(user.getId(), null, null));
+        long fewRowsPlatform = countStatements(() -> studySessionService.getPlatformStats(null, null));
+
+        createSessions(200);
+        cacheManager.getCache(StudySessionService.PLATFORM_STATS_CACHE).clear();
+        long manyRows = countStatements(() -> studySessionService.getUserStats(user.getId(), null, null));
+        long manyRowsPlatform = countStatements(() -> studySessionService.getPlatformStats(null, null));
+
+        assertThat(fewRows).isEqualTo(1);
+        assertThat(manyRows).isEqualTo(fewRows);
+        assertThat(fewRowsPlatform).isEqualTo(1);
+        assertThat(manyRowsPlatform).isEqualTo(fewRowsPlatform);
+    }
+
+    @Test
+    void statsAreAggregatedInTheDatabase() {
+        createSessions(4);
+
+        StudySessionDTO.Stats stats = studySessionService.getUserStats(user.getId(), null, null);
+
+        assertThat(stats.getTotalSessions()).isEqualTo(4);
+        assertThat(stats.getCompletedSessions()).isEqualTo(2);
+        assertThat(stats.getTotalDuration()).isEqualTo(4 * 30L);
+        assertThat(stats.getAverageSessionDuration()).isEqualTo(30L);
+    }
+
+    @Test
+    void platformStatsAreServedFromTheCacheWithinTheStalenessBound() {
+        createSessions(2);
+        StudySessionDTO.PlatformStats first = studySessionService.getPlatformStats(null, null);
+
+        createSessions(2);
+        long statements = countStatements(() -> studySessionService.getPlatformStats(null, null));
+
+        assertThat(statements).isZero();
+        assertThat(studySessionService.getPlatformStats(null, null).getTotalSessions()).isEqualTo(first.getTotalSessions());
+    }
+
+    @Test
+    @WithMockUser("study-session-stats")
+    void completesASessionInProgress() {
+        StudySession session = persistSession("IN_PROGRESS", null);
+
+        studySessionService.completeSession(session.getId());
+        em.flush();
+        em.clear();
+
+        StudySession completed = em.find(StudySession.class, session.getId());
+        assertThat(completed.getStatus()).isEqualTo("COMPLETED");
+        assertThat(completed.getDuration()).isEqualTo(120L);
+        assertThat(rolledUpSessions()).isPositive();
+    }
+
+    @Test
+    @WithMockUser("study-session-stats")
+    void doesNotCompleteASessionAbandonedByTheSweep() {
+        StudySession session = persistSession(StudySessionRegistry.ABANDONED, 30L);
+
+        studySessionService.completeSession(session.getId());
+        em.flush();
+        em.clear();
+
+        StudySession abandoned = em.find(StudySession.class, session.getId());
+        assertThat(abandoned.getStatus()).isEqualTo(StudySessionRegistry.ABANDONED);
+        assertThat(abandoned.getDuration()).isEqualTo(30L);
+        assertThat(rolledUpSessions()).isZero();
+    }
+
+    private StudySession persistSession(String status, Long duration) {
+        Instant start = Instant.now().minus(2, ChronoUnit.HOURS);
+        StudySession session = new StudySession();
+        session.setUser(user);
+        session.setLesson(lesson);
+        session.setStartTime(start);
+        if (duration != null) {
+            session.setEndTime(start.plus(duration, ChronoUnit.MINUTES));
+            session.setDuration(duration);
+        }
+        session.setStatus(status);
+        em.persist(session);
+        em.flush();
+        em.clear();
+        return session;
+    }
+
+    private long rolledUpSessions() {
+        Number sessions = (Number) em
+            .createNativeQuery("SELECT COALESCE(SUM(session_count), 0) FROM study_day_rollup WHERE user_id = :userId")
+            .setParameter("userId", user.getId())
+            .getSingleResult();
+        return sessions.longValue();
+    }
+
+    private void createSessions(int count) {
+        Instant start = Instant.now().minus(1, ChronoUnit.DAYS);
+        for (int i = 0; i < count; i++) {
+            StudySession session = new StudySession();
+            session.setUser(user);
+            session.setLesson(lesson);
+            session.setStartTime(start.plusSeconds(i));
+            session.setEndTime(start.plusSeconds(i + 1800L));
+            session.setDuration(30L);
+            session.setStatus(i % 2 == 0 ? "COMPLETED" : "IN_PROGRESS");
+            em.persist(session);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,150 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.IntegrationTest;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.domain.StudySession;
+import com.langleague.domain.User;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link StudyTimeRollupService}.
+ * <p>
+ * Not transactional: the backfill runs one transaction per chunk of users.
+ */
+@IntegrationTest
+class StudyTimeRollupServiceIT {
+
+    private static final Instant LATE_EVENING = Instant.parse("2025-11-09T23:30:00Z");
+
+    private static final Instant MIDNIGHT = Instant.parse("2025-11-10T00:00:00Z");
+
+    private static final Instant MORNING = Instant.parse("2025-11-10T10:00:00Z");
+
+    @Autowired
+    private StudyTimeRollupService studyTimeRollupService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    private Lesson lesson;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            user = new User();
+            user.setLogin("study-time-rollup");
+            user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+            user.setActivated(true);
+            user.setEmail("study-time-rollup@localhost");
+            user.setLangKey("en");
+            em.persist(user);
+            Book book = new Book().title("Book");
+            em.persist(book);
+            Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+            em.persist(chapter);
+            lesson = new Lesson();
+            lesson.setTitle("Lesson");
+            lesson.setChapterEntity(chapter);
+            em.persist(lesson);
+            // Spans midnight UTC: 30 minutes on each day
+            em.persist(session("COMPLETED", LATE_EVENING, LATE_EVENING.plusSeconds(3600)));
+            em.persist(session("COMPLETED", MORNING, MORNING.plusSeconds(600)));
+            em.persist(session("IN_PROGRESS", MORNING, null));
+        });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM study_day_rollup WHERE user_id = ?", user.getId());
+            jdbcTemplate.update("DELETE FROM study_session WHERE user_id = ?", user.getId());
+            Lesson managedLesson = em.find(Lesson.class, lesson.getId());
+            Chapter chapter = managedLesson.getChapterEntity();
+            em.remove(managedLesson);
+            em.remove(chapter);
+            em.remove(chapter.getBook());
+            em.remove(em.find(User.class, user.getId()));
+        });
+    }
+
+    @Test
+    void backfillRebuildsTheBucketsFromTheCompletedSessions() {
+        // A bucket left by drift, with no session behind it
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update(
+                "INSERT INTO study_day_rollup (user_id, study_day, study_seconds, session_count) VALUES (?, '2025-11-01', 999, 9)",
+                user.getId()
+            )
+        );
+
+        studyTimeRollupService.backfill();
+
+        assertThat(buckets()).containsExactly("2025-11-09 1800 1", "2025-11-10 2400 1");
+    }
+
+    @Test
+    void backfillTwiceCountsEachSessionOnce() {
+        studyTimeRollupService.backfill();
+        studyTimeRollupService.backfill();
+
+        assertThat(buckets()).containsExactly("2025-11-09 1800 1", "2025-11-10 2400 1");
+    }
+
+    @Test
+    void sessionsCompletedAfterABackfillAreAddedToItsBuckets() {
+        studyTimeRollupService.backfill();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            StudySession session = session("COMPLETED", MIDNIGHT, MIDNIGHT.plusSeconds(60));
+            em.persist(session);
+            studyTimeRollupService.sessionCompleted(user.getId(), session.getStartTime(), session.getEndTime());
+        });
+
+        assertThat(buckets()).containsExactly("2025-11-09 1800 1", "2025-11-10 2460 2");
+        studyTimeRollupService.backfill();
+        assertThat(buckets()).containsExactly("2025-11-09 1800 1", "2025-11-10 2460 2");
+    }
+
+    private StudySession session(String status, Instant startTime, Instant endTime) {
+        StudySession session = new StudySession();
+        session.setUser(em.find(User.class, user.getId()));
+        session.setLesson(lesson);
+        session.setStatus(status);
+        session.setStartTime(startTime);
+        session.setEndTime(endTime);
+        return session;
+    }
+
+    private List<String> buckets() {
+        return jdbcTemplate.query(
+            "SELECT study_day, study_seconds, session_count FROM study_day_rollup WHERE user_id = ? ORDER BY study_day",
+            (resultSet, rowNum) -> resultSet.getDate(1).toLocalDate() + " " + resultSet.getLong(2) + " " + resultSet.getInt(3),
+            user.getId()
+        );
+    }
+}
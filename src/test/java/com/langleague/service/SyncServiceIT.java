@@ -0,0 +1,120 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.langleague.IntegrationTest;
+import com.langleague.domain.AppUser;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.domain.UserProgress;
+import com.langleague.service.ChangeLogService.Change;
+import com.langleague.service.ChangeLogService.EntityType;
+import com.langleague.service.ChangeLogService.Operation;
+import com.langleague.service.dto.SyncDTO;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link SyncService} and {@link ChangeLogService}.
+ */
+@IntegrationTest
+class SyncServiceIT {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Transactional
+    void deltaSyncOnlyReturnsTheLatestStateOfTheChangedEntities() {
+        AppUser appUser = createAppUser();
+        List<Lesson> lessons = createLessons(3);
+        em.persist(new UserProgress().percent(40).lastAccessed(Instant.now()).appUser(appUser).lesson(lessons.get(0)));
+        em.persist(new UserProgress().percent(70).lastAccessed(Instant.now()).appUser(appUser).lesson(lessons.get(1)));
+        em.flush();
+        long since = changeLogService.findSettledSeq(appUser.getId(), Instant.now().plusSeconds(60));
+        changeLogService.upserted(appUser.getId(), EntityType.USER_PROGRESS, lessons.get(0).getId());
+        changeLogService.upserted(appUser.getId(), EntityType.USER_PROGRESS, lessons.get(0).getId());
+        changeLogService.deleted(appUser.getId(), EntityType.USER_PROGRESS, lessons.get(2).getId());
+
+        SyncDTO delta = syncService.sync(appUser.getId(), Long.toString(since));
+        SyncDTO full = syncService.sync(appUser.getId(), null);
+
+        assertThat(delta.isFull()).isFalse();
+        assertThat(delta.getUserProgresses()).extracting(dto -> dto.getLesson().getId()).containsExactly(lessons.get(0).getId());
+        assertThat(delta.getDeleted().getUserProgressLessonIds()).containsExactly(lessons.get(2).getId());
+        assertThat(full.isFull()).isTrue();
+        assertThat(full.getUserProgresses()).hasSize(2);
+        assertThatThrownBy(() -> syncService.sync(appUser.getId(), "not a token")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void compactionKeepsTheLatestChangeOfEachEntity() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long appUserId = transactionTemplate.execute(status -> createAppUser().getId());
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            changes.add(new Change(appUserId, EntityType.USER_VOCABULARY, (long) (i % 3), Operation.UPSERT));
+        }
+        changes.add(new Change(appUserId, EntityType.USER_VOCABULARY, 0L, Operation.DELETE));
+        transactionTemplate.executeWithoutResult(status -> changeLogService.record(changes));
+
+        changeLogService.compact();
+
+        List<String> remaining = jdbcTemplate.queryForList(
+            "SELECT CONCAT(entity_id, ':', operation) FROM change_log WHERE app_user_id = ? ORDER BY seq",
+            String.class,
+            appUserId
+        );
+        assertThat(remaining).containsExactly("1:UPSERT", "2:UPSERT", "0:DELETE");
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM change_log WHERE app_user_id = ?", appUserId);
+            em.remove(em.find(AppUser.class, appUserId));
+        });
+    }
+
+    private AppUser createAppUser() {
+        AppUser appUser = new AppUser();
+        appUser.setDisplayName("Mobile learner");
+        em.persist(appUser);
+        return appUser;
+    }
+
+    private List<Lesson> createLessons(int count) {
+        Book book = new Book().title("Book");
+        em.persist(book);
+        Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+        em.persist(chapter);
+        List<Lesson> lessons = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Lesson lesson = new Lesson();
+            lesson.setTitle("Lesson " + i);
+            lesson.setChapterEntity(chapter);
+            em.persist(lesson);
+            lessons.add(lesson);
+        }
+        em.flush();
+        return lessons;
+    }
+}
@@ -0,0 +1,192 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.IntegrationTest;
+import com.langleague.domain.AppUser;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.repository.UserProgressRepository;
+import com.langleague.repository.UserProgressRepositoryWithUpsert.ProgressWriteResult;
+import com.langleague.service.dto.UserProgressDTO;
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for concurrent writes of the progress of a user in a lesson.
+ */
+@IntegrationTest
+class UserProgressConcurrencyIT {
+
+    private static final int THREADS = 16;
+
+    private static final int CALLS_PER_THREAD = 25;
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private UserProgressWriteBehindService userProgressWriteBehindService;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentMarksOfTheSameLessonKeepOneRow() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> ids = transactionTemplate.execute(status -> createAppUserAndLesson());
+        Long appUserId = ids.get(0);
+        Long lessonId = ids.get(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Long> rowIds = ConcurrentHashMap.newKeySet();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(
+                    executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                            UserProgressDTO result = userProgressService.markLessonProgress(appUserId, lessonId, 1 + ((thread + i) % 99));
+                            rowIds.add(result.getId());
+                        }
+                        return null;
+                    })
+                );
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> stored = jdbcTemplate.queryForList(
+            "SELECT id FROM user_progress WHERE app_user_id = ? AND lesson_id = ?",
+            Long.class,
+            appUserId,
+            lessonId
+        );
+        assertThat(stored).hasSize(1);
+        assertThat(rowIds).containsExactlyElementsOf(stored);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM user_progress WHERE app_user_id = ?", appUserId);
+            jdbcTemplate.update("DELETE FROM change_log WHERE app_user_id = ?", appUserId);
+        });
+    }
+
+    @Test
+    void flushUpdatesARowCreatedAfterTheTickWasBuffered() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> ids = transactionTemplate.execute(status -> createAppUserAndLesson());
+        Long appUserId = ids.get(0);
+        Long lessonId = ids.get(1);
+
+        userProgressWriteBehindService.save(appUserId, lessonId, 40);
+        // Another writer creates the row between the tick and the flush
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update(
+                "INSERT INTO user_progress (percent, last_accessed, app_user_id, lesson_id) VALUES (?, ?, ?, ?)",
+                10,
+                Timestamp.from(Instant.now().minus(1, ChronoUnit.MINUTES)),
+                appUserId,
+                lessonId
+            )
+        );
+        userProgressWriteBehindService.flush();
+
+        assertThat(userProgressWriteBehindService.getPending(appUserId, lessonId)).isEmpty();
+        assertThat(
+            jdbcTemplate.queryForList(
+                "SELECT percent FROM user_progress WHERE app_user_id = ? AND lesson_id = ?",
+                Integer.class,
+                appUserId,
+                lessonId
+            )
+        ).containsExactly(40);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM user_progress WHERE app_user_id = ?", appUserId);
+            jdbcTemplate.update("DELETE FROM change_log WHERE app_user_id = ?", appUserId);
+        });
+    }
+
+    @Test
+    void upsertNeverOverwritesALaterAccess() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> ids = transactionTemplate.execute(status -> createAppUserAndLesson());
+        Long appUserId = ids.get(0);
+        Long lessonId = ids.get(1);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        ProgressWriteResult first = transactionTemplate.execute(status ->
+            userProgressRepository.upsertProgress(appUserId, lessonId, 60, now)
+        );
+        ProgressWriteResult stale = transactionTemplate.execute(status ->
+            userProgressRepository.upsertProgress(appUserId, lessonId, 20, now.minus(1, ChronoUnit.SECONDS))
+        );
+        ProgressWriteResult later = transactionTemplate.execute(status ->
+            userProgressRepository.upsertProgress(appUserId, lessonId, 80, now.plus(1, ChronoUnit.SECONDS))
+        );
+
+        assertThat(first.existed()).isFalse();
+        assertThat(first.applied()).isTrue();
+        assertThat(stale.existed()).isTrue();
+        assertThat(stale.applied()).isFalse();
+        assertThat(stale.previousPercent()).isEqualTo(60);
+        assertThat(later.applied()).isTrue();
+        assertThat(later.previousPercent()).isEqualTo(60);
+        assertThat(later.previousLastAccessed()).isEqualTo(now);
+        assertThat(List.of(stale.id(), later.id())).containsOnly(first.id());
+
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("DELETE FROM user_progress WHERE app_user_id = ?", appUserId)
+        );
+    }
+
+    private List<Long> createAppUserAndLesson() {
+        AppUser appUser = new AppUser();
+        appUser.setDisplayName("Two devices");
+        em.persist(appUser);
+        Book book = new Book().title("Book");
+        em.persist(book);
+        Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+        em.persist(chapter);
+        Lesson lesson = new Lesson();
+        lesson.setTitle("Lesson");
+        lesson.setChapterEntity(chapter);
+        em.persist(lesson);
+        em.flush();
+        return List.of(appUser.getId(), lesson.getId());
+    }
+}
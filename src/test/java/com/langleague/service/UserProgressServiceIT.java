@@ -0,0 +1,157 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.IntegrationTest;
+import com.langleague.domain.AppUser;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.domain.User;
+import com.langleague.domain.UserProgress;
+import com.langleague.repository.AppUserRepository;
+import com.langleague.service.dto.UserProgressDTO;
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link UserProgressService}.
+ */
+@IntegrationTest
+@Transactional
+@WithMockUser("continue-learning")
+class UserProgressServiceIT {
+
+    private static final int FOREIGN_ROWS = 100_000;
+
+    private static final int FOREIGN_LESSONS = 100;
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private AppUser appUser;
+
+    private List<Lesson> lessons;
+
+    @BeforeEach
+    public void init() {
+        // The profile of the previous test was rolled back, so its id must not be served from the cache
+        cacheManager.getCache(AppUserRepository.APP_USER_IDS_BY_LOGIN_CACHE).clear();
+
+        User user = new User();
+        user.setLogin("continue-learning");
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail("continue-learning@localhost");
+        user.setLangKey("en");
+        em.persist(user);
+        appUser = new AppUser().user(user);
+        em.persist(appUser);
+
+        Book book = new Book().title("Book");
+        em.persist(book);
+        Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+        em.persist(chapter);
+        lessons = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Lesson lesson = new Lesson();
+            lesson.setTitle("Lesson " + i);
+            lesson.setChapterEntity(chapter);
+            em.persist(lesson);
+            lessons.add(lesson);
+        }
+        em.flush();
+    }
+
+    @Test
+    void currentUserProgressOnlyReadsTheRowsOfTheCurrentUser() {
+        Instant now = Instant.now();
+        em.persist(progress(lessons.get(0), 100, now.minus(1, ChronoUnit.HOURS)));
+        em.persist(progress(lessons.get(1), 40, now.minus(2, ChronoUnit.HOURS)));
+        em.persist(progress(lessons.get(2), 70, now.minus(3, ChronoUnit.HOURS)));
+        em.flush();
+        seedForeignRows();
+
+        // Warm up, then keep the best of a few runs so that a GC pause does not fail the build
+        userProgressService.getCurrentUserProgress();
+        long best = Long.MAX_VALUE;
+        List<UserProgressDTO> progress = List.of();
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            progress = userProgressService.getCurrentUserProgress();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        assertThat(progress)
+            .extracting(dto -> dto.getLesson().getId())
+            .containsExactly(lessons.get(0).getId(), lessons.get(1).getId(), lessons.get(2).getId());
+        assertThat(best / 1_000_000).isLessThan(100);
+    }
+
+    @Test
+    void resumeReturnsTheUnfinishedLessonAccessedLast() {
+        Instant now = Instant.now();
+        em.persist(progress(lessons.get(0), 100, now.minus(1, ChronoUnit.HOURS)));
+        em.persist(progress(lessons.get(1), 40, now.minus(2, ChronoUnit.HOURS)));
+        em.persist(progress(lessons.get(2), 70, now.minus(3, ChronoUnit.HOURS)));
+        em.flush();
+        seedForeignRows();
+
+        assertThat(userProgressService.getCurrentUserResume())
+            .map(dto -> dto.getLesson().getId())
+            .contains(lessons.get(1).getId());
+    }
+
+    private UserProgress progress(Lesson lesson, int percent, Instant lastAccessed) {
+        return new UserProgress().percent(percent).lastAccessed(lastAccessed).appUser(appUser).lesson(lesson);
+    }
+
+    /**
+     * Seed {@value #FOREIGN_ROWS} rows of other users, all more recent than the rows of the current user.
+     */
+    private void seedForeignRows() {
+        Chapter chapter = lessons.get(0).getChapterEntity();
+        List<Long> foreignLessons = new ArrayList<>();
+        for (int i = 0; i < FOREIGN_LESSONS; i++) {
+            Lesson lesson = new Lesson();
+            lesson.setTitle("Foreign lesson " + i);
+            lesson.setChapterEntity(chapter);
+            em.persist(lesson);
+            foreignLessons.add(lesson.getId());
+        }
+        List<Long> foreignUsers = new ArrayList<>();
+        for (int i = 0; i < FOREIGN_ROWS / FOREIGN_LESSONS; i++) {
+            AppUser foreign = new AppUser();
+            em.persist(foreign);
+            foreignUsers.add(foreign.getId());
+        }
+        em.flush();
+        Timestamp recent = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(FOREIGN_ROWS);
+        for (int i = 0; i < FOREIGN_ROWS; i++) {
+            rows.add(new Object[] { i % 100, recent, foreignUsers.get(i / FOREIGN_LESSONS), foreignLessons.get(i % FOREIGN_LESSONS) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_progress (percent, last_accessed, app_user_id, lesson_id) VALUES (?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,182 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.IntegrationTest;
+import com.langleague.domain.AppUser;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.domain.UserProgress;
+import com.langleague.repository.UserProgressRepository;
+import com.langleague.service.dto.UserProgressBatchDTO;
+import com.langleague.service.dto.UserProgressBatchResultDTO;
+import com.langleague.service.dto.UserProgressBatchResultDTO.Status;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link UserProgressSyncService}.
+ */
+@IntegrationTest
+class UserProgressSyncServiceIT {
+
+    @Autowired
+    private UserProgressSyncService userProgressSyncService;
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Transactional
+    void resolvesConflictsLastWriterWinsAndReportsEachItem() {
+        AppUser appUser = createAppUser();
+        List<Lesson> lessons = createLessons(3);
+        Instant now = Instant.now();
+        em.persist(progress(appUser, lessons.get(0), 80, now.minus(1, ChronoUnit.HOURS)));
+        em.persist(progress(appUser, lessons.get(1), 10, now.minus(3, ChronoUnit.HOURS)));
+        em.flush();
+
+        List<UserProgressBatchResultDTO> results = userProgressSyncService.syncProgress(
+            appUser.getId(),
+            List.of(
+                // Older than the stored progress
+                item(lessons.get(0).getId(), 50, now.minus(2, ChronoUnit.HOURS)),
+                // Newer than the stored progress, then superseded within the batch
+                item(lessons.get(1).getId(), 40, now.minus(2, ChronoUnit.HOURS)),
+                item(lessons.get(1).getId(), 60, now.minus(1, ChronoUnit.HOURS)),
+                // No stored progress yet
+                item(lessons.get(2).getId(), 30, now.minus(5, ChronoUnit.MINUTES)),
+                item(Long.MAX_VALUE, 30, now),
+                item(lessons.get(2).getId(), 101, now)
+            )
+        );
+
+        assertThat(results).extracting(UserProgressBatchResultDTO::getStatus).containsExactly(
+            Status.STALE,
+            Status.STALE,
+            Status.APPLIED,
+            Status.APPLIED,
+            Status.NOT_FOUND,
+            Status.INVALID
+        );
+        assertThat(results.get(0).getPercent()).isEqualTo(80);
+        assertThat(results.get(1).getPercent()).isEqualTo(60);
+        em.clear();
+        assertThat(storedPercent(appUser, lessons.get(0))).isEqualTo(80);
+        assertThat(storedPercent(appUser, lessons.get(1))).isEqualTo(60);
+        assertThat(storedPercent(appUser, lessons.get(2))).isEqualTo(30);
+    }
+
+    /**
+     * Compares 100 progress updates sent one by one, each in its own transaction, with the same updates sent as one
+     * batch. Run with {@code ./mvnw verify -Dit.test=UserProgressSyncServiceIT -Dprogress.benchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "progress.benchmark", matches = "true")
+    void benchmarkSingleCallsAgainstOneBatch() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int count = 100;
+        AppUser appUser = transactionTemplate.execute(status -> createAppUser());
+        List<Lesson> lessons = transactionTemplate.execute(status -> createLessons(count));
+        List<UserProgressBatchDTO.Item> items = new ArrayList<>();
+        Instant start = Instant.now().minus(1, ChronoUnit.DAYS);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                em.persist(progress(appUser, lessons.get(i), 0, start));
+                items.add(item(lessons.get(i).getId(), 50, start.plusSeconds(i + 1L)));
+            }
+        });
+
+        for (int round = 0; round < 5; round++) {
+            long singleStart = System.nanoTime();
+            for (Lesson lesson : lessons) {
+                transactionTemplate.executeWithoutResult(status ->
+                    userProgressService.markLessonProgress(appUser.getId(), lesson.getId(), 50)
+                );
+            }
+            long single = System.nanoTime() - singleStart;
+
+            items.forEach(item -> item.setClientTimestamp(Instant.now()));
+            long batchStart = System.nanoTime();
+            List<UserProgressBatchResultDTO> results = transactionTemplate.execute(status ->
+                userProgressSyncService.syncProgress(appUser.getId(), items)
+            );
+            long batch = System.nanoTime() - batchStart;
+
+            assertThat(results).extracting(UserProgressBatchResultDTO::getStatus).containsOnly(Status.APPLIED);
+            Benchmark.log(
+                "round {}: {} single calls in {} ms, one batch in {} ms",
+                round,
+                count,
+                single / 1_000_000,
+                batch / 1_000_000
+            );
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+            em
+                .createQuery("delete from UserProgress p where p.appUser.id = :appUserId")
+                .setParameter("appUserId", appUser.getId())
+                .executeUpdate()
+        );
+    }
+
+    private AppUser createAppUser() {
+        AppUser appUser = new AppUser();
+        appUser.setDisplayName("Offline learner");
+        em.persist(appUser);
+        return appUser;
+    }
+
+    private List<Lesson> createLessons(int count) {
+        Book book = new Book().title("Book");
+        em.persist(book);
+        Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+        em.persist(chapter);
+        List<Lesson> lessons = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Lesson lesson = new Lesson();
+            lesson.setTitle("Lesson " + i);
+            lesson.setChapterEntity(chapter);
+            em.persist(lesson);
+            lessons.add(lesson);
+        }
+        em.flush();
+        return lessons;
+    }
+
+    private Integer storedPercent(AppUser appUser, Lesson lesson) {
+        return userProgressRepository.findByAppUserIdAndLessonId(appUser.getId(), lesson.getId()).orElseThrow().getPercent();
+    }
+
+    private static UserProgress progress(AppUser appUser, Lesson lesson, int percent, Instant lastAccessed) {
+        return new UserProgress().percent(percent).lastAccessed(lastAccessed).appUser(appUser).lesson(lesson);
+    }
+
+    private static UserProgressBatchDTO.Item item(Long lessonId, Integer percent, Instant clientTimestamp) {
+        UserProgressBatchDTO.Item item = new UserProgressBatchDTO.Item();
+        item.setLessonId(lessonId);
+        item.setPercent(percent);
+        item.setClientTimestamp(clientTimestamp);
+        return item;
+    }
+}
@@ -0,0 +1,295 @@
+package com.langleague.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.langleague.IntegrationTest;
+import com.langleague.config.ApplicationProperties;
+import com.langleague.domain.AppUser;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.repository.AppUserRepository;
+import com.langleague.repository.LessonRepository;
+import com.langleague.repository.UserProgressRepository;
+import com.langleague.service.dto.UserProgressDTO;
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link UserProgressWriteBehindService}.
+ * <p>
+ * Most tests use their own buffer, so that the scheduled flush of the application does not interfere.
+ */
+@IntegrationTest
+class UserProgressWriteBehindServiceIT {
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private CompletionCohortService completionCohortService;
+
+    @Autowired
+    private ChapterCompletionService chapterCompletionService;
+
+    @Autowired
+    private ProgressVersionService progressVersionService;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Long appUserId;
+
+    private Long lessonId;
+
+    private Long otherLessonId;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            AppUser appUser = new AppUser();
+            appUser.setDisplayName("Write behind");
+            em.persist(appUser);
+            Book book = new Book().title("Book");
+            em.persist(book);
+            Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+            em.persist(chapter);
+            Lesson lesson = new Lesson();
+            lesson.setTitle("Lesson");
+            lesson.setChapterEntity(chapter);
+            em.persist(lesson);
+            Lesson otherLesson = new Lesson();
+            otherLesson.setTitle("Other lesson");
+            otherLesson.setChapterEntity(chapter);
+            em.persist(otherLesson);
+            em.flush();
+            appUserId = appUser.getId();
+            lessonId = lesson.getId();
+            otherLessonId = otherLesson.getId();
+        });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM user_progress WHERE app_user_id = ?", appUserId);
+            jdbcTemplate.update("DELETE FROM change_log WHERE app_user_id = ?", appUserId);
+        });
+    }
+
+    @Test
+    void coalescesTheTicksOfAPair() {
+        UserProgressWriteBehindService writeBehind = writeBehind(1000, transactionManager);
+
+        writeBehind.save(appUserId, lessonId, 10);
+        writeBehind.save(appUserId, lessonId, 20);
+        writeBehind.save(appUserId, lessonId, 30);
+        writeBehind.save(appUserId, otherLessonId, 5);
+
+        assertThat(writeBehind.getPending(appUserId, lessonId)).map(UserProgressDTO::getPercent).contains(30);
+        assertThat(writeBehind.flush()).isEqualTo(2);
+        assertThat(storedPercents(lessonId)).containsExactly(30);
+        assertThat(storedPercents(otherLessonId)).containsExactly(5);
+        assertThat(writeBehind.getPending(appUserId, lessonId)).isEmpty();
+    }
+
+    @Test
+    void flushesOnceTheThresholdIsReached() {
+        // Runs the threshold flush on the calling thread
+        UserProgressWriteBehindService writeBehind = writeBehind(2, transactionManager);
+
+        writeBehind.save(appUserId, lessonId, 10);
+        assertThat(storedPercents(lessonId)).isEmpty();
+        writeBehind.save(appUserId, otherLessonId, 20);
+
+        assertThat(storedPercents(lessonId)).containsExactly(10);
+        assertThat(storedPercents(otherLessonId)).containsExactly(20);
+        assertThat(writeBehind.getPending(appUserId, lessonId)).isEmpty();
+    }
+
+    @Test
+    void keepsThePairsOfAFailedFlushForTheNextOne() {
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        UserProgressWriteBehindService writeBehind = writeBehind(
+            1000,
+            new PlatformTransactionManager() {
+                @Override
+                public TransactionStatus getTransaction(TransactionDefinition definition) {
+                    if (databaseDown.get()) {
+                        throw new CannotCreateTransactionException("Database down");
+                    }
+                    return transactionManager.getTransaction(definition);
+                }
+
+                @Override
+                public void commit(TransactionStatus status) {
+                    transactionManager.commit(status);
+                }
+
+                @Override
+                public void rollback(TransactionStatus status) {
+                    transactionManager.rollback(status);
+                }
+            }
+        );
+        writeBehind.save(appUserId, lessonId, 10);
+        writeBehind.save(appUserId, otherLessonId, 20);
+
+        assertThat(writeBehind.flush()).isZero();
+        assertThat(writeBehind.getPending(appUserId, lessonId)).isPresent();
+
+        databaseDown.set(false);
+        assertThat(writeBehind.flush()).isEqualTo(2);
+        assertThat(storedPercents(lessonId)).containsExactly(10);
+        assertThat(storedPercents(otherLessonId)).containsExactly(20);
+    }
+
+    @Test
+    void dropsTheRowsTheDatabaseRejectsAndWritesTheOthers() {
+        UserProgressWriteBehindService writeBehind = writeBehind(1000, transactionManager);
+        writeBehind.save(appUserId, lessonId, 10);
+        writeBehind.save(appUserId, otherLessonId, 20);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("DELETE FROM lesson WHERE id = ?", otherLessonId));
+
+        assertThat(writeBehind.flush()).isEqualTo(1);
+
+        assertThat(storedPercents(lessonId)).containsExactly(10);
+        assertThat(writeBehind.getPending(appUserId, otherLessonId)).isEmpty();
+        assertThat(writeBehind.flush()).isZero();
+    }
+
+    @Test
+    void rejectsUnknownIds() {
+        UserProgressWriteBehindService writeBehind = writeBehind(1000, transactionManager);
+
+        assertThatThrownBy(() -> writeBehind.save(appUserId, Long.MAX_VALUE, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> writeBehind.save(Long.MAX_VALUE, lessonId, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(writeBehind.flush()).isZero();
+    }
+
+    @Test
+    void neverOverwritesAProgressWrittenAfterTheTick() {
+        UserProgressWriteBehindService writeBehind = writeBehind(1000, transactionManager);
+        writeBehind.save(appUserId, lessonId, 10);
+        // A lesson marked while a flush already holds the tick
+        transactionTemplate.executeWithoutResult(status ->
+            userProgressRepository.upsertProgress(appUserId, lessonId, 100, Instant.now().plus(1, ChronoUnit.SECONDS))
+        );
+
+        writeBehind.flush();
+
+        assertThat(storedPercents(lessonId)).containsExactly(100);
+        assertThat(writeBehind.getPending(appUserId, lessonId)).isEmpty();
+    }
+
+    @Test
+    void bumpsTheVersionOfTheUserWhenATickIsBuffered() {
+        UserProgressWriteBehindService writeBehind = writeBehind(1000, transactionManager);
+        String etag = progressVersionService.etag(appUserId);
+
+        writeBehind.save(appUserId, lessonId, 10);
+
+        assertThat(progressVersionService.etag(appUserId)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void sharesTheVersionOfTheChangeLogOnceTheTickIsWritten() {
+        UserProgressWriteBehindService writeBehind = writeBehind(1000, transactionManager);
+        writeBehind.save(appUserId, lessonId, 10);
+        String buffered = progressVersionService.etag(appUserId);
+
+        writeBehind.flush();
+
+        assertThat(progressVersionService.etag(appUserId))
+            .isEqualTo("\"" + changeLogService.findVersion(appUserId) + "\"")
+            .isNotEqualTo(buffered);
+    }
+
+    @Test
+    void readsSeeTheirOwnPendingWrites() {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update(
+                "INSERT INTO user_progress (percent, last_accessed, app_user_id, lesson_id) VALUES (?, ?, ?, ?)",
+                10,
+                Timestamp.from(Instant.now().minus(1, ChronoUnit.HOURS)),
+                appUserId,
+                lessonId
+            )
+        );
+
+        userProgressService.saveProgress(appUserId, lessonId, 40);
+
+        // Whether the scheduled flush ran in between or not
+        assertThat(userProgressService.getLessonProgress(appUserId, lessonId)).map(UserProgressDTO::getPercent).contains(40);
+    }
+
+    private UserProgressWriteBehindService writeBehind(int flushThreshold, PlatformTransactionManager transactionManager) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getProgress().setFlushThreshold(flushThreshold);
+        return new UserProgressWriteBehindService(
+            userProgressRepository,
+            transactionManager,
+            catalogSnapshotService,
+            lessonRepository,
+            appUserRepository,
+            dashboardStatsService,
+            completionCohortService,
+            chapterCompletionService,
+            progressVersionService,
+            changeLogService,
+            Runnable::run,
+            applicationProperties
+        );
+    }
+
+    private List<Integer> storedPercents(Long lessonId) {
+        return jdbcTemplate.queryForList(
+            "SELECT percent FROM user_progress WHERE app_user_id = ? AND lesson_id = ?",
+            Integer.class,
+            appUserId,
+            lessonId
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package com.langleague.service.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesSmallCardinalitiesAlmostExactly() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100; i++) {
+            sketch.add("user-" + i);
+            sketch.add("user-" + i);
+        }
+
+        assertThat(sketch.estimate()).isBetween(98L, 102L);
+    }
+
+    @Test
+    void estimatesLargeCardinalitiesWithinTheErrorBound() {
+        HyperLogLog sketch = new HyperLogLog();
+        int count = 1_000_000;
+        for (int i = 0; i < count; i++) {
+            sketch.add("visitor-" + i);
+        }
+
+        // Four standard errors: fails by chance far less than once in ten thousand runs
+        double tolerance = 4 * sketch.relativeStandardError();
+        assertThat(sketch.estimate()).isBetween((long) (count * (1 - tolerance)), (long) (count * (1 + tolerance)));
+        assertThat(sketch.toBytes()).hasSize(4096);
+    }
+
+    @Test
+    void mergeEstimatesTheUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 20_000; i++) {
+            first.add("visitor-" + i);
+        }
+        for (int i = 10_000; i < 30_000; i++) {
+            second.add("visitor-" + i);
+        }
+
+        first.merge(second);
+
+        double tolerance = 4 * first.relativeStandardError();
+        assertThat(first.estimate()).isBetween((long) (30_000 * (1 - tolerance)), (long) (30_000 * (1 + tolerance)));
+    }
+
+    @Test
+    void survivesSerialization() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add("visitor-" + i);
+        }
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+        assertThat(restored.getPrecision()).isEqualTo(HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    @Test
+    void rejectsMergingDifferentPrecisions() {
+        assertThatThrownBy(() -> new HyperLogLog(10).merge(new HyperLogLog(12))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
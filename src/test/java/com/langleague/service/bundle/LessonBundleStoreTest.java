@@ -0,0 +1,116 @@
+package com.langleague.service.bundle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.service.bundle.LessonBundleStore.Bundle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LessonBundleStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void writesTheContentAndItsGzipVariant() throws IOException {
+        LessonBundleStore store = new LessonBundleStore(directory.resolve("bundles"));
+        byte[] json = "{\"words\":[\"사과\",\"바나나\"]}".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        Bundle bundle = store.put(1, json);
+
+        assertThat(bundle.version()).hasSize(32);
+        assertThat(bundle.json().getFileName().toString()).isEqualTo("1-" + bundle.version() + ".json");
+        assertThat(Files.readAllBytes(bundle.json())).isEqualTo(json);
+        assertThat(Files.size(bundle.gzip())).isLessThan(json.length);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(bundle.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(json);
+        }
+        assertThat(store.get(1)).contains(bundle);
+        assertThat(store.get(2)).isEmpty();
+    }
+
+    @Test
+    void replacesTheFilesOfAChangedBundleOnly() throws IOException {
+        LessonBundleStore store = new LessonBundleStore(directory);
+        Bundle first = store.put(1, bytes("first"));
+        long modified = Files.getLastModifiedTime(first.json()).toMillis();
+
+        assertThat(store.put(1, bytes("first"))).isEqualTo(first);
+        assertThat(Files.getLastModifiedTime(first.json()).toMillis()).isEqualTo(modified);
+
+        Bundle second = store.put(1, bytes("second"));
+
+        assertThat(second.version()).isNotEqualTo(first.version());
+        assertThat(store.get(1)).contains(second);
+        assertThat(first.json()).doesNotExist();
+        assertThat(first.gzip()).doesNotExist();
+        assertThat(files()).containsExactlyInAnyOrder(second.json(), second.gzip());
+    }
+
+    @Test
+    void removesAndClearsTheFiles() throws IOException {
+        LessonBundleStore store = new LessonBundleStore(directory);
+        Bundle first = store.put(1, bytes("first"));
+        store.put(2, bytes("second"));
+        Files.writeString(directory.resolve("stale.json"), "{}");
+
+        store.remove(1);
+
+        assertThat(store.get(1)).isEmpty();
+        assertThat(first.json()).doesNotExist();
+        assertThat(store.size()).isEqualTo(1);
+
+        store.clear();
+
+        assertThat(store.size()).isZero();
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void removesABundleOnlyIfItIsStillCurrent() throws IOException {
+        LessonBundleStore store = new LessonBundleStore(directory);
+        Bundle first = store.put(1, bytes("first"));
+        Bundle second = store.put(1, bytes("second"));
+
+        store.remove(first);
+
+        assertThat(store.get(1)).contains(second);
+        assertThat(second.json()).exists();
+
+        Files.delete(second.json());
+        store.remove(second);
+
+        assertThat(store.get(1)).isEmpty();
+        assertThat(second.gzip()).doesNotExist();
+    }
+
+    @Test
+    void deletesTheDirectory() throws IOException {
+        Path bundles = directory.resolve("bundles");
+        LessonBundleStore store = new LessonBundleStore(bundles);
+        store.put(1, bytes("first"));
+
+        store.delete();
+
+        assertThat(store.size()).isZero();
+        assertThat(bundles).doesNotExist();
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
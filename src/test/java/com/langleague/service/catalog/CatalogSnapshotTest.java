@@ -0,0 +1,53 @@
+package com.langleague.service.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.service.catalog.CatalogSnapshot.BookNode;
+import com.langleague.service.catalog.CatalogSnapshot.ChapterNode;
+import com.langleague.service.catalog.CatalogSnapshot.LessonNode;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CatalogSnapshotTest {
+
+    @Test
+    void ordersTheCatalogAndLinksThePublishedLessonsOfEachBook() {
+        CatalogSnapshot snapshot = new CatalogSnapshot(
+            7,
+            Instant.EPOCH,
+            List.of(new BookNode(2L, "Book 2", null, null), new BookNode(1L, "Book 1", null, null)),
+            List.of(
+                new ChapterNode(12L, "Chapter 1.2", 2, 1L, "Book 1"),
+                new ChapterNode(11L, "Chapter 1.1", 1, 1L, "Book 1"),
+                new ChapterNode(21L, "Chapter 2.1", 1, 2L, "Book 2")
+            ),
+            List.of(
+                lesson(104L, 2, true, 12L),
+                lesson(103L, 1, false, 12L),
+                lesson(102L, 2, true, 11L),
+                lesson(101L, 1, true, 11L),
+                lesson(201L, 1, true, 21L),
+                lesson(999L, 1, true, 99L)
+            )
+        );
+
+        assertThat(snapshot.version()).isEqualTo(7);
+        assertThat(snapshot.books()).extracting(BookNode::id).containsExactly(1L, 2L);
+        assertThat(snapshot.chaptersOfBook(1L)).extracting(ChapterNode::id).containsExactly(11L, 12L);
+        assertThat(snapshot.chapterIds()).containsExactly(11L, 12L, 21L);
+        assertThat(snapshot.lessons()).extracting(LessonNode::id).containsExactly(101L, 102L, 103L, 104L, 201L);
+        assertThat(snapshot.publishedLessons()).extracting(LessonNode::id).containsExactly(101L, 102L, 104L, 201L);
+        assertThat(snapshot.lessonsOfChapter(12L)).extracting(LessonNode::id).containsExactly(103L, 104L);
+        assertThat(snapshot.nextLesson(102L)).map(LessonNode::id).contains(104L);
+        assertThat(snapshot.previousLesson(104L)).map(LessonNode::id).contains(102L);
+        // The last lesson of a book has no next lesson, even if another book follows
+        assertThat(snapshot.nextLesson(104L)).isEmpty();
+        assertThat(snapshot.previousLesson(201L)).isEmpty();
+        assertThat(snapshot.lesson(999L)).isEmpty();
+    }
+
+    private static LessonNode lesson(Long id, int orderIndex, boolean published, Long chapterId) {
+        return new LessonNode(id, "Lesson " + id, null, "beginner", null, null, orderIndex, published, chapterId);
+    }
+}
@@ -0,0 +1,38 @@
+package com.langleague.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+class SeekCursorTest {
+
+    @Test
+    void encodesToAnOpaqueUrlSafeToken() {
+        SeekCursor cursor = new SeekCursor(Instant.parse("2025-11-10T09:15:30.123456Z"), 1502L);
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(SeekCursor.decode(token)).isEqualTo(cursor);
+        assertThatThrownBy(() -> SeekCursor.decode("not a cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SeekCursor.decode("bm90IGEgY3Vyc29y")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pointsAtTheLastRowOnlyIfThereIsANextPage() {
+        Instant now = Instant.now();
+        List<Long> rows = List.of(3L, 2L);
+
+        assertThat(SeekCursor.next(new SliceImpl<>(rows, PageRequest.of(0, 2), true), id -> new SeekCursor(now, id))).contains(
+            new SeekCursor(now, 2L)
+        );
+        assertThat(SeekCursor.next(new SliceImpl<>(rows, PageRequest.of(0, 2), false), id -> new SeekCursor(now, id))).isEmpty();
+        assertThat(SeekCursor.pageSize(null)).isEqualTo(SeekCursor.DEFAULT_SIZE);
+        assertThat(SeekCursor.pageSize(1000)).isEqualTo(SeekCursor.MAX_SIZE);
+    }
+}
@@ -0,0 +1,150 @@
+package com.langleague.service.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.service.Benchmark;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class RowWritersTest {
+
+    private static final List<String> COLUMNS = List.of("id", "login", "score", "submittedAt");
+
+    @Test
+    void csvQuotesAndNeutralizesFormulas() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RowWriter writer = new CsvRowWriter(out);
+
+        writer.writeHeader(COLUMNS);
+        writer.writeRow(new Object[] { 1L, "kim, \"minji\"", -3, Timestamp.from(Instant.parse("2025-11-10T09:00:00Z")) });
+        writer.writeRow(new Object[] { 2L, "=HYPERLINK(\"x\")", null, null });
+        writer.finish();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "\uFEFFid,login,score,submittedAt\r\n" +
+            "1,\"kim, \"\"minji\"\"\",-3,2025-11-10T09:00:00Z\r\n" +
+            "2,\"'=HYPERLINK(\"\"x\"\")\",,\r\n"
+        );
+    }
+
+    @Test
+    void xlsxIsAValidPackage() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RowWriter writer = new XlsxRowWriter(out);
+
+        writer.writeHeader(COLUMNS);
+        writer.writeRow(new Object[] { 1L, "<Ha & Lan>", 95, Timestamp.from(Instant.parse("2025-11-10T09:00:00Z")) });
+        writer.finish();
+
+        Map<String, String> entries = unzip(out.toByteArray());
+        assertThat(entries).containsOnlyKeys(
+            "[Content_Types].xml",
+            "_rels/.rels",
+            "xl/workbook.xml",
+            "xl/_rels/workbook.xml.rels",
+            "xl/worksheets/sheet1.xml"
+        );
+        assertThat(entries.get("xl/worksheets/sheet1.xml"))
+            .contains("<t xml:space=\"preserve\">login</t>")
+            .contains("<c><v>1</v></c>")
+            .contains("&lt;Ha &amp; Lan&gt;")
+            .contains("2025-11-10T09:00:00Z");
+    }
+
+    @Test
+    void xlsxContinuesOnANewSheetWhenASheetIsFull() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RowWriter writer = new XlsxRowWriter(out, 3);
+
+        writer.writeHeader(COLUMNS);
+        for (long i = 0; i < 5; i++) {
+            writer.writeRow(new Object[] { i, "user", 1, null });
+        }
+        writer.finish();
+
+        Map<String, String> entries = unzip(out.toByteArray());
+        // 3 rows per sheet, header included: 2 + 2 + 1 data rows
+        assertThat(entries).containsKeys("xl/worksheets/sheet1.xml", "xl/worksheets/sheet2.xml", "xl/worksheets/sheet3.xml");
+        assertThat(entries.get("xl/workbook.xml")).contains("sheetId=\"3\"");
+        assertThat(entries.get("xl/worksheets/sheet3.xml")).contains(">login<").contains("<c><v>4</v></c>");
+    }
+
+    /**
+     * Streams 5 million rows through both writers and checks that the heap does not grow with the row count.
+     * Run with {@code ./mvnw test -Dtest=RowWritersTest -Dexport.benchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "export.benchmark", matches = "true")
+    void memoryStaysBoundedAtFiveMillionRows() throws IOException {
+        for (boolean excel : new boolean[] { false, true }) {
+            CountingOutputStream out = new CountingOutputStream();
+            RowWriter writer = excel ? new XlsxRowWriter(out) : new CsvRowWriter(out);
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            System.gc();
+            long baseline = memory.getHeapMemoryUsage().getUsed();
+            long peak = 0;
+            long start = System.nanoTime();
+
+            writer.writeHeader(COLUMNS);
+            Timestamp submittedAt = Timestamp.from(Instant.parse("2025-11-10T09:00:00Z"));
+            for (long i = 0; i < 5_000_000L; i++) {
+                writer.writeRow(new Object[] { i, "user-" + i, (int) (i % 100), submittedAt });
+                if (i % 1_000_000 == 0) {
+                    System.gc();
+                    peak = Math.max(peak, memory.getHeapMemoryUsage().getUsed() - baseline);
+                }
+            }
+            writer.finish();
+
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            Benchmark.log(
+                "{}: 5000000 rows, {} MB written in {} ms, retained heap growth {} KB",
+                excel ? "xlsx" : "csv",
+                out.count / (1024 * 1024),
+                millis,
+                peak / 1024
+            );
+            assertThat(peak).isLessThan(32L * 1024 * 1024);
+        }
+    }
+
+    private static Map<String, String> unzip(byte[] bytes) throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
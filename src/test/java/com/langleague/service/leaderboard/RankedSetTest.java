@@ -0,0 +1,110 @@
+package com.langleague.service.leaderboard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.service.Benchmark;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class RankedSetTest {
+
+    @Test
+    void ranksByScoreThenId() {
+        RankedSet set = new RankedSet();
+        set.put(3, 50);
+        set.put(1, 80);
+        set.put(2, 50);
+        set.increment(4, 10);
+
+        assertThat(set.range(0, 10)).containsExactly(
+            new RankedSet.Entry(1, 80, 1),
+            new RankedSet.Entry(2, 50, 2),
+            new RankedSet.Entry(3, 50, 3),
+            new RankedSet.Entry(4, 10, 4)
+        );
+        assertThat(set.rank(3)).isEqualTo(3);
+        assertThat(set.rank(99)).isZero();
+
+        set.increment(4, 100);
+        set.remove(1);
+        assertThat(set.entry(4)).isEqualTo(new RankedSet.Entry(4, 110, 1));
+        assertThat(set.range(1, 1)).containsExactly(new RankedSet.Entry(2, 50, 2));
+        assertThat(set.size()).isEqualTo(3);
+    }
+
+    @Test
+    void agreesWithASortedListUnderRandomUpdates() {
+        RankedSet set = new RankedSet();
+        Map<Long, Long> scores = new HashMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(500);
+            if (random.nextInt(10) == 0) {
+                set.remove(id);
+                scores.remove(id);
+            } else {
+                long delta = random.nextInt(20);
+                set.increment(id, delta);
+                scores.merge(id, delta, Long::sum);
+            }
+        }
+
+        List<Map.Entry<Long, Long>> expected = new ArrayList<>(scores.entrySet());
+        expected.sort(Comparator.<Map.Entry<Long, Long>>comparingLong(Map.Entry::getValue).reversed().thenComparing(Map.Entry::getKey));
+        assertThat(set.size()).isEqualTo(expected.size());
+        List<RankedSet.Entry> all = set.range(0, expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            long id = expected.get(i).getKey();
+            assertThat(all.get(i)).isEqualTo(new RankedSet.Entry(id, expected.get(i).getValue(), i + 1));
+            assertThat(set.rank(id)).isEqualTo(i + 1);
+        }
+        assertThat(set.range(expected.size() - 2, 5)).hasSize(2);
+    }
+
+    /**
+     * Measures updates, "my rank" and top-10 reads with one million users.
+     * Run with {@code ./mvnw test -Dtest=RankedSetTest -Dleaderboard.benchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "leaderboard.benchmark", matches = "true")
+    void benchmarkOneMillionUsers() {
+        int users = 1_000_000;
+        int operations = 1_000_000;
+        Random random = new Random(7);
+        RankedSet set = new RankedSet();
+
+        long start = System.nanoTime();
+        for (long id = 0; id < users; id++) {
+            set.put(id, random.nextInt(100_000));
+        }
+        Benchmark.report("load", users, start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            set.increment(random.nextInt(users), random.nextInt(100));
+        }
+        Benchmark.report("increment", operations, start);
+
+        long checksum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            checksum += set.rank(random.nextInt(users));
+        }
+        Benchmark.report("rank", operations, start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            checksum += set.range(0, 10).get(0).id();
+        }
+        Benchmark.report("top10", operations, start);
+
+        assertThat(checksum).isPositive();
+        assertThat(set.size()).isEqualTo(users);
+    }
+}
@@ -0,0 +1,82 @@
+package com.langleague.service.recommendation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.service.recommendation.LessonNeighbours.History;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LessonNeighboursTest {
+
+    @Test
+    void pairsFinishedLessonsWithTheLessonsTakenNext() {
+        List<History> histories = List.of(
+            history(new long[] { 1, 2, 3 }, true, true, false),
+            history(new long[] { 1, 2, 4 }, true, true, true),
+            history(new long[] { 1, 3 }, true, false),
+            history(new long[] { 2, 1 }, false, true),
+            history(new long[] { 5, 6 }, true, true)
+        );
+
+        LessonNeighbours neighbours = LessonNeighbours.build(histories, 10, 10, 2);
+
+        // 1 -> 2 and 1 -> 3 by two learners each, but 2 has one more learner than 3
+        assertThat(neighbours.neighbours(1)).containsExactly(3, 2);
+        // 2 -> 1 is not counted, since lesson 2 was not finished by the learner who took 1 next
+        assertThat(neighbours.neighbours(2)).isEmpty();
+        // Seen once only
+        assertThat(neighbours.neighbours(5)).isEmpty();
+        assertThat(neighbours.size()).isEqualTo(1);
+    }
+
+    @Test
+    void mergesTheNeighboursOfTheRecentLessons() {
+        List<History> histories = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            histories.add(history(new long[] { 1, 10 }, true, true));
+            histories.add(history(new long[] { 2, 20 }, true, true));
+            histories.add(history(new long[] { 2, 10 }, true, true));
+        }
+        histories.add(history(new long[] { 2, 30 }, true, true));
+        histories.add(history(new long[] { 2, 30 }, true, true));
+
+        LessonNeighbours neighbours = LessonNeighbours.build(histories, 10, 1, 2);
+
+        // 10 follows both recent lessons
+        assertThat(neighbours.recommend(new long[] { 2, 1 }, id -> true, 10)).containsExactly(10L, 20L, 30L);
+        assertThat(neighbours.recommend(new long[] { 1, 2 }, id -> id != 10, 1)).containsExactly(20L);
+        assertThat(neighbours.recommend(new long[] { 99 }, id -> true, 10)).isEmpty();
+        assertThat(LessonNeighbours.EMPTY.recommend(new long[] { 1 }, id -> true, 10)).isEmpty();
+    }
+
+    @Test
+    void beatsThePopularLessonsOnAHeldOutSplit() {
+        // Five tracks of six lessons taken in order, the first tracks by more learners
+        Random random = new Random(42);
+        List<History> histories = new ArrayList<>();
+        for (int learner = 0; learner < 2_000; learner++) {
+            int track = (int) (5 * Math.pow(random.nextDouble(), 2));
+            long[] lessons = new long[2 + random.nextInt(5)];
+            for (int step = 0; step < lessons.length; step++) {
+                lessons[step] = 100L * track + step;
+            }
+            boolean[] finished = new boolean[lessons.length];
+            Arrays.fill(finished, true);
+            histories.add(new History(lessons, finished));
+        }
+
+        LessonRecommenderEvaluation.Result result = LessonRecommenderEvaluation.hitRate(histories, 3, 5, 20, 10, 2);
+
+        assertThat(result.learners()).isEqualTo(2_000);
+        // The fifth of the learners who hold out the last lesson of their track cannot be hit: no one else took it
+        assertThat(result.hitRate()).isGreaterThan(0.75);
+        assertThat(result.hitRate()).isGreaterThan(result.popularityHitRate());
+    }
+
+    private static History history(long[] lessons, boolean... finished) {
+        return new History(lessons, finished);
+    }
+}
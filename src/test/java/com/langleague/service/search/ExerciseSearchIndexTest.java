@@ -0,0 +1,77 @@
+package com.langleague.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.service.search.ExerciseSearchIndex.Document;
+import com.langleague.service.search.ExerciseSearchIndex.Hit;
+import com.langleague.service.search.ExerciseSearchIndex.Type;
+import org.junit.jupiter.api.Test;
+
+class ExerciseSearchIndexTest {
+
+    @Test
+    void requiresEveryTermAndRanksTheMostFrequentFirst() {
+        ExerciseSearchIndex index = new ExerciseSearchIndex();
+        index.put(new Document(Type.READING, 1L, 10L, "Táo và táo", "Mua táo?"));
+        index.put(new Document(Type.LISTENING, 1L, 10L, "Tôi mua táo", null));
+        index.put(new Document(Type.WRITING, 2L, 20L, "Viết về món ăn yêu thích", "Tôi thích ăn táo"));
+
+        assertThat(index.search("tao", null, null, 10)).extracting(Hit::type).containsExactly(Type.READING, Type.LISTENING, Type.WRITING);
+        assertThat(index.search("MUA táo", null, null, 10)).extracting(Hit::type).containsExactlyInAnyOrder(Type.READING, Type.LISTENING);
+        assertThat(index.search("táo chuối", null, null, 10)).isEmpty();
+        assertThat(index.search("tao", null, null, 1)).extracting(Hit::type).containsExactly(Type.READING);
+        assertThat(index.search("  ", null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void matchesPhrasesWithinOneField() {
+        ExerciseSearchIndex index = new ExerciseSearchIndex();
+        index.put(new Document(Type.SPEAKING, 1L, null, "저는 학교에서 공부해요", "학교에서"));
+        index.put(new Document(Type.SPEAKING, 2L, null, "공부해요 학교에서", null));
+        index.put(new Document(Type.READING, 3L, null, "Good morning", "teacher"));
+        index.put(new Document(Type.READING, 4L, null, "Good morning teacher", null));
+
+        assertThat(index.search("\"학교에서 공부\"", null, null, 10)).extracting(Hit::id).containsExactly(1L);
+        assertThat(index.search("학교 공부", null, null, 10)).extracting(Hit::id).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("\"morning teacher\"", null, null, 10)).extracting(Hit::id).containsExactly(4L);
+        assertThat(index.search("\"teacher morning\"", null, null, 10)).isEmpty();
+        // An unclosed quote is a phrase up to the end
+        assertThat(index.search("good \"morning teacher", null, null, 10)).extracting(Hit::id).containsExactly(4L);
+    }
+
+    @Test
+    void filtersBySkillAndLesson() {
+        ExerciseSearchIndex index = new ExerciseSearchIndex();
+        index.put(new Document(Type.READING, 1L, 10L, "weather report", null));
+        index.put(new Document(Type.WRITING, 1L, 20L, "describe the weather", null));
+        index.put(new Document(Type.SPEAKING, 2L, null, "talk about the weather", null));
+
+        assertThat(index.search("weather", Type.WRITING, null, 10)).extracting(Hit::lessonId).containsExactly(20L);
+        assertThat(index.search("weather", null, id -> id == 10L, 10)).extracting(Hit::type).containsExactly(Type.READING);
+        // An exercise without a lesson is not in any lesson
+        assertThat(index.search("weather", Type.SPEAKING, id -> true, 10)).isEmpty();
+        assertThat(index.search("weather", Type.SPEAKING, null, 10)).extracting(Hit::id).containsExactly(2L);
+    }
+
+    @Test
+    void replacesAndRemovesExercisesAndCutsTheExcerpt() {
+        ExerciseSearchIndex index = new ExerciseSearchIndex();
+        index.put(new Document(Type.READING, 1L, null, "food", null));
+        index.put(new Document(Type.LISTENING, 1L, null, "food", null));
+
+        index.put(new Document(Type.READING, 1L, null, "travel  plans\n" + "x".repeat(200), null));
+        assertThat(index.search("food", null, null, 10)).extracting(Hit::type).containsExactly(Type.LISTENING);
+        Hit travel = index.search("travel", null, null, 10).get(0);
+        assertThat(travel.excerpt()).startsWith("travel plans x").endsWith("…");
+        assertThat(travel.excerpt()).hasSize(ExerciseSearchIndex.EXCERPT_LENGTH + 1);
+
+        index.remove(Type.LISTENING, 1L);
+        assertThat(index.search("food", null, null, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+
+        index.put(new Document(Type.SPEAKING, 5L, null, "food again", null));
+        assertThat(index.search("food", null, null, 10)).extracting(Hit::id).containsExactly(5L);
+        // travel, plans, xx…x, food and again
+        assertThat(index.termCount()).isEqualTo(5);
+    }
+}
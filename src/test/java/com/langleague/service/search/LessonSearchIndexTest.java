@@ -0,0 +1,115 @@
+package com.langleague.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.service.Benchmark;
+import com.langleague.service.search.LessonSearchIndex.Document;
+import com.langleague.service.search.LessonSearchIndex.Hit;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class LessonSearchIndexTest {
+
+    @Test
+    void foldsDiacriticsAndSplitsHangulIntoBigrams() {
+        assertThat(TextAnalyzer.terms("XIN CHÀO, Đà Nẵng!")).containsExactly("xin", "chao", "da", "nang");
+        assertThat(TextAnalyzer.terms("학교에서 공부")).containsExactly("학교", "교에", "에서", "공부");
+        assertThat(TextAnalyzer.terms("책 book2")).containsExactly("책", "book2");
+        assertThat(TextAnalyzer.terms(null)).isEmpty();
+    }
+
+    @Test
+    void ranksTitleMatchesFirstAndFiltersByLevel() {
+        LessonSearchIndex index = new LessonSearchIndex();
+        index.put(new Document(1L, "Beginner", true, "Chào hỏi", "인사", "Greetings", List.of("안녕하세요", "xin chào")));
+        index.put(new Document(2L, "beginner", true, "Gia đình", "가족", "Nói lời chào với gia đình", List.of()));
+        index.put(new Document(3L, "advanced", true, "Trường học", "학교", "Ở trường", List.of("학교에서", "at school")));
+        index.put(new Document(4L, "beginner", false, "Chào buổi sáng", null, null, List.of()));
+
+        assertThat(index.search("chao ", null, 10)).extracting(Hit::id).containsExactly(1L, 2L);
+        assertThat(index.search("CHÀO", "BEGINNER", 10)).extracting(Hit::id).containsExactly(1L, 2L);
+        assertThat(index.search("chào", "advanced", 10)).isEmpty();
+        assertThat(index.search("학교", null, 10)).extracting(Hit::id).containsExactly(3L);
+        assertThat(index.search("안녕", null, 10)).extracting(Hit::id).containsExactly(1L);
+        assertThat(index.search("chao", null, 1)).extracting(Hit::id).containsExactly(1L);
+    }
+
+    @Test
+    void matchesTheLastWordAsAPrefixWhileTyping() {
+        LessonSearchIndex index = new LessonSearchIndex();
+        index.put(new Document(1L, null, true, "School life", null, null, List.of()));
+        index.put(new Document(2L, null, true, "Schedule", null, null, List.of()));
+
+        assertThat(index.search("sch", null, 10)).extracting(Hit::id).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("schoo", null, 10)).extracting(Hit::id).containsExactly(1L);
+        // A completed word is not expanded
+        assertThat(index.search("sch ", null, 10)).isEmpty();
+    }
+
+    @Test
+    void replacesAndRemovesLessons() {
+        LessonSearchIndex index = new LessonSearchIndex();
+        index.put(new Document(1L, null, true, "Food", null, null, List.of()));
+        index.put(new Document(2L, null, true, "Travel", null, null, List.of()));
+
+        index.put(new Document(1L, null, true, "Weather", null, null, List.of()));
+        assertThat(index.search("food ", null, 10)).isEmpty();
+        assertThat(index.search("weather ", null, 10)).extracting(Hit::id).containsExactly(1L);
+
+        index.remove(2L);
+        assertThat(index.search("travel ", null, 10)).isEmpty();
+        index.put(new Document(3L, null, true, "Travel plans", null, null, List.of()));
+        assertThat(index.search("travel ", null, 10)).extracting(Hit::id).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.termCount()).isEqualTo(3);
+    }
+
+    /**
+     * Measures searches with 100,000 lessons.
+     * Run with {@code ./mvnw test -Dtest=LessonSearchIndexTest -Dsearch.benchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "search.benchmark", matches = "true")
+    void benchmarkOneHundredThousandLessons() {
+        int lessons = 100_000;
+        int searches = 10_000;
+        String[] vocabulary = new String[20_000];
+        Random random = new Random(7);
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = Integer.toString(i * 7919 + 100_000, 36);
+        }
+        String[] levels = { "beginner", "intermediate", "advanced" };
+        LessonSearchIndex index = new LessonSearchIndex();
+
+        long start = System.nanoTime();
+        for (long id = 0; id < lessons; id++) {
+            List<String> words = List.of(word(vocabulary, random), word(vocabulary, random), word(vocabulary, random));
+            String title = word(vocabulary, random) + " " + word(vocabulary, random);
+            index.put(new Document(id, levels[(int) (id % 3)], true, title, null, word(vocabulary, random), words));
+        }
+        Benchmark.report("load", lessons, start);
+
+        long hits = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            hits += index.search(word(vocabulary, random) + " " + word(vocabulary, random) + " ", null, 20).size();
+        }
+        Benchmark.report("search", searches, start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            hits += index.search(word(vocabulary, random).substring(0, 2), levels[i % 3], 20).size();
+        }
+        Benchmark.report("prefix search", searches, start);
+
+        assertThat(hits).isPositive();
+        assertThat(index.size()).isEqualTo(lessons);
+    }
+
+    private static String word(String[] vocabulary, Random random) {
+        // Skewed towards the first words, as natural language is
+        return vocabulary[(int) (vocabulary.length * Math.pow(random.nextDouble(), 3))];
+    }
+}
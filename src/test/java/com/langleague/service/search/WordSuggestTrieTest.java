@@ -0,0 +1,178 @@
+package com.langleague.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.service.Benchmark;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class WordSuggestTrieTest {
+
+    @Test
+    void spellsHangulOutSoThatAPartialSyllableMatches() {
+        assertThat(TextAnalyzer.jamo("  한국  Xin CHÀO ")).isEqualTo("ㅎㅏㄴㄱㅜㄱ xin chao");
+        assertThat(TextAnalyzer.jamo("닭 과")).isEqualTo("ㄷㅏㄹㄱ ㄱㅗㅏ");
+        assertThat(TextAnalyzer.jamo("ㄺ")).isEqualTo("ㄹㄱ");
+
+        WordSuggestTrie trie = new WordSuggestTrie();
+        trie.put(1L, 3, "하나", "hana");
+        trie.put(2L, 5, "한국", "hanguk");
+        trie.put(3L, 1, "학교", "hakgyo");
+
+        assertThat(trie.suggest("한", 10)).containsExactly(2L, 1L);
+        assertThat(trie.suggest("하", 10)).containsExactly(2L, 1L, 3L);
+        assertThat(trie.suggest("ㅎ", 2)).containsExactly(2L, 1L);
+        assertThat(trie.suggest("HAN", 10)).containsExactly(2L, 1L);
+        assertThat(trie.suggest("학교에", 10)).isEmpty();
+        assertThat(trie.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksByWeightThenShortestKeyAndSuggestsAWordOnce() {
+        WordSuggestTrie trie = new WordSuggestTrie();
+        trie.put(1L, 2, "cat", "cat");
+        trie.put(2L, 2, "category");
+        trie.put(3L, 2, "catalog");
+        trie.put(4L, 7, "cathedral");
+        trie.put(5L, 2, "cat");
+
+        assertThat(trie.suggest("cat", 10)).containsExactly(4L, 1L, 5L, 3L, 2L);
+        assertThat(trie.suggest("cata", 10)).containsExactly(3L);
+        assertThat(trie.size()).isEqualTo(5);
+    }
+
+    @Test
+    void staysCompactWhenWordsAreReplacedAndRemoved() {
+        WordSuggestTrie trie = new WordSuggestTrie();
+        trie.put(1L, 1, "test");
+        int nodes = trie.nodeCount();
+        trie.put(2L, 1, "testing");
+        trie.put(3L, 1, "team");
+        trie.put(2L, 9, "tea");
+
+        assertThat(trie.suggest("te", 10)).containsExactly(2L, 1L, 3L);
+        assertThat(trie.suggest("testi", 10)).isEmpty();
+
+        trie.remove(2L);
+        trie.remove(3L);
+        assertThat(trie.suggest("te", 10)).containsExactly(1L);
+        assertThat(trie.nodeCount()).isEqualTo(nodes);
+        assertThat(trie.size()).isEqualTo(1);
+    }
+
+    @Test
+    void agreesWithAScanUnderRandomUpdates() {
+        WordSuggestTrie trie = new WordSuggestTrie();
+        Map<Long, String> texts = new HashMap<>();
+        Map<Long, Integer> weights = new HashMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 5_000; step++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(5) == 0) {
+                trie.remove(id);
+                texts.remove(id);
+                weights.remove(id);
+            } else {
+                String text = randomWord(random);
+                int weight = random.nextInt(5);
+                trie.put(id, weight, text);
+                texts.put(id, text);
+                weights.put(id, weight);
+            }
+        }
+
+        for (String prefix : List.of("a", "b", "ab", "ca", "abc", "bba")) {
+            List<Long> expected = new ArrayList<>(texts.keySet().stream().filter(id -> texts.get(id).startsWith(prefix)).toList());
+            expected.sort(
+                Comparator.<Long>comparingInt(weights::get)
+                    .reversed()
+                    .thenComparingInt(id -> texts.get(id).length())
+                    .thenComparing(Comparator.naturalOrder())
+            );
+            assertThat(trie.suggest(prefix, 10)).containsExactlyElementsOf(expected.subList(0, Math.min(10, expected.size())));
+        }
+    }
+
+    /**
+     * Measures loading, suggestions and the heap used with a dictionary of 500,000 words, each found by two keys.
+     * Run with {@code ./mvnw test -Dtest=WordSuggestTrieTest -Dsuggest.benchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "suggest.benchmark", matches = "true")
+    void benchmarkFiveHundredThousandWords() {
+        int words = 500_000;
+        int suggestions = 100_000;
+        Random random = new Random(7);
+        String[] syllables = new String[words];
+        String[] romanized = new String[words];
+        for (int i = 0; i < words; i++) {
+            StringBuilder korean = new StringBuilder();
+            StringBuilder latin = new StringBuilder();
+            int length = 2 + random.nextInt(3);
+            for (int j = 0; j < length; j++) {
+                // The first 1,000 syllables, as most words use common ones
+                int syllable = (int) (1_000 * Math.pow(random.nextDouble(), 2));
+                korean.append((char) ('가' + syllable * 7));
+                latin.append(Integer.toString(syllable, 36));
+            }
+            syllables[i] = korean.toString();
+            romanized[i] = latin.toString();
+        }
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        WordSuggestTrie trie = new WordSuggestTrie();
+        for (int i = 0; i < words; i++) {
+            trie.put(i, random.nextInt(50), syllables[i], romanized[i]);
+        }
+        Benchmark.report("load", words, start);
+        long heapAfter = usedHeap();
+        Benchmark.log(
+            "heap: {} MB for {} words and {} nodes, {} bytes per word",
+            (heapAfter - heapBefore) / (1024 * 1024),
+            trie.size(),
+            trie.nodeCount(),
+            (heapAfter - heapBefore) / words
+        );
+
+        long found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < suggestions; i++) {
+            String word = syllables[random.nextInt(words)];
+            // A syllable, two syllables, or the first two letters of a syllable
+            String prefix = switch (i % 3) {
+                case 0 -> word.substring(0, 1);
+                case 1 -> word.substring(0, 2);
+                default -> TextAnalyzer.jamo(word).substring(0, 2);
+            };
+            found += trie.suggest(prefix, 10).size();
+        }
+        Benchmark.report("suggest", suggestions, start);
+
+        assertThat(found).isPositive();
+        assertThat(trie.size()).isEqualTo(words);
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,143 @@
+package com.langleague.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.langleague.IntegrationTest;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.domain.LessonSkill;
+import com.langleague.domain.Skill;
+import com.langleague.security.AuthoritiesConstants;
+import jakarta.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the exercises of a lesson written through the REST API, then read back in the lesson details.
+ * <p>
+ * Not transactional: the details are cached, and evicted once the writers commit.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+class LessonExercisesResourceIT {
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Lesson lesson;
+
+    private LessonSkill lessonSkill;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            Book book = new Book().title("Book");
+            em.persist(book);
+            Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+            em.persist(chapter);
+            lesson = new Lesson();
+            lesson.setTitle("Lesson");
+            lesson.setChapterEntity(chapter);
+            em.persist(lesson);
+            Skill skill = new Skill().name("skill");
+            em.persist(skill);
+            lessonSkill = new LessonSkill().lesson(lesson).skill(skill);
+            em.persist(lessonSkill);
+        });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String table : new String[] { "listening_exercise", "speaking_exercise", "reading_exercise", "writing_exercise" }) {
+                em
+                    .createNativeQuery("DELETE FROM " + table + " WHERE lesson_skill_id = :id")
+                    .setParameter("id", lessonSkill.getId())
+                    .executeUpdate();
+            }
+            LessonSkill managedLessonSkill = em.find(LessonSkill.class, lessonSkill.getId());
+            Lesson managedLesson = em.find(Lesson.class, lesson.getId());
+            Chapter chapter = managedLesson.getChapterEntity();
+            em.remove(managedLessonSkill);
+            em.remove(managedLessonSkill.getSkill());
+            em.remove(managedLesson);
+            em.remove(chapter);
+            em.remove(chapter.getBook());
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource(
+        {
+            "listening-exercises, listeningExercises, question",
+            "speaking-exercises, speakingExercises, prompt",
+            "reading-exercises, readingExercises, passage",
+            "writing-exercises, writingExercises, prompt",
+        }
+    )
+    void keepsTheExercisesWrittenThroughTheApiInTheirLesson(String path, String collection, String textField) throws Exception {
+        Map<String, Object> exercise = new HashMap<>();
+        exercise.put(textField, "created");
+        exercise.put("lessonSkill", Map.of("id", lessonSkill.getId()));
+
+        String created = restMockMvc
+            .perform(post("/api/" + path).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(exercise)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        Long id = objectMapper.readTree(created).get("id").asLong();
+
+        restMockMvc
+            .perform(get("/api/lessons/{id}/detail", lesson.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$." + collection + "[*].id").value(contains(id.intValue())));
+
+        // A full update carries the lesson skill, not the lesson
+        exercise.put("id", id);
+        exercise.put(textField, "updated");
+        restMockMvc
+            .perform(
+                put("/api/" + path + "/{id}", id)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(exercise))
+            )
+            .andExpect(status().isOk());
+
+        restMockMvc
+            .perform(get("/api/lessons/{id}/detail", lesson.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$." + collection + "[*].id").value(contains(id.intValue())))
+            .andExpect(jsonPath("$." + collection + "[0]." + textField).value("updated"));
+    }
+}
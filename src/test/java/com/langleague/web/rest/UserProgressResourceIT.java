@@ -0,0 +1,122 @@
+package com.langleague.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.langleague.IntegrationTest;
+import com.langleague.domain.AppUser;
+import com.langleague.domain.Book;
+import com.langleague.domain.Chapter;
+import com.langleague.domain.Lesson;
+import com.langleague.domain.User;
+import com.langleague.repository.AppUserRepository;
+import com.langleague.security.AuthoritiesConstants;
+import com.langleague.service.dto.UserProgressBatchDTO;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the batch sync of the {@link UserProgressResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+@Transactional
+class UserProgressResourceIT {
+
+    private static final String OWNER = "batch-owner";
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager em;
+
+    private Long ownerId;
+
+    private Long otherId;
+
+    private Long lessonId;
+
+    @BeforeEach
+    public void init() {
+        cacheManager.getCache(AppUserRepository.APP_USER_IDS_BY_LOGIN_CACHE).clear();
+        ownerId = createAppUser(OWNER).getId();
+        otherId = createAppUser("batch-other").getId();
+        Book book = new Book().title("Book");
+        em.persist(book);
+        Chapter chapter = new Chapter().title("Chapter").orderIndex(1).book(book);
+        em.persist(chapter);
+        Lesson lesson = new Lesson();
+        lesson.setTitle("Lesson");
+        lesson.setChapterEntity(chapter);
+        em.persist(lesson);
+        em.flush();
+        lessonId = lesson.getId();
+    }
+
+    @Test
+    @WithMockUser(username = OWNER, authorities = AuthoritiesConstants.STAFF)
+    void syncsTheProgressOfTheCurrentUser() throws Exception {
+        syncProgress(null).andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(1));
+        syncProgress(ownerId).andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = OWNER, authorities = AuthoritiesConstants.STAFF)
+    void forbidsSyncingTheProgressOfAnotherUser() throws Exception {
+        syncProgress(otherId).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "batch-admin", authorities = AuthoritiesConstants.ADMIN)
+    void letsAnAdminSyncTheProgressOfAnotherUser() throws Exception {
+        syncProgress(otherId).andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(1));
+    }
+
+    private ResultActions syncProgress(Long appUserId) throws Exception {
+        UserProgressBatchDTO.Item item = new UserProgressBatchDTO.Item();
+        item.setLessonId(lessonId);
+        item.setPercent(40);
+        item.setClientTimestamp(Instant.now());
+        UserProgressBatchDTO batch = new UserProgressBatchDTO();
+        batch.setAppUserId(appUserId);
+        batch.setItems(List.of(item));
+        return restMockMvc.perform(
+            post("/api/user-progresses/batch").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(batch))
+        );
+    }
+
+    private AppUser createAppUser(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail(login + "@localhost");
+        user.setLangKey("en");
+        em.persist(user);
+        AppUser appUser = new AppUser();
+        appUser.setDisplayName(login);
+        appUser.setUser(user);
+        em.persist(appUser);
+        return appUser;
+    }
+}